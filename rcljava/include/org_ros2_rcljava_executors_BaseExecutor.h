@@ -47,6 +47,15 @@ JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetInit(
 JNIEXPORT void
 JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeDisposeWaitSet(JNIEnv *, jclass, jlong);
 
+/*
+ * Class:     org_ros2_rcljava_executors_BaseExecutor
+ * Method:    nativeWaitSetResize
+ * Signature: (JIIIIII)V
+ */
+JNIEXPORT void
+JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetResize(
+  JNIEnv *, jclass, jlong, jint, jint, jint, jint, jint, jint);
+
 /*
  * Class:     org_ros2_rcljava_executors_BaseExecutor
  * Method:    nativeWaitSetClear
@@ -55,6 +64,15 @@ JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeDisposeWaitSet(JNIEnv
 JNIEXPORT void
 JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetClear(JNIEnv *, jclass, jlong);
 
+/*
+ * Class:     org_ros2_rcljava_executors_BaseExecutor
+ * Method:    nativeWaitSetAddGuardCondition
+ * Signature: (JJ)V
+ */
+JNIEXPORT void
+JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddGuardCondition(
+  JNIEnv *, jclass, jlong, jlong);
+
 /*
  * Class:     org_ros2_rcljava_executors_BaseExecutor
  * Method:    nativeWaitSetAddSubscription
@@ -75,10 +93,11 @@ JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWait(JNIEnv *, jclass
 /*
  * Class:     org_ros2_rcljava_executors_BaseExecutor
  * Method:    nativeTake
- * Signature: (JLjava/lang/Class;)Lorg/ros2/rcljava/interfaces/MessageDefinition;
+ * Signature: (JJJJLorg/ros2/rcljava/interfaces/MessageDefinition;)Lorg/ros2/rcljava/interfaces/MessageDefinition;
  */
 JNIEXPORT jobject
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeTake(JNIEnv *, jclass, jlong, jclass);
+JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeTake(
+  JNIEnv *, jclass, jlong, jlong, jlong, jlong, jobject);
 
 /*
  * Class:     org_ros2_rcljava_executors_BaseExecutor
@@ -154,48 +173,12 @@ JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddEvent(
 
 /*
  * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetSubscriptionIsReady
- * Signature: (JJ)Z
- */
-JNIEXPORT jboolean
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetSubscriptionIsReady(
-  JNIEnv *, jclass, jlong, jlong);
-
-/*
- * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetTimerIsReady
- * Signature: (JJ)Z
+ * Method:    nativeWaitSetGetReadyEntities
+ * Signature: (J[J[J)V
  */
-JNIEXPORT jboolean
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetTimerIsReady(
-  JNIEnv *, jclass, jlong, jlong);
-
-/*
- * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetEventIsReady
- * Signature: (JJ)Z
- */
-JNIEXPORT jboolean
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetEventIsReady(
-  JNIEnv *, jclass, jlong, jlong);
-
-/*
- * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetServiceIsReady
- * Signature: (JJ)Z
- */
-JNIEXPORT jboolean
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetServiceIsReady(
-  JNIEnv *, jclass, jlong, jlong);
-
-/*
- * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetClientIsReady
- * Signature: (JJ)Z
- */
-JNIEXPORT jboolean
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetClientIsReady(
-  JNIEnv *, jclass, jlong, jlong);
+JNIEXPORT void
+JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetGetReadyEntities(
+  JNIEnv *, jclass, jlong, jlongArray, jlongArray);
 
 #ifdef __cplusplus
 }
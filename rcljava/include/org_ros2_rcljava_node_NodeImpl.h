@@ -51,11 +51,11 @@ JNICALL Java_org_ros2_rcljava_node_NodeImpl_nativeCreatePublisherHandle(
 /*
  * Class:     org_ros2_rcljava_node_NodeImpl
  * Method:    nativeCreateSubscriptionHandle
- * Signature: (JLjava/lang/Class;Ljava/lang/String;J)J
+ * Signature: (JLjava/lang/Class;Ljava/lang/String;JZ)J
  */
 JNIEXPORT jlong
 JNICALL Java_org_ros2_rcljava_node_NodeImpl_nativeCreateSubscriptionHandle(
-  JNIEnv *, jclass, jlong, jclass, jstring, jlong);
+  JNIEnv *, jclass, jlong, jclass, jstring, jlong, jboolean);
 
 /*
  * Class:     org_ros2_rcljava_node_NodeImpl
@@ -23,11 +23,65 @@ extern "C" {
 /*
  * Class:     org_ros2_rcljava_publisher_PublisherImpl
  * Method:    nativePublish
- * Signature: (JJLorg/ros2/rcljava/interfaces/MessageDefinition;)V
+ * Signature: (JJJLorg/ros2/rcljava/interfaces/MessageDefinition;)V
  */
 JNIEXPORT void
 JNICALL Java_org_ros2_rcljava_publisher_PublisherImpl_nativePublish(
-  JNIEnv *, jclass, jlong, jlong, jobject);
+  JNIEnv *, jclass, jlong, jlong, jlong, jobject);
+
+/*
+ * Class:     org_ros2_rcljava_publisher_PublisherImpl
+ * Method:    nativePublishBatch
+ * Signature: (JJJ[Lorg/ros2/rcljava/interfaces/MessageDefinition;)V
+ */
+JNIEXPORT void
+JNICALL Java_org_ros2_rcljava_publisher_PublisherImpl_nativePublishBatch(
+  JNIEnv *, jclass, jlong, jlong, jlong, jobjectArray);
+
+/*
+ * Class:     org_ros2_rcljava_publisher_PublisherImpl
+ * Method:    nativePublishSerialized
+ * Signature: (JLjava/nio/ByteBuffer;II)V
+ */
+JNIEXPORT void
+JNICALL Java_org_ros2_rcljava_publisher_PublisherImpl_nativePublishSerialized(
+  JNIEnv *, jclass, jlong, jobject, jint, jint);
+
+/*
+ * Class:     org_ros2_rcljava_publisher_PublisherImpl
+ * Method:    nativeCanLoanMessages
+ * Signature: (J)Z
+ */
+JNIEXPORT jboolean
+JNICALL Java_org_ros2_rcljava_publisher_PublisherImpl_nativeCanLoanMessages(
+  JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_ros2_rcljava_publisher_PublisherImpl
+ * Method:    nativeBorrowLoanedMessage
+ * Signature: (JJ)J
+ */
+JNIEXPORT jlong
+JNICALL Java_org_ros2_rcljava_publisher_PublisherImpl_nativeBorrowLoanedMessage(
+  JNIEnv *, jclass, jlong, jlong);
+
+/*
+ * Class:     org_ros2_rcljava_publisher_PublisherImpl
+ * Method:    nativePublishLoanedMessage
+ * Signature: (JJJLorg/ros2/rcljava/interfaces/MessageDefinition;)V
+ */
+JNIEXPORT void
+JNICALL Java_org_ros2_rcljava_publisher_PublisherImpl_nativePublishLoanedMessage(
+  JNIEnv *, jclass, jlong, jlong, jlong, jobject);
+
+/*
+ * Class:     org_ros2_rcljava_publisher_PublisherImpl
+ * Method:    nativeReturnLoanedMessage
+ * Signature: (JJ)V
+ */
+JNIEXPORT void
+JNICALL Java_org_ros2_rcljava_publisher_PublisherImpl_nativeReturnLoanedMessage(
+  JNIEnv *, jclass, jlong, jlong);
 
 /*
  * Class:     org_ros2_rcljava_publisher_PublisherImpl
@@ -47,6 +101,24 @@ JNIEXPORT jlong
 JNICALL Java_org_ros2_rcljava_publisher_PublisherImpl_nativeCreateEvent(
   JNIEnv *, jclass, jlong, jint);
 
+/*
+ * Class:     org_ros2_rcljava_publisher_PublisherImpl
+ * Method:    nativeGetTopicName
+ * Signature: (J)Ljava/lang/String;
+ */
+JNIEXPORT jstring
+JNICALL Java_org_ros2_rcljava_publisher_PublisherImpl_nativeGetTopicName(
+  JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_ros2_rcljava_publisher_PublisherImpl
+ * Method:    nativeGetSubscriptionCount
+ * Signature: (J)I
+ */
+JNIEXPORT jint
+JNICALL Java_org_ros2_rcljava_publisher_PublisherImpl_nativeGetSubscriptionCount(
+  JNIEnv *, jclass, jlong);
+
 #ifdef __cplusplus
 }
 #endif
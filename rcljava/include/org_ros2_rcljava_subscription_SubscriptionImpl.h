@@ -38,6 +38,15 @@ JNIEXPORT jlong
 JNICALL Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeCreateEvent(
   JNIEnv *, jclass, jlong, jint);
 
+/*
+ * Class:     org_ros2_rcljava_subscription_SubscriptionImpl
+ * Method:    nativeGetTopicName
+ * Signature: (J)Ljava/lang/String;
+ */
+JNIEXPORT jstring
+JNICALL Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeGetTopicName(
+  JNIEnv *, jclass, jlong);
+
 #ifdef __cplusplus
 }
 #endif
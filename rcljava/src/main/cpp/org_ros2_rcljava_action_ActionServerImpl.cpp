@@ -35,6 +35,7 @@ using rcljava_common::exceptions::rcljava_throw_exception;
 using rcljava_common::exceptions::rcljava_throw_rclexception;
 using rcljava_common::signatures::convert_from_java_signature;
 using rcljava_common::signatures::convert_to_java_signature;
+using rcljava_common::signatures::create_ros_message_signature;
 using rcljava_common::signatures::destroy_ros_message_signature;
 
 JNIEXPORT jintArray
@@ -190,17 +191,17 @@ Java_org_ros2_rcljava_action_ActionServerImpl_nativeCreateActionServer(
 
 #define RCLJAVA_ACTION_SERVER_TAKE_REQUEST(Type) \
   do { \
-    assert(jrequest_from_java_converter_handle != 0); \
+    assert(jrequest_creator_handle != 0); \
     assert(jrequest_to_java_converter_handle != 0); \
     rcl_action_server_t * action_server = reinterpret_cast<rcl_action_server_t *>( \
       action_server_handle); \
-    convert_from_java_signature convert_from_java = \
-      reinterpret_cast<convert_from_java_signature>(jrequest_from_java_converter_handle); \
+    create_ros_message_signature create_ros_message = \
+      reinterpret_cast<create_ros_message_signature>(jrequest_creator_handle); \
     convert_to_java_signature convert_to_java = \
       reinterpret_cast<convert_to_java_signature>(jrequest_to_java_converter_handle); \
     destroy_ros_message_signature destroy_ros_message = \
       reinterpret_cast<destroy_ros_message_signature>(jrequest_destructor_handle); \
-    void * taken_msg = convert_from_java(jrequest_msg, nullptr); \
+    void * taken_msg = create_ros_message(); \
     rmw_request_id_t header; \
     rcl_ret_t ret = rcl_action_take_ ## Type ## _request(action_server, &header, taken_msg); \
     if (ret != RCL_RET_OK && ret != RCL_RET_ACTION_SERVER_TAKE_FAILED) { \
@@ -212,7 +213,7 @@ Java_org_ros2_rcljava_action_ActionServerImpl_nativeCreateActionServer(
       return nullptr; \
     } \
     if (RCL_RET_OK == ret) { \
-      convert_to_java(taken_msg, jrequest_msg); \
+      convert_to_java(env, taken_msg, jrequest_msg); \
       destroy_ros_message(taken_msg); \
       jobject jheader = rcljava::convert_rmw_request_id_to_java(env, &header); \
       return jheader; \
@@ -230,7 +231,7 @@ Java_org_ros2_rcljava_action_ActionServerImpl_nativeCreateActionServer(
       action_server_handle); \
     convert_from_java_signature convert_from_java = \
       reinterpret_cast<convert_from_java_signature>(jresponse_from_java_converter_handle); \
-    void * response_msg = convert_from_java(jresponse_msg, nullptr); \
+    void * response_msg = convert_from_java(env, jresponse_msg, nullptr); \
     rmw_request_id_t * request_id = rcljava::convert_rmw_request_id_from_java(env, jrequest_id); \
     rcl_ret_t ret = rcl_action_send_ ## Type ## _response( \
       action_server, request_id, response_msg); \
@@ -248,7 +249,7 @@ Java_org_ros2_rcljava_action_ActionServerImpl_nativeCreateActionServer(
 
 JNIEXPORT jobject
 JNICALL Java_org_ros2_rcljava_action_ActionServerImpl_nativeTakeGoalRequest(
-  JNIEnv * env, jclass, jlong action_server_handle, jlong jrequest_from_java_converter_handle,
+  JNIEnv * env, jclass, jlong action_server_handle, jlong jrequest_creator_handle,
   jlong jrequest_to_java_converter_handle, jlong jrequest_destructor_handle, jobject jrequest_msg)
 {
   RCLJAVA_ACTION_SERVER_TAKE_REQUEST(goal);
@@ -256,7 +257,7 @@ JNICALL Java_org_ros2_rcljava_action_ActionServerImpl_nativeTakeGoalRequest(
 
 JNIEXPORT jobject
 JNICALL Java_org_ros2_rcljava_action_ActionServerImpl_nativeTakeCancelRequest(
-  JNIEnv * env, jclass, jlong action_server_handle, jlong jrequest_from_java_converter_handle,
+  JNIEnv * env, jclass, jlong action_server_handle, jlong jrequest_creator_handle,
   jlong jrequest_to_java_converter_handle, jlong jrequest_destructor_handle, jobject jrequest_msg)
 {
   RCLJAVA_ACTION_SERVER_TAKE_REQUEST(cancel);
@@ -264,7 +265,7 @@ JNICALL Java_org_ros2_rcljava_action_ActionServerImpl_nativeTakeCancelRequest(
 
 JNIEXPORT jobject
 JNICALL Java_org_ros2_rcljava_action_ActionServerImpl_nativeTakeResultRequest(
-  JNIEnv * env, jclass, jlong action_server_handle, jlong jrequest_from_java_converter_handle,
+  JNIEnv * env, jclass, jlong action_server_handle, jlong jrequest_creator_handle,
   jlong jrequest_to_java_converter_handle, jlong jrequest_destructor_handle, jobject jrequest_msg)
 {
   RCLJAVA_ACTION_SERVER_TAKE_REQUEST(result);
@@ -321,7 +322,7 @@ JNICALL Java_org_ros2_rcljava_action_ActionServerImpl_nativeProcessCancelRequest
     reinterpret_cast<destroy_ros_message_signature>(jrequest_destructor_handle);
 
   rcl_action_cancel_request_t * request_msg = reinterpret_cast<rcl_action_cancel_request_t *>(
-    request_convert_from_java(jrequest_msg, nullptr));
+    request_convert_from_java(env, jrequest_msg, nullptr));
   rcl_action_cancel_response_t response_msg = rcl_action_get_zero_initialized_cancel_response();
 
   rcl_ret_t ret = rcl_action_process_cancel_request(
@@ -335,12 +336,12 @@ JNICALL Java_org_ros2_rcljava_action_ActionServerImpl_nativeProcessCancelRequest
     return;
   }
 
-  response_convert_to_java(&response_msg, jresponse_msg);
+  response_convert_to_java(env, &response_msg, jresponse_msg);
 }
 
 JNIEXPORT jboolean
 JNICALL Java_org_ros2_rcljava_action_ActionServerImpl_nativeCheckGoalExists(
-  JNIEnv *, jclass,
+  JNIEnv * env, jclass,
   jlong jaction_server,
   jobject jgoal_info,
   jlong jgoal_info_from_java_converter_handle,
@@ -357,7 +358,7 @@ JNICALL Java_org_ros2_rcljava_action_ActionServerImpl_nativeCheckGoalExists(
     reinterpret_cast<destroy_ros_message_signature>(jgoal_info_destructor_handle);
 
   rcl_action_goal_info_t * goal_info =
-    reinterpret_cast<rcl_action_goal_info_t *>(convert_from_java(jgoal_info, nullptr));
+    reinterpret_cast<rcl_action_goal_info_t *>(convert_from_java(env, jgoal_info, nullptr));
   bool exists = rcl_action_server_goal_exists(action_server, goal_info);
   destroy_ros_message(goal_info);
 
@@ -405,7 +406,7 @@ JNICALL Java_org_ros2_rcljava_action_ActionServerImpl_nativePublishFeedbackMessa
   auto * action_server = reinterpret_cast<rcl_action_server_t *>(jaction_server);
   auto destroy_feedback = reinterpret_cast<destroy_ros_message_signature>(jfeedback_destroy);
   auto from_java_feedback = reinterpret_cast<convert_from_java_signature>(jfeedback_from_java);
-  void * feedback = from_java_feedback(jfeedback_msg, nullptr);
+  void * feedback = from_java_feedback(env, jfeedback_msg, nullptr);
   auto destroy_feedback_scope_exit = rcpputils::make_scope_exit(
     [feedback, destroy_feedback]() {destroy_feedback(feedback);});
   RCLJAVA_COMMON_CHECK_FOR_EXCEPTION(env);
@@ -459,7 +460,7 @@ JNICALL Java_org_ros2_rcljava_action_ActionServerImpl_nativeExpireGoals(
     RCLJAVA_COMMON_THROW_FROM_RCL(env, ret, "Failed to expire goals");
     if (num_expired) {
       auto goal_info_to_java = reinterpret_cast<convert_to_java_signature>(jgoal_info_to_java);
-      goal_info_to_java(&expired_goal, jgoal_info);
+      goal_info_to_java(env, &expired_goal, jgoal_info);
       env->CallVoidMethod(jaccept, jaccept_mid, jgoal_info);
       RCLJAVA_COMMON_CHECK_FOR_EXCEPTION(env);
     }
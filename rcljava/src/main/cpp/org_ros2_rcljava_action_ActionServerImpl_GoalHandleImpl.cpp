@@ -47,7 +47,7 @@ JNICALL Java_org_ros2_rcljava_action_ActionServerImpl_00024GoalHandleImpl_native
     reinterpret_cast<destroy_ros_message_signature>(jgoal_info_destructor_handle);
 
   rcl_action_goal_info_t * goal_info_message =
-    reinterpret_cast<rcl_action_goal_info_t *>(convert_from_java(jgoal_info_message, nullptr));
+    reinterpret_cast<rcl_action_goal_info_t *>(convert_from_java(env, jgoal_info_message, nullptr));
 
   rcl_action_goal_handle_t * goal_handle = rcl_action_accept_new_goal(
     action_server, goal_info_message);
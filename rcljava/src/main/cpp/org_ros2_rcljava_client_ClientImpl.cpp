@@ -49,7 +49,7 @@ Java_org_ros2_rcljava_client_ClientImpl_nativeSendClientRequest(
   convert_from_java_signature convert_from_java =
     reinterpret_cast<convert_from_java_signature>(jrequest_from_java_converter_handle);
 
-  void * request_msg = convert_from_java(jrequest_msg, nullptr);
+  void * request_msg = convert_from_java(env, jrequest_msg, nullptr);
 
   int64_t sequence_number;
   rcl_ret_t ret = rcl_send_request(client, request_msg, &sequence_number);
@@ -19,6 +19,7 @@
 #include <string>
 
 #include "rcl/error_handling.h"
+#include "rcl/guard_condition.h"
 #include "rcl/node.h"
 #include "rcl/rcl.h"
 #include "rcl/timer.h"
@@ -33,9 +34,11 @@
 
 #include "./convert.hpp"
 
+using rcljava_common::exceptions::rcljava_throw_exception;
 using rcljava_common::exceptions::rcljava_throw_rclexception;
 using rcljava_common::signatures::convert_from_java_signature;
 using rcljava_common::signatures::convert_to_java_signature;
+using rcljava_common::signatures::create_ros_message_signature;
 using rcljava_common::signatures::destroy_ros_message_signature;
 
 JNIEXPORT jlong JNICALL
@@ -73,8 +76,27 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeDisposeWaitSet(
   rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
 
   rcl_ret_t ret = rcl_wait_set_fini(wait_set);
+  free(wait_set);
   if (ret != RCL_RET_OK) {
-    std::string msg = "Failed to destroy timer: " + std::string(rcl_get_error_string().str);
+    std::string msg = "Failed to destroy wait set: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
+}
+
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetResize(
+  JNIEnv * env, jclass, jlong wait_set_handle, jint number_of_subscriptions,
+  jint number_of_guard_conditions, jint number_of_timers, jint number_of_clients,
+  jint number_of_services, jint number_of_events)
+{
+  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
+
+  rcl_ret_t ret = rcl_wait_set_resize(
+    wait_set, number_of_subscriptions, number_of_guard_conditions, number_of_timers,
+    number_of_clients, number_of_services, number_of_events);
+  if (ret != RCL_RET_OK) {
+    std::string msg = "Failed to resize wait set: " + std::string(rcl_get_error_string().str);
     rcl_reset_error();
     rcljava_throw_rclexception(env, ret, msg);
   }
@@ -94,6 +116,22 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetClear(
   }
 }
 
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddGuardCondition(
+  JNIEnv * env, jclass, jlong wait_set_handle, jlong guard_condition_handle)
+{
+  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
+  rcl_guard_condition_t * guard_condition =
+    reinterpret_cast<rcl_guard_condition_t *>(guard_condition_handle);
+  rcl_ret_t ret = rcl_wait_set_add_guard_condition(wait_set, guard_condition, nullptr);
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to add guard condition to wait set: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
+}
+
 JNIEXPORT void JNICALL
 Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddSubscription(
   JNIEnv * env, jclass, jlong wait_set_handle, jlong subscription_handle)
@@ -124,26 +162,59 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeWait(
 
 JNIEXPORT jobject JNICALL
 Java_org_ros2_rcljava_executors_BaseExecutor_nativeTake(
-  JNIEnv * env, jclass, jlong subscription_handle, jclass jmessage_class)
+  JNIEnv * env, jclass, jlong subscription_handle, jlong jmsg_creator_handle,
+  jlong jmsg_to_java_converter_handle, jlong jmsg_destructor_handle, jobject jexisting_msg)
 {
-  rcl_subscription_t * subscription = reinterpret_cast<rcl_subscription_t *>(subscription_handle);
+  assert(subscription_handle != 0);
+  assert(jmsg_creator_handle != 0);
+  assert(jmsg_to_java_converter_handle != 0);
+  assert(jmsg_destructor_handle != 0);
 
-  jmethodID jfrom_mid = env->GetStaticMethodID(jmessage_class, "getFromJavaConverter", "()J");
-  jlong jfrom_java_converter = env->CallStaticLongMethod(jmessage_class, jfrom_mid);
+  rcl_subscription_t * subscription = reinterpret_cast<rcl_subscription_t *>(subscription_handle);
 
-  jmethodID jdestructor_mid = env->GetStaticMethodID(jmessage_class, "getDestructor", "()J");
-  jlong jdestructor_handle = env->CallStaticLongMethod(jmessage_class, jdestructor_mid);
+  create_ros_message_signature create_ros_message =
+    reinterpret_cast<create_ros_message_signature>(jmsg_creator_handle);
 
-  convert_from_java_signature convert_from_java =
-    reinterpret_cast<convert_from_java_signature>(jfrom_java_converter);
+  convert_to_java_signature convert_to_java =
+    reinterpret_cast<convert_to_java_signature>(jmsg_to_java_converter_handle);
 
   destroy_ros_message_signature destroy_ros_message =
-    reinterpret_cast<destroy_ros_message_signature>(jdestructor_handle);
-
-  jmethodID jconstructor = env->GetMethodID(jmessage_class, "<init>", "()V");
-  jobject jmsg = env->NewObject(jmessage_class, jconstructor);
+    reinterpret_cast<destroy_ros_message_signature>(jmsg_destructor_handle);
+
+  // If the middleware can loan messages, convert straight from its memory, without a copy.
+  if (rcl_subscription_can_loan_messages(subscription)) {
+    void * loaned_msg = nullptr;
+    rcl_ret_t ret = rcl_take_loaned_message(subscription, &loaned_msg, nullptr, nullptr);
+
+    if (ret == RCL_RET_SUBSCRIPTION_TAKE_FAILED) {
+      return nullptr;
+    }
+
+    if (ret != RCL_RET_OK) {
+      std::string msg =
+        "Failed to take loaned message from a subscription: " +
+        std::string(rcl_get_error_string().str);
+      rcl_reset_error();
+      rcljava_throw_rclexception(env, ret, msg);
+      return nullptr;
+    }
+
+    jobject jtaken_msg = convert_to_java(env, loaned_msg, jexisting_msg);
+
+    ret = rcl_return_loaned_message_from_subscription(subscription, loaned_msg);
+    if (ret != RCL_RET_OK && !env->ExceptionCheck()) {
+      std::string msg =
+        "Failed to return loaned message to a subscription: " +
+        std::string(rcl_get_error_string().str);
+      rcl_reset_error();
+      rcljava_throw_rclexception(env, ret, msg);
+      return nullptr;
+    }
+    return jtaken_msg;
+  }
 
-  void * taken_msg = convert_from_java(jmsg, nullptr);
+  // Take into a native message and convert it to Java only once, after it was taken.
+  void * taken_msg = create_ros_message();
 
   rcl_ret_t ret = rcl_take(subscription, taken_msg, nullptr, nullptr);
 
@@ -158,13 +229,7 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeTake(
   }
 
   if (ret != RCL_RET_SUBSCRIPTION_TAKE_FAILED) {
-    jmethodID jto_mid = env->GetStaticMethodID(jmessage_class, "getToJavaConverter", "()J");
-    jlong jto_java_converter = env->CallStaticLongMethod(jmessage_class, jto_mid);
-
-    convert_to_java_signature convert_to_java =
-      reinterpret_cast<convert_to_java_signature>(jto_java_converter);
-
-    jobject jtaken_msg = convert_to_java(taken_msg, nullptr);
+    jobject jtaken_msg = convert_to_java(env, taken_msg, jexisting_msg);
     destroy_ros_message(taken_msg);
     return jtaken_msg;
   }
@@ -253,18 +318,18 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddEvent(
 
 JNIEXPORT jobject JNICALL
 Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeRequest(
-  JNIEnv * env, jclass, jlong service_handle, jlong jrequest_from_java_converter_handle,
+  JNIEnv * env, jclass, jlong service_handle, jlong jrequest_creator_handle,
   jlong jrequest_to_java_converter_handle, jlong jrequest_destructor_handle, jobject jrequest_msg)
 {
   assert(service_handle != 0);
-  assert(jrequest_from_java_converter_handle != 0);
+  assert(jrequest_creator_handle != 0);
   assert(jrequest_to_java_converter_handle != 0);
   assert(jrequest_msg != nullptr);
 
   rcl_service_t * service = reinterpret_cast<rcl_service_t *>(service_handle);
 
-  convert_from_java_signature convert_from_java =
-    reinterpret_cast<convert_from_java_signature>(jrequest_from_java_converter_handle);
+  create_ros_message_signature create_ros_message =
+    reinterpret_cast<create_ros_message_signature>(jrequest_creator_handle);
 
   convert_to_java_signature convert_to_java =
     reinterpret_cast<convert_to_java_signature>(jrequest_to_java_converter_handle);
@@ -272,7 +337,7 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeRequest(
   destroy_ros_message_signature destroy_ros_message =
     reinterpret_cast<destroy_ros_message_signature>(jrequest_destructor_handle);
 
-  void * taken_msg = convert_from_java(jrequest_msg, nullptr);
+  void * taken_msg = create_ros_message();
 
   rmw_request_id_t header;
 
@@ -289,7 +354,7 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeRequest(
   }
 
   if (ret != RCL_RET_SERVICE_TAKE_FAILED) {
-    convert_to_java(taken_msg, jrequest_msg);
+    convert_to_java(env, taken_msg, jrequest_msg);
     destroy_ros_message(taken_msg);
 
     jobject jheader = rcljava::convert_rmw_request_id_to_java(env, &header);
@@ -317,7 +382,7 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeSendServiceResponse(
   convert_from_java_signature convert_from_java =
     reinterpret_cast<convert_from_java_signature>(jresponse_from_java_converter_handle);
 
-  void * response_msg = convert_from_java(jresponse_msg, nullptr);
+  void * response_msg = convert_from_java(env, jresponse_msg, nullptr);
 
   rmw_request_id_t * request_id = rcljava::convert_rmw_request_id_from_java(env, jrequest_id);
 
@@ -337,20 +402,20 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeSendServiceResponse(
 
 JNIEXPORT jobject JNICALL
 Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeResponse(
-  JNIEnv * env, jclass, jlong client_handle, jlong jresponse_from_java_converter_handle,
+  JNIEnv * env, jclass, jlong client_handle, jlong jresponse_creator_handle,
   jlong jresponse_to_java_converter_handle, jlong jresponse_destructor_handle,
   jobject jresponse_msg)
 {
   assert(client_handle != 0);
-  assert(jresponse_from_java_converter_handle != 0);
+  assert(jresponse_creator_handle != 0);
   assert(jresponse_to_java_converter_handle != 0);
   assert(jresponse_destructor_handle != 0);
   assert(jresponse_msg != nullptr);
 
   rcl_client_t * client = reinterpret_cast<rcl_client_t *>(client_handle);
 
-  convert_from_java_signature convert_from_java =
-    reinterpret_cast<convert_from_java_signature>(jresponse_from_java_converter_handle);
+  create_ros_message_signature create_ros_message =
+    reinterpret_cast<create_ros_message_signature>(jresponse_creator_handle);
 
   convert_to_java_signature convert_to_java =
     reinterpret_cast<convert_to_java_signature>(jresponse_to_java_converter_handle);
@@ -358,7 +423,7 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeResponse(
   destroy_ros_message_signature destroy_ros_message =
     reinterpret_cast<destroy_ros_message_signature>(jresponse_destructor_handle);
 
-  void * taken_msg = convert_from_java(jresponse_msg, nullptr);
+  void * taken_msg = create_ros_message();
 
   rmw_request_id_t header;
 
@@ -375,7 +440,7 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeResponse(
   }
 
   if (ret != RCL_RET_CLIENT_TAKE_FAILED) {
-    convert_to_java(taken_msg, jresponse_msg);
+    convert_to_java(env, taken_msg, jresponse_msg);
     destroy_ros_message(taken_msg);
 
     jobject jheader = rcljava::convert_rmw_request_id_to_java(env, &header);
@@ -387,42 +452,102 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeResponse(
   return nullptr;
 }
 
-JNIEXPORT jboolean JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetSubscriptionIsReady(
-  JNIEnv *, jclass, jlong wait_set_handle, jlong index)
+template<typename T>
+static void
+set_ready_bits(T ** entities, size_t size, jlong * ready_entities, size_t & bit)
 {
-  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  return wait_set->subscriptions[index] != nullptr;
+  for (size_t i = 0; i < size; ++i, ++bit) {
+    if (entities[i] != nullptr) {
+      ready_entities[bit / 64] |= static_cast<jlong>(1) << (bit % 64);
+    }
+  }
 }
 
-JNIEXPORT jboolean JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetTimerIsReady(
-  JNIEnv *, jclass, jlong wait_set_handle, jlong index)
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetGetReadyEntities(
+  JNIEnv * env, jclass, jlong wait_set_handle, jlongArray jaction_server_handles,
+  jlongArray jready_entities)
 {
   rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  return wait_set->timers[index] != nullptr;
-}
 
-JNIEXPORT jboolean JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetEventIsReady(
-  JNIEnv *, jclass, jlong wait_set_handle, jlong index)
-{
-  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  return wait_set->events[index] != nullptr;
-}
+  jsize number_of_action_servers = env->GetArrayLength(jaction_server_handles);
+  jsize number_of_words = env->GetArrayLength(jready_entities);
 
-JNIEXPORT jboolean JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetServiceIsReady(
-  JNIEnv *, jclass, jlong wait_set_handle, jlong index)
-{
-  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  return wait_set->services[index] != nullptr;
-}
+  size_t number_of_bits = wait_set->size_of_subscriptions + wait_set->size_of_guard_conditions +
+    wait_set->size_of_timers + wait_set->size_of_clients + wait_set->size_of_services +
+    wait_set->size_of_events + 4 * static_cast<size_t>(number_of_action_servers);
+  if (number_of_bits > 64 * static_cast<size_t>(number_of_words)) {
+    rcljava_throw_exception(
+      env, "java/lang/IllegalArgumentException", "Readiness bitmap is too small for the wait set");
+    return;
+  }
+  if (number_of_words == 0) {
+    return;
+  }
 
-JNIEXPORT jboolean JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetClientIsReady(
-  JNIEnv *, jclass, jlong wait_set_handle, jlong index)
-{
-  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  return wait_set->clients[index] != nullptr;
+  // Write the bitmap in place. Nothing may call back into the JVM or block until the arrays
+  // are released, so errors are only thrown after that.
+  auto * ready_entities =
+    static_cast<jlong *>(env->GetPrimitiveArrayCritical(jready_entities, nullptr));
+  if (ready_entities == nullptr) {
+    return;
+  }
+  jlong * action_server_handles = nullptr;
+  if (number_of_action_servers > 0) {
+    action_server_handles =
+      static_cast<jlong *>(env->GetPrimitiveArrayCritical(jaction_server_handles, nullptr));
+    if (action_server_handles == nullptr) {
+      env->ReleasePrimitiveArrayCritical(jready_entities, ready_entities, JNI_ABORT);
+      return;
+    }
+  }
+
+  for (jsize i = 0; i < number_of_words; ++i) {
+    ready_entities[i] = 0;
+  }
+  size_t bit = 0;
+
+  // Same order as the fields of rcl_wait_set_t.
+  set_ready_bits(wait_set->subscriptions, wait_set->size_of_subscriptions, ready_entities, bit);
+  set_ready_bits(
+    wait_set->guard_conditions, wait_set->size_of_guard_conditions, ready_entities, bit);
+  set_ready_bits(wait_set->timers, wait_set->size_of_timers, ready_entities, bit);
+  set_ready_bits(wait_set->clients, wait_set->size_of_clients, ready_entities, bit);
+  set_ready_bits(wait_set->services, wait_set->size_of_services, ready_entities, bit);
+  set_ready_bits(wait_set->events, wait_set->size_of_events, ready_entities, bit);
+
+  rcl_ret_t ret = RCL_RET_OK;
+  for (jsize i = 0; i < number_of_action_servers; ++i) {
+    rcl_action_server_t * action_server =
+      reinterpret_cast<rcl_action_server_t *>(action_server_handles[i]);
+    if (action_server == nullptr) {
+      // Not added to the wait set, because it was still ready.
+      bit += 4;
+      continue;
+    }
+    bool ready[4] = {false, false, false, false};
+    ret = rcl_action_server_wait_set_get_entities_ready(
+      wait_set, action_server, &ready[0], &ready[1], &ready[2], &ready[3]);
+    if (ret != RCL_RET_OK) {
+      break;
+    }
+    // Goal request, cancel request, result request and goal expired, in that order.
+    for (size_t j = 0; j < 4; ++j, ++bit) {
+      if (ready[j]) {
+        ready_entities[bit / 64] |= static_cast<jlong>(1) << (bit % 64);
+      }
+    }
+  }
+
+  if (action_server_handles != nullptr) {
+    env->ReleasePrimitiveArrayCritical(jaction_server_handles, action_server_handles, JNI_ABORT);
+  }
+  env->ReleasePrimitiveArrayCritical(jready_entities, ready_entities, 0);
+
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to get action server ready entities: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
 }
@@ -0,0 +1,99 @@
+// Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+#include <jni.h>
+
+#include <cassert>
+#include <cstdlib>
+#include <string>
+
+#include "rcl/error_handling.h"
+#include "rcl/guard_condition.h"
+#include "rcl/rcl.h"
+
+#include "rcljava_common/exceptions.hpp"
+
+#include "org_ros2_rcljava_guardconditions_GuardConditionImpl.h"
+
+using rcljava_common::exceptions::rcljava_throw_exception;
+using rcljava_common::exceptions::rcljava_throw_rclexception;
+
+JNIEXPORT jlong JNICALL
+Java_org_ros2_rcljava_guardconditions_GuardConditionImpl_nativeCreateGuardCondition(
+  JNIEnv * env, jclass, jlong context_handle)
+{
+  rcl_context_t * context = reinterpret_cast<rcl_context_t *>(context_handle);
+
+  rcl_guard_condition_t * guard_condition =
+    static_cast<rcl_guard_condition_t *>(malloc(sizeof(rcl_guard_condition_t)));
+  if (guard_condition == nullptr) {
+    rcljava_throw_exception(
+      env, "java/lang/OutOfMemoryError", "Failed to allocate guard condition");
+    return 0;
+  }
+  *guard_condition = rcl_get_zero_initialized_guard_condition();
+
+  rcl_ret_t ret = rcl_guard_condition_init(
+    guard_condition, context, rcl_guard_condition_get_default_options());
+  if (ret != RCL_RET_OK) {
+    free(guard_condition);
+    std::string msg =
+      "Failed to create guard condition: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+    return 0;
+  }
+
+  return reinterpret_cast<jlong>(guard_condition);
+}
+
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_guardconditions_GuardConditionImpl_nativeTrigger(
+  JNIEnv * env, jclass, jlong guard_condition_handle)
+{
+  assert(guard_condition_handle != 0);
+
+  rcl_guard_condition_t * guard_condition =
+    reinterpret_cast<rcl_guard_condition_t *>(guard_condition_handle);
+
+  rcl_ret_t ret = rcl_trigger_guard_condition(guard_condition);
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to trigger guard condition: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
+}
+
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_guardconditions_GuardConditionImpl_nativeDispose(
+  JNIEnv * env, jclass, jlong guard_condition_handle)
+{
+  if (guard_condition_handle == 0) {
+    // everything is ok, already destroyed
+    return;
+  }
+
+  rcl_guard_condition_t * guard_condition =
+    reinterpret_cast<rcl_guard_condition_t *>(guard_condition_handle);
+
+  rcl_ret_t ret = rcl_guard_condition_fini(guard_condition);
+  free(guard_condition);
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to destroy guard condition: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
+}
@@ -89,7 +89,7 @@ Java_org_ros2_rcljava_node_NodeImpl_nativeCreatePublisherHandle(
 JNIEXPORT jlong JNICALL
 Java_org_ros2_rcljava_node_NodeImpl_nativeCreateSubscriptionHandle(
   JNIEnv * env, jclass, jlong node_handle, jclass jmessage_class, jstring jtopic,
-  jlong qos_profile_handle)
+  jlong qos_profile_handle, jboolean jignore_local_publications)
 {
   jmethodID mid = env->GetStaticMethodID(jmessage_class, "getTypeSupport", "()J");
   jlong jts = env->CallStaticLongMethod(jmessage_class, mid);
@@ -111,6 +111,8 @@ Java_org_ros2_rcljava_node_NodeImpl_nativeCreateSubscriptionHandle(
 
   rmw_qos_profile_t * qos_profile = reinterpret_cast<rmw_qos_profile_t *>(qos_profile_handle);
   subscription_ops.qos = *qos_profile;
+  subscription_ops.rmw_subscription_options.ignore_local_publications =
+    jignore_local_publications == JNI_TRUE;
 
   rcl_ret_t ret = rcl_subscription_init(subscription, node, ts, topic.c_str(), &subscription_ops);
 
@@ -24,6 +24,7 @@
 #include "rcl/node.h"
 #include "rcl/rcl.h"
 #include "rmw/rmw.h"
+#include "rmw/serialized_message.h"
 
 #include "rcljava_common/exceptions.hpp"
 #include "rcljava_common/signatures.hpp"
@@ -37,19 +38,15 @@ using rcljava_common::signatures::destroy_ros_message_signature;
 
 JNIEXPORT void JNICALL
 Java_org_ros2_rcljava_publisher_PublisherImpl_nativePublish(
-  JNIEnv * env, jclass, jlong publisher_handle, jlong jmsg_destructor_handle, jobject jmsg)
+  JNIEnv * env, jclass, jlong publisher_handle, jlong jmsg_from_java_converter_handle,
+  jlong jmsg_destructor_handle, jobject jmsg)
 {
   rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
 
-  jclass jmessage_class = env->GetObjectClass(jmsg);
-
-  jmethodID mid = env->GetStaticMethodID(jmessage_class, "getFromJavaConverter", "()J");
-  jlong jfrom_java_converter = env->CallStaticLongMethod(jmessage_class, mid);
-
   convert_from_java_signature convert_from_java =
-    reinterpret_cast<convert_from_java_signature>(jfrom_java_converter);
+    reinterpret_cast<convert_from_java_signature>(jmsg_from_java_converter_handle);
 
-  void * raw_ros_message = convert_from_java(jmsg, nullptr);
+  void * raw_ros_message = convert_from_java(env, jmsg, nullptr);
 
   rcl_ret_t ret = rcl_publish(publisher, raw_ros_message, nullptr);
 
@@ -64,6 +61,157 @@ Java_org_ros2_rcljava_publisher_PublisherImpl_nativePublish(
   }
 }
 
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_publisher_PublisherImpl_nativePublishBatch(
+  JNIEnv * env, jclass, jlong publisher_handle, jlong jmsg_from_java_converter_handle,
+  jlong jmsg_destructor_handle, jobjectArray jmsgs)
+{
+  rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
+
+  convert_from_java_signature convert_from_java =
+    reinterpret_cast<convert_from_java_signature>(jmsg_from_java_converter_handle);
+
+  destroy_ros_message_signature destroy_ros_message =
+    reinterpret_cast<destroy_ros_message_signature>(jmsg_destructor_handle);
+
+  jsize length = env->GetArrayLength(jmsgs);
+  for (jsize i = 0; i < length; ++i) {
+    // The local references created by the converter are released after every message, so
+    // batches of any size fit in the local reference table.
+    if (env->PushLocalFrame(16) != 0) {
+      return;
+    }
+    jobject jmsg = env->GetObjectArrayElement(jmsgs, i);
+    void * raw_ros_message = convert_from_java(env, jmsg, nullptr);
+    env->PopLocalFrame(nullptr);
+
+    if (env->ExceptionCheck()) {
+      destroy_ros_message(raw_ros_message);
+      return;
+    }
+
+    rcl_ret_t ret = rcl_publish(publisher, raw_ros_message, nullptr);
+    destroy_ros_message(raw_ros_message);
+
+    if (ret != RCL_RET_OK) {
+      std::string msg = "Failed to publish: " + std::string(rcl_get_error_string().str);
+      rcl_reset_error();
+      rcljava_throw_rclexception(env, ret, msg);
+      return;
+    }
+  }
+}
+
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_publisher_PublisherImpl_nativePublishSerialized(
+  JNIEnv * env, jclass, jlong publisher_handle, jobject jbuffer, jint position, jint length)
+{
+  rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
+
+  auto * data = static_cast<uint8_t *>(env->GetDirectBufferAddress(jbuffer));
+  if (data == nullptr) {
+    rcljava_throw_exception(
+      env, "java/lang/IllegalArgumentException", "passed buffer is not a direct buffer");
+    return;
+  }
+
+  // The serialized message only borrows the memory of the buffer, so it must not be finalized.
+  rmw_serialized_message_t serialized_message = rmw_get_zero_initialized_serialized_message();
+  serialized_message.buffer = data + position;
+  serialized_message.buffer_length = static_cast<size_t>(length);
+  serialized_message.buffer_capacity = static_cast<size_t>(length);
+  serialized_message.allocator = rcutils_get_default_allocator();
+
+  rcl_ret_t ret = rcl_publish_serialized_message(publisher, &serialized_message, nullptr);
+
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to publish serialized message: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
+}
+
+JNIEXPORT jboolean JNICALL
+Java_org_ros2_rcljava_publisher_PublisherImpl_nativeCanLoanMessages(
+  JNIEnv *, jclass, jlong publisher_handle)
+{
+  rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
+  return rcl_publisher_can_loan_messages(publisher) ? JNI_TRUE : JNI_FALSE;
+}
+
+JNIEXPORT jlong JNICALL
+Java_org_ros2_rcljava_publisher_PublisherImpl_nativeBorrowLoanedMessage(
+  JNIEnv * env, jclass, jlong publisher_handle, jlong jts_handle)
+{
+  rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
+
+  rosidl_message_type_support_t * ts =
+    reinterpret_cast<rosidl_message_type_support_t *>(jts_handle);
+
+  void * loaned_message = nullptr;
+  rcl_ret_t ret = rcl_borrow_loaned_message(publisher, ts, &loaned_message);
+
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to borrow loaned message: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+    return 0;
+  }
+
+  return reinterpret_cast<jlong>(loaned_message);
+}
+
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_publisher_PublisherImpl_nativePublishLoanedMessage(
+  JNIEnv * env, jclass, jlong publisher_handle, jlong jmsg_from_java_converter_handle,
+  jlong loaned_message_handle, jobject jmsg)
+{
+  rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
+
+  convert_from_java_signature convert_from_java =
+    reinterpret_cast<convert_from_java_signature>(jmsg_from_java_converter_handle);
+
+  void * loaned_message = reinterpret_cast<void *>(loaned_message_handle);
+
+  // Convert straight into the loaned memory, the middleware takes it back when publishing.
+  convert_from_java(env, jmsg, loaned_message);
+
+  if (env->ExceptionCheck()) {
+    rcl_return_loaned_message_from_publisher(publisher, loaned_message);
+    rcl_reset_error();
+    return;
+  }
+
+  rcl_ret_t ret = rcl_publish_loaned_message(publisher, loaned_message, nullptr);
+
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to publish loaned message: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
+}
+
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_publisher_PublisherImpl_nativeReturnLoanedMessage(
+  JNIEnv * env, jclass, jlong publisher_handle, jlong loaned_message_handle)
+{
+  rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
+
+  void * loaned_message = reinterpret_cast<void *>(loaned_message_handle);
+
+  rcl_ret_t ret = rcl_return_loaned_message_from_publisher(publisher, loaned_message);
+
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to return loaned message: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
+}
+
 JNIEXPORT void JNICALL
 Java_org_ros2_rcljava_publisher_PublisherImpl_nativeDispose(
   JNIEnv * env, jclass, jlong node_handle, jlong publisher_handle)
@@ -120,3 +268,38 @@ Java_org_ros2_rcljava_publisher_PublisherImpl_nativeCreateEvent(
   }
   return reinterpret_cast<jlong>(event);
 }
+
+JNIEXPORT jstring JNICALL
+Java_org_ros2_rcljava_publisher_PublisherImpl_nativeGetTopicName(
+  JNIEnv * env, jclass, jlong publisher_handle)
+{
+  rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
+  const char * topic_name = rcl_publisher_get_topic_name(publisher);
+  if (topic_name == nullptr) {
+    std::string msg = "Failed to get topic name: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_exception(env, "java/lang/IllegalStateException", msg);
+    return nullptr;
+  }
+  return env->NewStringUTF(topic_name);
+}
+
+JNIEXPORT jint JNICALL
+Java_org_ros2_rcljava_publisher_PublisherImpl_nativeGetSubscriptionCount(
+  JNIEnv * env, jclass, jlong publisher_handle)
+{
+  rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
+
+  size_t subscription_count = 0;
+  rcl_ret_t ret = rcl_publisher_get_subscription_count(publisher, &subscription_count);
+
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to get subscription count: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+    return 0;
+  }
+
+  return static_cast<jint>(subscription_count);
+}
@@ -0,0 +1,122 @@
+// Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+#include <jni.h>
+
+#include <cassert>
+#include <cstdlib>
+#include <string>
+
+#include "rcl/error_handling.h"
+#include "rcl/rcl.h"
+#include "rcutils/allocator.h"
+#include "rmw/rmw.h"
+#include "rmw/serialized_message.h"
+
+#include "rcljava_common/exceptions.hpp"
+
+#include "org_ros2_rcljava_subscription_SerializedSubscriptionImpl.h"
+
+using rcljava_common::exceptions::rcljava_throw_exception;
+using rcljava_common::exceptions::rcljava_throw_rclexception;
+
+JNIEXPORT jlong JNICALL
+Java_org_ros2_rcljava_subscription_SerializedSubscriptionImpl_nativeCreateSerializedMessage(
+  JNIEnv * env, jclass)
+{
+  auto * serialized_message =
+    static_cast<rmw_serialized_message_t *>(malloc(sizeof(rmw_serialized_message_t)));
+  if (!serialized_message) {
+    rcljava_throw_exception(
+      env, "java/lang/OutOfMemoryError", "failed to allocate rmw_serialized_message_t");
+    return 0;
+  }
+  *serialized_message = rmw_get_zero_initialized_serialized_message();
+  rcutils_allocator_t allocator = rcutils_get_default_allocator();
+  rcl_ret_t ret = rmw_serialized_message_init(serialized_message, 0, &allocator);
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to create serialized message: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+    free(serialized_message);
+    return 0;
+  }
+  return reinterpret_cast<jlong>(serialized_message);
+}
+
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_subscription_SerializedSubscriptionImpl_nativeDisposeSerializedMessage(
+  JNIEnv * env, jclass, jlong serialized_message_handle)
+{
+  if (serialized_message_handle == 0) {
+    // everything is ok, already destroyed
+    return;
+  }
+
+  auto * serialized_message = reinterpret_cast<rmw_serialized_message_t *>(
+    serialized_message_handle);
+
+  rcl_ret_t ret = rmw_serialized_message_fini(serialized_message);
+  free(serialized_message);
+
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to destroy serialized message: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
+}
+
+JNIEXPORT jint JNICALL
+Java_org_ros2_rcljava_subscription_SerializedSubscriptionImpl_nativeTakeSerialized(
+  JNIEnv * env, jclass, jlong subscription_handle, jlong serialized_message_handle,
+  jobjectArray jbuffer_holder)
+{
+  assert(subscription_handle != 0);
+  assert(serialized_message_handle != 0);
+
+  auto * subscription = reinterpret_cast<rcl_subscription_t *>(subscription_handle);
+  auto * serialized_message = reinterpret_cast<rmw_serialized_message_t *>(
+    serialized_message_handle);
+
+  rcl_ret_t ret = rcl_take_serialized_message(subscription, serialized_message, nullptr, nullptr);
+
+  if (ret == RCL_RET_SUBSCRIPTION_TAKE_FAILED) {
+    return -1;
+  }
+
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to take serialized message: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+    return -1;
+  }
+
+  // Only wrap the memory of the serialized message again if the middleware reallocated it.
+  jlong capacity = static_cast<jlong>(serialized_message->buffer_capacity);
+  jobject jbuffer = env->GetObjectArrayElement(jbuffer_holder, 0);
+  if (jbuffer == nullptr ||
+    env->GetDirectBufferAddress(jbuffer) != serialized_message->buffer ||
+    env->GetDirectBufferCapacity(jbuffer) != capacity)
+  {
+    env->DeleteLocalRef(jbuffer);
+    jbuffer = env->NewDirectByteBuffer(serialized_message->buffer, capacity);
+    env->SetObjectArrayElement(jbuffer_holder, 0, jbuffer);
+  }
+  env->DeleteLocalRef(jbuffer);
+
+  return static_cast<jint>(serialized_message->buffer_length);
+}
@@ -91,3 +91,18 @@ JNICALL Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeCreateEvent(
   }
   return reinterpret_cast<jlong>(event);
 }
+
+JNIEXPORT jstring
+JNICALL Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeGetTopicName(
+  JNIEnv * env, jclass, jlong subscription_handle)
+{
+  auto * subscription = reinterpret_cast<rcl_subscription_t *>(subscription_handle);
+  const char * topic_name = rcl_subscription_get_topic_name(subscription);
+  if (topic_name == nullptr) {
+    std::string msg = "Failed to get topic name: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_exception(env, "java/lang/IllegalStateException", msg);
+    return nullptr;
+  }
+  return env->NewStringUTF(topic_name);
+}
@@ -390,6 +390,10 @@ public final class RCLJava {
   }
 
   public static synchronized void shutdown() {
+    if (globalExecutor != null) {
+      // Wake up anyone blocked spinning the global executor.
+      globalExecutor.cancel();
+    }
     cleanup();
     if (RCLJava.defaultContext != null) {
       RCLJava.defaultContext.dispose();
@@ -17,6 +17,7 @@ package org.ros2.rcljava.action;
 
 import java.util.Collection;
 
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.interfaces.ActionDefinition;
 
@@ -59,6 +60,26 @@ public interface ActionServer<T extends ActionDefinition> extends Disposable {
    */
   boolean isReady(long waitSetHandle);
 
+  /**
+   * Set which entities of the action server are ready, as already read from the wait set by
+   * the executor.
+   *
+   * @param isGoalRequestReady true if a goal request is ready.
+   * @param isCancelRequestReady true if a cancel request is ready.
+   * @param isResultRequestReady true if a result request is ready.
+   * @param isGoalExpired true if a goal expired.
+   *
+   * @return true if at least one entity is ready, false otherwise.
+   */
+  boolean setReadyEntities(
+    boolean isGoalRequestReady, boolean isCancelRequestReady, boolean isResultRequestReady,
+    boolean isGoalExpired);
+
+  /**
+   * @return The callback group this action server belongs to.
+   */
+  CallbackGroup getCallbackGroup();
+
   /**
    * Execute any entities that are ready in the underlying wait set.
    */
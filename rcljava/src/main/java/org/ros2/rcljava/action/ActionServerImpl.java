@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.common.JNIUtils;
 import org.ros2.rcljava.consumers.Consumer;
 import org.ros2.rcljava.interfaces.MessageDefinition;
@@ -223,8 +224,9 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
   private final GoalCallback goalCallback;
   private final CancelCallback<T> cancelCallback;
   private final Consumer<ActionServerGoalHandle<T>> acceptedCallback;
+  private final CallbackGroup callbackGroup;
 
-  private boolean[] readyEntities;
+  private final boolean[] readyEntities = new boolean[4];
 
   private Map<List<Byte>, GoalHandleImpl> goalHandles;
   private Map<List<Byte>, List<RMWRequestId>> goalRequests;
@@ -258,6 +260,7 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
    * @param goalCallback Callback triggered when a new goal request is received.
    * @param cancelCallback Callback triggered when a new cancel request is received.
    * @param acceptedCallback Callback triggered when a new goal is accepted.
+   * @param callbackGroup The callback group this action server belongs to.
    */
   public ActionServerImpl(
       final WeakReference<Node> nodeReference,
@@ -265,7 +268,8 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
       final String actionName,
       final GoalCallback<? extends GoalRequestDefinition<T>> goalCallback,
       final CancelCallback<T> cancelCallback,
-      final Consumer<ActionServerGoalHandle<T>> acceptedCallback) throws IllegalArgumentException {
+      final Consumer<ActionServerGoalHandle<T>> acceptedCallback,
+      final CallbackGroup callbackGroup) throws IllegalArgumentException {
     this.nodeReference = nodeReference;
     try {
       this.actionTypeInstance = actionType.getDeclaredConstructor().newInstance();
@@ -276,6 +280,7 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
     this.goalCallback = goalCallback;
     this.cancelCallback = cancelCallback;
     this.acceptedCallback = acceptedCallback;
+    this.callbackGroup = callbackGroup;
 
     this.goalHandles = new HashMap<List<Byte>, GoalHandleImpl>();
     this.goalRequests = new HashMap<List<Byte>, List<RMWRequestId>>();
@@ -331,13 +336,22 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
    * {@inheritDoc}
    */
   public boolean isReady(long waitSetHandle) {
-    this.readyEntities = nativeGetReadyEntities(this.handle, waitSetHandle);
-    for (boolean isReady : this.readyEntities) {
-      if (isReady) {
-        return true;
-      }
-    }
-    return false;
+    boolean[] ready = nativeGetReadyEntities(this.handle, waitSetHandle);
+    return this.setReadyEntities(ready[0], ready[1], ready[2], ready[3]);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean setReadyEntities(
+    boolean isGoalRequestReady, boolean isCancelRequestReady, boolean isResultRequestReady,
+    boolean isGoalExpired)
+  {
+    this.readyEntities[0] = isGoalRequestReady;
+    this.readyEntities[1] = isCancelRequestReady;
+    this.readyEntities[2] = isResultRequestReady;
+    this.readyEntities[3] = isGoalExpired;
+    return isGoalRequestReady || isCancelRequestReady || isResultRequestReady || isGoalExpired;
   }
 
   @SuppressWarnings("unchecked")
@@ -436,21 +450,21 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
 
   private static native RMWRequestId nativeTakeGoalRequest(
     long actionServerHandle,
-    long requestFromJavaConverterHandle,
+    long requestCreatorHandle,
     long requestToJavaConverterHandle,
     long requestDestructorHandle,
     MessageDefinition requestMessage);
 
   private static native RMWRequestId nativeTakeCancelRequest(
     long actionServerHandle,
-    long requestFromJavaConverterHandle,
+    long requestCreatorHandle,
     long requestToJavaConverterHandle,
     long requestDestructorHandle,
     MessageDefinition requestMessage);
 
   private static native RMWRequestId nativeTakeResultRequest(
     long actionServerHandle,
-    long requestFromJavaConverterHandle,
+    long requestCreatorHandle,
     long requestToJavaConverterHandle,
     long requestDestructorHandle,
     MessageDefinition requestMessage);
@@ -617,6 +631,13 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroup getCallbackGroup() {
+    return this.callbackGroup;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -626,7 +647,7 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
       GoalResponseDefinition<T> responseMessage = newResponseUnchecked();
 
       if (requestMessage != null && responseMessage != null) {
-        long requestFromJavaConverterHandle = requestMessage.getFromJavaConverterInstance();
+        long requestCreatorHandle = requestMessage.getCreatorInstance();
         long requestToJavaConverterHandle = requestMessage.getToJavaConverterInstance();
         long requestDestructorHandle = requestMessage.getDestructorInstance();
         long responseFromJavaConverterHandle = responseMessage.getFromJavaConverterInstance();
@@ -635,7 +656,7 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
         RMWRequestId rmwRequestId =
           nativeTakeGoalRequest(
             this.handle,
-            requestFromJavaConverterHandle, requestToJavaConverterHandle, requestDestructorHandle,
+            requestCreatorHandle, requestToJavaConverterHandle, requestDestructorHandle,
             requestMessage);
         if (rmwRequestId != null) {
           ActionServerGoalHandle<T> goalHandle = this.executeGoalRequest(
@@ -651,7 +672,7 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
       action_msgs.srv.CancelGoal_Request requestMessage = new action_msgs.srv.CancelGoal_Request();
       action_msgs.srv.CancelGoal_Response responseMessage = new action_msgs.srv.CancelGoal_Response();
 
-      long requestFromJavaConverterHandle = requestMessage.getFromJavaConverterInstance();
+      long requestCreatorHandle = requestMessage.getCreatorInstance();
       long requestToJavaConverterHandle = requestMessage.getToJavaConverterInstance();
       long requestDestructorHandle = requestMessage.getDestructorInstance();
       long responseFromJavaConverterHandle = responseMessage.getFromJavaConverterInstance();
@@ -661,12 +682,12 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
       RMWRequestId rmwRequestId =
         nativeTakeCancelRequest(
           this.handle,
-          requestFromJavaConverterHandle, requestToJavaConverterHandle, requestDestructorHandle,
+          requestCreatorHandle, requestToJavaConverterHandle, requestDestructorHandle,
           requestMessage);
       if (rmwRequestId != null) {
         nativeProcessCancelRequest(
           this.handle,
-          requestFromJavaConverterHandle,
+          requestMessage.getFromJavaConverterInstance(),
           requestDestructorHandle,
           responseToJavaConverterHandle,
           requestMessage,
@@ -682,14 +703,14 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
       ResultRequestDefinition<T> requestMessage = createResultRequestUnchecked();
 
       if (requestMessage != null) {
-        long requestFromJavaConverterHandle = requestMessage.getFromJavaConverterInstance();
+        long requestCreatorHandle = requestMessage.getCreatorInstance();
         long requestToJavaConverterHandle = requestMessage.getToJavaConverterInstance();
         long requestDestructorHandle = requestMessage.getDestructorInstance();
 
         RMWRequestId rmwRequestId =
           nativeTakeResultRequest(
             this.handle,
-            requestFromJavaConverterHandle, requestToJavaConverterHandle, requestDestructorHandle,
+            requestCreatorHandle, requestToJavaConverterHandle, requestDestructorHandle,
             requestMessage);
 
         if (rmwRequestId == null) {
@@ -0,0 +1,55 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.callbackgroups;
+
+/**
+ * A group of callbacks that controls which callbacks an executor may run concurrently.
+ * A CallbackGroup must be created via @{link Node#createCallbackGroup(CallbackGroupType)}
+ */
+public interface CallbackGroup {
+  /**
+   * @return The type of this callback group.
+   */
+  CallbackGroupType getType();
+
+  /**
+   * @return The priority of the callbacks of this group. Executors using
+   *   @{link org.ros2.rcljava.executors.SchedulingPolicy#PRIORITY} execute ready callbacks of
+   *   groups with a higher priority first.
+   */
+  int getPriority();
+
+  /**
+   * Check if a callback of this group may be executed right now.
+   *
+   * @return false if this group is mutually exclusive and one of its callbacks is being
+   *   executed, true otherwise.
+   */
+  boolean canBeTakenFrom();
+
+  /**
+   * Claim this group for the execution of one callback.
+   *
+   * @return true if the callback can be executed, false if this group is mutually exclusive
+   *   and one of its callbacks is already being executed.
+   */
+  boolean tryAcquire();
+
+  /**
+   * Release a claim previously obtained with @{link #tryAcquire()}.
+   */
+  void release();
+}
@@ -0,0 +1,79 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.callbackgroups;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.callbackgroups.CallbackGroupType;
+
+public class CallbackGroupImpl implements CallbackGroup {
+  private final CallbackGroupType type;
+
+  private final int priority;
+
+  private final AtomicBoolean canBeTakenFrom;
+
+  public CallbackGroupImpl(final CallbackGroupType type) {
+    this(type, 0);
+  }
+
+  public CallbackGroupImpl(final CallbackGroupType type, final int priority) {
+    this.type = type;
+    this.priority = priority;
+    this.canBeTakenFrom = new AtomicBoolean(true);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroupType getType() {
+    return this.type;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final int getPriority() {
+    return this.priority;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final boolean canBeTakenFrom() {
+    return this.canBeTakenFrom.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final boolean tryAcquire() {
+    if (this.type == CallbackGroupType.REENTRANT) {
+      return true;
+    }
+    return this.canBeTakenFrom.compareAndSet(true, false);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void release() {
+    if (this.type == CallbackGroupType.MUTUALLY_EXCLUSIVE) {
+      this.canBeTakenFrom.set(true);
+    }
+  }
+}
@@ -0,0 +1,29 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.callbackgroups;
+
+public enum CallbackGroupType {
+  /**
+   * At most one callback of the group is executed at any given time.
+   */
+  MUTUALLY_EXCLUSIVE,
+
+  /**
+   * Callbacks of the group may be executed concurrently, including multiple invocations of
+   * the same callback.
+   */
+  REENTRANT;
+}
@@ -18,6 +18,8 @@ package org.ros2.rcljava.client;
 import java.time.Duration;
 import java.util.concurrent.Future;
 
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.common.MessageHandles;
 import org.ros2.rcljava.concurrent.RCLFuture;
 import org.ros2.rcljava.consumers.Consumer;
 import org.ros2.rcljava.interfaces.Disposable;
@@ -28,6 +30,16 @@ import org.ros2.rcljava.service.RMWRequestId;
 public interface Client<T extends ServiceDefinition> extends Disposable {
   ServiceDefinition getServiceDefinition();
 
+  /**
+   * @return The native handles of the response type of this client.
+   */
+  MessageHandles getResponseHandles();
+
+  /**
+   * @return The callback group this client belongs to.
+   */
+  CallbackGroup getCallbackGroup();
+
   <U extends MessageDefinition> void handleResponse(RMWRequestId header, U response);
 
   <U extends MessageDefinition, V extends MessageDefinition> ResponseFuture<V> asyncSendRequest(
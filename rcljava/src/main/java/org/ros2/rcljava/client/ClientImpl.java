@@ -28,7 +28,9 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.common.JNIUtils;
+import org.ros2.rcljava.common.MessageHandles;
 import org.ros2.rcljava.consumers.Consumer;
 import org.ros2.rcljava.interfaces.MessageDefinition;
 import org.ros2.rcljava.interfaces.ServiceDefinition;
@@ -75,23 +77,47 @@ public class ClientImpl<T extends ServiceDefinition> implements Client<T> {
 
   private final ServiceDefinition serviceDefinition;
 
+  private final MessageHandles requestHandles;
+
+  private final MessageHandles responseHandles;
+
+  private final CallbackGroup callbackGroup;
+
   public ClientImpl(
     final ServiceDefinition serviceDefinition,
     final WeakReference<Node> nodeReference,
     final long handle,
-    final String serviceName)
+    final String serviceName,
+    final CallbackGroup callbackGroup)
   {
     this.nodeReference = nodeReference;
     this.handle = handle;
     this.serviceName = serviceName;
     this.serviceDefinition = serviceDefinition;
+    this.requestHandles = MessageHandles.of(serviceDefinition.newRequestInstance());
+    this.responseHandles = MessageHandles.of(serviceDefinition.newResponseInstance());
     this.pendingRequests = new HashMap<Long, PendingRequest>();
+    this.callbackGroup = callbackGroup;
   }
 
   public ServiceDefinition getServiceDefinition() {
     return this.serviceDefinition;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public final MessageHandles getResponseHandles() {
+    return this.responseHandles;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroup getCallbackGroup() {
+    return this.callbackGroup;
+  }
+
   public final <U extends MessageDefinition, V extends MessageDefinition> ResponseFuture<V>
   asyncSendRequest(final U request) {
     return asyncSendRequest(request, new Consumer<Future<V>>() {
@@ -103,8 +129,8 @@ public class ClientImpl<T extends ServiceDefinition> implements Client<T> {
   asyncSendRequest(final U request, final Consumer<Future<V>> callback) {
     synchronized (pendingRequests) {
       long sequenceNumber = nativeSendClientRequest(
-          handle, request.getFromJavaConverterInstance(),
-          request.getDestructorInstance(), request);
+          handle, this.requestHandles.getFromJavaConverter(),
+          this.requestHandles.getDestructor(), request);
       ResponseFuture<V> future = new ResponseFuture<V>(sequenceNumber);
 
       PendingRequest entry = new PendingRequest(callback, future, System.nanoTime());
@@ -0,0 +1,135 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free queue that any number of threads can offer to and poll from.
+ *
+ * Each slot has a sequence number that tells whether it is free for the producer or filled
+ * for the consumer of a given position, so producers and consumers only contend on the
+ * position counters (Dmitry Vyukov's bounded MPMC queue).
+ *
+ * @param <E> The type of the queued elements.
+ */
+public final class BoundedQueue<E> {
+  private final int capacity;
+
+  private final AtomicReferenceArray<E> elements;
+
+  private final AtomicLongArray sequences;
+
+  private final AtomicLong enqueuePosition = new AtomicLong();
+
+  private final AtomicLong dequeuePosition = new AtomicLong();
+
+  /**
+   * Constructor.
+   *
+   * @param capacity The maximum number of queued elements. Must be positive.
+   */
+  public BoundedQueue(final int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.elements = new AtomicReferenceArray<E>(capacity);
+    this.sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      this.sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Add an element at the tail of the queue, unless it is full.
+   *
+   * @param element The element to add. Must not be null.
+   * @return true if the element was added, false if the queue was full.
+   */
+  public boolean offer(final E element) {
+    if (element == null) {
+      throw new NullPointerException("Can't queue a null element");
+    }
+    long position = this.enqueuePosition.get();
+    int index;
+    while (true) {
+      index = (int) (position % this.capacity);
+      long difference = this.sequences.get(index) - position;
+      if (difference == 0) {
+        if (this.enqueuePosition.compareAndSet(position, position + 1)) {
+          break;
+        }
+        position = this.enqueuePosition.get();
+      } else if (difference < 0) {
+        // The slot still holds the element of the previous lap
+        return false;
+      } else {
+        position = this.enqueuePosition.get();
+      }
+    }
+    this.elements.lazySet(index, element);
+    this.sequences.set(index, position + 1);
+    return true;
+  }
+
+  /**
+   * Remove the element at the head of the queue.
+   *
+   * @return The removed element, or null if the queue was empty.
+   */
+  public E poll() {
+    long position = this.dequeuePosition.get();
+    int index;
+    while (true) {
+      index = (int) (position % this.capacity);
+      long difference = this.sequences.get(index) - (position + 1);
+      if (difference == 0) {
+        if (this.dequeuePosition.compareAndSet(position, position + 1)) {
+          break;
+        }
+        position = this.dequeuePosition.get();
+      } else if (difference < 0) {
+        // The slot wasn't filled yet
+        return null;
+      } else {
+        position = this.dequeuePosition.get();
+      }
+    }
+    E element = this.elements.get(index);
+    this.elements.lazySet(index, null);
+    this.sequences.set(index, position + this.capacity);
+    return element;
+  }
+
+  /**
+   * @return The number of queued elements, which may be outdated as soon as it is returned.
+   */
+  public int size() {
+    long size = this.enqueuePosition.get() - this.dequeuePosition.get();
+    return (int) Math.max(0, Math.min(size, this.capacity));
+  }
+
+  public boolean isEmpty() {
+    return this.size() == 0;
+  }
+
+  public int capacity() {
+    return this.capacity;
+  }
+}
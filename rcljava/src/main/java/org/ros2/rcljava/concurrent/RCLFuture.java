@@ -17,6 +17,8 @@ package org.ros2.rcljava.concurrent;
 
 import java.lang.Deprecated;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -29,6 +31,7 @@ public class RCLFuture<V> implements Future<V> {
   private WeakReference<Node> nodeReference;
   private boolean done = false;
   private V value = null;
+  private List<Callback> doneCallbacks = new ArrayList<Callback>();
 
   public RCLFuture() {}
 
@@ -84,9 +87,43 @@ public class RCLFuture<V> implements Future<V> {
     return false;
   }
 
-  public final synchronized void set(final V value) {
-    this.value = value;
-    done = true;
-    this.notify();
+  public final void set(final V value) {
+    List<Callback> doneCallbacks;
+    synchronized (this) {
+      this.value = value;
+      done = true;
+      this.notify();
+      doneCallbacks = new ArrayList<Callback>(this.doneCallbacks);
+    }
+    for (Callback callback : doneCallbacks) {
+      callback.call();
+    }
+  }
+
+  /**
+   * Register a callback that is called once this future is done.
+   *
+   * The callback is called from the thread that completes the future, or immediately if the
+   * future is already done.
+   *
+   * @param callback The callback to register.
+   */
+  public final void addDoneCallback(final Callback callback) {
+    synchronized (this) {
+      if (!done) {
+        this.doneCallbacks.add(callback);
+        return;
+      }
+    }
+    callback.call();
+  }
+
+  /**
+   * Unregister a callback previously registered with @{link #addDoneCallback(Callback)}.
+   *
+   * @param callback The callback to unregister.
+   */
+  public final synchronized void removeDoneCallback(final Callback callback) {
+    this.doneCallbacks.remove(callback);
   }
 }
@@ -16,6 +16,7 @@
 package org.ros2.rcljava.contexts;
 
 import org.ros2.rcljava.interfaces.Disposable;
+import org.ros2.rcljava.intraprocess.IntraProcessManager;
 
 /**
  * Encapsulates the non-global state of a ROS init/shutdown cycle.
@@ -50,4 +51,10 @@ public interface Context extends Disposable {
    * return true if the Context is valid, false otherwise.
    */
   boolean isValid();
+
+  /**
+   * @return The manager that delivers messages between the nodes of this context that use
+   *     intra-process communication.
+   */
+  IntraProcessManager getIntraProcessManager();
 }
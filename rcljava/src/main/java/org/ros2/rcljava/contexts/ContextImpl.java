@@ -16,6 +16,7 @@
 package org.ros2.rcljava.contexts;
 
 import org.ros2.rcljava.common.JNIUtils;
+import org.ros2.rcljava.intraprocess.IntraProcessManager;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +41,8 @@ public class ContextImpl implements Context {
    */
   private long handle;
 
+  private final IntraProcessManager intraProcessManager;
+
   /**
    * Constructor.
    *
@@ -48,6 +51,7 @@ public class ContextImpl implements Context {
    */
   public ContextImpl(final long handle) {
     this.handle = handle;
+    this.intraProcessManager = new IntraProcessManager();
   }
 
   /**
@@ -127,4 +131,11 @@ public class ContextImpl implements Context {
   public final boolean isValid() {
     return nativeIsValid(this.handle);
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final IntraProcessManager getIntraProcessManager() {
+    return this.intraProcessManager;
+  }
 }
@@ -16,17 +16,56 @@
 package org.ros2.rcljava.executors;
 
 import org.ros2.rcljava.action.ActionServer;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.client.Client;
 import org.ros2.rcljava.events.EventHandler;
-import org.ros2.rcljava.subscription.Subscription;
+import org.ros2.rcljava.guardconditions.GuardCondition;
+import org.ros2.rcljava.interfaces.Disposable;
+import org.ros2.rcljava.subscription.SubscriptionBase;
 import org.ros2.rcljava.service.Service;
 import org.ros2.rcljava.timer.Timer;
 
 public class AnyExecutable {
   public Timer timer;
-  public Subscription subscription;
+  public SubscriptionBase subscription;
   public Service service;
   public Client client;
   public EventHandler eventHandler;
   public ActionServer actionServer;
+  public GuardCondition guardCondition;
+  public CallbackGroup callbackGroup;
+
+  /**
+   * @return The entity this executable was claimed for.
+   */
+  Disposable getEntity() {
+    if (this.timer != null) {
+      return this.timer;
+    } else if (this.subscription != null) {
+      return this.subscription;
+    } else if (this.service != null) {
+      return this.service;
+    } else if (this.client != null) {
+      return this.client;
+    } else if (this.eventHandler != null) {
+      return this.eventHandler;
+    } else if (this.actionServer != null) {
+      return this.actionServer;
+    }
+    return this.guardCondition;
+  }
+
+  /**
+   * Reset all the fields, so the instance can be reused for another executable.
+   */
+  void clear() {
+    this.timer = null;
+    this.subscription = null;
+    this.service = null;
+    this.client = null;
+    this.eventHandler = null;
+    this.actionServer = null;
+    this.guardCondition = null;
+    this.callbackGroup = null;
+  }
 }
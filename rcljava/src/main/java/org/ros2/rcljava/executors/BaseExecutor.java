@@ -17,36 +17,51 @@ package org.ros2.rcljava.executors;
 
 import java.lang.Math;
 import java.lang.SuppressWarnings;
-import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Collection;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
-
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.ros2.rcljava.RCLJava;
 import org.ros2.rcljava.action.ActionServer;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.callbackgroups.CallbackGroupType;
 import org.ros2.rcljava.client.Client;
 import org.ros2.rcljava.common.JNIUtils;
+import org.ros2.rcljava.common.MessageHandles;
+import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.concurrent.RCLFuture;
 import org.ros2.rcljava.events.EventHandler;
 import org.ros2.rcljava.executors.AnyExecutable;
 import org.ros2.rcljava.executors.Executor;
-import org.ros2.rcljava.interfaces.ActionDefinition;
+import org.ros2.rcljava.guardconditions.GuardCondition;
+import org.ros2.rcljava.guardconditions.GuardConditionImpl;
+import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.interfaces.MessageDefinition;
 import org.ros2.rcljava.interfaces.ServiceDefinition;
 import org.ros2.rcljava.node.ComposableNode;
+import org.ros2.rcljava.node.Node;
 import org.ros2.rcljava.publisher.Publisher;
 import org.ros2.rcljava.service.RMWRequestId;
 import org.ros2.rcljava.service.Service;
+import org.ros2.rcljava.subscription.BatchSubscription;
+import org.ros2.rcljava.subscription.SerializedSubscription;
 import org.ros2.rcljava.subscription.Subscription;
+import org.ros2.rcljava.subscription.SubscriptionBase;
 import org.ros2.rcljava.timer.Timer;
 
 public class BaseExecutor {
@@ -61,27 +76,586 @@ public class BaseExecutor {
     }
   }
 
-  private BlockingQueue<ComposableNode> nodes = new LinkedBlockingQueue<ComposableNode>();
+  /**
+   * Entities of one kind that are added to the wait set.
+   *
+   * Entities are stored in the same order they are added to the wait set, so the indices
+   * reported by rcl can be mapped back to the Java objects.
+   */
+  private static class WaitSetEntities<T extends Disposable> {
+    private final ArrayList<T> entities = new ArrayList<T>();
+    private final ArrayList<CallbackGroup> callbackGroups = new ArrayList<CallbackGroup>();
+    private final ArrayList<SchedulingStatistics> statistics =
+      new ArrayList<SchedulingStatistics>();
+    private boolean[] ready = new boolean[0];
+
+    /**
+     * The number of executables claimed by the executor when each entity became ready.
+     */
+    private long[] readySince = new long[0];
+
+    /**
+     * Where the next round-robin scan starts.
+     */
+    private int nextIndex;
+
+    /**
+     * The entities that were still ready when the entities were collected again, with the
+     * number of executables claimed when they became ready.
+     */
+    private final Map<Disposable, Long> previouslyReady = new HashMap<Disposable, Long>();
+
+    void clear() {
+      for (int i = 0; i < this.ready.length; ++i) {
+        if (this.ready[i]) {
+          this.previouslyReady.put(this.entities.get(i), this.readySince[i]);
+        }
+      }
+      this.entities.clear();
+      this.callbackGroups.clear();
+      this.statistics.clear();
+    }
+
+    void add(T entity, CallbackGroup callbackGroup) {
+      if (entity.getHandle() != 0) {
+        this.entities.add(entity);
+        this.callbackGroups.add(callbackGroup);
+      }
+    }
+
+    /**
+     * Finish collecting the entities, keeping the statistics of the ones that were already
+     * collected before.
+     */
+    void commit(
+      Map<Disposable, SchedulingStatistics> previousStatistics,
+      Map<Disposable, SchedulingStatistics> collectedStatistics)
+    {
+      for (T entity : this.entities) {
+        SchedulingStatistics entityStatistics = previousStatistics.get(entity);
+        if (entityStatistics == null) {
+          entityStatistics = new SchedulingStatistics();
+        }
+        collectedStatistics.put(entity, entityStatistics);
+        this.statistics.add(entityStatistics);
+      }
+      if (this.ready.length != this.entities.size()) {
+        this.ready = new boolean[this.entities.size()];
+        this.readySince = new long[this.entities.size()];
+      } else {
+        this.clearReady();
+      }
+      if (!this.previouslyReady.isEmpty()) {
+        for (int i = 0; i < this.entities.size(); ++i) {
+          Long readySince = this.previouslyReady.get(this.entities.get(i));
+          if (readySince != null) {
+            this.ready[i] = true;
+            this.readySince[i] = readySince;
+          }
+        }
+        this.previouslyReady.clear();
+      }
+      if (this.nextIndex >= this.entities.size()) {
+        this.nextIndex = 0;
+      }
+    }
+
+    int size() {
+      return this.entities.size();
+    }
+
+    T get(int index) {
+      return this.entities.get(index);
+    }
+
+    CallbackGroup getCallbackGroup(int index) {
+      return this.callbackGroups.get(index);
+    }
+
+    /**
+     * Mark an entity as ready if it was reported as ready by a wait.
+     *
+     * An entity stays ready until it is claimed, even if a later wait doesn't report it
+     * anymore: rcl_wait consumes the trigger of a guard condition when reporting it, so a
+     * guard condition whose callback group is busy would otherwise never be executed.
+     */
+    void setReady(int index, boolean isReady, long claimedCount) {
+      if (isReady && !this.ready[index]) {
+        this.ready[index] = true;
+        this.readySince[index] = claimedCount;
+      }
+    }
+
+    boolean isReady(int index) {
+      return this.ready[index];
+    }
+
+    void clearReady() {
+      Arrays.fill(this.ready, false);
+    }
+
+    /**
+     * Read the readiness of the entities from a bitmap filled by
+     * nativeWaitSetGetReadyEntities, starting at the given bit.
+     *
+     * The entities that were already ready weren't added to the wait set, so the bits of the
+     * other ones are consecutive.
+     *
+     * @see #setReady(int, boolean, long)
+     */
+    void setReady(long[] readyEntities, int offset, long claimedCount) {
+      int bit = offset;
+      for (int i = 0; i < this.ready.length; ++i) {
+        if (!this.ready[i]) {
+          this.setReady(i, isBitSet(readyEntities, bit++), claimedCount);
+        }
+      }
+    }
+
+    boolean hasDisposedEntities() {
+      for (int i = 0; i < this.entities.size(); ++i) {
+        if (this.entities.get(i).getHandle() == 0) {
+          return true;
+        }
+      }
+      return false;
+    }
 
-  private List<Map.Entry<Long, Subscription>> subscriptionHandles =
-      new ArrayList<Map.Entry<Long, Subscription>>();
+    /**
+     * Check if a ready entity has work to execute, besides being reported as ready by rcl.
+     */
+    boolean isExecutable(T entity) {
+      return true;
+    }
 
-  private List<Map.Entry<Long, Timer>> timerHandles = new ArrayList<Map.Entry<Long, Timer>>();
+    /**
+     * @return The highest priority of the ready entities that is lower than the given one, or
+     *     Long.MIN_VALUE if there is none.
+     */
+    long getHighestReadyPriority(long below) {
+      long highest = Long.MIN_VALUE;
+      for (int i = 0; i < this.ready.length; ++i) {
+        if (this.ready[i]) {
+          long priority = this.callbackGroups.get(i).getPriority();
+          if (priority < below && priority > highest) {
+            highest = priority;
+          }
+        }
+      }
+      return highest;
+    }
 
-  private List<Map.Entry<Long, Service>> serviceHandles = new ArrayList<Map.Entry<Long, Service>>();
+    /**
+     * Claim the next ready entity whose callback group can be acquired.
+     *
+     * @param executor The executor claiming the entity.
+     * @param roundRobin Whether to start scanning after the last claimed entity.
+     * @param anyPriority Whether to consider the entities of any priority.
+     * @param priority The priority of the entities to consider, unless anyPriority is set.
+     * @return The index of the claimed entity, or -1 if none could be claimed.
+     */
+    int claimNext(BaseExecutor executor, boolean roundRobin, boolean anyPriority, long priority) {
+      int size = this.entities.size();
+      int first = roundRobin ? this.nextIndex : 0;
+      for (int j = 0; j < size; ++j) {
+        int i = (first + j) % size;
+        if (!this.ready[i]
+          || (!anyPriority && this.callbackGroups.get(i).getPriority() != priority))
+        {
+          continue;
+        }
+        T entity = this.entities.get(i);
+        if (entity.getHandle() == 0 || !this.isExecutable(entity)) {
+          this.ready[i] = false;
+        } else if (!executor.claimsCallbackGroups
+          || executor.tryAcquire(entity, this.callbackGroups.get(i)))
+        {
+          this.ready[i] = false;
+          this.statistics.get(i).recordExecution(executor.claimedCount - this.readySince[i]);
+          executor.claimedCount++;
+          this.nextIndex = i + 1 < size ? i + 1 : 0;
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
 
-  private List<Map.Entry<Long, Client>> clientHandles = new ArrayList<Map.Entry<Long, Client>>();
+  private BlockingQueue<ComposableNode> nodes = new LinkedBlockingQueue<ComposableNode>();
 
-  private List<Map.Entry<Long, EventHandler>> eventHandles = new ArrayList<Map.Entry<Long, EventHandler>>();
+  /**
+   * Whether the timers of the nodes are added to the wait set, instead of being scheduled by
+   * the executor that uses this instance.
+   */
+  private final boolean waitsForTimers;
+
+  /**
+   * The single instance returned by getNextExecutable if the entities are static, or null if
+   * a new instance is returned every time.
+   */
+  private final AnyExecutable staticExecutable;
+
+  /**
+   * Whether getNextExecutable claims the callback groups of the executables it returns, or
+   * leaves it to the executor using this instance, see tryAcquire(AnyExecutable).
+   */
+  private final boolean claimsCallbackGroups;
+
+  /**
+   * Set by refresh() to collect the entities during the next call to waitForWork.
+   */
+  private volatile boolean refreshRequested;
+
+  /**
+   * Incremented every time a node is added to or removed from this executor.
+   */
+  private final AtomicLong nodesGeneration = new AtomicLong();
+
+  /**
+   * The value of nodesGeneration when the entities were last collected.
+   */
+  private long collectedNodesGeneration = -1;
+
+  /**
+   * The nodes whose entities were last collected, and their entities generation at that time.
+   */
+  private Node[] collectedNodes = new Node[0];
+
+  private long[] collectedEntitiesGenerations = new long[0];
+
+  private final WaitSetEntities<SubscriptionBase> subscriptions =
+    new WaitSetEntities<SubscriptionBase>();
+
+  private final WaitSetEntities<Timer> timers = new WaitSetEntities<Timer>() {
+    boolean isExecutable(Timer timer) {
+      return timer.isReady();
+    }
+  };
+
+  private final WaitSetEntities<Service> services = new WaitSetEntities<Service>();
+
+  private final WaitSetEntities<Client> clients = new WaitSetEntities<Client>();
+
+  private final WaitSetEntities<EventHandler> eventHandlers = new WaitSetEntities<EventHandler>();
+
+  private final WaitSetEntities<ActionServer> actionServers = new WaitSetEntities<ActionServer>();
+
+  private final WaitSetEntities<GuardCondition> guardConditions =
+    new WaitSetEntities<GuardCondition>();
+
+  /**
+   * The notify guard conditions of the collected nodes.
+   * They are only used to wake up the executor when the entities of a node change.
+   */
+  private final ArrayList<GuardCondition> notifyGuardConditions = new ArrayList<GuardCondition>();
+
+  /**
+   * The handles of the collected action servers, passed to nativeWaitSetGetReadyEntities.
+   */
+  private long[] actionServerHandles = new long[0];
+
+  /**
+   * Bitmap with one bit per entity in the wait set, followed by four bits per action server,
+   * reused across calls to waitForWork.
+   */
+  private long[] readyEntities = new long[0];
+
+  /**
+   * Triggered to wake up a thread waiting for work, e.g. when a node is added or removed, or
+   * when the executor is canceled.
+   * It is created together with the wait set and is always the first guard condition in it.
+   */
+  private GuardCondition interruptGuardCondition;
+
+  private final Object interruptGuardConditionMutex = new Object();
+
+  /**
+   * Cleared by cancel() to stop the spin loops.
+   */
+  private final AtomicBoolean spinning = new AtomicBoolean();
+
+  /**
+   * The number of rcl entities of each kind that the collected entities need in the wait set,
+   * including the ones used internally by action servers.
+   */
+  private int numberOfSubscriptions;
+  private int numberOfGuardConditions;
+  private int numberOfTimers;
+  private int numberOfClients;
+  private int numberOfServices;
+  private int numberOfEvents;
+
+  /**
+   * A pointer to the rcl_wait_set_t that is reused across calls to waitForWork.
+   */
+  private long waitSetHandle;
+
+  /**
+   * The context the wait set was initialized with.
+   */
+  private long waitSetContextHandle;
+
+  /**
+   * The sizes the wait set was initialized or last resized with.
+   */
+  private int waitSetSubscriptionsSize;
+  private int waitSetGuardConditionsSize;
+  private int waitSetTimersSize;
+  private int waitSetClientsSize;
+  private int waitSetServicesSize;
+  private int waitSetEventsSize;
+
+  /**
+   * Set by getNextExecutable when a ready entity was skipped because its mutually exclusive
+   * callback group was busy executing another callback, or because its previous executable
+   * is still being executed by the callback executor.
+   */
+  private boolean hasBlockedExecutables;
+
+  /**
+   * Incremented every time a mutually exclusive callback group or an executing entity is
+   * released, so a thread can tell whether a blocked entity may have become executable.
+   */
+  private long callbackGroupReleases;
+
+  /**
+   * The number of threads waiting for work while ready entities are blocked, which a release
+   * wakes up with the interrupt guard condition.
+   */
+  private int releaseWaiters;
+
+  private final Object callbackGroupReleasesMutex = new Object();
+
+  /**
+   * The maximum number of messages, requests or responses taken from a ready subscription,
+   * service or client before moving on to the next ready entity.
+   */
+  private volatile int takeBatchSize = 1;
+
+  private volatile SchedulingPolicy schedulingPolicy = SchedulingPolicy.IN_ORDER;
+
+  /**
+   * The number of executables claimed by getNextExecutable so far, used to measure how long
+   * ready entities wait for their turn.
+   */
+  private long claimedCount;
+
+  /**
+   * The scheduling statistics of the collected entities.
+   */
+  private volatile Map<Disposable, SchedulingStatistics> schedulingStatistics =
+    Collections.<Disposable, SchedulingStatistics>emptyMap();
+
+  /**
+   * Runs the claimed executables, or null to execute them on the spinning thread.
+   */
+  private volatile ExecutorService callbackExecutor;
+
+  /**
+   * The entities whose executable is being executed by the callback executor, so they aren't
+   * claimed again until it is done.
+   */
+  private final Set<Disposable> executingEntities =
+    Collections.newSetFromMap(new ConcurrentHashMap<Disposable, Boolean>());
+
+  /**
+   * Whether the entities of reentrant callback groups may be claimed again while their
+   * previous executable is still being executed by the callback executor.
+   */
+  private volatile boolean reentrantEntities;
+
+  /**
+   * Held while waiting for work and claiming executables, so only one thread at a time uses
+   * the wait set and the readiness of the entities.
+   */
+  private final Object waitMutex = new Object();
+
+  /**
+   * The number of executables being executed, so the wait set isn't destroyed under them.
+   */
+  private int executions;
+
+  private final Object executionsMutex = new Object();
+
+  /**
+   * The number of executables being executed by the current thread, which can't be waited for
+   * when a callback disposes its own executor.
+   */
+  private final ThreadLocal<int[]> threadExecutions = new ThreadLocal<int[]>() {
+    protected int[] initialValue() {
+      return new int[1];
+    }
+  };
 
-  private List<Map.Entry<Long, ActionServer>> actionServerHandles = new ArrayList<Map.Entry<Long, ActionServer>>();
+  public BaseExecutor() {
+    this(true, false);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param waitsForTimers Whether the timers of the nodes are added to the wait set. If not,
+   *     the executor using this instance has to schedule them itself.
+   * @param staticEntities Whether the entities of the nodes are expected to stay the same.
+   *     They are then only collected again when a node is added or removed, when a node
+   *     signals that its entities changed, or after refresh(), without checking every entity
+   *     for disposal before each wait. getNextExecutable then always returns the same
+   *     instance, so this instance may only be used by a single thread.
+   */
+  protected BaseExecutor(boolean waitsForTimers, boolean staticEntities) {
+    this(waitsForTimers, staticEntities, true);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param waitsForTimers Whether the timers of the nodes are added to the wait set.
+   * @param staticEntities Whether the entities of the nodes are expected to stay the same.
+   * @param claimsCallbackGroups Whether getNextExecutable claims the callback groups of the
+   *     executables it returns. If not, every ready entity is returned regardless of its
+   *     callback group, which has to be claimed with tryAcquire(AnyExecutable) before
+   *     executing it.
+   */
+  protected BaseExecutor(
+    boolean waitsForTimers, boolean staticEntities, boolean claimsCallbackGroups)
+  {
+    this.waitsForTimers = waitsForTimers;
+    this.staticExecutable = staticEntities ? new AnyExecutable() : null;
+    this.claimsCallbackGroups = claimsCallbackGroups;
+  }
 
   protected void addNode(ComposableNode node) {
     this.nodes.add(node);
+    this.nodesGeneration.incrementAndGet();
+    this.interrupt();
   }
 
   protected void removeNode(ComposableNode node) {
-    this.nodes.remove(node);
+    if (this.nodes.remove(node)) {
+      this.nodesGeneration.incrementAndGet();
+      this.interrupt();
+    }
+  }
+
+  /**
+   * Wake up a thread that is waiting for work, if any.
+   *
+   * This method can be called from any thread.
+   */
+  protected void interrupt() {
+    synchronized (this.interruptGuardConditionMutex) {
+      if (this.interruptGuardCondition != null) {
+        this.interruptGuardCondition.trigger();
+      }
+    }
+  }
+
+  /**
+   * Make the spin loops of this executor return as soon as possible.
+   *
+   * This method can be called from any thread.
+   */
+  protected void cancel() {
+    this.spinning.set(false);
+    this.interrupt();
+  }
+
+  /**
+   * Set how many messages, requests or responses are taken from a ready subscription, service
+   * or client each time it is executed.
+   *
+   * With a batch size of one, the wait set is waited on again after every message. Bigger
+   * batch sizes drain the entities until rcl has nothing left to take, which saves a wait set
+   * round trip per message, while still bounding how long other ready entities wait.
+   *
+   * @param takeBatchSize The maximum number of takes per execution. Must be positive.
+   */
+  protected void setTakeBatchSize(int takeBatchSize) {
+    if (takeBatchSize < 1) {
+      throw new IllegalArgumentException("The take batch size must be positive: " + takeBatchSize);
+    }
+    this.takeBatchSize = takeBatchSize;
+  }
+
+  protected int getTakeBatchSize() {
+    return this.takeBatchSize;
+  }
+
+  /**
+   * Set how the next callback to execute is picked among the ready ones.
+   *
+   * @param schedulingPolicy The scheduling policy. The default is
+   *     @{link SchedulingPolicy#IN_ORDER}.
+   */
+  protected void setSchedulingPolicy(SchedulingPolicy schedulingPolicy) {
+    if (schedulingPolicy == null) {
+      throw new IllegalArgumentException("The scheduling policy can't be null");
+    }
+    this.schedulingPolicy = schedulingPolicy;
+  }
+
+  protected SchedulingPolicy getSchedulingPolicy() {
+    return this.schedulingPolicy;
+  }
+
+  /**
+   * Get the scheduling statistics of an entity of the nodes of this executor.
+   *
+   * This method can be called from any thread.
+   *
+   * @param entity A subscription, timer, service, client, event handler, action server or
+   *     guard condition.
+   * @return The statistics of the entity, or null if the executor hasn't waited for it yet.
+   */
+  protected SchedulingStatistics getSchedulingStatistics(Disposable entity) {
+    return this.schedulingStatistics.get(entity);
+  }
+
+  /**
+   * Hand the claimed executables over to the given executor service instead of executing them
+   * on the spinning thread.
+   *
+   * An entity isn't claimed again until its previous executable is done, so the callbacks of
+   * an entity never overlap, unless reentrantEntities is set and the entity belongs to a
+   * reentrant callback group. This has to be called before spinning, and can't be combined
+   * with static entities.
+   *
+   * @param callbackExecutor The executor service that runs the executables.
+   * @param reentrantEntities Whether the callbacks of an entity of a reentrant callback group
+   *     may overlap.
+   */
+  protected void setCallbackExecutor(ExecutorService callbackExecutor, boolean reentrantEntities) {
+    if (this.staticExecutable != null) {
+      throw new IllegalStateException("Executables of static entities can't be handed over");
+    }
+    this.reentrantEntities = reentrantEntities;
+    this.callbackExecutor = callbackExecutor;
+  }
+
+  protected void setSpinning(boolean spinning) {
+    this.spinning.set(spinning);
+  }
+
+  protected boolean isSpinning() {
+    return this.spinning.get();
+  }
+
+  /**
+   * Destroy the wait set owned by this executor.
+   */
+  protected void dispose() {
+    synchronized (this.waitMutex) {
+      if (this.waitSetHandle != 0) {
+        nativeDisposeWaitSet(this.waitSetHandle);
+        this.waitSetHandle = 0;
+      }
+      synchronized (this.interruptGuardConditionMutex) {
+        if (this.interruptGuardCondition != null) {
+          this.interruptGuardCondition.dispose();
+          this.interruptGuardCondition = null;
+        }
+      }
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -92,6 +666,125 @@ public class BaseExecutor {
     subscription.executeCallback(message);
   }
 
+  /**
+   * @return true if a message was taken, false if the subscription had none.
+   */
+  private static boolean takeAndExecuteSubscriptionCallback(
+    Subscription subscription,
+    MessageDefinition existingMessage)
+  {
+    MessageHandles messageHandles = subscription.getMessageHandles();
+    MessageDefinition message = nativeTake(
+        subscription.getHandle(), messageHandles.getCreator(),
+        messageHandles.getToJavaConverter(), messageHandles.getDestructor(), existingMessage);
+    if (message == null) {
+      return false;
+    }
+    // Safety: nativeTake() will return the correct type here.
+    // We can't do much better here, as subscriptions are type erased.
+    executeSubscriptionCallbackUnchecked(subscription, message);
+    return true;
+  }
+
+  private static void takeAndExecuteSubscriptionCallbacks(
+    Subscription subscription,
+    MessageDefinition existingMessage,
+    int takeBatchSize)
+  {
+    for (int i = 0; i < takeBatchSize; ++i) {
+      if (!takeAndExecuteSubscriptionCallback(subscription, existingMessage)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Take up to the maximum batch size of a batch subscription and pass all the taken messages
+   * to its callback at once. Every message is taken into a new instance, since the callback
+   * gets them all together.
+   */
+  private static void takeAndExecuteBatchCallback(BatchSubscription subscription) {
+    MessageHandles messageHandles = subscription.getMessageHandles();
+    int maxBatchSize = subscription.getMaxBatchSize();
+    List<MessageDefinition> messages = new ArrayList<MessageDefinition>();
+    while (messages.size() < maxBatchSize) {
+      MessageDefinition message = nativeTake(
+          subscription.getHandle(), messageHandles.getCreator(),
+          messageHandles.getToJavaConverter(), messageHandles.getDestructor(), null);
+      if (message == null) {
+        break;
+      }
+      messages.add(message);
+    }
+    if (!messages.isEmpty()) {
+      executeBatchCallbackUnchecked(subscription, messages);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected static void executeBatchCallbackUnchecked(
+    BatchSubscription subscription,
+    List<MessageDefinition> messages)
+  {
+    subscription.executeBatchCallback(messages);
+  }
+
+  /**
+   * @return true if a request was taken, false if the service had none.
+   */
+  private static boolean takeAndExecuteServiceCallback(Service service) {
+    ServiceDefinition serviceDefinition = service.getServiceDefinition();
+    MessageDefinition requestMessage = serviceDefinition.newRequestInstance();
+    MessageDefinition responseMessage = serviceDefinition.newResponseInstance();
+
+    if (requestMessage == null || responseMessage == null) {
+      return false;
+    }
+
+    MessageHandles requestHandles = service.getRequestHandles();
+    MessageHandles responseHandles = service.getResponseHandles();
+
+    RMWRequestId rmwRequestId =
+      nativeTakeRequest(service.getHandle(), requestHandles.getCreator(),
+        requestHandles.getToJavaConverter(), requestHandles.getDestructor(),
+        requestMessage);
+    if (rmwRequestId == null) {
+      return false;
+    }
+    service.executeCallback(rmwRequestId, requestMessage, responseMessage);
+    nativeSendServiceResponse(
+      service.getHandle(), rmwRequestId,
+      responseHandles.getFromJavaConverter(), responseHandles.getDestructor(),
+      responseMessage);
+    return true;
+  }
+
+  /**
+   * @return true if a response was taken, false if the client had none.
+   */
+  private static boolean takeAndHandleClientResponse(Client client) {
+    ServiceDefinition serviceDefinition = client.getServiceDefinition();
+    MessageDefinition responseMessage = serviceDefinition.newResponseInstance();
+
+    if (responseMessage == null) {
+      return false;
+    }
+
+    MessageHandles responseHandles = client.getResponseHandles();
+
+    RMWRequestId rmwRequestId =
+        nativeTakeResponse(client.getHandle(), responseHandles.getCreator(),
+            responseHandles.getToJavaConverter(), responseHandles.getDestructor(),
+            responseMessage);
+    if (rmwRequestId == null) {
+      return false;
+    }
+    // Safety: nativeTakeResponse() will return the correct type here.
+    // We can't do much better here, as subscriptions are type erased.
+    clientHandleResponseUnchecked(client, rmwRequestId, responseMessage);
+    return true;
+  }
+
   @SuppressWarnings("unchecked")
   protected static void clientHandleResponseUnchecked(
     Client client,
@@ -102,332 +795,694 @@ public class BaseExecutor {
   }
 
   protected void executeAnyExecutable(AnyExecutable anyExecutable) {
+    int[] threadExecutions = this.threadExecutions.get();
+    synchronized (this.executionsMutex) {
+      this.executions++;
+    }
+    threadExecutions[0]++;
+    try {
+      this.executeAnyExecutableUnguarded(anyExecutable);
+    } finally {
+      this.release(anyExecutable);
+      threadExecutions[0]--;
+      synchronized (this.executionsMutex) {
+        this.executions--;
+        this.executionsMutex.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Wait until the executables being executed by other threads are done.
+   */
+  protected void waitForExecutions() {
+    int ownExecutions = this.threadExecutions.get()[0];
+    boolean interrupted = false;
+    synchronized (this.executionsMutex) {
+      while (this.executions > ownExecutions) {
+        try {
+          this.executionsMutex.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @return The lock held while waiting for work and claiming executables. An executor that
+   *     calls waitForNextExecutable, waitForWork or getNextExecutable from several threads
+   *     has to hold it around those calls, as the spin methods of this class do.
+   */
+  protected Object getWaitMutex() {
+    return this.waitMutex;
+  }
+
+  /**
+   * Execute an executable returned by getNextExecutable, either on the calling thread or on
+   * the callback executor if there is one.
+   */
+  protected void dispatchAnyExecutable(final AnyExecutable anyExecutable) {
+    ExecutorService callbackExecutor = this.callbackExecutor;
+    if (callbackExecutor == null) {
+      this.executeAnyExecutable(anyExecutable);
+      return;
+    }
+    try {
+      callbackExecutor.execute(new Runnable() {
+        public void run() {
+          BaseExecutor.this.executeAnyExecutable(anyExecutable);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // The callback executor was shut down while spinning.
+      this.discardAnyExecutable(anyExecutable);
+    }
+  }
+
+  /**
+   * Give up an executable returned by getNextExecutable without executing it, releasing its
+   * callback group.
+   */
+  protected void discardAnyExecutable(AnyExecutable anyExecutable) {
+    this.release(anyExecutable);
+  }
+
+  private void release(AnyExecutable anyExecutable) {
+    if (anyExecutable.callbackGroup != null) {
+      this.releaseCallbackGroup(anyExecutable.callbackGroup);
+    }
+    if (this.callbackExecutor != null && this.executingEntities.remove(anyExecutable.getEntity())) {
+      this.signalRelease();
+    }
+  }
+
+  private void executeAnyExecutableUnguarded(AnyExecutable anyExecutable) {
     if (anyExecutable.timer != null) {
-      anyExecutable.timer.callTimer();
+      // The timer was already called when it was claimed by getNextExecutable.
       anyExecutable.timer.executeCallback();
-      timerHandles.remove(anyExecutable.timer.getHandle());
     }
 
-    if (anyExecutable.subscription != null) {
-      MessageDefinition message = nativeTake(
-          anyExecutable.subscription.getHandle(), anyExecutable.subscription.getMessageType());
-      if (message != null) {
-        // Safety: nativeTake() will return the correct type here.
-        // We can't do much better here, as subscriptions are type erased.
-        executeSubscriptionCallbackUnchecked(anyExecutable.subscription, message);
+    int takeBatchSize = this.takeBatchSize;
+
+    if (anyExecutable.subscription instanceof SerializedSubscription) {
+      SerializedSubscription subscription = (SerializedSubscription) anyExecutable.subscription;
+      for (int i = 0; i < takeBatchSize; ++i) {
+        if (!subscription.takeAndExecuteCallback()) {
+          break;
+        }
+      }
+    } else if (anyExecutable.subscription instanceof BatchSubscription) {
+      takeAndExecuteBatchCallback((BatchSubscription) anyExecutable.subscription);
+    } else if (anyExecutable.subscription != null) {
+      Subscription subscription = (Subscription) anyExecutable.subscription;
+      MessageDefinition reusableMessage = subscription.getReusableMessage();
+      if (reusableMessage != null) {
+        // The same instance is taken into every time, so only one thread may use it at a time.
+        synchronized (reusableMessage) {
+          takeAndExecuteSubscriptionCallbacks(subscription, reusableMessage, takeBatchSize);
+        }
+      } else {
+        takeAndExecuteSubscriptionCallbacks(subscription, null, takeBatchSize);
       }
-      subscriptionHandles.remove(anyExecutable.subscription.getHandle());
     }
 
     if (anyExecutable.service != null) {
-      ServiceDefinition serviceDefinition = anyExecutable.service.getServiceDefinition();
-      MessageDefinition requestMessage = serviceDefinition.newRequestInstance();
-      MessageDefinition responseMessage = serviceDefinition.newResponseInstance();
-
-      if (requestMessage != null && responseMessage != null) {
-        long requestFromJavaConverterHandle = requestMessage.getFromJavaConverterInstance();
-        long requestToJavaConverterHandle = requestMessage.getToJavaConverterInstance();
-        long requestDestructorHandle = requestMessage.getDestructorInstance();
-        long responseFromJavaConverterHandle = responseMessage.getFromJavaConverterInstance();
-        long responseToJavaConverterHandle = responseMessage.getToJavaConverterInstance();
-        long responseDestructorHandle = responseMessage.getDestructorInstance();
-
-        RMWRequestId rmwRequestId =
-          nativeTakeRequest(anyExecutable.service.getHandle(), requestFromJavaConverterHandle,
-            requestToJavaConverterHandle, requestDestructorHandle, requestMessage);
-        if (rmwRequestId != null) {
-          anyExecutable.service.executeCallback(rmwRequestId, requestMessage, responseMessage);
-          nativeSendServiceResponse(
-            anyExecutable.service.getHandle(), rmwRequestId,
-            responseFromJavaConverterHandle, responseDestructorHandle, responseMessage);
+      for (int i = 0; i < takeBatchSize; ++i) {
+        if (!takeAndExecuteServiceCallback(anyExecutable.service)) {
+          break;
         }
       }
-      serviceHandles.remove(anyExecutable.service.getHandle());
     }
 
     if (anyExecutable.client != null) {
-      ServiceDefinition serviceDefinition = anyExecutable.client.getServiceDefinition();
-      MessageDefinition responseMessage = serviceDefinition.newResponseInstance();
-
-      if (responseMessage != null) {
-        long responseFromJavaConverterHandle = responseMessage.getFromJavaConverterInstance();
-        long responseToJavaConverterHandle = responseMessage.getToJavaConverterInstance();
-        long responseDestructorHandle = responseMessage.getDestructorInstance();
-
-        RMWRequestId rmwRequestId =
-            nativeTakeResponse(anyExecutable.client.getHandle(), responseFromJavaConverterHandle,
-                responseToJavaConverterHandle, responseDestructorHandle, responseMessage);
-
-        if (rmwRequestId != null) {
-          // Safety: nativeTakeResponse() will return the correct type here.
-          // We can't do much better here, as subscriptions are type erased.
-          clientHandleResponseUnchecked(anyExecutable.client, rmwRequestId, responseMessage);
+      for (int i = 0; i < takeBatchSize; ++i) {
+        if (!takeAndHandleClientResponse(anyExecutable.client)) {
+          break;
         }
       }
-      clientHandles.remove(anyExecutable.client.getHandle());
     }
 
     if (anyExecutable.eventHandler != null) {
       anyExecutable.eventHandler.executeCallback();
-      eventHandles.remove(anyExecutable.eventHandler.getHandle());
     }
 
     if (anyExecutable.actionServer != null) {
       anyExecutable.actionServer.execute();
-      this.actionServerHandles.remove(anyExecutable.actionServer.getHandle());
+    }
+
+    if (anyExecutable.guardCondition != null) {
+      anyExecutable.guardCondition.executeCallback();
     }
   }
 
-  protected void waitForWork(long timeout) {
-    this.subscriptionHandles.clear();
-    this.timerHandles.clear();
-    this.serviceHandles.clear();
-    this.clientHandles.clear();
-    this.eventHandles.clear();
-    this.actionServerHandles.clear();
-
-    for (ComposableNode node : this.nodes) {
-      for (Subscription subscription : node.getNode().getSubscriptions()) {
-        this.subscriptionHandles.add(new AbstractMap.SimpleEntry<Long, Subscription>(
-            subscription.getHandle(), subscription));
-        Collection<EventHandler> eventHandlers = subscription.getEventHandlers();
-        for (EventHandler eventHandler : eventHandlers) {
-          this.eventHandles.add(new AbstractMap.SimpleEntry<Long, EventHandler>(
-            eventHandler.getHandle(), eventHandler));
+  /**
+   * Collect the entities of the nodes again during the next call to waitForWork.
+   *
+   * This method can be called from any thread.
+   */
+  protected void refresh() {
+    this.refreshRequested = true;
+    this.interrupt();
+  }
+
+  /**
+   * Check if the entities of the nodes of this executor changed since they were last collected.
+   */
+  private boolean entitiesChanged() {
+    if (this.refreshRequested || this.collectedNodesGeneration != this.nodesGeneration.get()) {
+      return true;
+    }
+    // Nodes bump their entities generation whenever they trigger their notify guard condition.
+    for (int i = 0; i < this.collectedNodes.length; ++i) {
+      if (this.collectedNodes[i].getEntitiesGeneration() != this.collectedEntitiesGenerations[i]) {
+        return true;
+      }
+    }
+    for (int i = 0; i < this.notifyGuardConditions.size(); ++i) {
+      if (this.notifyGuardConditions.get(i).getHandle() == 0) {
+        return true;
+      }
+    }
+    if (this.staticExecutable != null) {
+      // Disposed entities remove themselves from their node, which bumps its generation.
+      return false;
+    }
+    return this.subscriptions.hasDisposedEntities() || this.timers.hasDisposedEntities()
+      || this.services.hasDisposedEntities() || this.clients.hasDisposedEntities()
+      || this.eventHandlers.hasDisposedEntities() || this.actionServers.hasDisposedEntities()
+      || this.guardConditions.hasDisposedEntities();
+  }
+
+  private static CallbackGroup callbackGroupOrDefault(
+    CallbackGroup callbackGroup, CallbackGroup defaultCallbackGroup)
+  {
+    return callbackGroup != null ? callbackGroup : defaultCallbackGroup;
+  }
+
+  private void addSubscription(
+    SubscriptionBase subscription, CallbackGroup defaultCallbackGroup)
+  {
+    CallbackGroup callbackGroup =
+      callbackGroupOrDefault(subscription.getCallbackGroup(), defaultCallbackGroup);
+    this.subscriptions.add(subscription, callbackGroup);
+    // Event handlers are executed in the callback group of their parent entity.
+    for (EventHandler eventHandler : (Iterable<EventHandler>) subscription.getEventHandlers()) {
+      this.eventHandlers.add(eventHandler, callbackGroup);
+    }
+  }
+
+  /**
+   * Collect the entities of all the nodes of this executor.
+   */
+  private void collectEntities() {
+    // Generations are read before the entities, so a concurrent change results in another
+    // collection during the next call to waitForWork instead of being missed.
+    this.refreshRequested = false;
+    this.collectedNodesGeneration = this.nodesGeneration.get();
+
+    List<Node> collectedNodes = new ArrayList<Node>();
+    for (ComposableNode composableNode : this.nodes) {
+      collectedNodes.add(composableNode.getNode());
+    }
+    this.collectedNodes = collectedNodes.toArray(new Node[collectedNodes.size()]);
+    this.collectedEntitiesGenerations = new long[this.collectedNodes.length];
+    for (int i = 0; i < this.collectedNodes.length; ++i) {
+      this.collectedEntitiesGenerations[i] = this.collectedNodes[i].getEntitiesGeneration();
+    }
+
+    this.subscriptions.clear();
+    this.timers.clear();
+    this.services.clear();
+    this.clients.clear();
+    this.eventHandlers.clear();
+    this.actionServers.clear();
+    this.guardConditions.clear();
+    this.notifyGuardConditions.clear();
+
+    for (Node node : this.collectedNodes) {
+      CallbackGroup defaultCallbackGroup = node.getDefaultCallbackGroup();
+
+      GuardCondition notifyGuardCondition = node.getNotifyGuardCondition();
+      if (notifyGuardCondition.getHandle() != 0) {
+        this.notifyGuardConditions.add(notifyGuardCondition);
+      }
+
+      for (Subscription subscription : node.getSubscriptions()) {
+        this.addSubscription(subscription, defaultCallbackGroup);
+      }
+
+      for (SerializedSubscription subscription : node.getSerializedSubscriptions()) {
+        this.addSubscription(subscription, defaultCallbackGroup);
+      }
+
+      for (Publisher publisher : node.getPublishers()) {
+        for (EventHandler eventHandler : (Iterable<EventHandler>) publisher.getEventHandlers()) {
+          this.eventHandlers.add(eventHandler, defaultCallbackGroup);
         }
       }
 
-      for (Publisher publisher : node.getNode().getPublishers()) {
-        Collection<EventHandler> eventHandlers = publisher.getEventHandlers();
-        for (EventHandler eventHandler : eventHandlers) {
-          this.eventHandles.add(new AbstractMap.SimpleEntry<Long, EventHandler>(
-            eventHandler.getHandle(), eventHandler));
+      if (this.waitsForTimers) {
+        for (Timer timer : node.getTimers()) {
+          this.timers.add(
+            timer, callbackGroupOrDefault(timer.getCallbackGroup(), defaultCallbackGroup));
         }
       }
 
-      for (Timer timer : node.getNode().getTimers()) {
-        this.timerHandles.add(new AbstractMap.SimpleEntry<Long, Timer>(timer.getHandle(), timer));
+      for (Service service : node.getServices()) {
+        this.services.add(
+          service, callbackGroupOrDefault(service.getCallbackGroup(), defaultCallbackGroup));
       }
 
-      for (Service service : node.getNode().getServices()) {
-        this.serviceHandles.add(
-            new AbstractMap.SimpleEntry<Long, Service>(service.getHandle(), service));
+      for (Client client : node.getClients()) {
+        this.clients.add(
+          client, callbackGroupOrDefault(client.getCallbackGroup(), defaultCallbackGroup));
       }
 
-      for (Client client : node.getNode().getClients()) {
-        this.clientHandles.add(
-            new AbstractMap.SimpleEntry<Long, Client>(client.getHandle(), client));
+      for (ActionServer actionServer : node.getActionServers()) {
+        this.actionServers.add(actionServer,
+          callbackGroupOrDefault(actionServer.getCallbackGroup(), defaultCallbackGroup));
       }
 
-      for (ActionServer actionServer : node.getNode().getActionServers()) {
-        this.actionServerHandles.add(
-            new AbstractMap.SimpleEntry<Long, ActionServer>(actionServer.getHandle(), actionServer));
+      for (GuardCondition guardCondition : node.getGuardConditions()) {
+        this.guardConditions.add(guardCondition,
+          callbackGroupOrDefault(guardCondition.getCallbackGroup(), defaultCallbackGroup));
       }
     }
 
-    int subscriptionsSize = 0;
-    int timersSize = 0;
-    int clientsSize = 0;
-    int servicesSize = 0;
-    int eventsSize = this.eventHandles.size();
+    Map<Disposable, SchedulingStatistics> previousStatistics = this.schedulingStatistics;
+    Map<Disposable, SchedulingStatistics> collectedStatistics =
+      new ConcurrentHashMap<Disposable, SchedulingStatistics>();
+    this.subscriptions.commit(previousStatistics, collectedStatistics);
+    this.timers.commit(previousStatistics, collectedStatistics);
+    this.services.commit(previousStatistics, collectedStatistics);
+    this.clients.commit(previousStatistics, collectedStatistics);
+    this.eventHandlers.commit(previousStatistics, collectedStatistics);
+    this.actionServers.commit(previousStatistics, collectedStatistics);
+    this.guardConditions.commit(previousStatistics, collectedStatistics);
+    this.schedulingStatistics = collectedStatistics;
+
+    this.numberOfSubscriptions = this.subscriptions.size();
+    // The interrupt guard condition, followed by the notify guard conditions of the nodes.
+    this.numberOfGuardConditions =
+      1 + this.notifyGuardConditions.size() + this.guardConditions.size();
+    this.numberOfTimers = this.timers.size();
+    this.numberOfClients = this.clients.size();
+    this.numberOfServices = this.services.size();
+    this.numberOfEvents = this.eventHandlers.size();
+
+    if (this.actionServerHandles.length != this.actionServers.size()) {
+      this.actionServerHandles = new long[this.actionServers.size()];
+    }
 
-    for (ComposableNode node : this.nodes) {
-      subscriptionsSize += node.getNode().getSubscriptions().size();
-      timersSize += node.getNode().getTimers().size();
-      clientsSize += node.getNode().getClients().size();
-      servicesSize += node.getNode().getServices().size();
+    for (int i = 0; i < this.actionServers.size(); ++i) {
+      ActionServer actionServer = this.actionServers.get(i);
+      this.actionServerHandles[i] = actionServer.getHandle();
+      this.numberOfSubscriptions += actionServer.getNumberOfSubscriptions();
+      this.numberOfTimers += actionServer.getNumberOfTimers();
+      this.numberOfClients += actionServer.getNumberOfClients();
+      this.numberOfServices += actionServer.getNumberOfServices();
+    }
+  }
 
-      for (ActionServer actionServer : node.getNode().getActionServers()) {
-        subscriptionsSize += actionServer.getNumberOfSubscriptions();
-        timersSize += actionServer.getNumberOfTimers();
-        clientsSize += actionServer.getNumberOfClients();
-        servicesSize += actionServer.getNumberOfServices();
-      }
+  /**
+   * Make sure the wait set is initialized for the given context and is big enough for the
+   * collected entities.
+   */
+  private void prepareWaitSet(long contextHandle) {
+    if (this.waitSetHandle != 0 && this.waitSetContextHandle != contextHandle) {
+      // The context the wait set was initialized with is gone, start over.
+      this.dispose();
     }
 
-    if (subscriptionsSize == 0 && timersSize == 0 && clientsSize == 0 && servicesSize == 0) {
+    if (this.waitSetHandle == 0) {
+      synchronized (this.interruptGuardConditionMutex) {
+        this.interruptGuardCondition = new GuardConditionImpl(null, contextHandle, null, null);
+      }
+      this.waitSetHandle = nativeGetZeroInitializedWaitSet();
+      nativeWaitSetInit(
+        this.waitSetHandle, contextHandle, this.numberOfSubscriptions,
+        this.numberOfGuardConditions, this.numberOfTimers, this.numberOfClients,
+        this.numberOfServices, this.numberOfEvents);
+      this.waitSetContextHandle = contextHandle;
+    } else if (this.waitSetSubscriptionsSize != this.numberOfSubscriptions
+      || this.waitSetGuardConditionsSize != this.numberOfGuardConditions
+      || this.waitSetTimersSize != this.numberOfTimers
+      || this.waitSetClientsSize != this.numberOfClients
+      || this.waitSetServicesSize != this.numberOfServices
+      || this.waitSetEventsSize != this.numberOfEvents)
+    {
+      nativeWaitSetResize(
+        this.waitSetHandle, this.numberOfSubscriptions, this.numberOfGuardConditions,
+        this.numberOfTimers, this.numberOfClients, this.numberOfServices, this.numberOfEvents);
+    } else {
       return;
     }
 
-    long waitSetHandle = nativeGetZeroInitializedWaitSet();
-    long contextHandle = RCLJava.getDefaultContext().getHandle();
-    nativeWaitSetInit(
-      waitSetHandle, contextHandle, subscriptionsSize, 0,
-      timersSize, clientsSize, servicesSize, eventsSize);
+    this.waitSetSubscriptionsSize = this.numberOfSubscriptions;
+    this.waitSetGuardConditionsSize = this.numberOfGuardConditions;
+    this.waitSetTimersSize = this.numberOfTimers;
+    this.waitSetClientsSize = this.numberOfClients;
+    this.waitSetServicesSize = this.numberOfServices;
+    this.waitSetEventsSize = this.numberOfEvents;
+  }
 
-    nativeWaitSetClear(waitSetHandle);
+  private static boolean isBitSet(long[] bitmap, int index) {
+    return (bitmap[index >>> 6] & (1L << index)) != 0;
+  }
 
-    for (Map.Entry<Long, Subscription> entry : this.subscriptionHandles) {
-      nativeWaitSetAddSubscription(waitSetHandle, entry.getKey());
-    }
+  protected void waitForWork(long timeout) {
+    // Entities that are still ready stay ready, see WaitSetEntities.setReady.
+    long claimedCount = this.claimedCount;
 
-    for (Map.Entry<Long, Timer> entry : this.timerHandles) {
-      nativeWaitSetAddTimer(waitSetHandle, entry.getKey());
+    if (this.entitiesChanged()) {
+      this.collectEntities();
     }
 
-    for (Map.Entry<Long, Service> entry : this.serviceHandles) {
-      nativeWaitSetAddService(waitSetHandle, entry.getKey());
-    }
+    // Even without any entities the wait blocks until it is interrupted, e.g. by addNode().
+    long contextHandle = RCLJava.getDefaultContext().getHandle();
+    this.prepareWaitSet(contextHandle);
 
-    for (Map.Entry<Long, Client> entry : this.clientHandles) {
-      nativeWaitSetAddClient(waitSetHandle, entry.getKey());
-    }
+    long waitSetHandle = this.waitSetHandle;
+    nativeWaitSetClear(waitSetHandle);
 
-    for (Map.Entry<Long, EventHandler> entry : this.eventHandles) {
-      nativeWaitSetAddEvent(waitSetHandle, entry.getKey());
-    }
+    nativeWaitSetAddGuardCondition(waitSetHandle, this.interruptGuardCondition.getHandle());
 
-    for (Map.Entry<Long, ActionServer> entry : this.actionServerHandles) {
-      nativeWaitSetAddActionServer(waitSetHandle, entry.getKey());
+    for (int i = 0; i < this.notifyGuardConditions.size(); ++i) {
+      nativeWaitSetAddGuardCondition(waitSetHandle, this.notifyGuardConditions.get(i).getHandle());
     }
 
-    nativeWait(waitSetHandle, timeout);
-
-    for (int i = 0; i < this.subscriptionHandles.size(); ++i) {
-      if (!nativeWaitSetSubscriptionIsReady(waitSetHandle, i)) {
-        this.subscriptionHandles.get(i).setValue(null);
+    // Entities that are still ready, e.g. because their callback group is busy, are left out:
+    // they would make rcl_wait return immediately, and stay ready until they are claimed.
+    for (int i = 0; i < this.guardConditions.size(); ++i) {
+      if (!this.guardConditions.isReady(i)) {
+        nativeWaitSetAddGuardCondition(waitSetHandle, this.guardConditions.get(i).getHandle());
       }
     }
 
-    for (int i = 0; i < this.timerHandles.size(); ++i) {
-      if (!nativeWaitSetTimerIsReady(waitSetHandle, i)) {
-        this.timerHandles.get(i).setValue(null);
+    for (int i = 0; i < this.subscriptions.size(); ++i) {
+      if (!this.subscriptions.isReady(i)) {
+        nativeWaitSetAddSubscription(waitSetHandle, this.subscriptions.get(i).getHandle());
       }
     }
 
-    for (int i = 0; i < this.serviceHandles.size(); ++i) {
-      if (!nativeWaitSetServiceIsReady(waitSetHandle, i)) {
-        this.serviceHandles.get(i).setValue(null);
+    for (int i = 0; i < this.timers.size(); ++i) {
+      if (!this.timers.isReady(i)) {
+        nativeWaitSetAddTimer(waitSetHandle, this.timers.get(i).getHandle());
       }
     }
 
-    for (int i = 0; i < this.clientHandles.size(); ++i) {
-      if (!nativeWaitSetClientIsReady(waitSetHandle, i)) {
-        this.clientHandles.get(i).setValue(null);
+    for (int i = 0; i < this.services.size(); ++i) {
+      if (!this.services.isReady(i)) {
+        nativeWaitSetAddService(waitSetHandle, this.services.get(i).getHandle());
       }
     }
 
-    for (int i = 0; i < this.eventHandles.size(); ++i) {
-      if (!nativeWaitSetEventIsReady(waitSetHandle, i)) {
-        this.eventHandles.get(i).setValue(null);
+    for (int i = 0; i < this.clients.size(); ++i) {
+      if (!this.clients.isReady(i)) {
+        nativeWaitSetAddClient(waitSetHandle, this.clients.get(i).getHandle());
       }
     }
 
-    for (Map.Entry<Long, ActionServer> entry : this.actionServerHandles) {
-      if (!entry.getValue().isReady(waitSetHandle)) {
-        entry.setValue(null);
+    for (int i = 0; i < this.eventHandlers.size(); ++i) {
+      if (!this.eventHandlers.isReady(i)) {
+        nativeWaitSetAddEvent(waitSetHandle, this.eventHandlers.get(i).getHandle());
       }
     }
 
-    Iterator<Map.Entry<Long, Subscription>> subscriptionIterator =
-        this.subscriptionHandles.iterator();
-    while (subscriptionIterator.hasNext()) {
-      Map.Entry<Long, Subscription> entry = subscriptionIterator.next();
-      if (entry.getValue() == null) {
-        subscriptionIterator.remove();
+    // The readiness of an action server that is left out isn't read, see
+    // nativeWaitSetGetReadyEntities.
+    for (int i = 0; i < this.actionServers.size(); ++i) {
+      if (this.actionServers.isReady(i)) {
+        this.actionServerHandles[i] = 0;
+      } else {
+        this.actionServerHandles[i] = this.actionServers.get(i).getHandle();
+        nativeWaitSetAddActionServer(waitSetHandle, this.actionServerHandles[i]);
       }
     }
 
-    Iterator<Map.Entry<Long, Timer>> timerIterator = this.timerHandles.iterator();
-    while (timerIterator.hasNext()) {
-      Map.Entry<Long, Timer> entry = timerIterator.next();
-      if (entry.getValue() == null) {
-        timerIterator.remove();
+    nativeWait(waitSetHandle, timeout);
+
+    int numberOfBits = this.waitSetSubscriptionsSize + this.waitSetGuardConditionsSize
+      + this.waitSetTimersSize + this.waitSetClientsSize + this.waitSetServicesSize
+      + this.waitSetEventsSize + 4 * this.actionServers.size();
+    int numberOfWords = (numberOfBits + 63) >>> 6;
+    if (this.readyEntities.length != numberOfWords) {
+      this.readyEntities = new long[numberOfWords];
+    }
+    long[] readyEntities = this.readyEntities;
+    nativeWaitSetGetReadyEntities(waitSetHandle, this.actionServerHandles, readyEntities);
+
+    // The bitmap follows the layout of rcl_wait_set_t. The entities of the executor are added
+    // to the wait set before the ones used internally by action servers, so they come first
+    // within each kind.
+    int offset = 0;
+    this.subscriptions.setReady(readyEntities, offset, claimedCount);
+    offset += this.waitSetSubscriptionsSize;
+    this.guardConditions.setReady(
+      readyEntities, offset + 1 + this.notifyGuardConditions.size(), claimedCount);
+    offset += this.waitSetGuardConditionsSize;
+    this.timers.setReady(readyEntities, offset, claimedCount);
+    offset += this.waitSetTimersSize;
+    this.clients.setReady(readyEntities, offset, claimedCount);
+    offset += this.waitSetClientsSize;
+    this.services.setReady(readyEntities, offset, claimedCount);
+    offset += this.waitSetServicesSize;
+    this.eventHandlers.setReady(readyEntities, offset, claimedCount);
+    offset += this.waitSetEventsSize;
+
+    for (int i = 0; i < this.actionServers.size(); ++i) {
+      if (this.actionServerHandles[i] == 0) {
+        continue;
       }
+      int bit = offset + 4 * i;
+      this.actionServers.setReady(i, this.actionServers.get(i).setReadyEntities(
+        isBitSet(readyEntities, bit), isBitSet(readyEntities, bit + 1),
+        isBitSet(readyEntities, bit + 2), isBitSet(readyEntities, bit + 3)), claimedCount);
     }
+  }
 
-    Iterator<Map.Entry<Long, Service>> serviceIterator = this.serviceHandles.iterator();
-    while (serviceIterator.hasNext()) {
-      Map.Entry<Long, Service> entry = serviceIterator.next();
-      if (entry.getValue() == null) {
-        serviceIterator.remove();
-      }
+  /**
+   * Claim a ready entity and its callback group.
+   *
+   * @return true if the entity can be executed, false if its callback group is busy or if
+   *     its previous executable is still being executed by the callback executor.
+   */
+  private boolean tryAcquire(Disposable entity, CallbackGroup callbackGroup) {
+    if (!callbackGroup.tryAcquire()) {
+      this.hasBlockedExecutables = true;
+      return false;
+    }
+    if (this.callbackExecutor != null
+      && !(this.reentrantEntities && callbackGroup.getType() == CallbackGroupType.REENTRANT)
+      && !this.executingEntities.add(entity))
+    {
+      // Nothing can be waiting for this release, the group was acquired just now.
+      callbackGroup.release();
+      this.hasBlockedExecutables = true;
+      return false;
     }
+    return true;
+  }
 
-    Iterator<Map.Entry<Long, Client>> clientIterator = this.clientHandles.iterator();
-    while (clientIterator.hasNext()) {
-      Map.Entry<Long, Client> entry = clientIterator.next();
-      if (entry.getValue() == null) {
-        clientIterator.remove();
-      }
+  /**
+   * Claim the callback group of an executable returned by getNextExecutable, if this instance
+   * doesn't claim them itself.
+   *
+   * @return true if the executable can be passed to executeAnyExecutable, false if its
+   *     callback group is busy.
+   */
+  protected boolean tryAcquire(AnyExecutable anyExecutable) {
+    return anyExecutable.callbackGroup == null || anyExecutable.callbackGroup.tryAcquire();
+  }
+
+  private void releaseCallbackGroup(CallbackGroup callbackGroup) {
+    callbackGroup.release();
+    if (callbackGroup.getType() == CallbackGroupType.MUTUALLY_EXCLUSIVE) {
+      this.signalRelease();
     }
+  }
 
-    Iterator<Map.Entry<Long, EventHandler>> eventIterator = this.eventHandles.iterator();
-    while (eventIterator.hasNext()) {
-      Map.Entry<Long, EventHandler> entry = eventIterator.next();
-      if (entry.getValue() == null) {
-        eventIterator.remove();
-      }
+  private void signalRelease() {
+    boolean hasReleaseWaiters;
+    synchronized (this.callbackGroupReleasesMutex) {
+      this.callbackGroupReleases++;
+      hasReleaseWaiters = this.releaseWaiters > 0;
+    }
+    if (hasReleaseWaiters) {
+      this.interrupt();
     }
+  }
 
-    Iterator<Map.Entry<Long, ActionServer>> actionServerIterator = this.actionServerHandles.iterator();
-    while (actionServerIterator.hasNext()) {
-      Map.Entry<Long, ActionServer> entry = actionServerIterator.next();
-      if (entry.getValue() == null) {
-        actionServerIterator.remove();
+  private long getCallbackGroupReleases() {
+    synchronized (this.callbackGroupReleasesMutex) {
+      return this.callbackGroupReleases;
+    }
+  }
+
+  /**
+   * Register the calling thread as waiting for work while ready entities are blocked, so the
+   * next release interrupts its wait.
+   *
+   * @return false if a release happened since callbackGroupReleases was read, in which case
+   *     the thread isn't registered.
+   */
+  private boolean beginWaitingForRelease(long callbackGroupReleases) {
+    synchronized (this.callbackGroupReleasesMutex) {
+      if (this.callbackGroupReleases != callbackGroupReleases) {
+        return false;
       }
+      this.releaseWaiters++;
+      return true;
     }
+  }
 
-    nativeDisposeWaitSet(waitSetHandle);
+  private void endWaitingForRelease() {
+    synchronized (this.callbackGroupReleasesMutex) {
+      this.releaseWaiters--;
+    }
   }
 
+  /**
+   * Get the next ready entity whose callback group can be claimed, according to the
+   * scheduling policy.
+   *
+   * The callback group of the returned executable is claimed, unless this instance doesn't
+   * claim callback groups, and is released once the executable is passed to
+   * executeAnyExecutable. Ready entities of busy callback groups are kept ready so they are
+   * returned by a later call.
+   */
   protected AnyExecutable getNextExecutable() {
-    AnyExecutable anyExecutable = new AnyExecutable();
-
-    for (Map.Entry<Long, Timer> entry : this.timerHandles) {
-      if (entry.getValue() != null) {
-        Timer timer = entry.getValue();
-        if (timer.isReady()) {
-          anyExecutable.timer = timer;
-          entry.setValue(null);
-          return anyExecutable;
-        }
-      }
+    this.hasBlockedExecutables = false;
+    SchedulingPolicy schedulingPolicy = this.schedulingPolicy;
+    if (schedulingPolicy != SchedulingPolicy.PRIORITY) {
+      return this.getNextExecutable(schedulingPolicy == SchedulingPolicy.ROUND_ROBIN, true, 0);
     }
 
-    for (Map.Entry<Long, Subscription> entry : this.subscriptionHandles) {
-      if (entry.getValue() != null) {
-        anyExecutable.subscription = entry.getValue();
-        entry.setValue(null);
+    // Go down the priorities of the ready entities, so the entities of busy callback groups
+    // don't hold back the ones of lower priorities.
+    long priority = this.getHighestReadyPriority(Long.MAX_VALUE);
+    while (priority != Long.MIN_VALUE) {
+      AnyExecutable anyExecutable = this.getNextExecutable(true, false, priority);
+      if (anyExecutable != null) {
         return anyExecutable;
       }
+      priority = this.getHighestReadyPriority(priority);
     }
+    return null;
+  }
 
-    for (Map.Entry<Long, Service> entry : this.serviceHandles) {
-      if (entry.getValue() != null) {
-        anyExecutable.service = entry.getValue();
-        entry.setValue(null);
-        return anyExecutable;
-      }
+  private long getHighestReadyPriority(long below) {
+    long priority = this.timers.getHighestReadyPriority(below);
+    priority = Math.max(priority, this.subscriptions.getHighestReadyPriority(below));
+    priority = Math.max(priority, this.services.getHighestReadyPriority(below));
+    priority = Math.max(priority, this.clients.getHighestReadyPriority(below));
+    priority = Math.max(priority, this.eventHandlers.getHighestReadyPriority(below));
+    priority = Math.max(priority, this.actionServers.getHighestReadyPriority(below));
+    return Math.max(priority, this.guardConditions.getHighestReadyPriority(below));
+  }
+
+  private AnyExecutable getNextExecutable(boolean roundRobin, boolean anyPriority, long priority) {
+    AnyExecutable anyExecutable = this.staticExecutable;
+    if (anyExecutable != null) {
+      anyExecutable.clear();
+    } else {
+      anyExecutable = new AnyExecutable();
     }
 
-    for (Map.Entry<Long, Client> entry : this.clientHandles) {
-      if (entry.getValue() != null) {
-        anyExecutable.client = entry.getValue();
-        entry.setValue(null);
-        return anyExecutable;
-      }
+    int index = this.timers.claimNext(this, roundRobin, anyPriority, priority);
+    if (index >= 0) {
+      Timer timer = this.timers.get(index);
+      // Call the timer while claiming it, so no other thread sees it as ready again.
+      timer.callTimer();
+      anyExecutable.timer = timer;
+      anyExecutable.callbackGroup = this.timers.getCallbackGroup(index);
+      return anyExecutable;
     }
 
-    for (Map.Entry<Long, EventHandler> entry : this.eventHandles) {
-      if (entry.getValue() != null) {
-        anyExecutable.eventHandler = entry.getValue();
-        entry.setValue(null);
-        return anyExecutable;
-      }
+    index = this.subscriptions.claimNext(this, roundRobin, anyPriority, priority);
+    if (index >= 0) {
+      anyExecutable.subscription = this.subscriptions.get(index);
+      anyExecutable.callbackGroup = this.subscriptions.getCallbackGroup(index);
+      return anyExecutable;
     }
 
-    for (Map.Entry<Long, ActionServer> entry : this.actionServerHandles) {
-      if (entry.getValue() != null) {
-        anyExecutable.actionServer = entry.getValue();
-        entry.setValue(null);
-        return anyExecutable;
-      }
+    index = this.services.claimNext(this, roundRobin, anyPriority, priority);
+    if (index >= 0) {
+      anyExecutable.service = this.services.get(index);
+      anyExecutable.callbackGroup = this.services.getCallbackGroup(index);
+      return anyExecutable;
+    }
+
+    index = this.clients.claimNext(this, roundRobin, anyPriority, priority);
+    if (index >= 0) {
+      anyExecutable.client = this.clients.get(index);
+      anyExecutable.callbackGroup = this.clients.getCallbackGroup(index);
+      return anyExecutable;
+    }
+
+    index = this.eventHandlers.claimNext(this, roundRobin, anyPriority, priority);
+    if (index >= 0) {
+      anyExecutable.eventHandler = this.eventHandlers.get(index);
+      anyExecutable.callbackGroup = this.eventHandlers.getCallbackGroup(index);
+      return anyExecutable;
+    }
+
+    index = this.actionServers.claimNext(this, roundRobin, anyPriority, priority);
+    if (index >= 0) {
+      anyExecutable.actionServer = this.actionServers.get(index);
+      anyExecutable.callbackGroup = this.actionServers.getCallbackGroup(index);
+      return anyExecutable;
+    }
+
+    index = this.guardConditions.claimNext(this, roundRobin, anyPriority, priority);
+    if (index >= 0) {
+      anyExecutable.guardCondition = this.guardConditions.get(index);
+      anyExecutable.callbackGroup = this.guardConditions.getCallbackGroup(index);
+      return anyExecutable;
     }
 
     return null;
   }
 
+  /**
+   * Get the next executable, waiting for work if nothing is ready yet.
+   *
+   * Ready entities that are blocked by a busy callback group are left out of the wait set,
+   * since rcl_wait would return immediately while they have pending work. Instead, releasing
+   * a callback group or an entity interrupts the wait.
+   *
+   * @param timeout How long to wait for work, in nanoseconds; a negative value waits forever.
+   * @return The claimed executable, or null if there was nothing to execute.
+   */
+  protected AnyExecutable waitForNextExecutable(long timeout) {
+    long callbackGroupReleases = this.getCallbackGroupReleases();
+    AnyExecutable anyExecutable = this.getNextExecutable();
+    if (anyExecutable != null) {
+      return anyExecutable;
+    }
+
+    if (!this.hasBlockedExecutables) {
+      this.waitForWork(timeout);
+      return this.getNextExecutable();
+    }
+
+    if (!this.beginWaitingForRelease(callbackGroupReleases)) {
+      // A blocked entity may be executable already, only check for other work meanwhile.
+      this.waitForWork(0);
+      return this.getNextExecutable();
+    }
+    try {
+      this.waitForWork(timeout);
+    } finally {
+      this.endWaitingForRelease();
+    }
+    return this.getNextExecutable();
+  }
+
   private boolean maxDurationNotElapsed(long maxDurationNs, long startNs) {
     long nowNs = System.nanoTime();
     if (maxDurationNs == 0) {
@@ -445,22 +1500,53 @@ public class BaseExecutor {
     long startNs = System.nanoTime();
     // only use a blocking call to waitForWork when maxDurationNs < 0
     long waitTimeout = -1;
-    if (maxDurationNs > 0) {
+    Callback doneCallback = null;
+    if (future instanceof RCLFuture) {
+      // Wake up as soon as the future is completed, even if it is completed by another thread,
+      // so waitForWork can block for as long as it takes.
+      doneCallback = new Callback() {
+        public void call() {
+          BaseExecutor.this.interrupt();
+        }
+      };
+      ((RCLFuture) future).addDoneCallback(doneCallback);
+    } else if (maxDurationNs > 0) {
       // We cannot be waiting for work forever, if not we're not going to respect the passed timeout.
       // We can neither do a non-blocking call to waitForWork(), because if the future has not yet
       // been completed it will result in a busy loop.
       // Use an arbitrary timeout to relax cpu usage.
       waitTimeout = Math.min(maxDurationNs / 10, 10000000 /* 1ms*/);
     }
-    while (RCLJava.ok() && (maxDurationNs  < 0 || maxDurationNotElapsed(maxDurationNs, startNs))) {
-      waitForWork(waitTimeout);
-      AnyExecutable anyExecutable = getNextExecutable();
-      while (anyExecutable != null) {
-        executeAnyExecutable(anyExecutable);
+    this.spinning.set(true);
+    try {
+      while (RCLJava.ok() && this.spinning.get()
+        && (maxDurationNs  < 0 || maxDurationNotElapsed(maxDurationNs, startNs)))
+      {
         if (future.isDone()) {
           return;
         }
-        anyExecutable = getNextExecutable();
+        if (doneCallback != null && maxDurationNs > 0) {
+          waitTimeout = Math.max(0, maxDurationNs - (System.nanoTime() - startNs));
+        }
+        // Entities of busy callback groups don't wake up the wait, their release does.
+        AnyExecutable anyExecutable;
+        synchronized (this.waitMutex) {
+          anyExecutable = waitForNextExecutable(waitTimeout);
+        }
+        while (anyExecutable != null) {
+          dispatchAnyExecutable(anyExecutable);
+          if (future.isDone()) {
+            return;
+          }
+          synchronized (this.waitMutex) {
+            anyExecutable = getNextExecutable();
+          }
+        }
+      }
+    } finally {
+      this.spinning.set(false);
+      if (doneCallback != null) {
+        ((RCLFuture) future).removeDoneCallback(doneCallback);
       }
     }
   }
@@ -469,12 +1555,15 @@ public class BaseExecutor {
     long startNs = System.nanoTime();
     boolean workAvailable = false;
     while (RCLJava.ok() && maxDurationNotElapsed(maxDurationNs, startNs)) {
-      if (!workAvailable) {
-        waitForWork(0);
+      AnyExecutable anyExecutable;
+      synchronized (this.waitMutex) {
+        if (!workAvailable) {
+          waitForWork(0);
+        }
+        anyExecutable = getNextExecutable();
       }
-      AnyExecutable anyExecutable = getNextExecutable();
       if (anyExecutable != null) {
-        executeAnyExecutable(anyExecutable);
+        dispatchAnyExecutable(anyExecutable);
         workAvailable = true;
       } else {
         if (!workAvailable || !exhaustive) {
@@ -494,14 +1583,12 @@ public class BaseExecutor {
   }
 
   protected void spinOnce(long timeout) {
-    AnyExecutable anyExecutable = getNextExecutable();
-    if (anyExecutable == null) {
-      waitForWork(timeout);
-      anyExecutable = getNextExecutable();
+    AnyExecutable anyExecutable;
+    synchronized (this.waitMutex) {
+      anyExecutable = waitForNextExecutable(timeout);
     }
-
     if (anyExecutable != null) {
-      executeAnyExecutable(anyExecutable);
+      dispatchAnyExecutable(anyExecutable);
     }
   }
 
@@ -514,15 +1601,23 @@ public class BaseExecutor {
       int numberOfGuardConditions, int numberOfTimers, int numberOfClients,
       int numberOfServices, int numberOfEvents);
 
+  private static native void nativeWaitSetResize(
+      long waitSetHandle, int numberOfSubscriptions, int numberOfGuardConditions,
+      int numberOfTimers, int numberOfClients, int numberOfServices, int numberOfEvents);
+
   private static native void nativeWaitSetClear(long waitSetHandle);
 
+  private static native void nativeWaitSetAddGuardCondition(
+      long waitSetHandle, long guardConditionHandle);
+
   private static native void nativeWaitSetAddSubscription(
       long waitSetHandle, long subscriptionHandle);
 
   private static native void nativeWait(long waitSetHandle, long timeout);
 
   private static native MessageDefinition nativeTake(
-      long subscriptionHandle, Class<? extends MessageDefinition> messageType);
+      long subscriptionHandle, long messageCreatorHandle, long messageToJavaConverterHandle,
+      long messageDestructorHandle, MessageDefinition existingMessage);
 
   private static native void nativeWaitSetAddService(long waitSetHandle, long serviceHandle);
 
@@ -535,7 +1630,7 @@ public class BaseExecutor {
   private static native void nativeWaitSetAddActionServer(long waitSetHandle, long actionServerHandle);
 
   private static native RMWRequestId nativeTakeRequest(long serviceHandle,
-      long requestFromJavaConverterHandle, long requestToJavaConverterHandle,
+      long requestCreatorHandle, long requestToJavaConverterHandle,
       long requestDestructorHandle, MessageDefinition requestMessage);
 
   private static native void nativeSendServiceResponse(
@@ -543,18 +1638,9 @@ public class BaseExecutor {
       long responseDestructorHandle, MessageDefinition responseMessage);
 
   private static native RMWRequestId nativeTakeResponse(long clientHandle,
-      long responseFromJavaConverterHandle, long responseToJavaConverterHandle,
+      long responseCreatorHandle, long responseToJavaConverterHandle,
       long responseDestructorHandle, MessageDefinition responseMessage);
 
-  private static native boolean nativeWaitSetSubscriptionIsReady(long waitSetHandle, long index);
-
-  private static native boolean nativeWaitSetTimerIsReady(long waitSetHandle, long index);
-
-  private static native boolean nativeWaitSetEventIsReady(long waitSetHandle, long index);
-
-  private static native boolean nativeWaitSetServiceIsReady(long waitSetHandle, long index);
-
-  private static native boolean nativeWaitSetClientIsReady(long waitSetHandle, long index);
-
-  private static native boolean nativeWaitSetActionServerIsReady(long waitSetHandle, long actionServerHandle);
+  private static native void nativeWaitSetGetReadyEntities(
+      long waitSetHandle, long[] actionServerHandles, long[] readyEntities);
 }
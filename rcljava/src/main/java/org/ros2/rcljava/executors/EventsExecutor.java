@@ -0,0 +1,520 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.concurrent.RCLFuture;
+import org.ros2.rcljava.interfaces.Disposable;
+import org.ros2.rcljava.node.ComposableNode;
+import org.ros2.rcljava.node.Node;
+import org.ros2.rcljava.timer.Timer;
+
+/**
+ * A single-threaded executor that executes ready entities from an event queue, instead of
+ * waiting for work and scanning the entities itself every time it spins.
+ *
+ * A listener thread is the only one waiting on the wait set. It takes all the entities that
+ * are ready after each wait and pushes them into a lock-free queue, which the spinning thread
+ * consumes. Their callback groups are only claimed by the spinning thread right before
+ * executing each of them, so the entities of a mutually exclusive callback group are all
+ * executed back to back after a single wait. Timers are not added to the wait set: they are
+ * kept in a queue ordered by their next call, so the spinning thread only sleeps until the
+ * earliest one is due, and a timer firing never wakes up the listener.
+ *
+ * Timers are scheduled with the monotonic clock, using the time until their next call when
+ * they are collected and after every call, so a timer whose period is changed or that is
+ * reset takes effect after its current deadline.
+ * As with @{link SingleThreadedExecutor}, only one thread may spin this executor at a time.
+ */
+public class EventsExecutor implements Executor {
+  private static final Logger logger = LoggerFactory.getLogger(EventsExecutor.class);
+
+  /**
+   * A timer and the value of System.nanoTime() when it's due next.
+   */
+  private static final class ScheduledTimer {
+    private final Timer timer;
+    private long deadlineNs;
+
+    ScheduledTimer(Timer timer, long deadlineNs) {
+      this.timer = timer;
+      this.deadlineNs = deadlineNs;
+    }
+  }
+
+  private static final Comparator<ScheduledTimer> DEADLINE_ORDER =
+    new Comparator<ScheduledTimer>() {
+      public int compare(ScheduledTimer first, ScheduledTimer second) {
+        return Long.signum(first.deadlineNs - second.deadlineNs);
+      }
+    };
+
+  /**
+   * Waits for the entities other than timers and takes the ready ones, without claiming their
+   * callback groups.
+   */
+  private final BaseExecutor baseExecutor = new BaseExecutor(false, false, false);
+
+  private final BlockingQueue<ComposableNode> nodes = new LinkedBlockingQueue<ComposableNode>();
+
+  /**
+   * Incremented every time a node is added to or removed from this executor.
+   */
+  private final AtomicLong nodesGeneration = new AtomicLong();
+
+  /**
+   * The executables taken by the listener thread, in the order they became ready.
+   */
+  private final ConcurrentLinkedQueue<AnyExecutable> events =
+    new ConcurrentLinkedQueue<AnyExecutable>();
+
+  /**
+   * The events whose callback group was busy when they were popped, e.g. because a callback of
+   * the same group is spinning this executor. They are queued again once this executor
+   * releases that callback group. Only used by the spinning thread.
+   */
+  private final List<AnyExecutable> deferredEvents = new ArrayList<AnyExecutable>();
+
+  /**
+   * The number of taken executables that weren't executed yet. The listener waits for it
+   * to drop to zero before waiting on the wait set again, since entities stay ready until
+   * their executables are executed.
+   */
+  private final AtomicInteger pendingEvents = new AtomicInteger();
+
+  /**
+   * The timers of the nodes, ordered by their next call. Only used by the spinning thread.
+   */
+  private final PriorityQueue<ScheduledTimer> timerQueue =
+    new PriorityQueue<ScheduledTimer>(11, DEADLINE_ORDER);
+
+  /**
+   * The value of nodesGeneration and the entities generation of each node when the timers
+   * were last collected.
+   */
+  private long collectedNodesGeneration = -1;
+
+  private Node[] collectedNodes = new Node[0];
+
+  private long[] collectedEntitiesGenerations = new long[0];
+
+  private final AtomicBoolean spinning = new AtomicBoolean();
+
+  private volatile boolean running = true;
+
+  private Thread listener;
+
+  /**
+   * The thread that is spinning this executor, woken up when an event is pushed.
+   */
+  private volatile Thread consumer;
+
+  public void addNode(ComposableNode node) {
+    this.nodes.add(node);
+    this.nodesGeneration.incrementAndGet();
+    this.baseExecutor.addNode(node);
+    this.wakeUpConsumer();
+  }
+
+  public void removeNode(ComposableNode node) {
+    if (this.nodes.remove(node)) {
+      this.nodesGeneration.incrementAndGet();
+    }
+    this.baseExecutor.removeNode(node);
+    this.wakeUpConsumer();
+  }
+
+  private void wakeUpConsumer() {
+    Thread consumer = this.consumer;
+    if (consumer != null) {
+      LockSupport.unpark(consumer);
+    }
+  }
+
+  private synchronized void startListener() {
+    if (this.listener != null || !this.running) {
+      return;
+    }
+    this.listener = new Thread(new Runnable() {
+      public void run() {
+        EventsExecutor.this.listen();
+      }
+    }, "rcljava-events-executor-listener");
+    this.listener.setDaemon(true);
+    this.listener.start();
+  }
+
+  /**
+   * Push the executables that become ready into the event queue until this executor is
+   * disposed.
+   */
+  private void listen() {
+    try {
+      while (this.running && RCLJava.ok()) {
+        this.baseExecutor.waitForWork(-1);
+        AnyExecutable anyExecutable;
+        boolean pushed = false;
+        while ((anyExecutable = this.baseExecutor.getNextExecutable()) != null) {
+          this.pendingEvents.incrementAndGet();
+          this.events.offer(anyExecutable);
+          pushed = true;
+        }
+        if (!pushed) {
+          continue;
+        }
+        this.wakeUpConsumer();
+        while (this.running && this.pendingEvents.get() > 0) {
+          LockSupport.park(this);
+        }
+      }
+    } catch (RuntimeException e) {
+      if (this.running) {
+        logger.error("The events executor stopped listening for events", e);
+      }
+    }
+  }
+
+  private void executeEvent(AnyExecutable anyExecutable) {
+    if (!this.baseExecutor.tryAcquire(anyExecutable)) {
+      this.deferredEvents.add(anyExecutable);
+      return;
+    }
+    CallbackGroup callbackGroup = anyExecutable.callbackGroup;
+    try {
+      this.baseExecutor.executeAnyExecutable(anyExecutable);
+    } finally {
+      if (callbackGroup != null && !this.deferredEvents.isEmpty()) {
+        this.requeueDeferredEvents(callbackGroup);
+      }
+      if (this.pendingEvents.decrementAndGet() == 0) {
+        Thread listener = this.listener;
+        if (listener != null) {
+          LockSupport.unpark(listener);
+        }
+      }
+    }
+  }
+
+  /**
+   * Queue again the deferred events of a callback group that was just released.
+   */
+  private void requeueDeferredEvents(CallbackGroup callbackGroup) {
+    for (int i = 0; i < this.deferredEvents.size();) {
+      if (this.deferredEvents.get(i).callbackGroup == callbackGroup) {
+        this.events.offer(this.deferredEvents.remove(i));
+      } else {
+        ++i;
+      }
+    }
+  }
+
+  /**
+   * Rebuild the timer queue if the timers of the nodes may have changed.
+   */
+  private void collectTimersIfChanged() {
+    boolean changed = this.collectedNodesGeneration != this.nodesGeneration.get();
+    for (int i = 0; !changed && i < this.collectedNodes.length; ++i) {
+      changed = this.collectedNodes[i].getEntitiesGeneration()
+        != this.collectedEntitiesGenerations[i];
+    }
+    if (!changed) {
+      return;
+    }
+
+    this.collectedNodesGeneration = this.nodesGeneration.get();
+    List<Node> collectedNodes = new ArrayList<Node>();
+    for (ComposableNode composableNode : this.nodes) {
+      collectedNodes.add(composableNode.getNode());
+    }
+    this.collectedNodes = collectedNodes.toArray(new Node[collectedNodes.size()]);
+    this.collectedEntitiesGenerations = new long[this.collectedNodes.length];
+    for (int i = 0; i < this.collectedNodes.length; ++i) {
+      this.collectedEntitiesGenerations[i] = this.collectedNodes[i].getEntitiesGeneration();
+    }
+
+    this.timerQueue.clear();
+    long nowNs = System.nanoTime();
+    for (Node node : this.collectedNodes) {
+      for (Timer timer : node.getTimers()) {
+        if (timer.getHandle() != 0) {
+          this.timerQueue.add(new ScheduledTimer(timer, getNextDeadline(timer, nowNs)));
+        }
+      }
+    }
+  }
+
+  private static long getNextDeadline(Timer timer, long nowNs) {
+    if (timer.isCanceled()) {
+      // Check again after a period, in case the timer is reset.
+      return nowNs + timer.getTimerPeriodNS();
+    }
+    return nowNs + Math.max(0, timer.timeUntilNextCall());
+  }
+
+  /**
+   * Call the earliest timer if it is due.
+   *
+   * @return true if a due timer was checked, whether it was ready or not.
+   */
+  private boolean executeDueTimer() {
+    ScheduledTimer scheduledTimer = this.timerQueue.peek();
+    if (scheduledTimer == null || scheduledTimer.deadlineNs - System.nanoTime() > 0) {
+      return false;
+    }
+    this.timerQueue.poll();
+    Timer timer = scheduledTimer.timer;
+    if (timer.getHandle() == 0) {
+      return true;
+    }
+    try {
+      if (!timer.isCanceled() && timer.isReady()) {
+        timer.callTimer();
+        timer.executeCallback();
+      }
+    } finally {
+      if (timer.getHandle() != 0) {
+        scheduledTimer.deadlineNs = getNextDeadline(timer, System.nanoTime());
+        this.timerQueue.add(scheduledTimer);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Execute a due timer or the next event, if there is one.
+   *
+   * @return true if something was executed or checked.
+   */
+  private boolean executeNext() {
+    this.collectTimersIfChanged();
+    if (this.executeDueTimer()) {
+      return true;
+    }
+    AnyExecutable anyExecutable = this.events.poll();
+    if (anyExecutable != null) {
+      this.executeEvent(anyExecutable);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Sleep until an event is pushed, the earliest timer is due or the timeout elapses.
+   *
+   * @param timeout How long to sleep at most, in nanoseconds; a negative value has no limit.
+   */
+  private void waitForEvents(long timeout) {
+    ScheduledTimer scheduledTimer = this.timerQueue.peek();
+    if (scheduledTimer != null) {
+      long untilTimerNs = Math.max(0, scheduledTimer.deadlineNs - System.nanoTime());
+      timeout = timeout < 0 ? untilTimerNs : Math.min(timeout, untilTimerNs);
+    }
+    if (timeout == 0 || !this.events.isEmpty()) {
+      return;
+    }
+    if (timeout < 0) {
+      LockSupport.park(this);
+    } else {
+      LockSupport.parkNanos(this, timeout);
+    }
+  }
+
+  private void beginSpin() {
+    this.consumer = Thread.currentThread();
+    this.startListener();
+  }
+
+  public void spinOnce() {
+    this.spinOnce(-1);
+  }
+
+  public void spinOnce(long timeout) {
+    this.beginSpin();
+    if (this.executeNext()) {
+      return;
+    }
+    this.waitForEvents(timeout);
+    this.executeNext();
+  }
+
+  public void spinUntilComplete(Future future, long timeoutNs) {
+    this.beginSpin();
+    long startNs = System.nanoTime();
+    Callback doneCallback = null;
+    if (future instanceof RCLFuture) {
+      doneCallback = new Callback() {
+        public void call() {
+          EventsExecutor.this.wakeUpConsumer();
+        }
+      };
+      ((RCLFuture) future).addDoneCallback(doneCallback);
+    }
+    this.spinning.set(true);
+    try {
+      while (RCLJava.ok() && this.spinning.get() && !future.isDone()) {
+        long remainingNs = -1;
+        if (timeoutNs >= 0) {
+          remainingNs = timeoutNs - (System.nanoTime() - startNs);
+          if (remainingNs <= 0) {
+            return;
+          }
+        }
+        if (doneCallback == null) {
+          // Nothing wakes this thread up when the future is completed, check it regularly.
+          remainingNs = remainingNs < 0 ? 10000000 : Math.min(remainingNs, 10000000);
+        }
+        this.spinOnce(remainingNs);
+      }
+    } finally {
+      this.spinning.set(false);
+      if (doneCallback != null) {
+        ((RCLFuture) future).removeDoneCallback(doneCallback);
+      }
+    }
+  }
+
+  public void spinUntilComplete(Future future) {
+    this.spinUntilComplete(future, -1);
+  }
+
+  public void spinSome() {
+    this.spinSome(0);
+  }
+
+  public void spinSome(long maxDurationNs) {
+    this.beginSpin();
+    long startNs = System.nanoTime();
+    // Only what is already queued or due, the events pushed meanwhile wait for the next call.
+    int events = this.events.size();
+    this.collectTimersIfChanged();
+    while (RCLJava.ok()
+      && (maxDurationNs == 0 || System.nanoTime() - startNs < maxDurationNs))
+    {
+      if (this.executeDueTimer()) {
+        continue;
+      }
+      if (events == 0) {
+        return;
+      }
+      AnyExecutable anyExecutable = this.events.poll();
+      if (anyExecutable == null) {
+        return;
+      }
+      events--;
+      this.executeEvent(anyExecutable);
+    }
+  }
+
+  public void spinAll(long maxDurationNs) {
+    this.beginSpin();
+    long startNs = System.nanoTime();
+    while (RCLJava.ok()
+      && (maxDurationNs == 0 || System.nanoTime() - startNs < maxDurationNs))
+    {
+      if (!this.executeNext()) {
+        return;
+      }
+    }
+  }
+
+  public void spin() {
+    this.spinning.set(true);
+    try {
+      while (RCLJava.ok() && this.spinning.get()) {
+        this.spinOnce();
+      }
+    } finally {
+      this.spinning.set(false);
+    }
+  }
+
+  public void setTakeBatchSize(int takeBatchSize) {
+    this.baseExecutor.setTakeBatchSize(takeBatchSize);
+  }
+
+  /**
+   * Set the order in which the listener queues the entities that are ready after a wait.
+   * Timers are always executed when they are due.
+   */
+  public void setSchedulingPolicy(SchedulingPolicy schedulingPolicy) {
+    this.baseExecutor.setSchedulingPolicy(schedulingPolicy);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * Timers aren't scheduled by the wait set, so there are no statistics for them.
+   */
+  public SchedulingStatistics getSchedulingStatistics(Disposable entity) {
+    return this.baseExecutor.getSchedulingStatistics(entity);
+  }
+
+  public void cancel() {
+    this.spinning.set(false);
+    this.wakeUpConsumer();
+  }
+
+  /**
+   * Stop the listener thread and destroy the wait set. The queued events are dropped.
+   */
+  public void dispose() {
+    this.running = false;
+    Thread listener;
+    synchronized (this) {
+      listener = this.listener;
+    }
+    if (listener != null) {
+      boolean interrupted = false;
+      while (listener.isAlive()) {
+        // The listener may be about to wait, so keep waking it up until it is gone.
+        this.baseExecutor.interrupt();
+        LockSupport.unpark(listener);
+        try {
+          listener.join(10);
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    // The callback groups of the queued events weren't claimed, so there is nothing to release.
+    this.events.clear();
+    this.deferredEvents.clear();
+    this.pendingEvents.set(0);
+    this.timerQueue.clear();
+    this.baseExecutor.dispose();
+  }
+}
@@ -17,6 +17,7 @@ package org.ros2.rcljava.executors;
 
 import java.util.concurrent.Future;
 
+import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.node.ComposableNode;
 
 public interface Executor {
@@ -39,4 +40,45 @@ public interface Executor {
   public void spinAll(long maxDurationNs);
 
   public void spin();
+
+  /**
+   * Set how many messages, requests or responses are taken from a ready subscription, service
+   * or client before moving on to the next ready entity.
+   *
+   * The default of one waits on the wait set again after every message. A bigger batch size
+   * drains bursts of queued messages without a wait set round trip per message, while still
+   * bounding how long the other ready entities wait.
+   *
+   * @param takeBatchSize The maximum number of takes per ready entity. Must be positive.
+   */
+  public void setTakeBatchSize(int takeBatchSize);
+
+  /**
+   * Set how the next callback to execute is picked among the ready ones.
+   *
+   * @param schedulingPolicy The scheduling policy. The default is
+   *     @{link SchedulingPolicy#IN_ORDER}.
+   */
+  public void setSchedulingPolicy(SchedulingPolicy schedulingPolicy);
+
+  /**
+   * Get the counters that tell how long an entity of the nodes of this executor waits for
+   * its turn once it is ready.
+   *
+   * @param entity A subscription, timer, service, client, event handler, action server or
+   *     guard condition.
+   * @return The statistics of the entity, or null if the executor hasn't waited for it yet.
+   */
+  public SchedulingStatistics getSchedulingStatistics(Disposable entity);
+
+  /**
+   * Stop spinning.
+   *
+   * Wakes up the executor if it is waiting for work and makes @{link #spin()} and
+   * @{link #spinUntilComplete(Future)} return as soon as possible.
+   * This method can be called from any thread.
+   */
+  public void cancel();
+
+  public void dispose();
 }
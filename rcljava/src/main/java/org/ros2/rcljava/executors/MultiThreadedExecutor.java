@@ -20,19 +20,27 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.node.ComposableNode;
 import org.ros2.rcljava.executors.BaseExecutor;
 
+/**
+ * An executor that runs callbacks on a pool of threads.
+ *
+ * Only one thread at a time waits for work and claims a ready entity, while the other threads
+ * execute the callbacks they claimed concurrently.
+ * Which callbacks may run in parallel is controlled by the
+ * @{link org.ros2.rcljava.callbackgroups.CallbackGroup} of each entity.
+ */
 public class MultiThreadedExecutor implements Executor {
   private BaseExecutor baseExecutor;
   private ExecutorService threadpool;
-  private Object mutex;
   private int numberOfThreads;
+  private volatile boolean disposed;
 
   public MultiThreadedExecutor(int numberOfThreads) {
     this.baseExecutor = new BaseExecutor();
     this.threadpool = Executors.newFixedThreadPool(numberOfThreads);
-    this.mutex = new Object();
     this.numberOfThreads = numberOfThreads;
   }
 
@@ -53,6 +61,7 @@ public class MultiThreadedExecutor implements Executor {
   }
 
   public void spinOnce(long timeout) {
+    // Like the other spin methods, this only holds the wait lock while claiming the executable.
     this.baseExecutor.spinOnce(timeout);
   }
 
@@ -77,22 +86,57 @@ public class MultiThreadedExecutor implements Executor {
   }
 
   public void spin() {
-    synchronized (mutex) {
-      for (int i = 0; i < this.numberOfThreads; i++) {
-        this.threadpool.execute(new Runnable() {
-          public void run() {
-            MultiThreadedExecutor.this.run();
-          }
-        });
-      }
+    this.baseExecutor.setSpinning(true);
+    for (int i = 0; i < this.numberOfThreads; i++) {
+      this.threadpool.execute(new Runnable() {
+        public void run() {
+          MultiThreadedExecutor.this.run();
+        }
+      });
     }
     this.threadpool.shutdown();
   }
 
+  public void setTakeBatchSize(int takeBatchSize) {
+    this.baseExecutor.setTakeBatchSize(takeBatchSize);
+  }
+
+  public void setSchedulingPolicy(SchedulingPolicy schedulingPolicy) {
+    this.baseExecutor.setSchedulingPolicy(schedulingPolicy);
+  }
+
+  public SchedulingStatistics getSchedulingStatistics(Disposable entity) {
+    return this.baseExecutor.getSchedulingStatistics(entity);
+  }
+
+  public void cancel() {
+    this.baseExecutor.cancel();
+  }
+
+  /**
+   * Stop the threads spinning this executor, wait for the callbacks they are executing and
+   * destroy the wait set.
+   */
+  public void dispose() {
+    this.disposed = true;
+    // Wake up the thread waiting for work, so it releases the wait lock.
+    this.baseExecutor.cancel();
+    this.baseExecutor.waitForExecutions();
+    this.baseExecutor.dispose();
+  }
+
   private void run() {
-    while (RCLJava.ok()) {
-      synchronized (mutex) {
-        this.spinOnce();
+    while (RCLJava.ok() && !this.disposed && this.baseExecutor.isSpinning()) {
+      AnyExecutable anyExecutable;
+      synchronized (this.baseExecutor.getWaitMutex()) {
+        if (this.disposed || !this.baseExecutor.isSpinning()) {
+          return;
+        }
+        anyExecutable = this.baseExecutor.waitForNextExecutable(-1);
+      }
+      if (anyExecutable != null) {
+        // Executed outside of the lock, so other threads can claim and run more work.
+        this.baseExecutor.executeAnyExecutable(anyExecutable);
       }
     }
   }
@@ -0,0 +1,42 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+/**
+ * How an executor picks the next callback to execute among the ready ones.
+ *
+ * Whatever the policy, timers are considered first, then subscriptions, services, clients,
+ * events, action servers and guard conditions.
+ */
+public enum SchedulingPolicy {
+  /**
+   * Always scan the entities of each kind in the order they were added, so the first ones are
+   * executed first whenever they are ready.
+   */
+  IN_ORDER,
+
+  /**
+   * Scan the entities of each kind starting after the last executed one, so every ready
+   * entity gets its turn.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * Execute the ready entities of the callback groups with the highest priority first, and
+   * round-robin between the entities of the same priority.
+   */
+  PRIORITY
+}
@@ -0,0 +1,69 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+/**
+ * Counters that tell how long an entity waits for its turn once it is ready, to verify the
+ * fairness of the scheduling of an executor.
+ *
+ * The waits are measured in callbacks executed ahead of the entity, since that's what the
+ * scheduling controls. The counters are updated by the executor and can be read from any
+ * thread.
+ */
+public final class SchedulingStatistics {
+  private volatile long executionCount;
+
+  private volatile long passedOverCount;
+
+  private volatile long maxPassedOverCount;
+
+  SchedulingStatistics() {
+  }
+
+  /**
+   * @return How many times the entity was executed.
+   */
+  public long getExecutionCount() {
+    return this.executionCount;
+  }
+
+  /**
+   * @return How many callbacks of other entities were executed in total while this entity
+   *     was ready.
+   */
+  public long getPassedOverCount() {
+    return this.passedOverCount;
+  }
+
+  /**
+   * @return The most callbacks of other entities executed while this entity was ready,
+   *     before it was executed.
+   */
+  public long getMaxPassedOverCount() {
+    return this.maxPassedOverCount;
+  }
+
+  /**
+   * Only called by the thread claiming executables, which the executor serializes.
+   */
+  void recordExecution(long passedOverCount) {
+    this.passedOverCount += passedOverCount;
+    if (passedOverCount > this.maxPassedOverCount) {
+      this.maxPassedOverCount = passedOverCount;
+    }
+    this.executionCount++;
+  }
+}
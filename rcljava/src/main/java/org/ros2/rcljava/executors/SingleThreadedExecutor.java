@@ -18,6 +18,7 @@ package org.ros2.rcljava.executors;
 import java.util.concurrent.Future;
 
 import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.node.ComposableNode;
 import org.ros2.rcljava.executors.BaseExecutor;
 
@@ -61,8 +62,33 @@ public class SingleThreadedExecutor implements Executor {
   }
 
   public void spin() {
-    while (RCLJava.ok()) {
-      this.spinOnce();
+    this.baseExecutor.setSpinning(true);
+    try {
+      while (RCLJava.ok() && this.baseExecutor.isSpinning()) {
+        this.spinOnce();
+      }
+    } finally {
+      this.baseExecutor.setSpinning(false);
     }
   }
+
+  public void setTakeBatchSize(int takeBatchSize) {
+    this.baseExecutor.setTakeBatchSize(takeBatchSize);
+  }
+
+  public void setSchedulingPolicy(SchedulingPolicy schedulingPolicy) {
+    this.baseExecutor.setSchedulingPolicy(schedulingPolicy);
+  }
+
+  public SchedulingStatistics getSchedulingStatistics(Disposable entity) {
+    return this.baseExecutor.getSchedulingStatistics(entity);
+  }
+
+  public void cancel() {
+    this.baseExecutor.cancel();
+  }
+
+  public void dispose() {
+    this.baseExecutor.dispose();
+  }
 }
@@ -0,0 +1,111 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+import java.util.concurrent.Future;
+
+import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.interfaces.Disposable;
+import org.ros2.rcljava.node.ComposableNode;
+import org.ros2.rcljava.executors.BaseExecutor;
+
+/**
+ * A single-threaded executor for nodes whose entities are all created up front.
+ *
+ * The entities are collected when nodes are added or removed, when a node signals that its
+ * entities changed, or when @{link #refresh()} is called, instead of being checked one by one
+ * before every wait. Spinning doesn't allocate anything while there is no work to execute.
+ * As with @{link SingleThreadedExecutor}, only one thread may spin this executor at a time.
+ */
+public class StaticSingleThreadedExecutor implements Executor {
+  private BaseExecutor baseExecutor = new BaseExecutor(true, true);
+
+  public void addNode(ComposableNode node) {
+    this.baseExecutor.addNode(node);
+  }
+
+  public void removeNode(ComposableNode node) {
+    this.baseExecutor.removeNode(node);
+  }
+
+  public void spinOnce() {
+    this.spinOnce(-1);
+  }
+
+  public void spinOnce(long timeout) {
+    this.baseExecutor.spinOnce(timeout);
+  }
+
+  public void spinUntilComplete(Future future, long timeoutNs) {
+    this.baseExecutor.spinUntilComplete(future, timeoutNs);
+  }
+
+  public void spinUntilComplete(Future future) {
+    this.baseExecutor.spinUntilComplete(future, -1);
+  }
+
+  public void spinSome() {
+    this.spinSome(0);
+  }
+
+  public void spinSome(long maxDurationNs) {
+    this.baseExecutor.spinSome(maxDurationNs);
+  }
+
+  public void spinAll(long maxDurationNs) {
+    this.baseExecutor.spinAll(maxDurationNs);
+  }
+
+  public void spin() {
+    this.baseExecutor.setSpinning(true);
+    try {
+      while (RCLJava.ok() && this.baseExecutor.isSpinning()) {
+        this.spinOnce();
+      }
+    } finally {
+      this.baseExecutor.setSpinning(false);
+    }
+  }
+
+  public void setTakeBatchSize(int takeBatchSize) {
+    this.baseExecutor.setTakeBatchSize(takeBatchSize);
+  }
+
+  public void setSchedulingPolicy(SchedulingPolicy schedulingPolicy) {
+    this.baseExecutor.setSchedulingPolicy(schedulingPolicy);
+  }
+
+  public SchedulingStatistics getSchedulingStatistics(Disposable entity) {
+    return this.baseExecutor.getSchedulingStatistics(entity);
+  }
+
+  /**
+   * Collect the entities of the nodes again before the next wait.
+   *
+   * This method can be called from any thread.
+   */
+  public void refresh() {
+    this.baseExecutor.refresh();
+  }
+
+  public void cancel() {
+    this.baseExecutor.cancel();
+  }
+
+  public void dispose() {
+    this.baseExecutor.dispose();
+  }
+}
@@ -0,0 +1,170 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.interfaces.Disposable;
+import org.ros2.rcljava.node.ComposableNode;
+import org.ros2.rcljava.executors.BaseExecutor;
+
+/**
+ * An executor that runs every callback on a thread of its own, so callbacks can block, e.g.
+ * on a synchronous service call, without holding back the other callbacks.
+ *
+ * On Java 21 and later the callbacks run on virtual threads, which are cheap enough to have
+ * one per callback. On older runtimes they run on a cached pool of platform threads instead.
+ * The thread that spins only waits for work and hands the ready callbacks over, so the spin
+ * methods return once callbacks are dispatched rather than executed. Only one thread may spin
+ * this executor at a time.
+ *
+ * The callbacks of an entity never overlap: an entity is not dispatched again until its
+ * previous callback returns. Which callbacks of different entities may run in parallel is
+ * controlled by the @{link org.ros2.rcljava.callbackgroups.CallbackGroup} of each entity, so
+ * the entities of a node have to be in a reentrant callback group to run in parallel.
+ */
+public class VirtualThreadExecutor implements Executor {
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecutor.class);
+
+  private BaseExecutor baseExecutor = new BaseExecutor();
+
+  private final ExecutorService callbackExecutor;
+
+  private final boolean virtualThreads;
+
+  public VirtualThreadExecutor() {
+    this(false);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param reentrantEntities Whether the callbacks of an entity of a reentrant callback group
+   *     may overlap, as with @{link MultiThreadedExecutor}.
+   */
+  public VirtualThreadExecutor(boolean reentrantEntities) {
+    ExecutorService callbackExecutor = newVirtualThreadPerTaskExecutor();
+    this.virtualThreads = callbackExecutor != null;
+    if (callbackExecutor == null) {
+      logger.warn("Virtual threads are not available, using a pool of platform threads");
+      callbackExecutor = Executors.newCachedThreadPool();
+    }
+    this.callbackExecutor = callbackExecutor;
+    this.baseExecutor.setCallbackExecutor(callbackExecutor, reentrantEntities);
+  }
+
+  /**
+   * Look up Executors.newVirtualThreadPerTaskExecutor(), which only exists since Java 21.
+   *
+   * @return A new executor service that starts a virtual thread for each task, or null if
+   *     virtual threads are not supported by this runtime.
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) method.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return true if the callbacks run on virtual threads, false if they run on a pool of
+   *     platform threads.
+   */
+  public boolean usesVirtualThreads() {
+    return this.virtualThreads;
+  }
+
+  public void addNode(ComposableNode node) {
+    this.baseExecutor.addNode(node);
+  }
+
+  public void removeNode(ComposableNode node) {
+    this.baseExecutor.removeNode(node);
+  }
+
+  public void spinOnce() {
+    this.spinOnce(-1);
+  }
+
+  public void spinOnce(long timeout) {
+    this.baseExecutor.spinOnce(timeout);
+  }
+
+  public void spinUntilComplete(Future future, long timeoutNs) {
+    this.baseExecutor.spinUntilComplete(future, timeoutNs);
+  }
+
+  public void spinUntilComplete(Future future) {
+    this.baseExecutor.spinUntilComplete(future, -1);
+  }
+
+  public void spinSome() {
+    this.spinSome(0);
+  }
+
+  public void spinSome(long maxDurationNs) {
+    this.baseExecutor.spinSome(maxDurationNs);
+  }
+
+  public void spinAll(long maxDurationNs) {
+    this.baseExecutor.spinAll(maxDurationNs);
+  }
+
+  public void spin() {
+    this.baseExecutor.setSpinning(true);
+    try {
+      while (RCLJava.ok() && this.baseExecutor.isSpinning()) {
+        this.spinOnce();
+      }
+    } finally {
+      this.baseExecutor.setSpinning(false);
+    }
+  }
+
+  public void setTakeBatchSize(int takeBatchSize) {
+    this.baseExecutor.setTakeBatchSize(takeBatchSize);
+  }
+
+  public void setSchedulingPolicy(SchedulingPolicy schedulingPolicy) {
+    this.baseExecutor.setSchedulingPolicy(schedulingPolicy);
+  }
+
+  public SchedulingStatistics getSchedulingStatistics(Disposable entity) {
+    return this.baseExecutor.getSchedulingStatistics(entity);
+  }
+
+  public void cancel() {
+    this.baseExecutor.cancel();
+  }
+
+  /**
+   * Stop dispatching callbacks and destroy the wait set. Callbacks that are already running
+   * are not interrupted.
+   */
+  public void dispose() {
+    this.callbackExecutor.shutdown();
+    this.baseExecutor.dispose();
+  }
+}
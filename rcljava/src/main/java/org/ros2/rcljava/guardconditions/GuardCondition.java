@@ -0,0 +1,52 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.guardconditions;
+
+import java.lang.ref.WeakReference;
+
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.interfaces.Disposable;
+import org.ros2.rcljava.node.Node;
+
+/**
+ * This class serves as a bridge between ROS2's rcl_guard_condition_t and RCLJava.
+ * A GuardCondition must be created via @{link Node#createGuardCondition(Callback)}
+ *
+ * Triggering a guard condition wakes up the executors that are waiting on it, which then
+ * execute its callback.
+ */
+public interface GuardCondition extends Disposable {
+  /**
+   * Trigger this guard condition.
+   *
+   * This method can be called from any thread.
+   */
+  void trigger();
+
+  /**
+   * @return A @{link java.lang.ref.WeakReference} to the
+   * @{link org.ros2.rcljava.Node} that created this guard condition, or null if it is not
+   * owned by a node.
+   */
+  WeakReference<Node> getNodeReference();
+
+  /**
+   * @return The callback group this guard condition belongs to.
+   */
+  CallbackGroup getCallbackGroup();
+
+  void executeCallback();
+}
@@ -0,0 +1,119 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.guardconditions;
+
+import java.lang.ref.WeakReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.common.JNIUtils;
+import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.node.Node;
+
+public class GuardConditionImpl implements GuardCondition {
+  private static final Logger logger = LoggerFactory.getLogger(GuardConditionImpl.class);
+
+  static {
+    try {
+      JNIUtils.loadImplementation(GuardConditionImpl.class);
+    } catch (UnsatisfiedLinkError ule) {
+      logger.error("Native code library failed to load.\n" + ule);
+      System.exit(1);
+    }
+  }
+
+  private final WeakReference<Node> nodeReference;
+
+  private long handle;
+
+  private final Callback callback;
+
+  private final CallbackGroup callbackGroup;
+
+  private static native long nativeCreateGuardCondition(long contextHandle);
+
+  private static native void nativeTrigger(long handle);
+
+  private static native void nativeDispose(long handle);
+
+  /**
+   * Create a guard condition.
+   *
+   * @param nodeReference A reference to the node that owns this guard condition, or null if
+   *     it is not owned by a node.
+   * @param contextHandle A pointer to the context the guard condition is created in.
+   * @param callback Function that is called by the executor when this guard condition is
+   *     triggered, or null if it is only used to wake up waiting executors.
+   * @param callbackGroup The callback group this guard condition belongs to.
+   */
+  public GuardConditionImpl(final WeakReference<Node> nodeReference, final long contextHandle,
+      final Callback callback, final CallbackGroup callbackGroup) {
+    this.nodeReference = nodeReference;
+    this.handle = nativeCreateGuardCondition(contextHandle);
+    this.callback = callback;
+    this.callbackGroup = callbackGroup;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void trigger() {
+    nativeTrigger(this.handle);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final WeakReference<Node> getNodeReference() {
+    return this.nodeReference;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroup getCallbackGroup() {
+    return this.callbackGroup;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final long getHandle() {
+    return this.handle;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void dispose() {
+    if (this.nodeReference != null) {
+      Node node = this.nodeReference.get();
+      if (node != null) {
+        node.removeGuardCondition(this);
+      }
+    }
+    nativeDispose(this.handle);
+    this.handle = 0;
+  }
+
+  public void executeCallback() {
+    if (this.callback != null) {
+      this.callback.call();
+    }
+  }
+}
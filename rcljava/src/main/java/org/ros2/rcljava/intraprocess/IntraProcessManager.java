@@ -0,0 +1,144 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.intraprocess;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.qos.QoSProfile;
+import org.ros2.rcljava.qos.policies.Durability;
+import org.ros2.rcljava.qos.policies.History;
+import org.ros2.rcljava.qos.policies.Reliability;
+import org.ros2.rcljava.subscription.Subscription;
+
+/**
+ * Delivers messages between the publishers and subscriptions of a context without going
+ * through the middleware.
+ *
+ * Every publisher of the context is registered, while only the subscriptions of nodes that
+ * enable intra-process communication are. Those subscriptions ignore the messages the
+ * middleware receives from publishers of the same context, so each message is delivered once.
+ * Messages published by native publishers of the context, like the rosout one, are not seen
+ * by intra-process subscriptions.
+ *
+ * Each subscription receives its own copy of the message, queued up to its history depth.
+ * Publishers with transient local durability keep their last messages to replay them to
+ * subscriptions created later.
+ */
+public final class IntraProcessManager {
+  /**
+   * The publishers and subscriptions of a topic, keyed by its fully qualified name.
+   */
+  private final ConcurrentMap<String, Topic> topics = new ConcurrentHashMap<String, Topic>();
+
+  static final class Topic {
+    final CopyOnWriteArrayList<IntraProcessPublisher<?>> publishers =
+        new CopyOnWriteArrayList<IntraProcessPublisher<?>>();
+
+    final CopyOnWriteArrayList<IntraProcessSubscription<?>> subscriptions =
+        new CopyOnWriteArrayList<IntraProcessSubscription<?>>();
+  }
+
+  private Topic getTopic(final String topicName) {
+    Topic topic = this.topics.get(topicName);
+    if (topic == null) {
+      Topic newTopic = new Topic();
+      topic = this.topics.putIfAbsent(topicName, newTopic);
+      if (topic == null) {
+        topic = newTopic;
+      }
+    }
+    return topic;
+  }
+
+  /**
+   * Register a publisher.
+   *
+   * @param messageType The class of the messages that the publisher will publish.
+   * @param topicName The fully qualified name of the topic.
+   * @param qosProfile The QoS profile of the publisher.
+   * @return The intra-process side of the publisher, which must be disposed with it.
+   */
+  public <T extends MessageDefinition> IntraProcessPublisher<T> addPublisher(
+      final Class<T> messageType, final String topicName, final QoSProfile qosProfile) {
+    Topic topic = this.getTopic(topicName);
+    IntraProcessPublisher<T> publisher =
+        new IntraProcessPublisher<T>(topic, messageType, qosProfile);
+    topic.publishers.add(publisher);
+    return publisher;
+  }
+
+  /**
+   * Register a subscription, replaying the messages kept by transient local publishers.
+   *
+   * @param subscription The subscription the messages are delivered to.
+   * @param topicName The fully qualified name of the topic.
+   * @param qosProfile The QoS profile of the subscription.
+   * @return The intra-process side of the subscription, which must be disposed with it.
+   */
+  public <T extends MessageDefinition> IntraProcessSubscription<T> addSubscription(
+      final Subscription<T> subscription, final String topicName, final QoSProfile qosProfile) {
+    Topic topic = this.getTopic(topicName);
+    IntraProcessSubscription<T> intraProcessSubscription =
+        new IntraProcessSubscription<T>(topic, subscription, qosProfile);
+    // Transient local publishers deliver while holding the topic, so nothing is replayed twice
+    synchronized (topic) {
+      for (IntraProcessPublisher<?> publisher : topic.publishers) {
+        publisher.replay(intraProcessSubscription);
+      }
+      topic.subscriptions.add(intraProcessSubscription);
+    }
+    return intraProcessSubscription;
+  }
+
+  static <T extends MessageDefinition> T newMessage(final Class<T> messageType) {
+    try {
+      return messageType.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to instantiate message " + messageType.getName());
+    }
+  }
+
+  /**
+   * @return The number of messages kept by a history of the given QoS profile, or 0 if it
+   *     keeps all of them.
+   */
+  static int getHistoryDepth(final QoSProfile qosProfile) {
+    if (qosProfile.getHistory() == History.KEEP_ALL) {
+      return 0;
+    }
+    return Math.max(1, qosProfile.getDepth());
+  }
+
+  /**
+   * Check the QoS policies of a publisher and a subscription as the middleware does when it
+   * matches them.
+   */
+  static boolean isCompatible(final IntraProcessPublisher<?> publisher,
+      final IntraProcessSubscription<?> subscription) {
+    if (publisher.getMessageType() != subscription.getMessageType()) {
+      return false;
+    }
+    if (publisher.getReliability() == Reliability.BEST_EFFORT
+        && subscription.getReliability() == Reliability.RELIABLE) {
+      return false;
+    }
+    return publisher.getDurability() != Durability.VOLATILE
+        || subscription.getDurability() != Durability.TRANSIENT_LOCAL;
+  }
+}
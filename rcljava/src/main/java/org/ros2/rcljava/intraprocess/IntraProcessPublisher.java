@@ -0,0 +1,162 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.intraprocess;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.qos.QoSProfile;
+import org.ros2.rcljava.qos.policies.Durability;
+import org.ros2.rcljava.qos.policies.Reliability;
+
+/**
+ * The intra-process side of a publisher, created via
+ * @{link IntraProcessManager#addPublisher(Class&lt;T&gt;, String, QoSProfile)}
+ *
+ * @param <T> The type of the messages that the publisher will publish.
+ */
+public final class IntraProcessPublisher<T extends MessageDefinition> {
+  private final IntraProcessManager.Topic topic;
+
+  private final Class<T> messageType;
+
+  private final Reliability reliability;
+
+  private final Durability durability;
+
+  private final int historyDepth;
+
+  /**
+   * Copies of the last published messages, kept to replay them to subscriptions created later
+   * if the publisher is transient local, or null otherwise.
+   */
+  private final ArrayDeque<T> history;
+
+  IntraProcessPublisher(final IntraProcessManager.Topic topic, final Class<T> messageType,
+      final QoSProfile qosProfile) {
+    this.topic = topic;
+    this.messageType = messageType;
+    this.reliability = qosProfile.getReliability();
+    this.durability = qosProfile.getDurability();
+    this.historyDepth = IntraProcessManager.getHistoryDepth(qosProfile);
+    this.history = this.durability == Durability.TRANSIENT_LOCAL ? new ArrayDeque<T>() : null;
+  }
+
+  Class<T> getMessageType() {
+    return this.messageType;
+  }
+
+  Reliability getReliability() {
+    return this.reliability;
+  }
+
+  Durability getDurability() {
+    return this.durability;
+  }
+
+  /**
+   * @return The number of intra-process subscriptions the messages are delivered to.
+   */
+  public int getSubscriptionCount() {
+    int count = 0;
+    for (IntraProcessSubscription<?> subscription : this.topic.subscriptions) {
+      if (IntraProcessManager.isCompatible(this, subscription)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return true if the published messages are delivered to an intra-process subscription or
+   *     kept for later ones.
+   */
+  public boolean needsMessages() {
+    return this.history != null || this.getSubscriptionCount() > 0;
+  }
+
+  /**
+   * Deliver a copy of the message to every matching intra-process subscription.
+   *
+   * @param message The message, which the caller keeps owning.
+   */
+  public void publish(final T message) {
+    if (this.history == null) {
+      this.deliver(message);
+      return;
+    }
+    synchronized (this.topic) {
+      T copy;
+      if (this.historyDepth > 0 && this.history.size() >= this.historyDepth) {
+        copy = this.history.pollFirst();
+      } else {
+        copy = IntraProcessManager.newMessage(this.messageType);
+      }
+      copy.copyFrom(message);
+      this.history.addLast(copy);
+      this.deliver(message);
+    }
+  }
+
+  /**
+   * Deserialize a message to deliver it, unless no intra-process subscription needs it.
+   *
+   * @param buffer The serialized message, which is left untouched.
+   */
+  public void publishSerialized(final ByteBuffer buffer) {
+    if (!this.needsMessages()) {
+      return;
+    }
+    T message = IntraProcessManager.newMessage(this.messageType);
+    message.deserialize(buffer.duplicate());
+    this.publish(message);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void deliver(final T message) {
+    for (IntraProcessSubscription<?> subscription : this.topic.subscriptions) {
+      if (IntraProcessManager.isCompatible(this, subscription)) {
+        ((IntraProcessSubscription<T>) subscription).offer(message);
+      }
+    }
+  }
+
+  /**
+   * Deliver the kept messages to a new subscription. Must be called while holding the topic.
+   */
+  @SuppressWarnings("unchecked")
+  void replay(final IntraProcessSubscription<?> subscription) {
+    if (this.history == null || !IntraProcessManager.isCompatible(this, subscription)) {
+      return;
+    }
+    for (T message : this.history) {
+      ((IntraProcessSubscription<T>) subscription).offer(message);
+    }
+  }
+
+  /**
+   * Stop delivering messages and drop the kept ones.
+   */
+  public void dispose() {
+    this.topic.publishers.remove(this);
+    if (this.history != null) {
+      synchronized (this.topic) {
+        this.history.clear();
+      }
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.intraprocess;
+
+import java.util.ArrayDeque;
+
+import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.guardconditions.GuardCondition;
+import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.node.Node;
+import org.ros2.rcljava.qos.QoSProfile;
+import org.ros2.rcljava.qos.policies.Durability;
+import org.ros2.rcljava.qos.policies.Reliability;
+import org.ros2.rcljava.subscription.Subscription;
+
+/**
+ * The intra-process side of a subscription, created via
+ * @{link IntraProcessManager#addSubscription(Subscription&lt;T&gt;, String, QoSProfile)}
+ *
+ * Delivered messages are queued, and a guard condition of the node of the subscription wakes
+ * up the executor, which then runs the callback of the subscription in its callback group.
+ *
+ * @param <T> The type of the messages that the subscription will receive.
+ */
+public final class IntraProcessSubscription<T extends MessageDefinition> {
+  private final IntraProcessManager.Topic topic;
+
+  private final Subscription<T> subscription;
+
+  private final Reliability reliability;
+
+  private final Durability durability;
+
+  /**
+   * The maximum number of queued messages, or 0 if it is unbounded.
+   */
+  private final int depth;
+
+  private final ArrayDeque<T> queue = new ArrayDeque<T>();
+
+  private final GuardCondition guardCondition;
+
+  IntraProcessSubscription(final IntraProcessManager.Topic topic,
+      final Subscription<T> subscription, final QoSProfile qosProfile) {
+    this.topic = topic;
+    this.subscription = subscription;
+    this.reliability = qosProfile.getReliability();
+    this.durability = qosProfile.getDurability();
+    this.depth = IntraProcessManager.getHistoryDepth(qosProfile);
+
+    Node node = subscription.getNodeReference().get();
+    if (node == null) {
+      throw new IllegalStateException("Node reference is null");
+    }
+    this.guardCondition = node.createGuardCondition(new Callback() {
+      public void call() {
+        IntraProcessSubscription.this.takeAndExecuteCallback();
+      }
+    }, subscription.getCallbackGroup());
+  }
+
+  Class<T> getMessageType() {
+    return this.subscription.getMessageType();
+  }
+
+  Reliability getReliability() {
+    return this.reliability;
+  }
+
+  Durability getDurability() {
+    return this.durability;
+  }
+
+  /**
+   * Queue a copy of the message, dropping the oldest queued one if the queue is full.
+   */
+  void offer(final T message) {
+    T copy = IntraProcessManager.newMessage(this.subscription.getMessageType());
+    copy.copyFrom(message);
+    synchronized (this.queue) {
+      if (this.depth > 0 && this.queue.size() >= this.depth) {
+        this.queue.pollFirst();
+      }
+      this.queue.addLast(copy);
+    }
+    this.trigger();
+  }
+
+  private void trigger() {
+    if (this.guardCondition.getHandle() != 0) {
+      this.guardCondition.trigger();
+    }
+  }
+
+  /**
+   * @return The number of queued messages.
+   */
+  public int getQueueSize() {
+    synchronized (this.queue) {
+      return this.queue.size();
+    }
+  }
+
+  private void takeAndExecuteCallback() {
+    T message;
+    boolean hasMore;
+    synchronized (this.queue) {
+      message = this.queue.pollFirst();
+      hasMore = !this.queue.isEmpty();
+    }
+    // The guard condition is reset by every wait, so trigger it again for the next message
+    if (hasMore) {
+      this.trigger();
+    }
+    if (message != null) {
+      this.subscription.executeCallback(message);
+    }
+  }
+
+  /**
+   * Stop receiving messages and drop the queued ones.
+   */
+  public void dispose() {
+    this.topic.subscriptions.remove(this);
+    this.guardCondition.dispose();
+    synchronized (this.queue) {
+      this.queue.clear();
+    }
+  }
+}
@@ -15,6 +15,7 @@
 
 package org.ros2.rcljava.node;
 
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,8 @@ import org.ros2.rcljava.action.ActionServer;
 import org.ros2.rcljava.action.ActionServerGoalHandle;
 import org.ros2.rcljava.action.CancelCallback;
 import org.ros2.rcljava.action.GoalCallback;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.callbackgroups.CallbackGroupType;
 import org.ros2.rcljava.client.Client;
 import org.ros2.rcljava.concurrent.Callback;
 import org.ros2.rcljava.consumers.Consumer;
@@ -31,21 +34,28 @@ import org.ros2.rcljava.consumers.TriConsumer;
 import org.ros2.rcljava.graph.EndpointInfo;
 import org.ros2.rcljava.graph.NameAndTypes;
 import org.ros2.rcljava.graph.NodeNameInfo;
+import org.ros2.rcljava.guardconditions.GuardCondition;
 import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.interfaces.ActionDefinition;
 import org.ros2.rcljava.interfaces.GoalRequestDefinition;
 import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.interfaces.MessageView;
 import org.ros2.rcljava.interfaces.ServiceDefinition;
 import org.ros2.rcljava.parameters.ParameterCallback;
 import org.ros2.rcljava.parameters.ParameterType;
 import org.ros2.rcljava.parameters.ParameterVariant;
 import org.ros2.rcljava.parameters.client.AsyncParametersClient;
 import org.ros2.rcljava.parameters.client.SyncParametersClient;
+import org.ros2.rcljava.publisher.AsyncPublisher;
+import org.ros2.rcljava.publisher.OverflowPolicy;
 import org.ros2.rcljava.publisher.Publisher;
 import org.ros2.rcljava.qos.QoSProfile;
 import org.ros2.rcljava.service.RMWRequestId;
 import org.ros2.rcljava.service.Service;
+import org.ros2.rcljava.subscription.BatchSubscription;
+import org.ros2.rcljava.subscription.SerializedSubscription;
 import org.ros2.rcljava.subscription.Subscription;
+import org.ros2.rcljava.subscription.SubscriptionBase;
 import org.ros2.rcljava.time.Clock;
 import org.ros2.rcljava.timer.Timer;
 import org.ros2.rcljava.timer.WallTimer;
@@ -75,6 +85,11 @@ public interface Node extends Disposable {
    */
   Collection<Subscription> getSubscriptions();
 
+  /**
+   * @return All the @{link SerializedSubscription}s that were created by this instance.
+   */
+  Collection<SerializedSubscription> getSerializedSubscriptions();
+
   /**
    * @return All the @{link Publisher}s that were created by this instance.
    */
@@ -90,6 +105,67 @@ public interface Node extends Disposable {
    */
   Collection<ActionServer> getActionServers();
 
+  /**
+   * @return All the @{link GuardCondition}s that were created by this instance.
+   */
+  Collection<GuardCondition> getGuardConditions();
+
+  /**
+   * Get the guard condition that is triggered whenever the entities of this node change.
+   *
+   * Executors wait on it, so they are woken up to collect the new entities.
+   *
+   * @return The notify guard condition of this node.
+   */
+  GuardCondition getNotifyGuardCondition();
+
+  /**
+   * Get the generation of the entities of this node.
+   *
+   * The returned value changes every time a subscription, publisher, service, client, timer,
+   * action server or event handler is added to or removed from this node.
+   * Executors use it to know when the entities they are waiting on need to be collected again.
+   *
+   * @return The current generation of the entities of this node.
+   */
+  long getEntitiesGeneration();
+
+  /**
+   * Signal that the entities of this node changed.
+   *
+   * This is called by this node whenever it creates or removes an entity, and by entities
+   * owned by this node that create or remove entities of their own (e.g. event handlers).
+   */
+  void notifyEntitiesChanged();
+
+  /**
+   * Create a callback group.
+   *
+   * Entities created with a callback group are executed according to the type of the group:
+   * callbacks of a mutually exclusive group are never executed concurrently, while callbacks
+   * of a reentrant group may be executed in parallel by a multithreaded executor.
+   *
+   * @param type The type of the callback group.
+   * @return The created callback group.
+   */
+  CallbackGroup createCallbackGroup(final CallbackGroupType type);
+
+  /**
+   * Create a callback group with a priority.
+   *
+   * @see #createCallbackGroup(CallbackGroupType)
+   * @param priority The priority of the callbacks of the group, used by executors that
+   *   schedule by priority. Groups created without one have a priority of zero.
+   */
+  CallbackGroup createCallbackGroup(final CallbackGroupType type, final int priority);
+
+  /**
+   * Get the callback group used by entities that were created without one.
+   *
+   * @return The default callback group of this node, which is mutually exclusive.
+   */
+  CallbackGroup getDefaultCallbackGroup();
+
   /**
    * Create a Subscription&lt;T&gt;.
    *
@@ -110,6 +186,120 @@ public interface Node extends Disposable {
   <T extends MessageDefinition> Subscription<T> createSubscription(
       final Class<T> messageType, final String topic, final Consumer<T> callback);
 
+  /**
+   * Create a Subscription&lt;T&gt; whose callback belongs to the given callback group.
+   *
+   * @see #createSubscription(Class, String, Consumer, QoSProfile)
+   * @param callbackGroup The callback group the created @{link Subscription} belongs to.
+   */
+  <T extends MessageDefinition> Subscription<T> createSubscription(final Class<T> messageType,
+      final String topic, final Consumer<T> callback, final QoSProfile qosProfile,
+      final CallbackGroup callbackGroup);
+
+  /**
+   * Create a BatchSubscription&lt;T&gt;, whose callback receives every message that could
+   * be taken at once instead of being called once per message.
+   *
+   * @param <T> The type of the messages that will be received by the
+   *     created @{link BatchSubscription}.
+   * @param messageType The class of the messages that will be received by the
+   *     created @{link BatchSubscription}.
+   * @param topic The topic from which the created @{link BatchSubscription} will
+   *     receive messages.
+   * @param callback The callback function that will be triggered with the
+   *     received messages, oldest first.
+   * @param maxBatchSize The maximum number of messages passed to the callback at once.
+   * @return A @{link BatchSubscription} that represents the underlying ROS2
+   *     subscription structure.
+   */
+  <T extends MessageDefinition> BatchSubscription<T> createBatchSubscription(
+      final Class<T> messageType, final String topic, final Consumer<List<T>> callback,
+      final QoSProfile qosProfile, final int maxBatchSize);
+
+  <T extends MessageDefinition> BatchSubscription<T> createBatchSubscription(
+      final Class<T> messageType, final String topic, final Consumer<List<T>> callback,
+      final int maxBatchSize);
+
+  /**
+   * Create a BatchSubscription&lt;T&gt; whose callback belongs to the given callback group.
+   *
+   * @see #createBatchSubscription(Class, String, Consumer, QoSProfile, int)
+   * @param callbackGroup The callback group the created @{link BatchSubscription} belongs to.
+   */
+  <T extends MessageDefinition> BatchSubscription<T> createBatchSubscription(
+      final Class<T> messageType, final String topic, final Consumer<List<T>> callback,
+      final QoSProfile qosProfile, final int maxBatchSize, final CallbackGroup callbackGroup);
+
+  /**
+   * Create a SerializedSubscription&lt;T&gt;, which receives the serialized (CDR)
+   * form of the messages without converting them to Java.
+   *
+   * @param <T> The type of the messages that will be received by the
+   *     created @{link SerializedSubscription}.
+   * @param messageType The class of the messages that will be received by the
+   *     created @{link SerializedSubscription}.
+   * @param topic The topic from which the created @{link SerializedSubscription} will
+   *     receive messages.
+   * @param callback The callback function that will be triggered when a
+   *     message is received. The buffer is reused for the next message, so it
+   *     is only valid until the callback returns.
+   * @return A @{link SerializedSubscription} that represents the underlying ROS2
+   *     subscription structure.
+   */
+  <T extends MessageDefinition> SerializedSubscription<T> createSerializedSubscription(
+      final Class<T> messageType, final String topic, final Consumer<ByteBuffer> callback,
+      final QoSProfile qosProfile);
+
+  <T extends MessageDefinition> SerializedSubscription<T> createSerializedSubscription(
+      final Class<T> messageType, final String topic, final Consumer<ByteBuffer> callback);
+
+  /**
+   * Create a SerializedSubscription&lt;T&gt; whose callback belongs to the given callback group.
+   *
+   * @see #createSerializedSubscription(Class, String, Consumer, QoSProfile)
+   * @param callbackGroup The callback group the created @{link SerializedSubscription}
+   *     belongs to.
+   */
+  <T extends MessageDefinition> SerializedSubscription<T> createSerializedSubscription(
+      final Class<T> messageType, final String topic, final Consumer<ByteBuffer> callback,
+      final QoSProfile qosProfile, final CallbackGroup callbackGroup);
+
+  /**
+   * Create a subscription that delivers read-only views over the serialized (CDR) messages,
+   * which only decode the members that are read.
+   *
+   * @param <T> The type of the messages that will be received.
+   * @param <V> The type of the views, e.g. <code>std_msgs.msg.String.View</code>.
+   * @param viewType The class of the views that will be passed to the callback.
+   * @param topic The topic from which the created @{link SerializedSubscription} will
+   *     receive messages.
+   * @param callback The callback function that will be triggered when a
+   *     message is received. The view is reused for the next message, so it
+   *     is only valid until the callback returns.
+   * @return A @{link SerializedSubscription} that represents the underlying ROS2
+   *     subscription structure.
+   */
+  <T extends MessageDefinition, V extends MessageView<T>> SerializedSubscription<T>
+  createViewSubscription(
+      final Class<V> viewType, final String topic, final Consumer<V> callback,
+      final QoSProfile qosProfile);
+
+  <T extends MessageDefinition, V extends MessageView<T>> SerializedSubscription<T>
+  createViewSubscription(
+      final Class<V> viewType, final String topic, final Consumer<V> callback);
+
+  /**
+   * Create a view subscription whose callback belongs to the given callback group.
+   *
+   * @see #createViewSubscription(Class, String, Consumer, QoSProfile)
+   * @param callbackGroup The callback group the created @{link SerializedSubscription}
+   *     belongs to.
+   */
+  <T extends MessageDefinition, V extends MessageView<T>> SerializedSubscription<T>
+  createViewSubscription(
+      final Class<V> viewType, final String topic, final Consumer<V> callback,
+      final QoSProfile qosProfile, final CallbackGroup callbackGroup);
+
   /**
    * Create a Publisher&lt;T&gt;.
    *
@@ -125,6 +315,25 @@ public interface Node extends Disposable {
   <T extends MessageDefinition> Publisher<T> createPublisher(
       final Class<T> messageType, final String topic, final QoSProfile qosProfile);
 
+  /**
+   * Create an AsyncPublisher&lt;T&gt;, whose messages are published by a background thread.
+   *
+   * @param <T> The type of the messages that will be published by the
+   *     created @{link AsyncPublisher}.
+   * @param messageType The class of the messages that will be published by the
+   *     created @{link AsyncPublisher}.
+   * @param topic The topic to which the created @{link AsyncPublisher} will
+   *     publish messages.
+   * @param qosProfile The QoS profile of the underlying ROS2 publisher.
+   * @param queueCapacity The maximum number of messages waiting to be published.
+   * @param overflowPolicy What happens to messages published while the queue is full.
+   * @return An @{link AsyncPublisher} that represents the underlying ROS2 publisher
+   *     structure.
+   */
+  <T extends MessageDefinition> AsyncPublisher<T> createAsyncPublisher(
+      final Class<T> messageType, final String topic, final QoSProfile qosProfile,
+      final int queueCapacity, final OverflowPolicy overflowPolicy);
+
   <T extends MessageDefinition> Publisher<T> createPublisher(
       final Class<T> messageType, final String topic);
 
@@ -141,12 +350,24 @@ public interface Node extends Disposable {
       final TriConsumer<RMWRequestId, ? extends MessageDefinition, ? extends MessageDefinition>
           callback);
 
+  <T extends ServiceDefinition> Service<T> createService(
+      final Class<T> serviceType,
+      final String serviceName,
+      final TriConsumer<RMWRequestId, ? extends MessageDefinition, ? extends MessageDefinition>
+          callback,
+      final QoSProfile qosProfile,
+      final CallbackGroup callbackGroup);
+
   <T extends ServiceDefinition> Client<T> createClient(
       final Class<T> serviceType, final String serviceName, final QoSProfile qosProfile);
 
   <T extends ServiceDefinition> Client<T> createClient(
       final Class<T> serviceType, final String serviceName);
 
+  <T extends ServiceDefinition> Client<T> createClient(
+      final Class<T> serviceType, final String serviceName, final QoSProfile qosProfile,
+      final CallbackGroup callbackGroup);
+
   /**
    * Create an ActionServer&lt;T&gt;.
    *
@@ -165,6 +386,19 @@ public interface Node extends Disposable {
       final CancelCallback<T> cancelCallback,
       final Consumer<ActionServerGoalHandle<T>> acceptedCallback);
 
+  /**
+   * Create an ActionServer&lt;T&gt; that belongs to the given callback group.
+   *
+   * @see #createActionServer(Class, String, GoalCallback, CancelCallback, Consumer)
+   * @param callbackGroup The callback group the created @{link ActionServer} belongs to.
+   */
+  <T extends ActionDefinition> ActionServer<T> createActionServer(final Class<T> actionType,
+      final String actionName,
+      final GoalCallback<? extends GoalRequestDefinition<T>> goalCallback,
+      final CancelCallback<T> cancelCallback,
+      final Consumer<ActionServerGoalHandle<T>> acceptedCallback,
+      final CallbackGroup callbackGroup);
+
   /**
    * Remove a Subscription created by this Node.
    *
@@ -175,7 +409,7 @@ public interface Node extends Disposable {
    * @return true if the subscription was removed, false if the subscription was already
    *   removed or was never created by this Node.
    */
-  boolean removeSubscription(final Subscription subscription);
+  boolean removeSubscription(final SubscriptionBase subscription);
 
   /**
    * Remove a Publisher created by this Node.
@@ -225,6 +459,17 @@ public interface Node extends Disposable {
    */
   boolean removeActionServer(final ActionServer actionServer);
 
+  /**
+   * Remove a @{link Timer} created by this Node.
+   *
+   * If the timer was not created by this Node, then nothing happens.
+   *
+   * @param timer The object to remove from this node.
+   * @return true if the timer was removed, false if the timer was already
+   *   removed or was never created by this Node.
+   */
+  boolean removeTimer(final Timer timer);
+
   /**
    * Create a wall timer.
    *
@@ -239,6 +484,16 @@ public interface Node extends Disposable {
   @SuppressWarnings("deprecation")
   WallTimer createWallTimer(final long period, final TimeUnit unit, final Callback callback);
 
+  /**
+   * Create a wall timer whose callback belongs to the given callback group.
+   *
+   * @see #createWallTimer(long, TimeUnit, Callback)
+   * @param callbackGroup The callback group the created timer belongs to.
+   */
+  @SuppressWarnings("deprecation")
+  WallTimer createWallTimer(final long period, final TimeUnit unit, final Callback callback,
+      final CallbackGroup callbackGroup);
+
   /**
    * Create a timer.
    *
@@ -251,6 +506,45 @@ public interface Node extends Disposable {
    */
   Timer createTimer(final long period, final TimeUnit unit, final Callback callback);
 
+  /**
+   * Create a timer whose callback belongs to the given callback group.
+   *
+   * @see #createTimer(long, TimeUnit, Callback)
+   * @param callbackGroup The callback group the created timer belongs to.
+   */
+  Timer createTimer(final long period, final TimeUnit unit, final Callback callback,
+      final CallbackGroup callbackGroup);
+
+  /**
+   * Create a guard condition.
+   *
+   * Triggering the guard condition, from any thread, wakes up the executors spinning this
+   * node, which then call the provided callback.
+   *
+   * @param callback Function that is called when the guard condition is triggered.
+   * @return The created guard condition.
+   */
+  GuardCondition createGuardCondition(final Callback callback);
+
+  /**
+   * Create a guard condition whose callback belongs to the given callback group.
+   *
+   * @see #createGuardCondition(Callback)
+   * @param callbackGroup The callback group the created guard condition belongs to.
+   */
+  GuardCondition createGuardCondition(final Callback callback, final CallbackGroup callbackGroup);
+
+  /**
+   * Remove a @{link GuardCondition} created by this Node.
+   *
+   * If the guard condition was not created by this Node, then nothing happens.
+   *
+   * @param guardCondition The object to remove from this node.
+   * @return true if the guard condition was removed, false if the guard condition was already
+   *   removed or was never created by this Node.
+   */
+  boolean removeGuardCondition(final GuardCondition guardCondition);
+
   /** Get the name of the node.
    *
    * @return The name of the node.
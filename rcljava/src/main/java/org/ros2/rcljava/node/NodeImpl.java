@@ -21,6 +21,9 @@ import org.ros2.rcljava.action.ActionServerImpl;
 import org.ros2.rcljava.action.ActionServerGoalHandle;
 import org.ros2.rcljava.action.CancelCallback;
 import org.ros2.rcljava.action.GoalCallback;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.callbackgroups.CallbackGroupImpl;
+import org.ros2.rcljava.callbackgroups.CallbackGroupType;
 import org.ros2.rcljava.client.Client;
 import org.ros2.rcljava.client.ClientImpl;
 import org.ros2.rcljava.common.JNIUtils;
@@ -32,9 +35,12 @@ import org.ros2.rcljava.contexts.Context;
 import org.ros2.rcljava.graph.EndpointInfo;
 import org.ros2.rcljava.graph.NameAndTypes;
 import org.ros2.rcljava.interfaces.Disposable;
+import org.ros2.rcljava.guardconditions.GuardCondition;
+import org.ros2.rcljava.guardconditions.GuardConditionImpl;
 import org.ros2.rcljava.interfaces.ActionDefinition;
 import org.ros2.rcljava.interfaces.GoalRequestDefinition;
 import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.interfaces.MessageView;
 import org.ros2.rcljava.interfaces.ServiceDefinition;
 import org.ros2.rcljava.node.NodeOptions;
 import org.ros2.rcljava.parameters.InvalidParametersException;
@@ -50,13 +56,21 @@ import org.ros2.rcljava.parameters.client.SyncParametersClient;
 import org.ros2.rcljava.parameters.client.SyncParametersClientImpl;
 import org.ros2.rcljava.parameters.service.ParameterService;
 import org.ros2.rcljava.parameters.service.ParameterServiceImpl;
+import org.ros2.rcljava.publisher.AsyncPublisher;
+import org.ros2.rcljava.publisher.AsyncPublisherImpl;
+import org.ros2.rcljava.publisher.OverflowPolicy;
 import org.ros2.rcljava.publisher.Publisher;
 import org.ros2.rcljava.publisher.PublisherImpl;
 import org.ros2.rcljava.qos.QoSProfile;
 import org.ros2.rcljava.service.RMWRequestId;
 import org.ros2.rcljava.service.Service;
 import org.ros2.rcljava.service.ServiceImpl;
+import org.ros2.rcljava.subscription.BatchSubscription;
+import org.ros2.rcljava.subscription.BatchSubscriptionImpl;
+import org.ros2.rcljava.subscription.SerializedSubscription;
+import org.ros2.rcljava.subscription.SerializedSubscriptionImpl;
 import org.ros2.rcljava.subscription.Subscription;
+import org.ros2.rcljava.subscription.SubscriptionBase;
 import org.ros2.rcljava.subscription.SubscriptionImpl;
 import org.ros2.rcljava.time.Clock;
 import org.ros2.rcljava.time.ClockType;
@@ -70,6 +84,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -81,6 +96,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * {@inheritDoc}
@@ -126,6 +142,11 @@ public class NodeImpl implements Node {
    */
   private final Collection<Subscription> subscriptions;
 
+  /**
+   * All the @{link SerializedSubscription}s that have been created through this instance.
+   */
+  private final Collection<SerializedSubscription> serializedSubscriptions;
+
   /**
    * All the @{link Publisher}s that have been created through this instance.
    */
@@ -151,6 +172,32 @@ public class NodeImpl implements Node {
    */
   private final Collection<ActionServer> actionServers;
 
+  /**
+   * All the @{link GuardCondition}s that have been created through this instance.
+   */
+  private final Collection<GuardCondition> guardConditions;
+
+  /**
+   * Triggered every time an entity is added to or removed from this node.
+   */
+  private final GuardCondition notifyGuardCondition;
+
+  /**
+   * Incremented every time an entity is added to or removed from this node.
+   */
+  private final AtomicLong entitiesGeneration;
+
+  /**
+   * The callback group used by entities that were created without one.
+   */
+  private final CallbackGroup defaultCallbackGroup;
+
+  /**
+   * Whether the subscriptions of this node receive the messages published within its context
+   * from the intra-process manager.
+   */
+  private final boolean useIntraProcessComms;
+
   private Object parametersMutex;
 
   class ParameterAndDescriptor {
@@ -182,10 +229,16 @@ public class NodeImpl implements Node {
       RCLJava.getDefaultContext() : nodeOptions.getContext();
     this.publishers = new LinkedBlockingQueue<Publisher>();
     this.subscriptions = new LinkedBlockingQueue<Subscription>();
+    this.serializedSubscriptions = new LinkedBlockingQueue<SerializedSubscription>();
     this.services = new LinkedBlockingQueue<Service>();
     this.clients = new LinkedBlockingQueue<Client>();
     this.timers = new LinkedBlockingQueue<Timer>();
     this.actionServers = new LinkedBlockingQueue<ActionServer>();
+    this.guardConditions = new LinkedBlockingQueue<GuardCondition>();
+    this.notifyGuardCondition = new GuardConditionImpl(null, this.context.getHandle(), null, null);
+    this.entitiesGeneration = new AtomicLong();
+    this.defaultCallbackGroup = new CallbackGroupImpl(CallbackGroupType.MUTUALLY_EXCLUSIVE);
+    this.useIntraProcessComms = nodeOptions.getUseIntraProcessComms();
     this.parametersMutex = new Object();
     this.parameters = new ConcurrentHashMap<String, ParameterAndDescriptor>();
     this.allowUndeclaredParameters = nodeOptions.getAllowUndeclaredParameters();
@@ -244,10 +297,13 @@ public class NodeImpl implements Node {
    *     receive messages.
    * @param qosProfileHandle A pointer to the underlying ROS2 QoS profile
    *     structure.
+   * @param ignoreLocalPublications Whether to ignore the messages published within the
+   *     same context.
    * @return A pointer to the underlying ROS2 subscription structure.
    */
   private static native <T extends MessageDefinition> long nativeCreateSubscriptionHandle(
-      long handle, Class<T> messageType, String topic, long qosProfileHandle);
+      long handle, Class<T> messageType, String topic, long qosProfileHandle,
+      boolean ignoreLocalPublications);
 
   /**
    * {@inheritDoc}
@@ -259,16 +315,43 @@ public class NodeImpl implements Node {
   /**
    * {@inheritDoc}
    */
-  public final <T extends MessageDefinition> Publisher<T> createPublisher(
+  private <T extends MessageDefinition> PublisherImpl<T> newPublisher(
       final Class<T> messageType, final String topic, final QoSProfile qosProfile) {
     long qosProfileHandle = RCLJava.convertQoSProfileToHandle(qosProfile);
     long publisherHandle =
         nativeCreatePublisherHandle(this.handle, messageType, topic, qosProfileHandle);
     RCLJava.disposeQoSProfile(qosProfileHandle);
 
-    Publisher<T> publisher =
-        new PublisherImpl<T>(new WeakReference<Node>(this), publisherHandle, topic);
+    // Every publisher feeds the intra-process subscriptions, as they ignore local publications
+    return new PublisherImpl<T>(
+        new WeakReference<Node>(this), publisherHandle, messageType, topic,
+        this.context.getIntraProcessManager(), qosProfile);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final <T extends MessageDefinition> Publisher<T> createPublisher(
+      final Class<T> messageType, final String topic, final QoSProfile qosProfile) {
+    Publisher<T> publisher = this.<T>newPublisher(messageType, topic, qosProfile);
+    this.publishers.add(publisher);
+    this.notifyEntitiesChanged();
+
+    return publisher;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final <T extends MessageDefinition> AsyncPublisher<T> createAsyncPublisher(
+      final Class<T> messageType, final String topic, final QoSProfile qosProfile,
+      final int queueCapacity, final OverflowPolicy overflowPolicy) {
+    // Only the async publisher is registered, so disposing the node stops its thread first
+    AsyncPublisher<T> publisher = new AsyncPublisherImpl<T>(
+        this.<T>newPublisher(messageType, topic, qosProfile), messageType, topic,
+        queueCapacity, overflowPolicy);
     this.publishers.add(publisher);
+    this.notifyEntitiesChanged();
 
     return publisher;
   }
@@ -284,15 +367,34 @@ public class NodeImpl implements Node {
   public final <T extends MessageDefinition> Subscription<T> createSubscription(
       final Class<T> messageType, final String topic, final Consumer<T> callback,
       final QoSProfile qosProfile) {
+    return this.<T>createSubscription(
+        messageType, topic, callback, qosProfile, this.defaultCallbackGroup);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final <T extends MessageDefinition> Subscription<T> createSubscription(
+      final Class<T> messageType, final String topic, final Consumer<T> callback,
+      final QoSProfile qosProfile, final CallbackGroup callbackGroup) {
     long qosProfileHandle = RCLJava.convertQoSProfileToHandle(qosProfile);
-    long subscriptionHandle =
-        nativeCreateSubscriptionHandle(this.handle, messageType, topic, qosProfileHandle);
+    long subscriptionHandle = nativeCreateSubscriptionHandle(
+        this.handle, messageType, topic, qosProfileHandle, this.useIntraProcessComms);
     RCLJava.disposeQoSProfile(qosProfileHandle);
 
-    Subscription<T> subscription = new SubscriptionImpl<T>(
-        new WeakReference<Node>(this), subscriptionHandle, messageType, topic, callback);
+    Subscription<T> subscription;
+    if (this.useIntraProcessComms) {
+      subscription = new SubscriptionImpl<T>(
+          new WeakReference<Node>(this), subscriptionHandle, messageType, topic, callback,
+          callbackGroup, this.context.getIntraProcessManager(), qosProfile);
+    } else {
+      subscription = new SubscriptionImpl<T>(
+          new WeakReference<Node>(this), subscriptionHandle, messageType, topic, callback,
+          callbackGroup);
+    }
 
     this.subscriptions.add(subscription);
+    this.notifyEntitiesChanged();
 
     return subscription;
   }
@@ -305,15 +407,154 @@ public class NodeImpl implements Node {
   /**
    * {@inheritDoc}
    */
-  public boolean removeSubscription(final Subscription subscription) {
-    return this.subscriptions.remove(subscription);
+  public final <T extends MessageDefinition> BatchSubscription<T> createBatchSubscription(
+      final Class<T> messageType, final String topic, final Consumer<List<T>> callback,
+      final QoSProfile qosProfile, final int maxBatchSize) {
+    return this.<T>createBatchSubscription(
+        messageType, topic, callback, qosProfile, maxBatchSize, this.defaultCallbackGroup);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final <T extends MessageDefinition> BatchSubscription<T> createBatchSubscription(
+      final Class<T> messageType, final String topic, final Consumer<List<T>> callback,
+      final QoSProfile qosProfile, final int maxBatchSize, final CallbackGroup callbackGroup) {
+    long qosProfileHandle = RCLJava.convertQoSProfileToHandle(qosProfile);
+    long subscriptionHandle = nativeCreateSubscriptionHandle(
+        this.handle, messageType, topic, qosProfileHandle, this.useIntraProcessComms);
+    RCLJava.disposeQoSProfile(qosProfileHandle);
+
+    BatchSubscription<T> subscription;
+    if (this.useIntraProcessComms) {
+      subscription = new BatchSubscriptionImpl<T>(
+          new WeakReference<Node>(this), subscriptionHandle, messageType, topic, callback,
+          maxBatchSize, callbackGroup, this.context.getIntraProcessManager(), qosProfile);
+    } else {
+      subscription = new BatchSubscriptionImpl<T>(
+          new WeakReference<Node>(this), subscriptionHandle, messageType, topic, callback,
+          maxBatchSize, callbackGroup);
+    }
+
+    this.subscriptions.add(subscription);
+    this.notifyEntitiesChanged();
+
+    return subscription;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final <T extends MessageDefinition> BatchSubscription<T> createBatchSubscription(
+      final Class<T> messageType, final String topic, final Consumer<List<T>> callback,
+      final int maxBatchSize) {
+    return this.<T>createBatchSubscription(
+        messageType, topic, callback, QoSProfile.DEFAULT, maxBatchSize);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final <T extends MessageDefinition> SerializedSubscription<T>
+  createSerializedSubscription(
+      final Class<T> messageType, final String topic, final Consumer<ByteBuffer> callback,
+      final QoSProfile qosProfile) {
+    return this.<T>createSerializedSubscription(
+        messageType, topic, callback, qosProfile, this.defaultCallbackGroup);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final <T extends MessageDefinition> SerializedSubscription<T>
+  createSerializedSubscription(
+      final Class<T> messageType, final String topic, final Consumer<ByteBuffer> callback,
+      final QoSProfile qosProfile, final CallbackGroup callbackGroup) {
+    long qosProfileHandle = RCLJava.convertQoSProfileToHandle(qosProfile);
+    long subscriptionHandle =
+        nativeCreateSubscriptionHandle(this.handle, messageType, topic, qosProfileHandle, false);
+    RCLJava.disposeQoSProfile(qosProfileHandle);
+
+    SerializedSubscription<T> subscription = new SerializedSubscriptionImpl<T>(
+        new WeakReference<Node>(this), subscriptionHandle, messageType, topic, callback,
+        callbackGroup);
+
+    this.serializedSubscriptions.add(subscription);
+    this.notifyEntitiesChanged();
+
+    return subscription;
+  }
+
+  public final <T extends MessageDefinition> SerializedSubscription<T>
+  createSerializedSubscription(
+      final Class<T> messageType, final String topic, final Consumer<ByteBuffer> callback) {
+    return this.<T>createSerializedSubscription(messageType, topic, callback, QoSProfile.DEFAULT);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final <T extends MessageDefinition, V extends MessageView<T>> SerializedSubscription<T>
+  createViewSubscription(
+      final Class<V> viewType, final String topic, final Consumer<V> callback,
+      final QoSProfile qosProfile) {
+    return this.<T, V>createViewSubscription(
+        viewType, topic, callback, qosProfile, this.defaultCallbackGroup);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final <T extends MessageDefinition, V extends MessageView<T>> SerializedSubscription<T>
+  createViewSubscription(
+      final Class<V> viewType, final String topic, final Consumer<V> callback,
+      final QoSProfile qosProfile, final CallbackGroup callbackGroup) {
+    final V view;
+    try {
+      view = viewType.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to instantiate view " + viewType.getName());
+    }
+
+    // Serialized subscriptions run their callback one message at a time, so the view is reused
+    Consumer<ByteBuffer> serializedCallback = new Consumer<ByteBuffer>() {
+      public void accept(final ByteBuffer buffer) {
+        view.wrap(buffer);
+        callback.accept(view);
+      }
+    };
+
+    return this.<T>createSerializedSubscription(
+        view.getMessageType(), topic, serializedCallback, qosProfile, callbackGroup);
+  }
+
+  public final <T extends MessageDefinition, V extends MessageView<T>> SerializedSubscription<T>
+  createViewSubscription(
+      final Class<V> viewType, final String topic, final Consumer<V> callback) {
+    return this.<T, V>createViewSubscription(viewType, topic, callback, QoSProfile.DEFAULT);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean removeSubscription(final SubscriptionBase subscription) {
+    boolean removed = this.subscriptions.remove(subscription)
+        || this.serializedSubscriptions.remove(subscription);
+    if (removed) {
+      this.notifyEntitiesChanged();
+    }
+    return removed;
   }
 
   /**
    * {@inheritDoc}
    */
   public boolean removePublisher(final Publisher publisher) {
-    return this.publishers.remove(publisher);
+    boolean removed = this.publishers.remove(publisher);
+    if (removed) {
+      this.notifyEntitiesChanged();
+    }
+    return removed;
   }
 
   /**
@@ -323,6 +564,13 @@ public class NodeImpl implements Node {
     return this.subscriptions;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public final Collection<SerializedSubscription> getSerializedSubscriptions() {
+    return this.serializedSubscriptions;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -338,6 +586,17 @@ public class NodeImpl implements Node {
     final TriConsumer<RMWRequestId, ? extends MessageDefinition, ? extends MessageDefinition>
       callback,
     final QoSProfile qosProfile)
+  {
+    return this.<T>createService(
+      serviceType, serviceName, callback, qosProfile, this.defaultCallbackGroup);
+  }
+
+  public final <T extends ServiceDefinition> Service<T> createService(final Class<T> serviceType,
+    final String serviceName,
+    final TriConsumer<RMWRequestId, ? extends MessageDefinition, ? extends MessageDefinition>
+      callback,
+    final QoSProfile qosProfile,
+    final CallbackGroup callbackGroup)
   {
     T serviceDefinition;
     try {
@@ -355,8 +614,10 @@ public class NodeImpl implements Node {
       new WeakReference<Node>(this),
       serviceHandle,
       serviceName,
-      callback);
+      callback,
+      callbackGroup);
     this.services.add(service);
+    this.notifyEntitiesChanged();
 
     return service;
   }
@@ -379,6 +640,13 @@ public class NodeImpl implements Node {
 
   public final <T extends ServiceDefinition> Client<T> createClient(
     final Class<T> serviceType, final String serviceName, final QoSProfile qosProfile)
+  {
+    return this.<T>createClient(serviceType, serviceName, qosProfile, this.defaultCallbackGroup);
+  }
+
+  public final <T extends ServiceDefinition> Client<T> createClient(
+    final Class<T> serviceType, final String serviceName, final QoSProfile qosProfile,
+    final CallbackGroup callbackGroup)
   {
     long qosProfileHandle = RCLJava.convertQoSProfileToHandle(qosProfile);
     long clientHandle =
@@ -393,8 +661,10 @@ public class NodeImpl implements Node {
     }
 
     Client<T> client = new ClientImpl<T>(
-        serviceDefinition, new WeakReference<Node>(this), clientHandle, serviceName);
+        serviceDefinition, new WeakReference<Node>(this), clientHandle, serviceName,
+        callbackGroup);
     this.clients.add(client);
+    this.notifyEntitiesChanged();
 
     return client;
   }
@@ -412,10 +682,21 @@ public class NodeImpl implements Node {
       final GoalCallback<? extends GoalRequestDefinition<T>> goalCallback,
       final CancelCallback<T> cancelCallback,
       final Consumer<ActionServerGoalHandle<T>> acceptedCallback) throws IllegalArgumentException {
+    return this.<T>createActionServer(actionType, actionName,
+        goalCallback, cancelCallback, acceptedCallback, this.defaultCallbackGroup);
+  }
+
+  public <T extends ActionDefinition> ActionServer<T> createActionServer(final Class<T> actionType,
+      final String actionName,
+      final GoalCallback<? extends GoalRequestDefinition<T>> goalCallback,
+      final CancelCallback<T> cancelCallback,
+      final Consumer<ActionServerGoalHandle<T>> acceptedCallback,
+      final CallbackGroup callbackGroup) throws IllegalArgumentException {
     ActionServer<T> actionServer = new ActionServerImpl<T>(
         new WeakReference<Node>(this), actionType, actionName,
-        goalCallback, cancelCallback, acceptedCallback);
+        goalCallback, cancelCallback, acceptedCallback, callbackGroup);
     this.actionServers.add(actionServer);
+    this.notifyEntitiesChanged();
     return actionServer;
   }
 
@@ -423,21 +704,44 @@ public class NodeImpl implements Node {
    * {@inheritDoc}
    */
   public boolean removeService(final Service service) {
-    return this.services.remove(service);
+    boolean removed = this.services.remove(service);
+    if (removed) {
+      this.notifyEntitiesChanged();
+    }
+    return removed;
   }
 
   /**
    * {@inheritDoc}
    */
   public boolean removeClient(final Client client) {
-    return this.clients.remove(client);
+    boolean removed = this.clients.remove(client);
+    if (removed) {
+      this.notifyEntitiesChanged();
+    }
+    return removed;
   }
 
   /**
    * {@inheritDoc}
    */
   public boolean removeActionServer(final ActionServer actionServer) {
-    return this.actionServers.remove(actionServer);
+    boolean removed = this.actionServers.remove(actionServer);
+    if (removed) {
+      this.notifyEntitiesChanged();
+    }
+    return removed;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean removeTimer(final Timer timer) {
+    boolean removed = this.timers.remove(timer);
+    if (removed) {
+      this.notifyEntitiesChanged();
+    }
+    return removed;
   }
 
   /**
@@ -464,10 +768,13 @@ public class NodeImpl implements Node {
 
   private void cleanup() {
     cleanupDisposables(subscriptions);
+    cleanupDisposables(serializedSubscriptions);
     cleanupDisposables(publishers);
     cleanupDisposables(timers);
     cleanupDisposables(services);
     cleanupDisposables(clients);
+    cleanupDisposables(guardConditions);
+    this.notifyEntitiesChanged();
   }
 
   /**
@@ -475,6 +782,7 @@ public class NodeImpl implements Node {
    */
   public final void dispose() {
     cleanup();
+    this.notifyGuardCondition.dispose();
     nativeDispose(this.handle);
     this.handle = 0;
   }
@@ -489,11 +797,14 @@ public class NodeImpl implements Node {
   private static native long nativeCreateTimerHandle(long clockHandle, long contextHandle, long timerPeriod);
 
   @SuppressWarnings("deprecation")
-  private Timer createTimer(Clock clock, final long period, final TimeUnit unit, final Callback callback) {
+  private Timer createTimer(Clock clock, final long period, final TimeUnit unit,
+      final Callback callback, final CallbackGroup callbackGroup) {
     long timerPeriodNS = TimeUnit.NANOSECONDS.convert(period, unit);
     long timerHandle = nativeCreateTimerHandle(clock.getHandle(), this.context.getHandle(), timerPeriodNS);
-    Timer timer = new WallTimerImpl(new WeakReference<Node>(this), timerHandle, callback, timerPeriodNS);
+    Timer timer = new WallTimerImpl(
+        new WeakReference<Node>(this), timerHandle, callback, timerPeriodNS, callbackGroup);
     this.timers.add(timer);
+    this.notifyEntitiesChanged();
     return timer;
   }
 
@@ -502,14 +813,31 @@ public class NodeImpl implements Node {
    */
   @SuppressWarnings("deprecation")
   public WallTimer createWallTimer(final long period, final TimeUnit unit, final Callback callback) {
-    return (WallTimer) this.createTimer(this.wall_clock, period, unit, callback);
+    return this.createWallTimer(period, unit, callback, this.defaultCallbackGroup);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @SuppressWarnings("deprecation")
+  public WallTimer createWallTimer(final long period, final TimeUnit unit, final Callback callback,
+      final CallbackGroup callbackGroup) {
+    return (WallTimer) this.createTimer(this.wall_clock, period, unit, callback, callbackGroup);
   }
 
   /**
    * {@inheritDoc}
    */
   public Timer createTimer(final long period, final TimeUnit unit, final Callback callback) {
-    return this.createTimer(this.clock, period, unit, callback);
+    return this.createTimer(period, unit, callback, this.defaultCallbackGroup);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public Timer createTimer(final long period, final TimeUnit unit, final Callback callback,
+      final CallbackGroup callbackGroup) {
+    return this.createTimer(this.clock, period, unit, callback, callbackGroup);
   }
 
   /**
@@ -526,6 +854,89 @@ public class NodeImpl implements Node {
     return this.actionServers;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public final long getEntitiesGeneration() {
+    return this.entitiesGeneration.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public void notifyEntitiesChanged() {
+    this.entitiesGeneration.incrementAndGet();
+    if (this.notifyGuardCondition.getHandle() != 0) {
+      this.notifyGuardCondition.trigger();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final Collection<GuardCondition> getGuardConditions() {
+    return this.guardConditions;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final GuardCondition getNotifyGuardCondition() {
+    return this.notifyGuardCondition;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public GuardCondition createGuardCondition(final Callback callback) {
+    return this.createGuardCondition(callback, this.defaultCallbackGroup);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public GuardCondition createGuardCondition(
+      final Callback callback, final CallbackGroup callbackGroup) {
+    GuardCondition guardCondition = new GuardConditionImpl(
+        new WeakReference<Node>(this), this.context.getHandle(), callback, callbackGroup);
+    this.guardConditions.add(guardCondition);
+    this.notifyEntitiesChanged();
+    return guardCondition;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean removeGuardCondition(final GuardCondition guardCondition) {
+    boolean removed = this.guardConditions.remove(guardCondition);
+    if (removed) {
+      this.notifyEntitiesChanged();
+    }
+    return removed;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroup createCallbackGroup(final CallbackGroupType type) {
+    return new CallbackGroupImpl(type);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroup createCallbackGroup(
+      final CallbackGroupType type, final int priority) {
+    return new CallbackGroupImpl(type, priority);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroup getDefaultCallbackGroup() {
+    return this.defaultCallbackGroup;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -24,6 +24,7 @@ public class NodeOptions {
   private boolean enableRosout = true;
   private boolean allowUndeclaredParameters = false;
   private boolean startParameterServices = true;
+  private boolean useIntraProcessComms = false;
   private Context context = null;
   private ArrayList<String> cliArgs = new ArrayList<String>();
 
@@ -63,6 +64,19 @@ public class NodeOptions {
     return this;
   }
 
+  public final boolean getUseIntraProcessComms() {
+    return this.useIntraProcessComms;
+  }
+
+  /**
+   * Deliver the messages published within the context of the node directly to the
+   * subscriptions of the node, without going through the middleware.
+   */
+  public NodeOptions setUseIntraProcessComms(boolean useIntraProcessComms) {
+    this.useIntraProcessComms = useIntraProcessComms;
+    return this;
+  }
+
   public final Context getContext() {
     return this.context;
   }
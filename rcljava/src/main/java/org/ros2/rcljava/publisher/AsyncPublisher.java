@@ -0,0 +1,49 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.publisher;
+
+import org.ros2.rcljava.interfaces.MessageDefinition;
+
+/**
+ * A publisher whose publish methods only queue a copy of the messages, which a background
+ * thread then converts and publishes, so callers never block in the middleware.
+ * Serialized and loaned messages are still published by the calling thread.
+ * An AsyncPublisher must be created via
+ * @{link Node#createAsyncPublisher(Class&lt;T&gt;, String, QoSProfile, int, OverflowPolicy)}
+ *
+ * @param <T> The type of the messages that this publisher will publish.
+ */
+public interface AsyncPublisher<T extends MessageDefinition> extends Publisher<T> {
+  /**
+   * @return The number of messages waiting to be published.
+   */
+  int getQueueSize();
+
+  /**
+   * @return The maximum number of messages waiting to be published.
+   */
+  int getQueueCapacity();
+
+  /**
+   * @return What happens to messages published while the queue is full.
+   */
+  OverflowPolicy getOverflowPolicy();
+
+  /**
+   * @return The number of messages dropped because the queue was full.
+   */
+  long getDroppedCount();
+}
@@ -0,0 +1,358 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.publisher;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.ros2.rcljava.concurrent.BoundedQueue;
+import org.ros2.rcljava.consumers.Consumer;
+import org.ros2.rcljava.events.EventHandler;
+import org.ros2.rcljava.events.PublisherEventStatus;
+import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.node.Node;
+
+/**
+ * {@inheritDoc}
+ */
+public class AsyncPublisherImpl<T extends MessageDefinition> implements AsyncPublisher<T> {
+  private static final Logger logger = LoggerFactory.getLogger(AsyncPublisherImpl.class);
+
+  /**
+   * The maximum number of queued messages published with a single native call.
+   */
+  private static final int MAX_BATCH_SIZE = 64;
+
+  /**
+   * The publisher the queued messages are published with.
+   */
+  private final PublisherImpl<T> publisher;
+
+  private final Constructor<T> messageConstructor;
+
+  private final BoundedQueue<T> queue;
+
+  private final OverflowPolicy overflowPolicy;
+
+  private final AtomicLong droppedCount = new AtomicLong();
+
+  private final Thread worker;
+
+  private volatile boolean running = true;
+
+  /**
+   * Set while the worker is about to park, so publishers know they have to unpark it.
+   */
+  private volatile boolean workerWaiting;
+
+  /**
+   * The threads parked in a blocking publish until the worker frees a slot in the queue.
+   */
+  private final ConcurrentLinkedQueue<Thread> blockedPublishers =
+      new ConcurrentLinkedQueue<Thread>();
+
+  /**
+   * Constructor.
+   *
+   * @param publisher The publisher the queued messages are published with, which is disposed
+   *     with this one.
+   * @param messageType The <code>Class</code> of the messages that this
+   *     publisher will publish.
+   * @param topic The topic to which this publisher will publish messages.
+   * @param queueCapacity The maximum number of messages waiting to be published.
+   * @param overflowPolicy What happens to messages published while the queue is full.
+   */
+  public AsyncPublisherImpl(final PublisherImpl<T> publisher, final Class<T> messageType,
+      final String topic, final int queueCapacity, final OverflowPolicy overflowPolicy) {
+    this.publisher = publisher;
+    try {
+      this.messageConstructor = messageType.getDeclaredConstructor();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to instantiate message " + messageType.getName());
+    }
+    this.queue = new BoundedQueue<T>(queueCapacity);
+    this.overflowPolicy = overflowPolicy;
+    this.worker = new Thread(new Runnable() {
+      public void run() {
+        AsyncPublisherImpl.this.drain();
+      }
+    }, "rcljava-async-publisher " + topic);
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  /**
+   * Publish the queued messages in batches until this publisher is disposed.
+   */
+  private void drain() {
+    List<T> batch = new ArrayList<T>(MAX_BATCH_SIZE);
+    while (true) {
+      T message;
+      while (batch.size() < MAX_BATCH_SIZE && (message = this.queue.poll()) != null) {
+        batch.add(message);
+      }
+      if (!batch.isEmpty()) {
+        this.unparkBlockedPublishers();
+        try {
+          this.publisher.publish(batch);
+        } catch (RuntimeException e) {
+          logger.error("Failed to publish queued messages", e);
+        }
+        batch.clear();
+        continue;
+      }
+      if (!this.running) {
+        return;
+      }
+      this.workerWaiting = true;
+      if (this.queue.isEmpty() && this.running) {
+        LockSupport.park(this);
+      }
+      this.workerWaiting = false;
+    }
+  }
+
+  private void unparkBlockedPublishers() {
+    for (Thread blockedPublisher : this.blockedPublishers) {
+      LockSupport.unpark(blockedPublisher);
+    }
+  }
+
+  /**
+   * Park the calling thread until the worker frees a slot in the queue or this publisher is
+   * disposed. It may also return spuriously, so the caller has to try again.
+   */
+  private void waitForSlot() {
+    Thread thread = Thread.currentThread();
+    this.blockedPublishers.add(thread);
+    try {
+      // Checked after registering, so a slot freed meanwhile doesn't go unnoticed.
+      if (this.running && this.queue.size() >= this.queue.capacity()) {
+        LockSupport.park(this);
+      }
+    } finally {
+      this.blockedPublishers.remove(thread);
+    }
+  }
+
+  private T copy(final T message) {
+    T copy;
+    try {
+      copy = this.messageConstructor.newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(
+          "Failed to instantiate message " + this.messageConstructor.getName());
+    }
+    copy.copyFrom(message);
+    return copy;
+  }
+
+  private void enqueue(final T message) {
+    if (!this.running) {
+      throw new IllegalStateException("The publisher was disposed");
+    }
+    T copy = this.copy(message);
+    while (!this.queue.offer(copy)) {
+      if (this.overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+        this.droppedCount.incrementAndGet();
+        return;
+      } else if (this.overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+        if (this.queue.poll() != null) {
+          this.droppedCount.incrementAndGet();
+        }
+      } else {
+        if (!this.running) {
+          throw new IllegalStateException("The publisher was disposed");
+        }
+        this.waitForSlot();
+      }
+    }
+    if (this.workerWaiting) {
+      LockSupport.unpark(this.worker);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void publish(final T message) {
+    this.enqueue(message);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void publish(final Supplier<T> messageSupplier) {
+    if (!this.publisher.needsMessages()) {
+      return;
+    }
+    this.enqueue(messageSupplier.get());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void publish(final List<T> messages) {
+    for (T message : messages) {
+      this.enqueue(message);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void publish(final T[] messages) {
+    for (T message : messages) {
+      this.enqueue(message);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final int getQueueSize() {
+    return this.queue.size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final int getQueueCapacity() {
+    return this.queue.capacity();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final OverflowPolicy getOverflowPolicy() {
+    return this.overflowPolicy;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final long getDroppedCount() {
+    return this.droppedCount.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final int getSubscriptionCount() {
+    return this.publisher.getSubscriptionCount();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void publishSerialized(final ByteBuffer buffer) {
+    this.publisher.publishSerialized(buffer);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final LoanedMessage<T> borrowLoanedMessage() {
+    return this.publisher.borrowLoanedMessage();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final boolean canLoanMessages() {
+    return this.publisher.canLoanMessages();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final WeakReference<Node> getNodeReference() {
+    return this.publisher.getNodeReference();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final
+  <T extends PublisherEventStatus> EventHandler<T, Publisher>
+  createEventHandler(Supplier<T> factory, Consumer<T> callback) {
+    return this.publisher.createEventHandler(factory, callback);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final
+  <T extends PublisherEventStatus> void removeEventHandler(
+    EventHandler<T, Publisher> eventHandler)
+  {
+    this.publisher.removeEventHandler(eventHandler);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final
+  Collection<EventHandler> getEventHandlers() {
+    return this.publisher.getEventHandlers();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final long getHandle() {
+    return this.publisher.getHandle();
+  }
+
+  /**
+   * Publish the messages still queued, stop the background thread and dispose the underlying
+   * publisher.
+   */
+  public final void dispose() {
+    if (this.running) {
+      this.running = false;
+      LockSupport.unpark(this.worker);
+      boolean interrupted = false;
+      while (this.worker.isAlive()) {
+        try {
+          this.worker.join();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      this.unparkBlockedPublishers();
+    }
+    Node node = this.publisher.getNodeReference().get();
+    if (node != null) {
+      node.removePublisher(this);
+    }
+    this.publisher.dispose();
+  }
+}
@@ -0,0 +1,51 @@
+/* Copyright 2016-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.publisher;
+
+import org.ros2.rcljava.interfaces.Disposable;
+import org.ros2.rcljava.interfaces.MessageDefinition;
+
+/**
+ * A message whose native memory is loaned by the middleware, so that it can be published
+ * without allocating a native message and without the middleware copying it.
+ * A LoanedMessage must be created via @{link Publisher#borrowLoanedMessage()}
+ *
+ * If the middleware can't loan messages for the publisher, the loaned message falls back to
+ * being published as a regular message.
+ *
+ * A loaned message must be either published or disposed, and not both. Only one thread may
+ * use a loaned message at a time.
+ *
+ * @param <T> The type of the loaned message.
+ */
+public interface LoanedMessage<T extends MessageDefinition> extends Disposable {
+  /**
+   * @return The Java message that will be written into the loaned memory when published.
+   */
+  T get();
+
+  /**
+   * @return true if the memory of this message is loaned by the middleware, false if it will
+   *     be published as a regular message.
+   */
+  boolean isLoaned();
+
+  /**
+   * Write the message into the loaned memory and publish it, which gives the loan back to the
+   * middleware.
+   */
+  void publish();
+}
@@ -0,0 +1,116 @@
+/* Copyright 2016-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.publisher;
+
+import org.ros2.rcljava.interfaces.MessageDefinition;
+
+/**
+ * {@inheritDoc}
+ */
+public class LoanedMessageImpl<T extends MessageDefinition> implements LoanedMessage<T> {
+  /**
+   * The publisher that loaned the message.
+   */
+  private final PublisherImpl<T> publisher;
+
+  /**
+   * An integer that represents a pointer to the loaned native message, or
+   * zero if the middleware didn't loan one.
+   */
+  private long handle;
+
+  /**
+   * Whether the native memory was loaned by the middleware.
+   */
+  private final boolean loaned;
+
+  /**
+   * The Java message that's written into the loaned memory when published.
+   */
+  private final T message;
+
+  /**
+   * Whether the message was already published or disposed.
+   */
+  private boolean done;
+
+  /**
+   * Constructor.
+   *
+   * @param publisher The publisher that loaned the message.
+   * @param handle A pointer to the loaned native message, as an integer,
+   *     or zero if the middleware didn't loan one.
+   * @param message The Java message that will be published.
+   */
+  public LoanedMessageImpl(final PublisherImpl<T> publisher, final long handle, final T message) {
+    this.publisher = publisher;
+    this.handle = handle;
+    this.loaned = handle != 0;
+    this.message = message;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final T get() {
+    return this.message;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final boolean isLoaned() {
+    return this.loaned;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void publish() {
+    if (this.done) {
+      throw new IllegalStateException("Loaned message was already published or disposed");
+    }
+    this.done = true;
+    long loanedHandle = this.handle;
+    this.handle = 0;
+    if (this.loaned) {
+      this.publisher.publishLoanedMessage(loanedHandle, this.message);
+    } else {
+      this.publisher.publish(this.message);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final long getHandle() {
+    return this.handle;
+  }
+
+  /**
+   * Give the loan back to the middleware without publishing it.
+   */
+  public final void dispose() {
+    if (this.done) {
+      return;
+    }
+    this.done = true;
+    if (this.loaned) {
+      this.publisher.returnLoanedMessage(this.handle);
+    }
+    this.handle = 0;
+  }
+}
@@ -0,0 +1,36 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.publisher;
+
+/**
+ * What an @{link AsyncPublisher} does with a message published while its queue is full.
+ */
+public enum OverflowPolicy {
+  /**
+   * Drop the oldest queued message to make room for the new one.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Drop the new message.
+   */
+  DROP_NEWEST,
+
+  /**
+   * Wait until the background thread makes room for the new message.
+   */
+  BLOCK
+}
@@ -16,7 +16,9 @@
 package org.ros2.rcljava.publisher;
 
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Supplier;
 
 import org.ros2.rcljava.consumers.Consumer;
@@ -41,6 +43,62 @@ public interface Publisher<T extends MessageDefinition> extends Disposable {
    */
   void publish(final T message);
 
+  /**
+   * Publish several messages in order, crossing into native code only once.
+   *
+   * If publishing one of them fails, the following ones aren't published.
+   *
+   * @param messages The messages to publish.
+   */
+  void publish(final List<T> messages);
+
+  /**
+   * @see #publish(List&lt;T&gt;)
+   */
+  void publish(final T[] messages);
+
+  /**
+   * Publish a message only if something receives it.
+   *
+   * The supplier isn't called, so the message is neither built nor converted, when no
+   * subscription is matched and the publisher is volatile.
+   *
+   * @param messageSupplier Builds the message to publish.
+   */
+  void publish(final Supplier<T> messageSupplier);
+
+  /**
+   * @return The number of subscriptions matched by this publisher, as tracked by the
+   *     middleware from discovery events.
+   */
+  int getSubscriptionCount();
+
+  /**
+   * Publish a message that is already serialized, without converting it.
+   *
+   * The bytes between the position and the limit of the buffer are published as they are,
+   * so they must be the serialized (CDR) form of a &lt;T&gt; message.
+   * Direct buffers are published without copying them.
+   *
+   * @param buffer The serialized message.
+   */
+  void publishSerialized(final ByteBuffer buffer);
+
+  /**
+   * Borrow a message from the middleware, to be filled in and published without copies.
+   *
+   * If the middleware can't loan messages for this publisher, the returned message is
+   * published as a regular one.
+   *
+   * @return A loaned message that must be either published or disposed.
+   */
+  LoanedMessage<T> borrowLoanedMessage();
+
+  /**
+   * @return true if the middleware can loan messages for this publisher.
+   */
+  boolean canLoanMessages();
+
   /**
    * A @{link java.lang.ref.WeakReference} to the @{link org.ros2.rcljava.Node}
    * that created this publisher.
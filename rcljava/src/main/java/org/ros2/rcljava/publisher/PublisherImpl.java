@@ -16,7 +16,9 @@
 package org.ros2.rcljava.publisher;
 
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Supplier;
 
@@ -29,8 +31,14 @@ import org.ros2.rcljava.events.EventHandlerImpl;
 import org.ros2.rcljava.events.PublisherEventStatus;
 import org.ros2.rcljava.RCLJava;
 import org.ros2.rcljava.common.JNIUtils;
+import org.ros2.rcljava.common.MessageHandles;
 import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.intraprocess.IntraProcessManager;
+import org.ros2.rcljava.intraprocess.IntraProcessPublisher;
 import org.ros2.rcljava.node.Node;
+import org.ros2.rcljava.qos.QoSProfile;
+import org.ros2.rcljava.qos.policies.Durability;
+import org.ros2.rcljava.qos.policies.Liveliness;
 
 /**
  * {@inheritDoc}
@@ -60,8 +68,31 @@ public class PublisherImpl<T extends MessageDefinition> implements Publisher<T>
    */
   private final String topic;
 
+  /**
+   * The native handles of the message type, resolved once at creation.
+   */
+  private final MessageHandles messageHandles;
+
+  /**
+   * The <code>Class</code> of the messages that this publisher will publish.
+   */
+  private final Class<T> messageType;
+
   private final Collection<EventHandler> eventHandlers;
 
+  /**
+   * Delivers the published messages to the intra-process subscriptions of the context, or
+   * null if this publisher only publishes via the middleware.
+   */
+  private final IntraProcessPublisher<T> intraProcessPublisher;
+
+  /**
+   * Whether messages that no subscription would receive can be dropped without publishing
+   * them. Transient local publishers keep them for late subscriptions, and publishing asserts
+   * manual by topic liveliness.
+   */
+  private final boolean dropsUnmatchedMessages;
+
   /**
    * Constructor.
    *
@@ -69,32 +100,315 @@ public class PublisherImpl<T extends MessageDefinition> implements Publisher<T>
    *     @{link org.ros2.rcljava.Node} that created this publisher.
    * @param handle A pointer to the underlying ROS2 publisher
    *     structure, as an integer. Must not be zero.
+   * @param messageType The <code>Class</code> of the messages that this
+   *     publisher will publish.
    * @param topic The topic to which this publisher will publish messages.
    */
   public PublisherImpl(
-      final WeakReference<Node> nodeReference, final long handle, final String topic) {
+      final WeakReference<Node> nodeReference, final long handle,
+      final Class<T> messageType, final String topic) {
     this.nodeReference = nodeReference;
     this.handle = handle;
     this.topic = topic;
+    this.messageType = messageType;
+    this.messageHandles = MessageHandles.of(messageType);
     this.eventHandlers = new LinkedBlockingQueue<EventHandler>();
+    this.intraProcessPublisher = null;
+    this.dropsUnmatchedMessages = false;
   }
 
+  /**
+   * Constructor for a publisher that also delivers its messages to the intra-process
+   * subscriptions of its context.
+   *
+   * @param nodeReference A {@link java.lang.ref.WeakReference} to the
+   *     @{link org.ros2.rcljava.Node} that created this publisher.
+   * @param handle A pointer to the underlying ROS2 publisher
+   *     structure, as an integer. Must not be zero.
+   * @param messageType The <code>Class</code> of the messages that this
+   *     publisher will publish.
+   * @param topic The topic to which this publisher will publish messages.
+   * @param intraProcessManager The intra-process manager of the context, or null.
+   * @param qosProfile The QoS profile this publisher was created with.
+   */
+  public PublisherImpl(
+      final WeakReference<Node> nodeReference, final long handle,
+      final Class<T> messageType, final String topic,
+      final IntraProcessManager intraProcessManager, final QoSProfile qosProfile) {
+    this.nodeReference = nodeReference;
+    this.handle = handle;
+    this.topic = topic;
+    this.messageType = messageType;
+    this.messageHandles = MessageHandles.of(messageType);
+    this.eventHandlers = new LinkedBlockingQueue<EventHandler>();
+    this.intraProcessPublisher = intraProcessManager == null ? null :
+        intraProcessManager.addPublisher(messageType, nativeGetTopicName(handle), qosProfile);
+    this.dropsUnmatchedMessages = qosProfile.getDurability() == Durability.VOLATILE
+        && qosProfile.getLiveliness() != Liveliness.MANUAL_BY_TOPIC;
+  }
+
+  /**
+   * Get the fully qualified name of the topic of a ROS2 publisher.
+   *
+   * @param handle A pointer to the underlying ROS2 publisher
+   *     structure, as an integer. Must not be zero.
+   * @return The fully qualified topic name.
+   */
+  private static native String nativeGetTopicName(long handle);
+
   /**
    * Publish a message via the underlying ROS2 mechanisms.
    *
    * @param <T> The type of the messages that this publisher will publish.
    * @param handle A pointer to the underlying ROS2 publisher
    *     structure, as an integer. Must not be zero.
+   * @param messageFromJavaConverter A pointer to the function that converts
+   *     the message to a native one.
+   * @param messageDestructor A pointer to the function that destroys the
+   *     native message.
    * @param message An instance of the &lt;T&gt; parameter.
    */
   private static native <T extends MessageDefinition> void nativePublish(
-      long handle, long messageDestructor, T message);
+      long handle, long messageFromJavaConverter, long messageDestructor, T message);
 
   /**
    * {@inheritDoc}
    */
   public final void publish(final T message) {
-    nativePublish(this.handle, message.getDestructorInstance(), message);
+    if (this.intraProcessPublisher != null) {
+      this.intraProcessPublisher.publish(message);
+    }
+    if (this.needsMiddlewarePublish()) {
+      nativePublish(
+          this.handle, this.messageHandles.getFromJavaConverter(),
+          this.messageHandles.getDestructor(), message);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void publish(final Supplier<T> messageSupplier) {
+    boolean needsIntraProcessPublish =
+        this.intraProcessPublisher != null && this.intraProcessPublisher.needsMessages();
+    boolean needsMiddlewarePublish = this.needsMiddlewarePublish();
+    if (!needsIntraProcessPublish && !needsMiddlewarePublish) {
+      return;
+    }
+    T message = messageSupplier.get();
+    if (needsIntraProcessPublish) {
+      this.intraProcessPublisher.publish(message);
+    }
+    if (needsMiddlewarePublish) {
+      nativePublish(
+          this.handle, this.messageHandles.getFromJavaConverter(),
+          this.messageHandles.getDestructor(), message);
+    }
+  }
+
+  /**
+   * Publish several messages via the underlying ROS2 mechanisms, converting and publishing
+   * them one after the other within a single native call.
+   *
+   * @param handle A pointer to the underlying ROS2 publisher
+   *     structure, as an integer. Must not be zero.
+   * @param messageFromJavaConverter A pointer to the function that converts
+   *     the messages to native ones.
+   * @param messageDestructor A pointer to the function that destroys the
+   *     native messages.
+   * @param messages The messages to publish, none of them null.
+   */
+  private static native void nativePublishBatch(
+      long handle, long messageFromJavaConverter, long messageDestructor,
+      MessageDefinition[] messages);
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void publish(final List<T> messages) {
+    this.publishBatch(messages.toArray(new MessageDefinition[messages.size()]));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void publish(final T[] messages) {
+    this.publishBatch(messages);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void publishBatch(final MessageDefinition[] messages) {
+    for (MessageDefinition message : messages) {
+      if (message == null) {
+        throw new NullPointerException("Can't publish a null message");
+      }
+    }
+    if (this.intraProcessPublisher != null) {
+      for (MessageDefinition message : messages) {
+        this.intraProcessPublisher.publish((T) message);
+      }
+    }
+    if (messages.length > 0 && this.needsMiddlewarePublish()) {
+      nativePublishBatch(
+          this.handle, this.messageHandles.getFromJavaConverter(),
+          this.messageHandles.getDestructor(), messages);
+    }
+  }
+
+  /**
+   * Get the number of subscriptions matched by a ROS2 publisher.
+   *
+   * @param handle A pointer to the underlying ROS2 publisher
+   *     structure, as an integer. Must not be zero.
+   * @return The number of matched subscriptions.
+   */
+  private static native int nativeGetSubscriptionCount(long handle);
+
+  /**
+   * {@inheritDoc}
+   */
+  public final int getSubscriptionCount() {
+    return nativeGetSubscriptionCount(this.handle);
+  }
+
+  /**
+   * @return true if a published message would be received by a subscription or kept for
+   *     later ones.
+   */
+  final boolean needsMessages() {
+    return (this.intraProcessPublisher != null && this.intraProcessPublisher.needsMessages())
+        || this.needsMiddlewarePublish();
+  }
+
+  /**
+   * Check whether a message has to go through the middleware, which isn't the case if no
+   * subscription is matched.
+   * Intra-process subscriptions are matched too and ignore these messages, but they aren't
+   * subtracted: the middleware matches them some time after the intra-process manager, so the
+   * difference may hide a remote subscription.
+   */
+  private boolean needsMiddlewarePublish() {
+    if (!this.dropsUnmatchedMessages) {
+      return true;
+    }
+    return nativeGetSubscriptionCount(this.handle) > 0;
+  }
+
+  /**
+   * Publish a serialized message via the underlying ROS2 mechanisms.
+   *
+   * @param handle A pointer to the underlying ROS2 publisher
+   *     structure, as an integer. Must not be zero.
+   * @param buffer A direct buffer that contains the serialized message.
+   * @param position The offset of the serialized message in the buffer.
+   * @param length The length of the serialized message.
+   */
+  private static native void nativePublishSerialized(
+      long handle, ByteBuffer buffer, int position, int length);
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void publishSerialized(final ByteBuffer buffer) {
+    ByteBuffer directBuffer = buffer;
+    if (!directBuffer.isDirect()) {
+      directBuffer = ByteBuffer.allocateDirect(buffer.remaining());
+      directBuffer.put(buffer.duplicate());
+      directBuffer.flip();
+    }
+    if (this.intraProcessPublisher != null) {
+      this.intraProcessPublisher.publishSerialized(directBuffer);
+    }
+    if (this.needsMiddlewarePublish()) {
+      nativePublishSerialized(
+          this.handle, directBuffer, directBuffer.position(), directBuffer.remaining());
+    }
+  }
+
+  /**
+   * Check if the middleware can loan messages for a ROS2 publisher.
+   *
+   * @param handle A pointer to the underlying ROS2 publisher
+   *     structure, as an integer. Must not be zero.
+   * @return true if messages can be loaned.
+   */
+  private static native boolean nativeCanLoanMessages(long handle);
+
+  /**
+   * Borrow a native message from the middleware.
+   *
+   * @param handle A pointer to the underlying ROS2 publisher
+   *     structure, as an integer. Must not be zero.
+   * @param messageTypeSupport A pointer to the type support of the message.
+   * @return A pointer to the loaned native message.
+   */
+  private static native long nativeBorrowLoanedMessage(long handle, long messageTypeSupport);
+
+  /**
+   * Convert a message into loaned native memory and publish it, which
+   * gives the loan back to the middleware.
+   *
+   * @param <T> The type of the messages that this publisher will publish.
+   * @param handle A pointer to the underlying ROS2 publisher
+   *     structure, as an integer. Must not be zero.
+   * @param messageFromJavaConverter A pointer to the function that converts
+   *     the message to a native one.
+   * @param loanedMessageHandle A pointer to the loaned native message.
+   * @param message An instance of the &lt;T&gt; parameter.
+   */
+  private static native <T extends MessageDefinition> void nativePublishLoanedMessage(
+      long handle, long messageFromJavaConverter, long loanedMessageHandle, T message);
+
+  /**
+   * Give a loaned native message back to the middleware without publishing it.
+   *
+   * @param handle A pointer to the underlying ROS2 publisher
+   *     structure, as an integer. Must not be zero.
+   * @param loanedMessageHandle A pointer to the loaned native message.
+   */
+  private static native void nativeReturnLoanedMessage(long handle, long loanedMessageHandle);
+
+  /**
+   * {@inheritDoc}
+   */
+  public final boolean canLoanMessages() {
+    return nativeCanLoanMessages(this.handle);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final LoanedMessage<T> borrowLoanedMessage() {
+    T message;
+    try {
+      message = this.messageType.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to instantiate message " + this.messageType.getName());
+    }
+    long loanedMessageHandle = 0;
+    if (nativeCanLoanMessages(this.handle)) {
+      loanedMessageHandle = nativeBorrowLoanedMessage(
+          this.handle, this.messageHandles.getTypeSupport());
+    }
+    return new LoanedMessageImpl<T>(this, loanedMessageHandle, message);
+  }
+
+  /**
+   * Publish a message that was loaned by this publisher.
+   */
+  final void publishLoanedMessage(final long loanedMessageHandle, final T message) {
+    if (this.intraProcessPublisher != null) {
+      this.intraProcessPublisher.publish(message);
+    }
+    nativePublishLoanedMessage(
+        this.handle, this.messageHandles.getFromJavaConverter(), loanedMessageHandle, message);
+  }
+
+  /**
+   * Give a message that was loaned by this publisher back without publishing it.
+   */
+  final void returnLoanedMessage(final long loanedMessageHandle) {
+    nativeReturnLoanedMessage(this.handle, loanedMessageHandle);
   }
 
   /**
@@ -119,12 +433,17 @@ public class PublisherImpl<T extends MessageDefinition> implements Publisher<T>
   createEventHandler(Supplier<T> factory, Consumer<T> callback) {
     final WeakReference<Collection<EventHandler>> weakEventHandlers =
       new WeakReference<Collection<EventHandler>>(this.eventHandlers);
+    final WeakReference<Node> weakNode = this.nodeReference;
     Consumer<EventHandler> disposeCallback = new Consumer<EventHandler>() {
       public void accept(EventHandler eventHandler) {
         Collection<EventHandler> eventHandlers = weakEventHandlers.get();
         if (eventHandlers != null) {
           eventHandlers.remove(eventHandler);
         }
+        Node node = weakNode.get();
+        if (node != null) {
+          node.notifyEntitiesChanged();
+        }
       }
     };
     T status = factory.get();
@@ -132,6 +451,10 @@ public class PublisherImpl<T extends MessageDefinition> implements Publisher<T>
     EventHandler<T, Publisher> eventHandler = new EventHandlerImpl<T, Publisher>(
       new WeakReference<Publisher>(this), eventHandle, factory, callback, disposeCallback);
     this.eventHandlers.add(eventHandler);
+    Node node = this.nodeReference.get();
+    if (node != null) {
+      node.notifyEntitiesChanged();
+    }
     return eventHandler;
   }
 
@@ -182,6 +505,9 @@ public class PublisherImpl<T extends MessageDefinition> implements Publisher<T>
    * {@inheritDoc}
    */
   public final void dispose() {
+    if (this.intraProcessPublisher != null) {
+      this.intraProcessPublisher.dispose();
+    }
     for (EventHandler eventHandler : this.eventHandlers) {
       eventHandler.dispose();
     }
@@ -15,6 +15,8 @@
 
 package org.ros2.rcljava.service;
 
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.common.MessageHandles;
 import org.ros2.rcljava.consumers.TriConsumer;
 import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.interfaces.MessageDefinition;
@@ -23,6 +25,21 @@ import org.ros2.rcljava.interfaces.ServiceDefinition;
 public interface Service<T extends ServiceDefinition> extends Disposable {
   ServiceDefinition getServiceDefinition();
 
+  /**
+   * @return The native handles of the request type of this service.
+   */
+  MessageHandles getRequestHandles();
+
+  /**
+   * @return The native handles of the response type of this service.
+   */
+  MessageHandles getResponseHandles();
+
+  /**
+   * @return The callback group this service belongs to.
+   */
+  CallbackGroup getCallbackGroup();
+
   void executeCallback(RMWRequestId rmwRequestId, MessageDefinition request, MessageDefinition response);
 
   String getServiceName();
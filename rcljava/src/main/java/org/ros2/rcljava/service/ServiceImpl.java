@@ -18,7 +18,9 @@ package org.ros2.rcljava.service;
 import java.lang.ref.WeakReference;
 
 import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.common.JNIUtils;
+import org.ros2.rcljava.common.MessageHandles;
 import org.ros2.rcljava.consumers.TriConsumer;
 import org.ros2.rcljava.interfaces.MessageDefinition;
 import org.ros2.rcljava.interfaces.ServiceDefinition;
@@ -46,6 +48,9 @@ public class ServiceImpl<T extends ServiceDefinition> implements Service<T> {
       callback;
 
   private final ServiceDefinition serviceDefinition;
+  private final MessageHandles requestHandles;
+  private final MessageHandles responseHandles;
+  private final CallbackGroup callbackGroup;
 
   public ServiceImpl(
     final ServiceDefinition serviceDefinition,
@@ -53,19 +58,44 @@ public class ServiceImpl<T extends ServiceDefinition> implements Service<T> {
     final long handle,
     final String serviceName,
     final TriConsumer<RMWRequestId, ? extends MessageDefinition, ? extends MessageDefinition>
-      callback)
+      callback,
+    final CallbackGroup callbackGroup)
   {
     this.nodeReference = nodeReference;
     this.handle = handle;
     this.serviceName = serviceName;
     this.callback = callback;
     this.serviceDefinition = serviceDefinition;
+    this.requestHandles = MessageHandles.of(serviceDefinition.newRequestInstance());
+    this.responseHandles = MessageHandles.of(serviceDefinition.newResponseInstance());
+    this.callbackGroup = callbackGroup;
   }
 
   public final ServiceDefinition getServiceDefinition() {
     return this.serviceDefinition;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public final MessageHandles getRequestHandles() {
+    return this.requestHandles;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final MessageHandles getResponseHandles() {
+    return this.responseHandles;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroup getCallbackGroup() {
+    return this.callbackGroup;
+  }
+
   /**
    * Destroy a ROS2 service (rcl_service_t).
    *
@@ -0,0 +1,42 @@
+/* Copyright 2016-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.subscription;
+
+import java.util.List;
+
+import org.ros2.rcljava.interfaces.MessageDefinition;
+
+/**
+ * A subscription whose callback receives every message that could be taken at once, up to a
+ * maximum batch size, instead of being called once per message.
+ * A BatchSubscription must be created via
+ * @{link Node#createBatchSubscription(Class, String, Consumer, QoSProfile, int)}
+ *
+ * @param <T> The type of the messages that this subscription will receive.
+ */
+public interface BatchSubscription<T extends MessageDefinition> extends Subscription<T> {
+  /**
+   * @return The maximum number of messages passed to the callback at once.
+   */
+  int getMaxBatchSize();
+
+  /**
+   * Pass a batch of received messages to the callback.
+   *
+   * @param messages The received messages, oldest first. Never empty.
+   */
+  void executeBatchCallback(List<T> messages);
+}
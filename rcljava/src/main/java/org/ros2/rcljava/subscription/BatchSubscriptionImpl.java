@@ -0,0 +1,111 @@
+/* Copyright 2016-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.subscription;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.List;
+
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.consumers.Consumer;
+import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.intraprocess.IntraProcessManager;
+import org.ros2.rcljava.node.Node;
+import org.ros2.rcljava.qos.QoSProfile;
+
+/**
+ * {@inheritDoc}
+ */
+public class BatchSubscriptionImpl<T extends MessageDefinition>
+    extends SubscriptionImpl<T> implements BatchSubscription<T> {
+  /**
+   * The callback function that will be triggered with the received messages.
+   */
+  private final Consumer<List<T>> batchCallback;
+
+  private final int maxBatchSize;
+
+  /**
+   * Constructor.
+   *
+   * @param nodeReference A {@link java.lang.ref.WeakReference} to the
+   *     @{link org.ros2.rcljava.Node} that created this subscription.
+   * @param handle A pointer to the underlying ROS2 subscription
+   *     structure, as an integer. Must not be zero.
+   * @param messageType The <code>Class</code> of the messages that this
+   *     subscription will receive.
+   * @param topic The topic to which this subscription will be subscribed.
+   * @param callback The callback function that will be triggered with the
+   *     received messages.
+   * @param maxBatchSize The maximum number of messages passed to the callback at once.
+   *     Must be positive.
+   * @param callbackGroup The callback group this subscription belongs to.
+   */
+  public BatchSubscriptionImpl(final WeakReference<Node> nodeReference, final long handle,
+      final Class<T> messageType, final String topic, final Consumer<List<T>> callback,
+      final int maxBatchSize, final CallbackGroup callbackGroup) {
+    super(nodeReference, handle, messageType, topic, null, callbackGroup);
+    this.batchCallback = callback;
+    this.maxBatchSize = checkMaxBatchSize(maxBatchSize);
+  }
+
+  /**
+   * Constructor for a batch subscription that also receives the messages published within its
+   * context from the intra-process manager, one at a time.
+   *
+   * @see #BatchSubscriptionImpl(WeakReference, long, Class, String, Consumer, int, CallbackGroup)
+   * @param intraProcessManager The intra-process manager of the context.
+   * @param qosProfile The QoS profile this subscription was created with.
+   */
+  public BatchSubscriptionImpl(final WeakReference<Node> nodeReference, final long handle,
+      final Class<T> messageType, final String topic, final Consumer<List<T>> callback,
+      final int maxBatchSize, final CallbackGroup callbackGroup,
+      final IntraProcessManager intraProcessManager, final QoSProfile qosProfile) {
+    super(nodeReference, handle, messageType, topic, null, callbackGroup, intraProcessManager,
+        qosProfile);
+    this.batchCallback = callback;
+    this.maxBatchSize = checkMaxBatchSize(maxBatchSize);
+  }
+
+  private static int checkMaxBatchSize(final int maxBatchSize) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException(
+          "The maximum batch size must be positive: " + maxBatchSize);
+    }
+    return maxBatchSize;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final int getMaxBatchSize() {
+    return this.maxBatchSize;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void executeBatchCallback(final List<T> messages) {
+    this.batchCallback.accept(messages);
+  }
+
+  /**
+   * Pass a single message to the callback, as a batch of one.
+   */
+  public void executeCallback(final T message) {
+    this.batchCallback.accept(Collections.singletonList(message));
+  }
+}
@@ -0,0 +1,63 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.subscription;
+
+import java.util.function.Supplier;
+
+import org.ros2.rcljava.consumers.Consumer;
+import org.ros2.rcljava.events.EventHandler;
+import org.ros2.rcljava.events.SubscriptionEventStatus;
+import org.ros2.rcljava.interfaces.MessageDefinition;
+
+/**
+ * A subscription that receives messages in their serialized (CDR) form, without converting
+ * them to Java.
+ * A SerializedSubscription must be created via
+ * @{link Node#createSerializedSubscription(Class&lt;T&gt;, String, Consumer&lt;ByteBuffer&gt;)}
+ *
+ * @param <T> The type of the messages that this subscription will receive.
+ */
+public interface SerializedSubscription<T extends MessageDefinition>
+    extends SubscriptionBase<T> {
+  /**
+   * Take the next serialized message, if there is one, and pass it to the callback.
+   *
+   * The buffer passed to the callback is reused for the next message, so it is only valid
+   * until the callback returns.
+   *
+   * @return true if a message was taken, false if there wasn't one.
+   */
+  boolean takeAndExecuteCallback();
+
+  /**
+   * Create an event handler.
+   *
+   * @param <T> A subscription event status type.
+   * @param factory A factory that can instantiate an event status of type T.
+   * @param callback Callback that will be called when the event is triggered.
+   */
+  <T extends SubscriptionEventStatus> EventHandler<T, SerializedSubscription> createEventHandler(
+    Supplier<T> factory, Consumer<T> callback);
+
+  /**
+   * Remove a previously registered event handler.
+   *
+   * @param <T> A subscription event status type.
+   * @param eventHandler An event handler that was registered previously in this object.
+   */
+  <T extends SubscriptionEventStatus> void removeEventHandler(
+    EventHandler<T, SerializedSubscription> eventHandler);
+}
@@ -0,0 +1,274 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.subscription;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.common.JNIUtils;
+import org.ros2.rcljava.common.MessageHandles;
+import org.ros2.rcljava.consumers.Consumer;
+import org.ros2.rcljava.events.EventHandler;
+import org.ros2.rcljava.events.EventHandlerImpl;
+import org.ros2.rcljava.events.SubscriptionEventStatus;
+import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.node.Node;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@inheritDoc}
+ */
+public class SerializedSubscriptionImpl<T extends MessageDefinition>
+    implements SerializedSubscription<T> {
+  private static final Logger logger = LoggerFactory.getLogger(SerializedSubscriptionImpl.class);
+
+  static {
+    try {
+      JNIUtils.loadImplementation(SerializedSubscriptionImpl.class);
+    } catch (UnsatisfiedLinkError ule) {
+      logger.error("Native code library failed to load.\n" + ule);
+      System.exit(1);
+    }
+  }
+
+  private final WeakReference<Node> nodeReference;
+
+  /**
+   * A pointer to the underlying ROS2 subscription structure, or zero once disposed.
+   */
+  private long handle;
+
+  /**
+   * The class of the messages that this subscription may receive.
+   */
+  private final Class<T> messageType;
+
+  /**
+   * The native handles of the message type, resolved once at creation.
+   */
+  private final MessageHandles messageHandles;
+
+  /**
+   * The callback function that will be triggered when a new serialized
+   * message is received.
+   */
+  private final Consumer<ByteBuffer> serializedCallback;
+
+  private final Collection<EventHandler> eventHandlers;
+
+  private final CallbackGroup callbackGroup;
+
+  /**
+   * An integer that represents a pointer to the native serialized message
+   * (rmw_serialized_message_t) that messages are taken into.
+   */
+  private long serializedMessageHandle;
+
+  /**
+   * A direct buffer that wraps the memory of the native serialized message.
+   * It's replaced by the native code whenever that memory is reallocated.
+   */
+  private final ByteBuffer[] buffer = new ByteBuffer[1];
+
+  /**
+   * Constructor.
+   *
+   * @param nodeReference A {@link java.lang.ref.WeakReference} to the
+   *     @{link org.ros2.rcljava.Node} that created this subscription.
+   * @param handle A pointer to the underlying ROS2 subscription
+   *     structure, as an integer. Must not be zero.
+   * @param messageType The <code>Class</code> of the messages that this
+   *     subscription will receive.
+   * @param topic The topic to which this subscription will be subscribed.
+   * @param callback The callback function that will be triggered when a new
+   *     serialized message is received.
+   * @param callbackGroup The callback group this subscription belongs to.
+   */
+  public SerializedSubscriptionImpl(final WeakReference<Node> nodeReference, final long handle,
+      final Class<T> messageType, final String topic, final Consumer<ByteBuffer> callback,
+      final CallbackGroup callbackGroup) {
+    this.nodeReference = nodeReference;
+    this.handle = handle;
+    this.messageType = messageType;
+    this.messageHandles = MessageHandles.of(messageType);
+    this.serializedCallback = callback;
+    this.eventHandlers = new LinkedBlockingQueue<EventHandler>();
+    this.callbackGroup = callbackGroup;
+    this.serializedMessageHandle = nativeCreateSerializedMessage();
+  }
+
+  /**
+   * Create a native serialized message (rmw_serialized_message_t).
+   *
+   * @return A pointer to the native serialized message.
+   */
+  private static native long nativeCreateSerializedMessage();
+
+  /**
+   * Destroy a native serialized message (rmw_serialized_message_t).
+   *
+   * @param serializedMessageHandle A pointer to the native serialized message.
+   */
+  private static native void nativeDisposeSerializedMessage(long serializedMessageHandle);
+
+  /**
+   * Take a serialized message from a ROS2 subscription.
+   *
+   * @param handle A pointer to the underlying ROS2 subscription structure.
+   * @param serializedMessageHandle A pointer to the native serialized message.
+   * @param buffer A single element array holding the buffer that wraps the
+   *     native serialized message. The element is replaced if it's null or
+   *     doesn't wrap the memory of the serialized message anymore.
+   * @return The length of the serialized message, or -1 if there wasn't one.
+   */
+  private static native int nativeTakeSerialized(
+      long handle, long serializedMessageHandle, ByteBuffer[] buffer);
+
+  /**
+   * {@inheritDoc}
+   */
+  public final synchronized boolean takeAndExecuteCallback() {
+    int length = nativeTakeSerialized(this.getHandle(), this.serializedMessageHandle, this.buffer);
+    if (length < 0) {
+      return false;
+    }
+    ByteBuffer serializedMessage = this.buffer[0];
+    serializedMessage.clear();
+    serializedMessage.limit(length);
+    this.serializedCallback.accept(serializedMessage);
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final Class<T> getMessageType() {
+    return this.messageType;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final MessageHandles getMessageHandles() {
+    return this.messageHandles;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final long getHandle() {
+    return this.handle;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroup getCallbackGroup() {
+    return this.callbackGroup;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final WeakReference<Node> getNodeReference() {
+    return this.nodeReference;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final
+  <T extends SubscriptionEventStatus> EventHandler<T, SerializedSubscription>
+  createEventHandler(Supplier<T> factory, Consumer<T> callback) {
+    final WeakReference<Collection<EventHandler>> weakEventHandlers =
+      new WeakReference<Collection<EventHandler>>(this.eventHandlers);
+    final WeakReference<Node> weakNode = this.nodeReference;
+    Consumer<EventHandler> disposeCallback = new Consumer<EventHandler>() {
+      public void accept(EventHandler eventHandler) {
+        Collection<EventHandler> eventHandlers = weakEventHandlers.get();
+        if (eventHandlers != null) {
+          eventHandlers.remove(eventHandler);
+        }
+        Node node = weakNode.get();
+        if (node != null) {
+          node.notifyEntitiesChanged();
+        }
+      }
+    };
+    T status = factory.get();
+    long eventHandle =
+      SubscriptionImpl.nativeCreateEvent(this.handle, status.getSubscriptionEventType());
+    EventHandler<T, SerializedSubscription> eventHandler =
+      new EventHandlerImpl<T, SerializedSubscription>(
+        new WeakReference<SerializedSubscription>(this), eventHandle, factory, callback,
+        disposeCallback);
+    this.eventHandlers.add(eventHandler);
+    Node node = this.nodeReference.get();
+    if (node != null) {
+      node.notifyEntitiesChanged();
+    }
+    return eventHandler;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final
+  <T extends SubscriptionEventStatus> void removeEventHandler(
+    EventHandler<T, SerializedSubscription> eventHandler)
+  {
+    if (!this.eventHandlers.remove(eventHandler)) {
+      throw new IllegalArgumentException(
+        "The passed eventHandler wasn't created by this subscription");
+    }
+    eventHandler.dispose();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final
+  Collection<EventHandler> getEventHandlers() {
+    return this.eventHandlers;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final synchronized void dispose() {
+    for (EventHandler eventHandler : this.eventHandlers) {
+      eventHandler.dispose();
+    }
+    this.eventHandlers.clear();
+    Node node = this.nodeReference.get();
+    if (node == null) {
+      logger.error("Node reference is null. Failed to dispose of Subscription.");
+    } else {
+      node.removeSubscription(this);
+      SubscriptionImpl.nativeDispose(node.getHandle(), this.handle);
+      this.handle = 0;
+    }
+    this.buffer[0] = null;
+    nativeDisposeSerializedMessage(this.serializedMessageHandle);
+    this.serializedMessageHandle = 0;
+  }
+}
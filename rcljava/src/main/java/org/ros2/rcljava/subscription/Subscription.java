@@ -15,16 +15,12 @@
 
 package org.ros2.rcljava.subscription;
 
-import java.lang.ref.WeakReference;
-import java.util.Collection;
 import java.util.function.Supplier;
 
 import org.ros2.rcljava.consumers.Consumer;
 import org.ros2.rcljava.events.EventHandler;
 import org.ros2.rcljava.events.SubscriptionEventStatus;
-import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.interfaces.MessageDefinition;
-import org.ros2.rcljava.node.Node;
 
 /**
  * This class serves as a bridge between ROS2's rcl_subscription_t and RCLJava.
@@ -33,19 +29,24 @@ import org.ros2.rcljava.node.Node;
  *
  * @param <T> The type of the messages that this subscription will receive.
  */
-public interface Subscription<T extends MessageDefinition> extends Disposable {
+public interface Subscription<T extends MessageDefinition> extends SubscriptionBase<T> {
+  void executeCallback(T message);
+
   /**
-   * @return The type of the messages that this subscription may receive.
+   * Convert every received message into the same instance, instead of allocating a new one,
+   * reusing its arrays when their sizes match.
+   * The message passed to the callback is then only valid until the callback returns, use
+   * @{link MessageDefinition#copyFrom(MessageDefinition)} to keep its data.
+   *
+   * @param reuseMessages Whether to reuse a single message instance.
    */
-  Class<T> getMessageType();
+  void setReuseMessages(boolean reuseMessages);
 
   /**
-   * @return A @{link java.lang.ref.WeakReference} to the
-   * @{link org.ros2.rcljava.Node}that created this subscription.
+   * @return The instance received messages are converted into, or null if a new instance is
+   *     created for every message.
    */
-  WeakReference<Node> getNodeReference();
-
-  void executeCallback(T message);
+  T getReusableMessage();
 
   /**
    * Create an event handler.
@@ -65,11 +66,4 @@ public interface Subscription<T extends MessageDefinition> extends Disposable {
    */
   <T extends SubscriptionEventStatus> void removeEventHandler(
     EventHandler<T, Subscription> eventHandler);
-
-  /**
-   * Get the event handlers that were registered in this Subscription.
-   *
-   * @return The registered event handlers.
-   */
-  Collection<EventHandler> getEventHandlers();
 }
@@ -0,0 +1,62 @@
+/* Copyright 2016-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.subscription;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.common.MessageHandles;
+import org.ros2.rcljava.events.EventHandler;
+import org.ros2.rcljava.interfaces.Disposable;
+import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.node.Node;
+
+/**
+ * What all the kinds of subscriptions have in common, regardless of the form in which they
+ * pass the received messages to their callback.
+ *
+ * @param <T> The type of the messages that this subscription will receive.
+ */
+public interface SubscriptionBase<T extends MessageDefinition> extends Disposable {
+  /**
+   * @return The type of the messages that this subscription may receive.
+   */
+  Class<T> getMessageType();
+
+  /**
+   * @return The native handles of the type of the messages that this subscription may receive.
+   */
+  MessageHandles getMessageHandles();
+
+  /**
+   * @return A @{link java.lang.ref.WeakReference} to the
+   * @{link org.ros2.rcljava.Node}that created this subscription.
+   */
+  WeakReference<Node> getNodeReference();
+
+  /**
+   * @return The callback group this subscription belongs to.
+   */
+  CallbackGroup getCallbackGroup();
+
+  /**
+   * Get the event handlers that were registered in this Subscription.
+   *
+   * @return The registered event handlers.
+   */
+  Collection<EventHandler> getEventHandlers();
+}
@@ -21,14 +21,19 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Supplier;
 
 import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.common.JNIUtils;
+import org.ros2.rcljava.common.MessageHandles;
 import org.ros2.rcljava.consumers.BiConsumer;
 import org.ros2.rcljava.consumers.Consumer;
 import org.ros2.rcljava.events.EventHandler;
 import org.ros2.rcljava.events.EventHandlerImpl;
 import org.ros2.rcljava.events.SubscriptionEventStatus;
 import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.intraprocess.IntraProcessManager;
+import org.ros2.rcljava.intraprocess.IntraProcessSubscription;
 import org.ros2.rcljava.node.Node;
+import org.ros2.rcljava.qos.QoSProfile;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +69,11 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
    */
   private final Class<T> messageType;
 
+  /**
+   * The native handles of the message type, resolved once at creation.
+   */
+  private final MessageHandles messageHandles;
+
   /**
    * The topic to which this subscription is subscribed.
    */
@@ -75,8 +85,21 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
    */
   private final Consumer<T> callback;
 
+  /**
+   * The instance received messages are converted into, if they are reused.
+   */
+  private volatile T reusableMessage;
+
   private final Collection<EventHandler> eventHandlers;
 
+  private final CallbackGroup callbackGroup;
+
+  /**
+   * Receives the messages published within the context of this subscription, or null if
+   * they are received via the middleware.
+   */
+  private final IntraProcessSubscription<T> intraProcessSubscription;
+
   /**
    * Constructor.
    *
@@ -93,15 +116,62 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
    *     message is received.
    */
   public SubscriptionImpl(final WeakReference<Node> nodeReference, final long handle,
-      final Class<T> messageType, final String topic, final Consumer<T> callback) {
+      final Class<T> messageType, final String topic, final Consumer<T> callback,
+      final CallbackGroup callbackGroup) {
     this.nodeReference = nodeReference;
     this.handle = handle;
     this.messageType = messageType;
+    this.messageHandles = MessageHandles.of(messageType);
     this.topic = topic;
     this.callback = callback;
     this.eventHandlers = new LinkedBlockingQueue<EventHandler>();
+    this.callbackGroup = callbackGroup;
+    this.intraProcessSubscription = null;
   }
 
+  /**
+   * Constructor for a subscription that receives the messages published within its context
+   * from the intra-process manager. The underlying ROS2 subscription must ignore local
+   * publications.
+   *
+   * @param nodeReference A {@link java.lang.ref.WeakReference} to the
+   *     @{link org.ros2.rcljava.Node} that created this subscription.
+   * @param handle A pointer to the underlying ROS2 subscription
+   *     structure, as an integer. Must not be zero.
+   * @param messageType The <code>Class</code> of the messages that this
+   *     subscription will receive.
+   * @param topic The topic to which this subscription will be subscribed.
+   * @param callback The callback function that will be triggered when a new
+   *     message is received.
+   * @param callbackGroup The callback group this subscription belongs to.
+   * @param intraProcessManager The intra-process manager of the context.
+   * @param qosProfile The QoS profile this subscription was created with.
+   */
+  public SubscriptionImpl(final WeakReference<Node> nodeReference, final long handle,
+      final Class<T> messageType, final String topic, final Consumer<T> callback,
+      final CallbackGroup callbackGroup, final IntraProcessManager intraProcessManager,
+      final QoSProfile qosProfile) {
+    this.nodeReference = nodeReference;
+    this.handle = handle;
+    this.messageType = messageType;
+    this.messageHandles = MessageHandles.of(messageType);
+    this.topic = topic;
+    this.callback = callback;
+    this.eventHandlers = new LinkedBlockingQueue<EventHandler>();
+    this.callbackGroup = callbackGroup;
+    this.intraProcessSubscription =
+        intraProcessManager.addSubscription(this, nativeGetTopicName(handle), qosProfile);
+  }
+
+  /**
+   * Get the fully qualified name of the topic of a ROS2 subscription.
+   *
+   * @param handle A pointer to the underlying ROS2 subscription
+   *     structure, as an integer. Must not be zero.
+   * @return The fully qualified topic name.
+   */
+  private static native String nativeGetTopicName(long handle);
+
   /**
    * {@inheritDoc}
    */
@@ -109,6 +179,13 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
     return messageType;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public final MessageHandles getMessageHandles() {
+    return this.messageHandles;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -116,6 +193,36 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
     return handle;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroup getCallbackGroup() {
+    return this.callbackGroup;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void setReuseMessages(final boolean reuseMessages) {
+    if (!reuseMessages) {
+      this.reusableMessage = null;
+    } else if (this.reusableMessage == null) {
+      try {
+        this.reusableMessage = this.messageType.getDeclaredConstructor().newInstance();
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException(
+            "Failed to instantiate message " + this.messageType.getName());
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final T getReusableMessage() {
+    return this.reusableMessage;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -131,12 +238,17 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
   createEventHandler(Supplier<T> factory, Consumer<T> callback) {
     final WeakReference<Collection<EventHandler>> weakEventHandlers =
       new WeakReference<Collection<EventHandler>>(this.eventHandlers);
+    final WeakReference<Node> weakNode = this.nodeReference;
     Consumer<EventHandler> disposeCallback = new Consumer<EventHandler>() {
       public void accept(EventHandler eventHandler) {
         Collection<EventHandler> eventHandlers = weakEventHandlers.get();
         if (eventHandlers != null) {
           eventHandlers.remove(eventHandler);
         }
+        Node node = weakNode.get();
+        if (node != null) {
+          node.notifyEntitiesChanged();
+        }
       }
     };
     T status = factory.get();
@@ -145,6 +257,10 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
       new EventHandlerImpl<T, Subscription>(
         new WeakReference<Subscription>(this), eventHandle, factory, callback, disposeCallback);
     this.eventHandlers.add(eventHandler);
+    Node node = this.nodeReference.get();
+    if (node != null) {
+      node.notifyEntitiesChanged();
+    }
     return eventHandler;
   }
 
@@ -180,7 +296,7 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
    *     Must not be zero.
    * @param eventType The rcl event type.
    */
-  private static native long nativeCreateEvent(long handle, int eventType);
+  static native long nativeCreateEvent(long handle, int eventType);
 
   /**
    * Destroy a ROS2 subscription (rcl_subscription_t).
@@ -190,12 +306,15 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
    * @param handle A pointer to the underlying ROS2 subscription
    *     structure, as an integer. Must not be zero.
    */
-  private static native void nativeDispose(long nodeHandle, long handle);
+  static native void nativeDispose(long nodeHandle, long handle);
 
   /**
    * {@inheritDoc}
    */
-  public final void dispose() {
+  public void dispose() {
+    if (this.intraProcessSubscription != null) {
+      this.intraProcessSubscription.dispose();
+    }
     for (EventHandler eventHandler : this.eventHandlers) {
       eventHandler.dispose();
     }
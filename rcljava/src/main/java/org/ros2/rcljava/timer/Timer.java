@@ -15,11 +15,17 @@
 
 package org.ros2.rcljava.timer;
 
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.interfaces.Disposable;
 
 public interface Timer extends Disposable {
   void callTimer();
 
+  /**
+   * @return The callback group this timer belongs to.
+   */
+  CallbackGroup getCallbackGroup();
+
   void executeCallback();
 
   boolean isReady();
@@ -20,6 +20,7 @@ import java.lang.ref.WeakReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.common.JNIUtils;
 import org.ros2.rcljava.concurrent.Callback;
 import org.ros2.rcljava.node.Node;
@@ -44,6 +45,8 @@ public class TimerImpl implements Timer {
 
   private final Callback callback;
 
+  private final CallbackGroup callbackGroup;
+
   private static native boolean nativeIsReady(long handle);
 
   private static native boolean nativeIsCanceled(long handle);
@@ -63,11 +66,12 @@ public class TimerImpl implements Timer {
   private static native long nativeCallTimer(long handle);
 
   public TimerImpl(final WeakReference<Node> nodeReference, final long handle,
-      final Callback callback, final long timerPeriodNS) {
+      final Callback callback, final long timerPeriodNS, final CallbackGroup callbackGroup) {
     this.nodeReference = nodeReference;
     this.handle = handle;
     this.callback = callback;
     this.timerPeriodNS = timerPeriodNS;
+    this.callbackGroup = callbackGroup;
   }
 
   public long timeSinceLastCall() {
@@ -105,6 +109,13 @@ public class TimerImpl implements Timer {
     return this.timerPeriodNS;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroup getCallbackGroup() {
+    return this.callbackGroup;
+  }
+
   public long getHandle() {
     return this.handle;
   }
@@ -117,6 +128,7 @@ public class TimerImpl implements Timer {
       logger.error("Node reference is null. Failed to dispose of Timer.");
       return;
     }
+    node.removeTimer(this);
     nativeDispose(this.handle);
     this.handle = 0;
   }
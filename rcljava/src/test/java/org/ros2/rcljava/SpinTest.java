@@ -16,22 +16,40 @@
 package org.ros2.rcljava;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.lang.System;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.callbackgroups.CallbackGroupType;
 import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.concurrent.RCLFuture;
 import org.ros2.rcljava.consumers.Consumer;
 import org.ros2.rcljava.events.EventHandler;
+import org.ros2.rcljava.guardconditions.GuardCondition;
 import org.ros2.rcljava.publisher.statuses.OfferedQosIncompatible;
 import org.ros2.rcljava.executors.Executor;
+import org.ros2.rcljava.executors.EventsExecutor;
+import org.ros2.rcljava.executors.MultiThreadedExecutor;
+import org.ros2.rcljava.executors.SchedulingPolicy;
+import org.ros2.rcljava.executors.SchedulingStatistics;
 import org.ros2.rcljava.executors.SingleThreadedExecutor;
+import org.ros2.rcljava.executors.StaticSingleThreadedExecutor;
+import org.ros2.rcljava.executors.VirtualThreadExecutor;
 import org.ros2.rcljava.node.ComposableNode;
 import org.ros2.rcljava.node.Node;
 import org.ros2.rcljava.timer.Timer;
@@ -345,6 +363,592 @@ public class SpinTest {
     assertEquals(1, timerCallback.getCounter());
   }
 
+  @Test
+  public final void testSpinOnceEntitiesChanged() {
+    Executor executor = new SingleThreadedExecutor();
+    final Node node = RCLJava.createNode("spin_once_entities_changed_node");
+    TimerCallback timerCallback1 = new TimerCallback(0);
+    Timer timer1 = node.createWallTimer(100, TimeUnit.MILLISECONDS, timerCallback1);
+    assertNotEquals(0, timer1.getHandle());
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    executor.addNode(composableNode);
+
+    executor.spinOnce();
+    assertEquals(1, timerCallback1.getCounter());
+
+    // The executor reuses its wait set, so entities created or disposed after the
+    // first spin must still be picked up.
+    timer1.dispose();
+    TimerCallback timerCallback2 = new TimerCallback(0);
+    Timer timer2 = node.createWallTimer(100, TimeUnit.MILLISECONDS, timerCallback2);
+    assertNotEquals(0, timer2.getHandle());
+
+    executor.spinOnce(200*1000*1000);
+    assertEquals(1, timerCallback1.getCounter());
+    assertEquals(1, timerCallback2.getCounter());
+
+    executor.removeNode(composableNode);
+    executor.dispose();
+  }
+
+  @Test
+  public final void testSpinOnceGuardCondition() {
+    Executor executor = new SingleThreadedExecutor();
+    final Node node = RCLJava.createNode("spin_once_guard_condition_node");
+    TimerCallback guardConditionCallback = new TimerCallback(0);
+    GuardCondition guardCondition = node.createGuardCondition(guardConditionCallback);
+    assertNotEquals(0, guardCondition.getHandle());
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    executor.addNode(composableNode);
+
+    guardCondition.trigger();
+    long start = System.currentTimeMillis();
+    while (guardConditionCallback.getCounter() == 0 && System.currentTimeMillis() < start + 1000) {
+      // The first wake up may come from adding the node
+      executor.spinOnce(200*1000*1000);
+    }
+    assertEquals(1, guardConditionCallback.getCounter());
+
+    guardCondition.dispose();
+    executor.dispose();
+  }
+
+  @Test
+  public final void testPrioritySchedulingPolicy() {
+    SingleThreadedExecutor executor = new SingleThreadedExecutor();
+    executor.setSchedulingPolicy(SchedulingPolicy.PRIORITY);
+    final Node node = RCLJava.createNode("priority_scheduling_policy_node");
+    final List<String> executed = new ArrayList<String>();
+    GuardCondition lowPriorityGuardCondition = node.createGuardCondition(new Callback() {
+      public void call() {
+        executed.add("low");
+      }
+    });
+    CallbackGroup highPriorityCallbackGroup =
+        node.createCallbackGroup(CallbackGroupType.MUTUALLY_EXCLUSIVE, 10);
+    assertEquals(10, highPriorityCallbackGroup.getPriority());
+    GuardCondition highPriorityGuardCondition = node.createGuardCondition(new Callback() {
+      public void call() {
+        executed.add("high");
+      }
+    }, highPriorityCallbackGroup);
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    executor.addNode(composableNode);
+
+    // Both are ready in the same wait, the one created last is executed first
+    lowPriorityGuardCondition.trigger();
+    highPriorityGuardCondition.trigger();
+    long start = System.currentTimeMillis();
+    while (executed.size() < 2 && System.currentTimeMillis() < start + 1000) {
+      executor.spinOnce(200*1000*1000);
+    }
+    assertEquals(Arrays.asList("high", "low"), executed);
+
+    SchedulingStatistics lowPriorityStatistics =
+        executor.getSchedulingStatistics(lowPriorityGuardCondition);
+    assertEquals(1, lowPriorityStatistics.getExecutionCount());
+    assertEquals(1, lowPriorityStatistics.getPassedOverCount());
+    SchedulingStatistics highPriorityStatistics =
+        executor.getSchedulingStatistics(highPriorityGuardCondition);
+    assertEquals(1, highPriorityStatistics.getExecutionCount());
+    assertEquals(0, highPriorityStatistics.getMaxPassedOverCount());
+
+    executor.removeNode(composableNode);
+    executor.dispose();
+  }
+
+  @Test
+  public final void testEventsExecutor() {
+    Executor executor = new EventsExecutor();
+    final Node node = RCLJava.createNode("events_executor_node");
+    TimerCallback timerCallback = new TimerCallback(0);
+    Timer timer = node.createWallTimer(100, TimeUnit.MILLISECONDS, timerCallback);
+    TimerCallback guardConditionCallback = new TimerCallback(0);
+    GuardCondition guardCondition = node.createGuardCondition(guardConditionCallback);
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    executor.addNode(composableNode);
+
+    guardCondition.trigger();
+    long start = System.currentTimeMillis();
+    while ((guardConditionCallback.getCounter() == 0 || timerCallback.getCounter() == 0)
+      && System.currentTimeMillis() < start + 1000)
+    {
+      executor.spinOnce(200*1000*1000);
+    }
+    assertEquals(1, guardConditionCallback.getCounter());
+    assertTrue(timerCallback.getCounter() >= 1);
+
+    executor.removeNode(composableNode);
+    executor.dispose();
+    timer.dispose();
+    guardCondition.dispose();
+  }
+
+  @Test
+  public final void testEventsExecutorBusyCallbackGroup() throws Exception {
+    Executor executor = new EventsExecutor();
+    final Node node = RCLJava.createNode("events_executor_busy_callback_group_node");
+    // All the guard conditions are in the default, mutually exclusive, callback group, which
+    // must not keep the listener from queueing them together after a single wait.
+    TimerCallback[] guardConditionCallbacks = new TimerCallback[3];
+    GuardCondition[] guardConditions = new GuardCondition[3];
+    for (int i = 0; i < guardConditions.length; ++i) {
+      guardConditionCallbacks[i] = new TimerCallback(0);
+      guardConditions[i] = node.createGuardCondition(guardConditionCallbacks[i]);
+    }
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    executor.addNode(composableNode);
+    for (GuardCondition guardCondition : guardConditions) {
+      guardCondition.trigger();
+    }
+
+    // Start the listener, then give it time to queue the ready guard conditions.
+    executor.spinSome();
+    Thread.sleep(200);
+
+    // Only the events that are already queued are executed.
+    executor.spinSome();
+    for (TimerCallback guardConditionCallback : guardConditionCallbacks) {
+      assertEquals(1, guardConditionCallback.getCounter());
+    }
+
+    executor.removeNode(composableNode);
+    executor.dispose();
+    for (GuardCondition guardCondition : guardConditions) {
+      guardCondition.dispose();
+    }
+  }
+
+  @Test
+  public final void testEventsExecutorNestedSpinDefersBusyCallbackGroup() throws Exception {
+    final Executor executor = new EventsExecutor();
+    final Node node = RCLJava.createNode("events_executor_nested_spin_node");
+    final TimerCallback innerCallback = new TimerCallback(0);
+    final long[] nestedSpinCpuTimeNs = new long[1];
+    final int[] innerCounterDuringNestedSpin = new int[1];
+    // Both guard conditions are in the default, mutually exclusive, callback group, so the
+    // inner one can't run while the outer callback spins the executor.
+    GuardCondition outerGuardCondition = node.createGuardCondition(new Callback() {
+      public void call() {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        long start = threadMXBean.getCurrentThreadCpuTime();
+        executor.spinUntilComplete(
+          new RCLFuture<Boolean>(), TimeUnit.NANOSECONDS.convert(200, TimeUnit.MILLISECONDS));
+        nestedSpinCpuTimeNs[0] = threadMXBean.getCurrentThreadCpuTime() - start;
+        innerCounterDuringNestedSpin[0] = innerCallback.getCounter();
+      }
+    });
+    GuardCondition innerGuardCondition = node.createGuardCondition(innerCallback);
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    executor.addNode(composableNode);
+    outerGuardCondition.trigger();
+    innerGuardCondition.trigger();
+
+    long start = System.currentTimeMillis();
+    while (innerCallback.getCounter() == 0 && System.currentTimeMillis() < start + 2000) {
+      executor.spinOnce(200*1000*1000);
+    }
+    assertEquals(1, innerCallback.getCounter());
+    assertEquals(0, innerCounterDuringNestedSpin[0]);
+    if (ManagementFactory.getThreadMXBean().isCurrentThreadCpuTimeSupported()) {
+      // The nested spin slept instead of retrying the inner event over and over.
+      long maxCpuTimeNs = TimeUnit.NANOSECONDS.convert(100, TimeUnit.MILLISECONDS);
+      assertTrue(nestedSpinCpuTimeNs[0] < maxCpuTimeNs);
+    }
+
+    executor.removeNode(composableNode);
+    executor.dispose();
+    outerGuardCondition.dispose();
+    innerGuardCondition.dispose();
+  }
+
+  @Test
+  public final void testStaticSingleThreadedExecutorSpinDoesNotAllocate() {
+    com.sun.management.ThreadMXBean threadMXBean =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+      return;
+    }
+    threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    long threadId = Thread.currentThread().getId();
+
+    StaticSingleThreadedExecutor executor = new StaticSingleThreadedExecutor();
+    final Node node = RCLJava.createNode("static_executor_node");
+    TimerCallback timerCallback = new TimerCallback(0);
+    Timer timer = node.createWallTimer(1, TimeUnit.HOURS, timerCallback);
+    Subscription<std_msgs.msg.String> subscription = node.<std_msgs.msg.String>createSubscription(
+      std_msgs.msg.String.class, "test_topic_static_executor",
+      new Consumer<std_msgs.msg.String>() {
+        public void accept(final std_msgs.msg.String msg) {}
+      });
+    TimerCallback guardConditionCallback = new TimerCallback(0);
+    GuardCondition guardCondition = node.createGuardCondition(guardConditionCallback);
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    executor.addNode(composableNode);
+
+    // Collect the entities and let the JIT settle before measuring.
+    for (int i = 0; i < 10000; ++i) {
+      executor.spinOnce(0);
+    }
+
+    // Measure the allocations of the measurement itself, so they can be discounted.
+    long overheadStart = threadMXBean.getThreadAllocatedBytes(threadId);
+    long overheadEnd = threadMXBean.getThreadAllocatedBytes(threadId);
+    long overhead = overheadEnd - overheadStart;
+
+    long start = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 1000; ++i) {
+      executor.spinOnce(0);
+    }
+    long end = threadMXBean.getThreadAllocatedBytes(threadId);
+    assertEquals(0, end - start - overhead);
+
+    // An explicit refresh or a signaled guard condition still makes the executor run callbacks.
+    executor.refresh();
+    guardCondition.trigger();
+    executor.spinOnce(200*1000*1000);
+    assertEquals(1, guardConditionCallback.getCounter());
+    assertEquals(0, timerCallback.getCounter());
+
+    executor.removeNode(composableNode);
+    executor.dispose();
+    subscription.dispose();
+    timer.dispose();
+    guardCondition.dispose();
+  }
+
+  @Test
+  public final void testStaticSingleThreadedExecutorDisposeTimer() {
+    StaticSingleThreadedExecutor executor = new StaticSingleThreadedExecutor();
+    final Node node = RCLJava.createNode("static_executor_dispose_timer_node");
+    TimerCallback timerCallback = new TimerCallback(0);
+    final Timer timer = node.createWallTimer(10, TimeUnit.MILLISECONDS, timerCallback);
+    // Dispose the timer from a callback, while the executor is spinning.
+    GuardCondition disposeGuardCondition = node.createGuardCondition(new Callback() {
+      public void call() {
+        timer.dispose();
+      }
+    });
+    TimerCallback guardConditionCallback = new TimerCallback(0);
+    GuardCondition guardCondition = node.createGuardCondition(guardConditionCallback);
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    executor.addNode(composableNode);
+
+    long start = System.currentTimeMillis();
+    while (timerCallback.getCounter() == 0 && System.currentTimeMillis() < start + 1000) {
+      executor.spinOnce(200*1000*1000);
+    }
+    assertTrue(timerCallback.getCounter() > 0);
+
+    disposeGuardCondition.trigger();
+    start = System.currentTimeMillis();
+    while (timer.getHandle() != 0 && System.currentTimeMillis() < start + 1000) {
+      executor.spinOnce(200*1000*1000);
+    }
+    assertEquals(0, timer.getHandle());
+    int timerCount = timerCallback.getCounter();
+
+    // The disposed timer isn't added to the wait set anymore, so spinning still works.
+    guardCondition.trigger();
+    start = System.currentTimeMillis();
+    while (guardConditionCallback.getCounter() == 0 && System.currentTimeMillis() < start + 1000) {
+      executor.spinOnce(200*1000*1000);
+    }
+    assertEquals(1, guardConditionCallback.getCounter());
+    assertEquals(timerCount, timerCallback.getCounter());
+    assertFalse(node.getTimers().contains(timer));
+
+    executor.removeNode(composableNode);
+    executor.dispose();
+    disposeGuardCondition.dispose();
+    guardCondition.dispose();
+  }
+
+  @Test
+  public final void testVirtualThreadExecutor() throws Exception {
+    final VirtualThreadExecutor executor = new VirtualThreadExecutor();
+    final Node node = RCLJava.createNode("virtual_thread_executor_node");
+    CallbackGroup callbackGroup = node.createCallbackGroup(CallbackGroupType.REENTRANT);
+
+    // Both callbacks block until the other one is running too, which only works if they are
+    // executed in parallel.
+    final CountDownLatch bothRunning = new CountDownLatch(2);
+    final AtomicInteger executions = new AtomicInteger();
+    final AtomicInteger overlaps = new AtomicInteger();
+    final GuardCondition[] guardConditions = new GuardCondition[2];
+    for (int i = 0; i < guardConditions.length; ++i) {
+      final int index = i;
+      final AtomicInteger running = new AtomicInteger();
+      guardConditions[i] = node.createGuardCondition(new Callback() {
+        public void call() {
+          if (running.incrementAndGet() > 1) {
+            overlaps.incrementAndGet();
+          }
+          bothRunning.countDown();
+          try {
+            bothRunning.await(1, TimeUnit.SECONDS);
+            // Triggered while still running, so the next execution would overlap this one if
+            // the executor didn't serialize the callbacks of an entity.
+            if (executions.incrementAndGet() <= 2) {
+              guardConditions[index].trigger();
+              Thread.sleep(50);
+            }
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+          running.decrementAndGet();
+        }
+      }, callbackGroup);
+    }
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    executor.addNode(composableNode);
+
+    Thread spinThread = new Thread(new Runnable() {
+      public void run() {
+        executor.spin();
+      }
+    });
+    spinThread.start();
+
+    guardConditions[0].trigger();
+    guardConditions[1].trigger();
+    assertTrue(bothRunning.await(1, TimeUnit.SECONDS));
+    long start = System.currentTimeMillis();
+    while (executions.get() < 4 && System.currentTimeMillis() < start + 1000) {
+      Thread.sleep(10);
+    }
+    assertEquals(4, executions.get());
+    assertEquals(0, overlaps.get());
+
+    executor.cancel();
+    spinThread.join(1000);
+    assertTrue(!spinThread.isAlive());
+
+    executor.removeNode(composableNode);
+    executor.dispose();
+    guardConditions[0].dispose();
+    guardConditions[1].dispose();
+  }
+
+  @Test
+  public final void testSpinCancel() throws Exception {
+    final Executor executor = new SingleThreadedExecutor();
+    final Node node = RCLJava.createNode("spin_cancel_node");
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    executor.addNode(composableNode);
+
+    // Without any entity, spin() blocks until it is canceled.
+    Thread spinThread = new Thread(new Runnable() {
+      public void run() {
+        executor.spin();
+      }
+    });
+    spinThread.start();
+    Thread.sleep(100);
+    assertTrue(spinThread.isAlive());
+
+    executor.cancel();
+    spinThread.join(1000);
+    assertTrue(!spinThread.isAlive());
+
+    executor.dispose();
+  }
+
+  public static class LatchCallback implements Callback {
+    private final CountDownLatch latch;
+    private volatile boolean released;
+
+    LatchCallback(CountDownLatch latch) {
+      this.latch = latch;
+    }
+
+    public void call() {
+      if (this.released) {
+        return;
+      }
+      this.latch.countDown();
+      try {
+        // Only returns early if the other callback is running at the same time
+        this.released = this.latch.await(1, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        // We do nothing on exception here; the assert below will fail
+      }
+    }
+
+    public boolean isReleased() {
+      return this.released;
+    }
+  }
+
+  @Test
+  public final void testMultiThreadedReentrantCallbackGroup() throws Exception {
+    final Node node = RCLJava.createNode("multi_threaded_reentrant_node");
+    CallbackGroup callbackGroup = node.createCallbackGroup(CallbackGroupType.REENTRANT);
+    CountDownLatch latch = new CountDownLatch(2);
+    LatchCallback timerCallback1 = new LatchCallback(latch);
+    LatchCallback timerCallback2 = new LatchCallback(latch);
+    node.createWallTimer(10, TimeUnit.MILLISECONDS, timerCallback1, callbackGroup);
+    node.createWallTimer(10, TimeUnit.MILLISECONDS, timerCallback2, callbackGroup);
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    Executor executor = new MultiThreadedExecutor(2);
+    executor.addNode(composableNode);
+    executor.spin();
+
+    // Both callbacks block until the other one is running, so this can only succeed if the
+    // executor runs them in parallel.
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+    long start = System.currentTimeMillis();
+    while (!(timerCallback1.isReleased() && timerCallback2.isReleased())
+      && System.currentTimeMillis() < start + 1000)
+    {
+      Thread.sleep(10);
+    }
+    assertTrue(timerCallback1.isReleased());
+    assertTrue(timerCallback2.isReleased());
+
+    executor.dispose();
+  }
+
+  @Test
+  public final void testMultiThreadedExecutorSpinUntilCompleteWhileSpinning() throws Exception {
+    final Node node = RCLJava.createNode("multi_threaded_spin_until_complete_node");
+    final RCLFuture<Boolean> future = new RCLFuture<Boolean>();
+    final AtomicInteger finished = new AtomicInteger();
+    GuardCondition guardCondition = node.createGuardCondition(new Callback() {
+      public void call() {
+        future.set(true);
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+        finished.incrementAndGet();
+      }
+    });
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    // The spin threads and the caller of spinUntilComplete share the same wait set.
+    Executor executor = new MultiThreadedExecutor(2);
+    executor.addNode(composableNode);
+    executor.spin();
+    guardCondition.trigger();
+    executor.spinUntilComplete(future, TimeUnit.NANOSECONDS.convert(1, TimeUnit.SECONDS));
+    assertTrue(future.isDone());
+
+    // The callback is still sleeping, dispose waits for it before destroying the wait set.
+    executor.dispose();
+    assertEquals(1, finished.get());
+    guardCondition.dispose();
+  }
+
+  @Test
+  public final void testGuardConditionsOfBusyCallbackGroup() throws Exception {
+    final Node node = RCLJava.createNode("busy_callback_group_node");
+    // Both guard conditions are in the default, mutually exclusive, callback group. While
+    // one callback runs, the other thread sees the second guard condition as blocked, and
+    // its trigger must not be lost when that thread waits again.
+    TimerCallback guardConditionCallback1 = new TimerCallback(100);
+    TimerCallback guardConditionCallback2 = new TimerCallback(100);
+    GuardCondition guardCondition1 = node.createGuardCondition(guardConditionCallback1);
+    GuardCondition guardCondition2 = node.createGuardCondition(guardConditionCallback2);
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    Executor executor = new MultiThreadedExecutor(2);
+    executor.addNode(composableNode);
+    guardCondition1.trigger();
+    guardCondition2.trigger();
+    executor.spin();
+
+    long start = System.currentTimeMillis();
+    while ((guardConditionCallback1.getCounter() == 0 || guardConditionCallback2.getCounter() == 0)
+      && System.currentTimeMillis() < start + 1000)
+    {
+      Thread.sleep(10);
+    }
+    assertEquals(1, guardConditionCallback1.getCounter());
+    assertEquals(1, guardConditionCallback2.getCounter());
+
+    executor.dispose();
+    guardCondition1.dispose();
+    guardCondition2.dispose();
+  }
+
   // custom event consumer
   public static class OfferedQosIncompatibleConsumer implements Consumer<OfferedQosIncompatible> {
     public boolean done = false;
@@ -15,10 +15,13 @@
 
 package org.ros2.rcljava.node;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.After;
@@ -29,11 +32,14 @@ import org.junit.Test;
 
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import java.util.concurrent.TimeUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -50,13 +56,19 @@ import org.ros2.rcljava.executors.SingleThreadedExecutor;
 import org.ros2.rcljava.graph.EndpointInfo;
 import org.ros2.rcljava.graph.NameAndTypes;
 import org.ros2.rcljava.graph.NodeNameInfo;
+import org.ros2.rcljava.interfaces.MessageDefinition;
 import org.ros2.rcljava.node.Node;
 import org.ros2.rcljava.node.NodeOptions;
+import org.ros2.rcljava.publisher.AsyncPublisher;
+import org.ros2.rcljava.publisher.OverflowPolicy;
 import org.ros2.rcljava.publisher.Publisher;
+import org.ros2.rcljava.qos.policies.Durability;
 import org.ros2.rcljava.qos.policies.Reliability;
 import org.ros2.rcljava.qos.QoSProfile;
 import org.ros2.rcljava.service.RMWRequestId;
 import org.ros2.rcljava.service.Service;
+import org.ros2.rcljava.subscription.BatchSubscription;
+import org.ros2.rcljava.subscription.SerializedSubscription;
 import org.ros2.rcljava.subscription.Subscription;
 
 public class NodeTest {
@@ -249,6 +261,670 @@ public class NodeTest {
     assertEquals(0, subscription.getHandle());
   }
 
+  @Test
+  public final void testPubSubSerialized() throws Exception {
+    Publisher<std_msgs.msg.String> publisher =
+        node.<std_msgs.msg.String>createPublisher(
+            std_msgs.msg.String.class, "test_topic_serialized_in");
+    final Publisher<std_msgs.msg.String> relayPublisher =
+        node.<std_msgs.msg.String>createPublisher(
+            std_msgs.msg.String.class, "test_topic_serialized_out");
+
+    // Relay the serialized messages without converting them
+    SerializedSubscription<std_msgs.msg.String> relaySubscription =
+        node.<std_msgs.msg.String>createSerializedSubscription(
+            std_msgs.msg.String.class, "test_topic_serialized_in", new Consumer<ByteBuffer>() {
+              public void accept(final ByteBuffer buffer) {
+                assertTrue(buffer.isDirect());
+                relayPublisher.publishSerialized(buffer);
+              }
+            });
+
+    RCLFuture<std_msgs.msg.String> future =
+        new RCLFuture<std_msgs.msg.String>();
+
+    Subscription<std_msgs.msg.String> subscription =
+        node.<std_msgs.msg.String>createSubscription(
+            std_msgs.msg.String.class, "test_topic_serialized_out",
+            new TestConsumer<std_msgs.msg.String>(future));
+
+    std_msgs.msg.String msg = new std_msgs.msg.String();
+    msg.setData("Hello");
+
+    while (RCLJava.ok() && !future.isDone()) {
+      publisher.publish(msg);
+      RCLJava.spinOnce(node);
+    }
+
+    std_msgs.msg.String value = future.get();
+    assertEquals("Hello", value.getData());
+
+    publisher.dispose();
+    relayPublisher.dispose();
+    relaySubscription.dispose();
+    assertEquals(0, relaySubscription.getHandle());
+    subscription.dispose();
+  }
+
+  @Test
+  public final void testPubSubJavaSerialized() throws Exception {
+    Publisher<rcljava.msg.Primitives> publisher =
+        node.<rcljava.msg.Primitives>createPublisher(
+            rcljava.msg.Primitives.class, "test_topic_java_serialized");
+
+    RCLFuture<rcljava.msg.Primitives> future =
+        new RCLFuture<rcljava.msg.Primitives>();
+    Subscription<rcljava.msg.Primitives> subscription =
+        node.<rcljava.msg.Primitives>createSubscription(
+            rcljava.msg.Primitives.class, "test_topic_java_serialized",
+            new TestConsumer<rcljava.msg.Primitives>(future));
+
+    // Deserialize the bytes serialized by the middleware in Java
+    final RCLFuture<rcljava.msg.Primitives> serializedFuture =
+        new RCLFuture<rcljava.msg.Primitives>();
+    SerializedSubscription<rcljava.msg.Primitives> serializedSubscription =
+        node.<rcljava.msg.Primitives>createSerializedSubscription(
+            rcljava.msg.Primitives.class, "test_topic_java_serialized",
+            new Consumer<ByteBuffer>() {
+              public void accept(final ByteBuffer buffer) {
+                rcljava.msg.Primitives msg = new rcljava.msg.Primitives();
+                msg.deserialize(buffer);
+                if (!serializedFuture.isDone()) {
+                  serializedFuture.set(msg);
+                }
+              }
+            });
+
+    // Publish the bytes serialized in Java
+    ByteBuffer buffer = ByteBuffer.allocateDirect(primitives1.getSerializedSize());
+    primitives1.serialize(buffer);
+    assertEquals(buffer.capacity(), buffer.position());
+    buffer.flip();
+
+    while (RCLJava.ok() && !(future.isDone() && serializedFuture.isDone())) {
+      publisher.publishSerialized(buffer);
+      RCLJava.spinOnce(node);
+    }
+
+    assertEquals(primitives1, future.get());
+    assertEquals(primitives1, serializedFuture.get());
+
+    publisher.dispose();
+    subscription.dispose();
+    serializedSubscription.dispose();
+
+    // Strings, bounded sequences and the padding between members of different sizes
+    rcljava.msg.BoundedArrayPrimitives boundedMsg = new rcljava.msg.BoundedArrayPrimitives();
+    boundedMsg.setBoolValues(Arrays.asList(new Boolean[] {true, false, true}));
+    boundedMsg.setByteValues(Arrays.asList(new Byte[] {123}));
+    boundedMsg.setCharValues(Arrays.asList(new Byte[] {'\u0012', '\u0021', '\u0042'}));
+    boundedMsg.setFloat32Values(Arrays.asList(new Float[] {12.34f}));
+    boundedMsg.setFloat64Values(Arrays.asList(new Double[] {43.21, 44.21, 45.21}));
+    boundedMsg.setInt8Values(Arrays.asList(new Byte[] {-12}));
+    boundedMsg.setUint8Values(Arrays.asList(new Byte[] {34, 35}));
+    boundedMsg.setInt16Values(Arrays.asList(new Short[] {-1234}));
+    boundedMsg.setUint16Values(Arrays.asList(new Short[] {4321, 4322, 4323}));
+    boundedMsg.setInt32Values(Arrays.asList(new Integer[] {-75536}));
+    boundedMsg.setUint32Values(Arrays.asList(new Integer[] {}));
+    boundedMsg.setInt64Values(Arrays.asList(new Long[] {-5294967296l}));
+    boundedMsg.setUint64Values(Arrays.asList(new Long[] {6294967296l, 6294967297l}));
+    boundedMsg.setStringValues(Arrays.asList(new String[] {"hello world", "", "bye"}));
+    boundedMsg.setCheck(42);
+    assertSerializedLikeMiddleware(
+        rcljava.msg.BoundedArrayPrimitives.class, "test_topic_java_serialized_bounded",
+        boundedMsg);
+
+    // Nested messages in an unbounded sequence
+    rcljava.msg.DynamicArrayNested nestedMsg = new rcljava.msg.DynamicArrayNested();
+    nestedMsg.setPrimitiveValues(
+        Arrays.asList(new rcljava.msg.Primitives[] {primitives1, primitives2, primitives1}));
+    assertSerializedLikeMiddleware(
+        rcljava.msg.DynamicArrayNested.class, "test_topic_java_serialized_nested", nestedMsg);
+  }
+
+  /**
+   * Publish a message through the middleware and check that its serialized bytes are the same
+   * as the ones serialized in Java, and that they deserialize back to the message.
+   */
+  private <T extends MessageDefinition> void assertSerializedLikeMiddleware(
+      final Class<T> messageType, final String topic, final T msg) throws Exception {
+    Publisher<T> publisher = node.<T>createPublisher(messageType, topic);
+
+    final RCLFuture<byte[]> future = new RCLFuture<byte[]>();
+    SerializedSubscription<T> subscription = node.<T>createSerializedSubscription(
+        messageType, topic, new Consumer<ByteBuffer>() {
+          public void accept(final ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            if (!future.isDone()) {
+              future.set(bytes);
+            }
+          }
+        });
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (RCLJava.ok() && !future.isDone() && System.currentTimeMillis() < deadline) {
+      publisher.publish(msg);
+      RCLJava.spinOnce(node, 100 * 1000 * 1000);
+    }
+    assertTrue(future.isDone());
+    byte[] middlewareBytes = future.get();
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(msg.getSerializedSize());
+    msg.serialize(buffer);
+    byte[] javaBytes = new byte[buffer.capacity()];
+    buffer.flip();
+    buffer.get(javaBytes);
+
+    // The middleware may pad the end of the payload to 4 bytes, and note it in the options of the
+    // encapsulation header, so only the representation identifier and the payload are compared.
+    assertTrue(middlewareBytes.length >= javaBytes.length);
+    assertTrue(middlewareBytes.length < javaBytes.length + 4);
+    assertArrayEquals(
+        Arrays.copyOfRange(javaBytes, 0, 2), Arrays.copyOfRange(middlewareBytes, 0, 2));
+    assertArrayEquals(
+        Arrays.copyOfRange(javaBytes, 4, javaBytes.length),
+        Arrays.copyOfRange(middlewareBytes, 4, javaBytes.length));
+
+    T deserialized = messageType.newInstance();
+    deserialized.deserialize(ByteBuffer.wrap(middlewareBytes));
+    assertEquals(msg, deserialized);
+
+    publisher.dispose();
+    subscription.dispose();
+  }
+
+  @Test
+  public final void testPubSubView() throws Exception {
+    Publisher<rcljava.msg.Primitives> publisher =
+        node.<rcljava.msg.Primitives>createPublisher(
+            rcljava.msg.Primitives.class, "test_topic_view");
+
+    final RCLFuture<rcljava.msg.Primitives> future =
+        new RCLFuture<rcljava.msg.Primitives>();
+    final RCLFuture<String> stringFuture = new RCLFuture<String>();
+    SerializedSubscription<rcljava.msg.Primitives> subscription =
+        node.<rcljava.msg.Primitives, rcljava.msg.Primitives.View>createViewSubscription(
+            rcljava.msg.Primitives.View.class, "test_topic_view",
+            new Consumer<rcljava.msg.Primitives.View>() {
+              public void accept(final rcljava.msg.Primitives.View view) {
+                if (!future.isDone()) {
+                  // Read a single member without decoding the others
+                  stringFuture.set(view.getStringValue());
+                  future.set(view.toMessage());
+                }
+              }
+            });
+
+    while (RCLJava.ok() && !future.isDone()) {
+      publisher.publish(primitives1);
+      RCLJava.spinOnce(node);
+    }
+
+    assertEquals(primitives1.getStringValue(), stringFuture.get());
+    assertEquals(primitives1, future.get());
+
+    publisher.dispose();
+    subscription.dispose();
+  }
+
+  @Test
+  public final void testPubSubReuseMessages() throws Exception {
+    Publisher<rcljava.msg.DynamicArrayPrimitives> publisher =
+        node.<rcljava.msg.DynamicArrayPrimitives>createPublisher(
+            rcljava.msg.DynamicArrayPrimitives.class, "test_topic_reuse");
+
+    final List<rcljava.msg.DynamicArrayPrimitives> received =
+        new ArrayList<rcljava.msg.DynamicArrayPrimitives>();
+    final List<rcljava.msg.DynamicArrayPrimitives> copies =
+        new ArrayList<rcljava.msg.DynamicArrayPrimitives>();
+    Subscription<rcljava.msg.DynamicArrayPrimitives> subscription =
+        node.<rcljava.msg.DynamicArrayPrimitives>createSubscription(
+            rcljava.msg.DynamicArrayPrimitives.class, "test_topic_reuse",
+            new Consumer<rcljava.msg.DynamicArrayPrimitives>() {
+              public void accept(final rcljava.msg.DynamicArrayPrimitives msg) {
+                received.add(msg);
+                copies.add(new rcljava.msg.DynamicArrayPrimitives().copyFrom(msg));
+              }
+            });
+    subscription.setReuseMessages(true);
+    assertNotNull(subscription.getReusableMessage());
+
+    rcljava.msg.DynamicArrayPrimitives msg = new rcljava.msg.DynamicArrayPrimitives();
+    msg.setInt32Values(new int[] {1, 2, 3});
+
+    while (RCLJava.ok() && received.size() < 2) {
+      publisher.publish(msg);
+      RCLJava.spinOnce(node);
+    }
+
+    // Every message is taken into the same instance, reusing its arrays
+    assertSame(subscription.getReusableMessage(), received.get(0));
+    assertSame(received.get(0), received.get(1));
+    assertEquals(msg, copies.get(0));
+    assertEquals(msg, copies.get(1));
+
+    copies.get(0).clear();
+    assertEquals(new rcljava.msg.DynamicArrayPrimitives(), copies.get(0));
+
+    subscription.setReuseMessages(false);
+    assertNull(subscription.getReusableMessage());
+
+    publisher.dispose();
+    subscription.dispose();
+  }
+
+  @Test
+  public final void testPubSubSequenceCapacity() throws Exception {
+    Publisher<rcljava.msg.DynamicArrayPrimitives> publisher =
+        node.<rcljava.msg.DynamicArrayPrimitives>createPublisher(
+            rcljava.msg.DynamicArrayPrimitives.class, "test_topic_sequence_capacity");
+
+    final List<Integer> sizes = new ArrayList<Integer>();
+    final int[] received = new int[5];
+    Subscription<rcljava.msg.DynamicArrayPrimitives> subscription =
+        node.<rcljava.msg.DynamicArrayPrimitives>createSubscription(
+            rcljava.msg.DynamicArrayPrimitives.class, "test_topic_sequence_capacity",
+            new Consumer<rcljava.msg.DynamicArrayPrimitives>() {
+              public void accept(final rcljava.msg.DynamicArrayPrimitives msg) {
+                sizes.add(msg.getInt32Values(received));
+              }
+            });
+    subscription.setReuseMessages(true);
+
+    int[] values = new int[] {1, 2, 3, 4, 5};
+    rcljava.msg.DynamicArrayPrimitives msg = new rcljava.msg.DynamicArrayPrimitives();
+    msg.setInt32Values(values, 0, 5);
+
+    while (RCLJava.ok() && sizes.isEmpty()) {
+      publisher.publish(msg);
+      RCLJava.spinOnce(node);
+    }
+    assertArrayEquals(values, received);
+
+    // A shorter sequence is sent and received without reallocating the arrays
+    msg.setInt32Values(values, 3, 2);
+    assertEquals(2, msg.getInt32ValuesSize());
+    while (RCLJava.ok() && sizes.get(sizes.size() - 1) != 2) {
+      publisher.publish(msg);
+      RCLJava.spinOnce(node);
+    }
+    assertEquals(4, received[0]);
+    assertEquals(5, received[1]);
+    assertEquals(msg, subscription.getReusableMessage());
+    assertArrayEquals(new int[] {4, 5}, msg.getInt32Values());
+
+    publisher.dispose();
+    subscription.dispose();
+  }
+
+  @Test
+  public final void testPubSubDirectBuffer() throws Exception {
+    Publisher<rcljava.msg.DynamicArrayPrimitives> publisher =
+        node.<rcljava.msg.DynamicArrayPrimitives>createPublisher(
+            rcljava.msg.DynamicArrayPrimitives.class, "test_topic_direct_buffer");
+
+    RCLFuture<rcljava.msg.DynamicArrayPrimitives> future =
+        new RCLFuture<rcljava.msg.DynamicArrayPrimitives>();
+
+    Subscription<rcljava.msg.DynamicArrayPrimitives> subscription =
+        node.<rcljava.msg.DynamicArrayPrimitives>createSubscription(
+            rcljava.msg.DynamicArrayPrimitives.class, "test_topic_direct_buffer",
+            new TestConsumer<rcljava.msg.DynamicArrayPrimitives>(future));
+
+    ByteBuffer float32Buffer =
+        ByteBuffer.allocateDirect(4 * 4096).order(ByteOrder.nativeOrder());
+    for (int i = 0; i < 4096; i++) {
+      float32Buffer.putFloat(i * 0.5f);
+    }
+    float32Buffer.flip();
+
+    rcljava.msg.DynamicArrayPrimitives msg = new rcljava.msg.DynamicArrayPrimitives();
+    msg.setFloat32ValuesBuffer(float32Buffer);
+    msg.setUint8Values(new byte[] {1, 2, 3});
+
+    while (RCLJava.ok() && !future.isDone()) {
+      publisher.publish(msg);
+      RCLJava.spinOnce(node);
+    }
+
+    rcljava.msg.DynamicArrayPrimitives value = future.get();
+
+    // Sequences over the threshold are received into direct buffers, smaller ones into arrays.
+    // The fields are checked before any accessor runs, since the buffer getter would allocate
+    // a buffer itself.
+    ByteBuffer received = (ByteBuffer) getField(value, "float32ValuesBuffer");
+    assertNotNull(received);
+    assertTrue(received.isDirect());
+    assertEquals(float32Buffer.remaining(), received.capacity());
+    assertEquals(float32Buffer, received.duplicate().order(ByteOrder.nativeOrder()));
+    assertNull(getField(value, "uint8ValuesBuffer"));
+    assertArrayEquals(
+        new byte[] {1, 2, 3}, Arrays.copyOf((byte[]) getField(value, "uint8Values"), 3));
+
+    assertEquals(msg, value);
+    assertEquals(float32Buffer, value.getFloat32ValuesBuffer());
+    assertArrayEquals(new byte[] {1, 2, 3}, value.getUint8Values());
+
+    publisher.dispose();
+    subscription.dispose();
+  }
+
+  private static Object getField(final Object object, final String name) throws Exception {
+    java.lang.reflect.Field field = object.getClass().getDeclaredField(name);
+    field.setAccessible(true);
+    return field.get(object);
+  }
+
+  @Test
+  public final void testPubSubPrimitiveSequences() throws Exception {
+    Publisher<rcljava.msg.DynamicArrayPrimitives> publisher =
+        node.<rcljava.msg.DynamicArrayPrimitives>createPublisher(
+            rcljava.msg.DynamicArrayPrimitives.class, "test_topic_primitive_sequences");
+
+    RCLFuture<rcljava.msg.DynamicArrayPrimitives> future =
+        new RCLFuture<rcljava.msg.DynamicArrayPrimitives>();
+
+    Subscription<rcljava.msg.DynamicArrayPrimitives> subscription =
+        node.<rcljava.msg.DynamicArrayPrimitives>createSubscription(
+            rcljava.msg.DynamicArrayPrimitives.class, "test_topic_primitive_sequences",
+            new TestConsumer<rcljava.msg.DynamicArrayPrimitives>(future));
+
+    // Every primitive type is copied between the Java array and the sequence in one go.
+    int size = 1000;
+    boolean[] boolValues = new boolean[size];
+    byte[] byteValues = new byte[size];
+    float[] float32Values = new float[size];
+    double[] float64Values = new double[size];
+    short[] int16Values = new short[size];
+    int[] int32Values = new int[size];
+    long[] int64Values = new long[size];
+    for (int i = 0; i < size; i++) {
+      boolValues[i] = i % 3 == 0;
+      byteValues[i] = (byte) i;
+      float32Values[i] = i * 0.5f;
+      float64Values[i] = -i * 0.25;
+      int16Values[i] = (short) (i * 31);
+      int32Values[i] = i * 65537;
+      int64Values[i] = i * 4294967311L;
+    }
+
+    rcljava.msg.DynamicArrayPrimitives msg = new rcljava.msg.DynamicArrayPrimitives();
+    msg.setBoolValues(boolValues);
+    msg.setByteValues(byteValues);
+    msg.setCharValues(byteValues);
+    msg.setFloat32Values(float32Values);
+    msg.setFloat64Values(float64Values);
+    msg.setInt8Values(byteValues);
+    msg.setUint8Values(byteValues);
+    msg.setInt16Values(int16Values);
+    msg.setUint16Values(int16Values);
+    msg.setInt32Values(int32Values);
+    msg.setUint32Values(int32Values);
+    msg.setInt64Values(int64Values);
+    msg.setUint64Values(int64Values);
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (RCLJava.ok() && !future.isDone() && System.currentTimeMillis() < deadline) {
+      publisher.publish(msg);
+      RCLJava.spinOnce(node, 100 * 1000 * 1000);
+    }
+    assertTrue(future.isDone());
+
+    rcljava.msg.DynamicArrayPrimitives value = future.get();
+    assertTrue(Arrays.equals(boolValues, value.getBoolValues()));
+    assertArrayEquals(byteValues, value.getByteValues());
+    assertArrayEquals(byteValues, value.getCharValues());
+    assertArrayEquals(float32Values, value.getFloat32Values(), 0.0f);
+    assertArrayEquals(float64Values, value.getFloat64Values(), 0.0);
+    assertArrayEquals(byteValues, value.getInt8Values());
+    assertArrayEquals(byteValues, value.getUint8Values());
+    assertTrue(Arrays.equals(int16Values, value.getInt16Values()));
+    assertTrue(Arrays.equals(int16Values, value.getUint16Values()));
+    assertArrayEquals(int32Values, value.getInt32Values());
+    assertArrayEquals(int32Values, value.getUint32Values());
+    assertArrayEquals(int64Values, value.getInt64Values());
+    assertArrayEquals(int64Values, value.getUint64Values());
+
+    publisher.dispose();
+    subscription.dispose();
+  }
+
+  @Test
+  public final void testPubSubBatch() throws Exception {
+    Publisher<rcljava.msg.UInt32> publisher =
+        node.<rcljava.msg.UInt32>createPublisher(rcljava.msg.UInt32.class, "test_topic_batch");
+
+    final List<Integer> received = new ArrayList<Integer>();
+    Subscription<rcljava.msg.UInt32> subscription =
+        node.<rcljava.msg.UInt32>createSubscription(
+            rcljava.msg.UInt32.class, "test_topic_batch",
+            new Consumer<rcljava.msg.UInt32>() {
+              public void accept(final rcljava.msg.UInt32 msg) {
+                received.add(msg.getData());
+              }
+            });
+
+    List<rcljava.msg.UInt32> messages = new ArrayList<rcljava.msg.UInt32>();
+    for (int i = 0; i < 3; i++) {
+      messages.add(new rcljava.msg.UInt32().setData(i));
+    }
+
+    // The messages of a batch arrive in order
+    List<Integer> batch = Arrays.asList(0, 1, 2);
+    while (RCLJava.ok() && Collections.indexOfSubList(received, batch) < 0) {
+      publisher.publish(messages);
+      RCLJava.spinSome(node);
+    }
+    assertTrue(Collections.indexOfSubList(received, batch) >= 0);
+
+    publisher.dispose();
+    subscription.dispose();
+  }
+
+  @Test
+  public final void testPubSubBatchSubscription() throws Exception {
+    Publisher<rcljava.msg.UInt32> publisher = node.<rcljava.msg.UInt32>createPublisher(
+        rcljava.msg.UInt32.class, "test_topic_batch_subscription");
+
+    final List<Integer> received = new ArrayList<Integer>();
+    final List<Integer> batchSizes = new ArrayList<Integer>();
+    BatchSubscription<rcljava.msg.UInt32> subscription =
+        node.<rcljava.msg.UInt32>createBatchSubscription(
+            rcljava.msg.UInt32.class, "test_topic_batch_subscription",
+            new Consumer<List<rcljava.msg.UInt32>>() {
+              public void accept(final List<rcljava.msg.UInt32> msgs) {
+                batchSizes.add(msgs.size());
+                for (rcljava.msg.UInt32 msg : msgs) {
+                  received.add(msg.getData());
+                }
+              }
+            }, 2);
+    assertEquals(2, subscription.getMaxBatchSize());
+
+    List<rcljava.msg.UInt32> messages = new ArrayList<rcljava.msg.UInt32>();
+    for (int i = 0; i < 3; i++) {
+      messages.add(new rcljava.msg.UInt32().setData(i));
+    }
+
+    List<Integer> batch = Arrays.asList(0, 1, 2);
+    while (RCLJava.ok() && Collections.indexOfSubList(received, batch) < 0) {
+      publisher.publish(messages);
+      RCLJava.spinSome(node);
+    }
+    assertTrue(Collections.indexOfSubList(received, batch) >= 0);
+    for (int batchSize : batchSizes) {
+      assertTrue(batchSize >= 1 && batchSize <= 2);
+    }
+
+    publisher.dispose();
+    subscription.dispose();
+  }
+
+  @Test
+  public final void testPubSubAsync() throws Exception {
+    AsyncPublisher<rcljava.msg.UInt32> publisher =
+        node.<rcljava.msg.UInt32>createAsyncPublisher(
+            rcljava.msg.UInt32.class, "test_topic_async", QoSProfile.DEFAULT, 10,
+            OverflowPolicy.DROP_OLDEST);
+    assertEquals(10, publisher.getQueueCapacity());
+    assertEquals(OverflowPolicy.DROP_OLDEST, publisher.getOverflowPolicy());
+
+    RCLFuture<rcljava.msg.UInt32> future = new RCLFuture<rcljava.msg.UInt32>();
+    Subscription<rcljava.msg.UInt32> subscription =
+        node.<rcljava.msg.UInt32>createSubscription(
+            rcljava.msg.UInt32.class, "test_topic_async",
+            new TestConsumer<rcljava.msg.UInt32>(future));
+
+    // The published message is copied when it is queued
+    rcljava.msg.UInt32 msg = new rcljava.msg.UInt32();
+    while (RCLJava.ok() && !future.isDone()) {
+      msg.setData(42);
+      publisher.publish(msg);
+      msg.setData(0);
+      RCLJava.spinOnce(node, TimeUnit.NANOSECONDS.convert(100, TimeUnit.MILLISECONDS));
+    }
+    assertEquals(42, future.get().getData());
+
+    // Disposing publishes what is still queued
+    publisher.publish(msg);
+    publisher.dispose();
+    assertEquals(0, publisher.getQueueSize());
+    assertFalse(node.getPublishers().contains(publisher));
+
+    subscription.dispose();
+  }
+
+  @Test
+  public final void testPubSubAsyncBlock() throws Exception {
+    AsyncPublisher<rcljava.msg.UInt32> publisher =
+        node.<rcljava.msg.UInt32>createAsyncPublisher(
+            rcljava.msg.UInt32.class, "test_topic_async_block", QoSProfile.DEFAULT, 1,
+            OverflowPolicy.BLOCK);
+
+    // Every publish beyond the first one waits for the background thread to free the slot
+    rcljava.msg.UInt32 msg = new rcljava.msg.UInt32();
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < 1000; i++) {
+      msg.setData(i);
+      publisher.publish(msg);
+    }
+    assertTrue(System.currentTimeMillis() - start < 5000);
+    assertEquals(0, publisher.getDroppedCount());
+
+    publisher.dispose();
+    assertEquals(0, publisher.getQueueSize());
+  }
+
+  @Test
+  public final void testPubSubIntraProcess() throws Exception {
+    Node intraProcessNode = RCLJava.createNode(
+        "test_intra_process_node", "", new NodeOptions().setUseIntraProcessComms(true));
+
+    Publisher<rcljava.msg.UInt32> publisher =
+        intraProcessNode.<rcljava.msg.UInt32>createPublisher(
+            rcljava.msg.UInt32.class, "test_topic_intra_process",
+            QoSProfile.keepLast(5).setDurability(Durability.TRANSIENT_LOCAL));
+
+    rcljava.msg.UInt32 msg = new rcljava.msg.UInt32();
+    for (int i = 0; i < 3; i++) {
+      msg.setData(i);
+      publisher.publish(msg);
+    }
+
+    final List<Integer> received = new ArrayList<Integer>();
+    Subscription<rcljava.msg.UInt32> subscription =
+        intraProcessNode.<rcljava.msg.UInt32>createSubscription(
+            rcljava.msg.UInt32.class, "test_topic_intra_process",
+            new Consumer<rcljava.msg.UInt32>() {
+              public void accept(final rcljava.msg.UInt32 msg) {
+                received.add(msg.getData());
+              }
+            },
+            QoSProfile.keepLast(2).setDurability(Durability.TRANSIENT_LOCAL));
+
+    // The published messages are copied, and only the last two fit in the queue
+    msg.setData(3);
+    publisher.publish(msg);
+    msg.setData(42);
+
+    long timeout = TimeUnit.NANOSECONDS.convert(100, TimeUnit.MILLISECONDS);
+    for (int i = 0; i < 10 && RCLJava.ok(); i++) {
+      RCLJava.spinOnce(intraProcessNode, timeout);
+    }
+    // The copy received via the middleware is ignored
+    assertEquals(Arrays.asList(2, 3), received);
+
+    // Subscriptions of other nodes still receive the messages via the middleware
+    RCLFuture<rcljava.msg.UInt32> future = new RCLFuture<rcljava.msg.UInt32>();
+    Subscription<rcljava.msg.UInt32> remoteSubscription =
+        node.<rcljava.msg.UInt32>createSubscription(
+            rcljava.msg.UInt32.class, "test_topic_intra_process",
+            new TestConsumer<rcljava.msg.UInt32>(future));
+
+    while (RCLJava.ok() && !future.isDone()) {
+      publisher.publish(msg);
+      RCLJava.spinOnce(node);
+    }
+    assertEquals(42, future.get().getData());
+
+    remoteSubscription.dispose();
+    subscription.dispose();
+    publisher.dispose();
+    intraProcessNode.dispose();
+  }
+
+  @Test
+  public final void testPubSubIntraProcessAndRemote() throws Exception {
+    Node intraProcessNode = RCLJava.createNode(
+        "test_intra_process_remote_node", "", new NodeOptions().setUseIntraProcessComms(true));
+
+    Publisher<rcljava.msg.UInt32> publisher =
+        intraProcessNode.<rcljava.msg.UInt32>createPublisher(
+            rcljava.msg.UInt32.class, "test_topic_intra_process_remote");
+
+    RCLFuture<rcljava.msg.UInt32> remoteFuture = new RCLFuture<rcljava.msg.UInt32>();
+    Subscription<rcljava.msg.UInt32> remoteSubscription =
+        node.<rcljava.msg.UInt32>createSubscription(
+            rcljava.msg.UInt32.class, "test_topic_intra_process_remote",
+            new TestConsumer<rcljava.msg.UInt32>(remoteFuture));
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (publisher.getSubscriptionCount() < 1 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, publisher.getSubscriptionCount());
+
+    // The local subscription is known to the intra-process manager right away, but the
+    // middleware matches it later, which must not stop the remote one from receiving messages
+    RCLFuture<rcljava.msg.UInt32> localFuture = new RCLFuture<rcljava.msg.UInt32>();
+    Subscription<rcljava.msg.UInt32> localSubscription =
+        intraProcessNode.<rcljava.msg.UInt32>createSubscription(
+            rcljava.msg.UInt32.class, "test_topic_intra_process_remote",
+            new TestConsumer<rcljava.msg.UInt32>(localFuture));
+
+    rcljava.msg.UInt32 msg = new rcljava.msg.UInt32();
+    msg.setData(42);
+    publisher.publish(msg);
+
+    long timeout = TimeUnit.NANOSECONDS.convert(100, TimeUnit.MILLISECONDS);
+    deadline = System.currentTimeMillis() + 5000;
+    while (RCLJava.ok() && !(remoteFuture.isDone() && localFuture.isDone())
+        && System.currentTimeMillis() < deadline) {
+      RCLJava.spinOnce(node, timeout);
+      RCLJava.spinOnce(intraProcessNode, timeout);
+    }
+    assertTrue(remoteFuture.isDone());
+    assertTrue(localFuture.isDone());
+    assertEquals(42, remoteFuture.get().getData());
+    assertEquals(42, localFuture.get().getData());
+
+    localSubscription.dispose();
+    remoteSubscription.dispose();
+    publisher.dispose();
+    intraProcessNode.dispose();
+  }
+
   @Test
   public final void testPubSubBoundedArrayNested() throws Exception {
     Publisher<rcljava.msg.BoundedArrayNested> publisher =
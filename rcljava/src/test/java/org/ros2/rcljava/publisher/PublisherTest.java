@@ -17,10 +17,15 @@ package org.ros2.rcljava.publisher;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 import org.ros2.rcljava.RCLJava;
 import org.ros2.rcljava.consumers.Consumer;
 import org.ros2.rcljava.events.EventHandler;
@@ -29,6 +34,7 @@ import org.ros2.rcljava.publisher.statuses.OfferedDeadlineMissed;
 import org.ros2.rcljava.publisher.statuses.OfferedQosIncompatible;
 import org.ros2.rcljava.exceptions.RCLException;
 import org.ros2.rcljava.node.Node;
+import org.ros2.rcljava.subscription.Subscription;
 
 public class PublisherTest {
   @BeforeClass
@@ -49,6 +55,68 @@ public class PublisherTest {
     RCLJava.shutdown();
   }
 
+  @Test
+  public final void testBorrowLoanedMessage() {
+    RCLJava.rclJavaInit();
+    Node node = RCLJava.createNode("test_node");
+    Publisher<std_msgs.msg.String> publisher =
+        node.<std_msgs.msg.String>createPublisher(std_msgs.msg.String.class, "test_topic");
+    LoanedMessage<std_msgs.msg.String> loanedMessage = publisher.borrowLoanedMessage();
+    assertEquals(publisher.canLoanMessages(), loanedMessage.isLoaned());
+    assertNotNull(loanedMessage.get());
+    loanedMessage.get().setData("Hello");
+    loanedMessage.publish();
+    assertEquals(0, loanedMessage.getHandle());
+    try {
+      loanedMessage.publish();
+      fail("A loaned message can't be published twice");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+
+    // A loan that is not published is given back
+    loanedMessage = publisher.borrowLoanedMessage();
+    loanedMessage.dispose();
+    assertEquals(0, loanedMessage.getHandle());
+    RCLJava.shutdown();
+  }
+
+  @Test
+  public final void testPublishSupplier() throws Exception {
+    RCLJava.rclJavaInit();
+    Node node = RCLJava.createNode("test_node");
+    Publisher<std_msgs.msg.String> publisher =
+        node.<std_msgs.msg.String>createPublisher(std_msgs.msg.String.class, "test_topic_lazy");
+    final int[] calls = new int[1];
+    Supplier<std_msgs.msg.String> supplier = new Supplier<std_msgs.msg.String>() {
+      public std_msgs.msg.String get() {
+        calls[0]++;
+        return new std_msgs.msg.String().setData("Hello");
+      }
+    };
+
+    // Nothing is built when nobody listens
+    assertEquals(0, publisher.getSubscriptionCount());
+    publisher.publish(supplier);
+    assertEquals(0, calls[0]);
+
+    Subscription<std_msgs.msg.String> subscription =
+        node.<std_msgs.msg.String>createSubscription(
+            std_msgs.msg.String.class, "test_topic_lazy", new Consumer<std_msgs.msg.String>() {
+              public void accept(final std_msgs.msg.String msg) {}
+            });
+    long deadline = System.nanoTime() + TimeUnit.NANOSECONDS.convert(5, TimeUnit.SECONDS);
+    while (publisher.getSubscriptionCount() == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, publisher.getSubscriptionCount());
+    publisher.publish(supplier);
+    assertEquals(1, calls[0]);
+
+    subscription.dispose();
+    RCLJava.shutdown();
+  }
+
   @Test
   public final void testCreateLivelinessLostEvent() {
     RCLJava.rclJavaInit();
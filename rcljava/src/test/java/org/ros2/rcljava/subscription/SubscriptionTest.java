@@ -18,6 +18,8 @@ package org.ros2.rcljava.subscription;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
+import java.nio.ByteBuffer;
+
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -59,6 +61,29 @@ public class SubscriptionTest {
     RCLJava.shutdown();
   }
 
+  @Test
+  public final void testCreateAndDisposeSerialized() {
+    RCLJava.rclJavaInit();
+    Node node = RCLJava.createNode("test_node");
+    SerializedSubscription<std_msgs.msg.String> subscription =
+        node.<std_msgs.msg.String>createSerializedSubscription(
+            std_msgs.msg.String.class, "test_topic", new Consumer<ByteBuffer>() {
+              public void accept(final ByteBuffer buffer) {}
+            });
+    assertNotEquals(0, subscription.getHandle());
+    assertEquals(std_msgs.msg.String.class, subscription.getMessageType());
+    // Serialized subscriptions never convert messages to Java, so they're kept apart from
+    // the subscriptions that do.
+    assertEquals(0, node.getSubscriptions().size());
+    assertEquals(1, node.getSerializedSubscriptions().size());
+
+    subscription.dispose();
+    assertEquals(0, subscription.getHandle());
+    assertEquals(0, node.getSerializedSubscriptions().size());
+
+    RCLJava.shutdown();
+  }
+
   @Test
   public final void testCreateLivelinessChangedEvent() {
     String identifier = RCLJava.getRMWIdentifier();
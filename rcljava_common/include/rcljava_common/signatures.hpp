@@ -21,11 +21,13 @@ namespace rcljava_common
 {
 namespace signatures
 {
-using convert_from_java_signature = void * (*)(jobject, void *);
+using convert_from_java_signature = void * (*)(JNIEnv *, jobject, void *);
 
-using convert_to_java_signature = jobject (*)(void *, jobject);
+using convert_to_java_signature = jobject (*)(JNIEnv *, void *, jobject);
 
 using destroy_ros_message_signature = void (*)(void *);
+
+using create_ros_message_signature = void * (*)();
 }  // namespace signatures
 }  // namespace rcljava_common
 
@@ -0,0 +1,230 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.common;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helpers used by the generated messages to (de)serialize themselves in the
+ * CDR encoding used by the ROS2 middlewares (plain CDR, as in XCDR version 1).
+ *
+ * Primitives are aligned to their own size relative to the origin of the
+ * serialized data, which is the first byte after the encapsulation header.
+ * Strings and sequences are prefixed by their length as an uint32. Strings
+ * are encoded in UTF-8 and include the terminating NUL in their length, while
+ * wide strings have no terminator and encode each UTF-16 code unit as a 4 byte
+ * wchar_t, as Fast-CDR does on the platforms that ROS2 supports. A null string,
+ * like an unset element of a fixed size array, is written as an empty one.
+ */
+public final class CDR {
+  /**
+   * The size of the encapsulation header that precedes the serialized data.
+   */
+  public static final int ENCAPSULATION_SIZE = 4;
+
+  private static final byte CDR_BE = 0x00;
+  private static final byte CDR_LE = 0x01;
+
+  /**
+   * The size of a serialized wide character, a wchar_t.
+   */
+  private static final int WCHAR_SIZE = 4;
+
+  /**
+   * Private constructor so this cannot be instantiated.
+   */
+  private CDR() {}
+
+  /**
+   * Write a little endian encapsulation header and set the byte order of the buffer to match.
+   */
+  public static void writeHeader(final ByteBuffer buffer) {
+    buffer.put((byte) 0x00);
+    buffer.put(CDR_LE);
+    buffer.put((byte) 0x00);
+    buffer.put((byte) 0x00);
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Read the encapsulation header and set the byte order of the buffer to the one it declares.
+   */
+  public static void readHeader(final ByteBuffer buffer) {
+    buffer.get();
+    byte encapsulation = buffer.get();
+    buffer.get();
+    buffer.get();
+    if (encapsulation == CDR_LE) {
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+    } else if (encapsulation == CDR_BE) {
+      buffer.order(ByteOrder.BIG_ENDIAN);
+    } else {
+      throw new IllegalArgumentException("Unsupported CDR encapsulation: " + encapsulation);
+    }
+  }
+
+  /**
+   * @return The offset rounded up to the next multiple of alignment.
+   */
+  public static int align(final int offset, final int alignment) {
+    return (offset + alignment - 1) & ~(alignment - 1);
+  }
+
+  /**
+   * Write zeroed padding until the position of the buffer is aligned.
+   */
+  public static void alignWrite(final ByteBuffer buffer, final int origin, final int alignment) {
+    int padding = align(buffer.position() - origin, alignment) - (buffer.position() - origin);
+    for (int i = 0; i < padding; i++) {
+      buffer.put((byte) 0x00);
+    }
+  }
+
+  /**
+   * Skip the padding until the position of the buffer is aligned.
+   */
+  public static void alignRead(final ByteBuffer buffer, final int origin, final int alignment) {
+    buffer.position(origin + align(buffer.position() - origin, alignment));
+  }
+
+  /**
+   * Read the length of a sequence, checking it against the bytes left in the buffer.
+   */
+  public static int readLength(final ByteBuffer buffer, final int origin, final int elementSize) {
+    alignRead(buffer, origin, 4);
+    int length = buffer.getInt();
+    if (length < 0 || (long) length * elementSize > buffer.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    return length;
+  }
+
+  /**
+   * @return The absolute position rounded up to the next multiple of alignment,
+   *     relative to the origin.
+   */
+  public static int alignPosition(final int position, final int origin, final int alignment) {
+    return origin + align(position - origin, alignment);
+  }
+
+  /**
+   * @return The number of bytes needed to encode the string in UTF-8.
+   */
+  private static int utf8Length(final String value) {
+    int length = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        length += 1;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * @return The offset after a string serialized at the given offset.
+   */
+  public static int getStringEnd(final int offset, final String value) {
+    return align(offset, 4) + 4 + (value != null ? utf8Length(value) : 0) + 1;
+  }
+
+  /**
+   * @return The absolute position after the string serialized at the given position.
+   */
+  public static int skipString(final ByteBuffer buffer, final int origin, final int position) {
+    int start = alignPosition(position, origin, 4);
+    return start + 4 + buffer.getInt(start);
+  }
+
+  public static void writeString(final ByteBuffer buffer, final int origin, final String value) {
+    alignWrite(buffer, origin, 4);
+    if (value == null) {
+      buffer.putInt(1);
+      buffer.put((byte) 0x00);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    buffer.putInt(bytes.length + 1);
+    buffer.put(bytes);
+    buffer.put((byte) 0x00);
+  }
+
+  public static String readString(final ByteBuffer buffer, final int origin) {
+    int length = readLength(buffer, origin, 1);
+    if (length == 0) {
+      return "";
+    }
+    String value;
+    if (buffer.hasArray()) {
+      value = new String(
+          buffer.array(), buffer.arrayOffset() + buffer.position(), length - 1,
+          StandardCharsets.UTF_8);
+    } else {
+      byte[] bytes = new byte[length - 1];
+      buffer.duplicate().get(bytes);
+      value = new String(bytes, StandardCharsets.UTF_8);
+    }
+    buffer.position(buffer.position() + length);
+    return value;
+  }
+
+  /**
+   * @return The offset after a wide string serialized at the given offset.
+   */
+  public static int getWStringEnd(final int offset, final String value) {
+    return align(offset, 4) + 4 + (value != null ? WCHAR_SIZE * value.length() : 0);
+  }
+
+  /**
+   * @return The absolute position after the wide string serialized at the given position.
+   */
+  public static int skipWString(final ByteBuffer buffer, final int origin, final int position) {
+    int start = alignPosition(position, origin, 4);
+    return start + 4 + WCHAR_SIZE * buffer.getInt(start);
+  }
+
+  public static void writeWString(final ByteBuffer buffer, final int origin, final String value) {
+    alignWrite(buffer, origin, 4);
+    if (value == null) {
+      buffer.putInt(0);
+      return;
+    }
+    buffer.putInt(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      buffer.putInt(value.charAt(i));
+    }
+  }
+
+  public static String readWString(final ByteBuffer buffer, final int origin) {
+    int length = readLength(buffer, origin, WCHAR_SIZE);
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) buffer.getInt();
+    }
+    return new String(chars);
+  }
+}
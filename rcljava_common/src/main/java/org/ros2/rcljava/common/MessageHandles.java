@@ -0,0 +1,97 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.common;
+
+import org.ros2.rcljava.interfaces.MessageDefinition;
+
+/**
+ * The native function pointers and type support of a message type, resolved once so that
+ * they don't have to be looked up again for every message that is published or taken.
+ */
+public final class MessageHandles {
+  private final long creator;
+  private final long fromJavaConverter;
+  private final long toJavaConverter;
+  private final long destructor;
+  private final long typeSupport;
+
+  private MessageHandles(final MessageDefinition message) {
+    this.creator = message.getCreatorInstance();
+    this.fromJavaConverter = message.getFromJavaConverterInstance();
+    this.toJavaConverter = message.getToJavaConverterInstance();
+    this.destructor = message.getDestructorInstance();
+    this.typeSupport = message.getTypeSupportInstance();
+  }
+
+  /**
+   * Resolve the handles of the type of the given message.
+   *
+   * @param message Any instance of the message type.
+   * @return The handles of the message type.
+   */
+  public static MessageHandles of(final MessageDefinition message) {
+    return new MessageHandles(message);
+  }
+
+  /**
+   * Resolve the handles of the given message type.
+   *
+   * @param messageType The class of the message type.
+   * @return The handles of the message type.
+   */
+  public static MessageHandles of(final Class<? extends MessageDefinition> messageType) {
+    try {
+      return new MessageHandles(messageType.getDeclaredConstructor().newInstance());
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to instantiate message " + messageType.getName());
+    }
+  }
+
+  /**
+   * @return A pointer to the function that creates a native message.
+   */
+  public final long getCreator() {
+    return this.creator;
+  }
+
+  /**
+   * @return A pointer to the function that converts a Java message to a native one.
+   */
+  public final long getFromJavaConverter() {
+    return this.fromJavaConverter;
+  }
+
+  /**
+   * @return A pointer to the function that converts a native message to a Java one.
+   */
+  public final long getToJavaConverter() {
+    return this.toJavaConverter;
+  }
+
+  /**
+   * @return A pointer to the function that destroys a native message.
+   */
+  public final long getDestructor() {
+    return this.destructor;
+  }
+
+  /**
+   * @return A pointer to the type support of the message type.
+   */
+  public final long getTypeSupport() {
+    return this.typeSupport;
+  }
+}
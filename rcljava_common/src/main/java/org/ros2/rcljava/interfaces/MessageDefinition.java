@@ -15,6 +15,8 @@
 
 package org.ros2.rcljava.interfaces;
 
+import java.nio.ByteBuffer;
+
 public interface MessageDefinition {
   public long getFromJavaConverterInstance();
 
@@ -23,4 +25,38 @@ public interface MessageDefinition {
   public long getTypeSupportInstance();
 
   public long getDestructorInstance();
+
+  public long getCreatorInstance();
+
+  /**
+   * @return The size in bytes of this message serialized in CDR, including the encapsulation header.
+   */
+  public int getSerializedSize();
+
+  /**
+   * Serialize this message in little endian CDR at the position of the buffer,
+   * starting with the encapsulation header.
+   * The byte order of the buffer is changed to little endian.
+   */
+  public void serialize(ByteBuffer buffer);
+
+  /**
+   * Deserialize a CDR encoded message, starting with its encapsulation header,
+   * into this message.
+   * The byte order of the buffer is changed to the one declared by the header.
+   */
+  public void deserialize(ByteBuffer buffer);
+
+  /**
+   * Copy all the members of another message of the same type into this one.
+   * Use it to keep the data of a message that is only valid during a callback.
+   *
+   * @throws ClassCastException If the other message is of a different type.
+   */
+  public void copyFrom(MessageDefinition other);
+
+  /**
+   * Reset all the members of this message to the values of a new message.
+   */
+  public void clear();
 }
@@ -0,0 +1,50 @@
+/* Copyright 2017-2018 Esteve Fernandez <esteve@apache.org>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.interfaces;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A read-only view over a serialized (CDR) message that only decodes the members that are
+ * read, instead of converting the whole message.
+ * Every generated message has a view, e.g. <code>std_msgs.msg.String.View</code>
+ *
+ * A view is only valid while the buffer it wraps is, and it can be wrapped around a new
+ * buffer to be reused for the next message.
+ *
+ * @param <T> The type of the message that this view reads.
+ */
+public interface MessageView<T extends MessageDefinition> {
+  /**
+   * Wrap a serialized message, starting at its encapsulation header.
+   *
+   * @param buffer The serialized message, from its position.
+   * @return This view.
+   */
+  MessageView<T> wrap(ByteBuffer buffer);
+
+  /**
+   * Decode the whole message.
+   *
+   * @return A new message with all the members of the serialized one.
+   */
+  T toMessage();
+
+  /**
+   * @return The <code>Class</code> of the message that this view reads.
+   */
+  Class<T> getMessageType();
+}
@@ -159,6 +159,14 @@ foreach(dep ${target_dependencies})
   endif()
 endforeach()
 
+# Primitive sequences of at least this many bytes are received into direct ByteBuffers,
+# 0 (the default) disables direct buffers
+if(DEFINED ROSIDL_GENERATOR_JAVA_DIRECT_BUFFER_THRESHOLD)
+  set(_direct_buffer_threshold "${ROSIDL_GENERATOR_JAVA_DIRECT_BUFFER_THRESHOLD}")
+else()
+  set(_direct_buffer_threshold 0)
+endif()
+
 set(generator_arguments_file "${CMAKE_BINARY_DIR}/rosidl_generator_java__arguments.json")
 rosidl_write_generator_arguments(
   "${generator_arguments_file}"
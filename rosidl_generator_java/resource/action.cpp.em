@@ -22,6 +22,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_threshold': direct_buffer_threshold,
 }
 
 # Generate Goal message type
@@ -67,6 +68,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_threshold': direct_buffer_threshold,
     'typesupport_impl': typesupport_impl,
 }
 
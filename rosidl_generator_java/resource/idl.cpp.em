@@ -12,6 +12,7 @@
 @#  - output_dir (Path)
 @#  - template_basepath (Path)
 @#  - typesupport_impl (string, the typesupport identifier of the generated code)
+@#  - direct_buffer_threshold (int, 0 if direct buffers are disabled)
 @#######################################################################
 @{
 import os
@@ -32,6 +33,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_threshold': direct_buffer_threshold,
 }
 
 for message in content.get_elements_of_type(Message):
@@ -56,6 +58,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_threshold': direct_buffer_threshold,
     'typesupport_impl': typesupport_impl,
 }
 
@@ -82,6 +85,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_threshold': direct_buffer_threshold,
     'typesupport_impl': typesupport_impl,
 }
 
@@ -8,6 +8,7 @@
 @# Additional context:
 @#  - output_dir (Path)
 @#  - template_basepath (Path)
+@#  - direct_buffer_threshold (int, 0 if direct buffers are disabled)
 @#######################################################################
 @
 @#######################################################################
@@ -29,6 +30,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_threshold': direct_buffer_threshold,
     'marker_interfaces': [],
 }
 
@@ -53,6 +55,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_threshold': direct_buffer_threshold,
 }
 
 for service in content.get_elements_of_type(Service):
@@ -76,6 +79,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_threshold': direct_buffer_threshold,
 }
 
 for action in content.get_elements_of_type(Action):
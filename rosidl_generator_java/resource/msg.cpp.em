@@ -12,6 +12,7 @@ from rosidl_generator_java import get_java_type
 from rosidl_generator_java import get_jni_signature
 from rosidl_generator_java import get_jni_type
 from rosidl_generator_java import get_normalized_type
+from rosidl_generator_java import is_direct_buffer_member
 from rosidl_generator_java import value_methods
 from rosidl_parser.definition import AbstractGenericString
 from rosidl_parser.definition import AbstractString
@@ -25,6 +26,41 @@ from rosidl_parser.definition import NamespacedType
 msg_normalized_type = '__'.join(message.structure.namespaced_type.namespaced_name())
 msg_jni_type = '/'.join(message.structure.namespaced_type.namespaced_name())
 
+
+def get_field_signature(type_):
+    if isinstance(type_, AbstractNestedType):
+        return '[' + get_field_signature(type_.value_type)
+    if isinstance(type_, AbstractGenericString):
+        return 'Ljava/lang/String;'
+    if isinstance(type_, BasicType):
+        return get_jni_signature(type_)
+    return 'L%s;' % '/'.join(type_.namespaced_name())
+
+
+# Primitive types whose C representation has the same size and layout as the matching JNI type,
+# so arrays of them can be copied with a single Get/Set<Type>ArrayRegion call.
+# char (1 byte in C, 2 bytes in Java) and long double need an element-wise conversion.
+direct_copy_typenames = {
+    'boolean', 'octet', 'float', 'double', 'int8', 'uint8', 'int16', 'uint16',
+    'int32', 'uint32', 'int64', 'uint64'}
+
+# Primitive sequences that are kept in a direct buffer on the Java side once they get large
+direct_buffer_members = [
+    member.name for member in message.structure.members
+    if is_direct_buffer_member(member, direct_buffer_threshold)]
+
+# Primitive sequences whose Java array can be longer than the sequence, to be reused
+sized_members = [
+    member.name for member in message.structure.members
+    if isinstance(member.type, AbstractSequence) and
+    isinstance(member.type.value_type, BasicType)]
+
+# java.lang.String is only needed to create arrays of strings
+has_string_arrays = any(
+    isinstance(member.type, AbstractNestedType) and
+    isinstance(member.type.value_type, AbstractGenericString)
+    for member in message.structure.members)
+
 # Collect JNI types and includes
 cache = defaultdict(lambda: False)
 cache[msg_normalized_type] = msg_jni_type
@@ -106,6 +142,7 @@ member_includes.add(f'{message_c_include_prefix}.h')
 #include <algorithm>
 #include <cassert>
 #include <cstdint>
+#include <cstring>
 #include <string>
 
 #include "rosidl_runtime_c/message_type_support_struct.h"
@@ -131,6 +168,22 @@ namespace
 {
 JavaVM * g_vm = nullptr;
 
+@[for member in message.structure.members]@
+jfieldID _j@(msg_normalized_type)_@(member.name)_fid_global = nullptr;
+@[end for]@
+@[for member_name in sized_members]@
+jfieldID _j@(msg_normalized_type)_@(member_name)Size_fid_global = nullptr;
+@[end for]@
+@[for member_name in direct_buffer_members]@
+jfieldID _j@(msg_normalized_type)_@(member_name)Buffer_fid_global = nullptr;
+@[end for]@
+@[if direct_buffer_members]@
+jmethodID _j@(msg_normalized_type)_allocate_direct_buffer_global = nullptr;
+@[end if]@
+@[if has_string_arrays]@
+jclass _jjava_lang_String_class_global = nullptr;
+@[end if]@
+
 @[for normalized_type, jni_type in cache.items()]@
 jclass _j@(normalized_type)_class_global = nullptr;
 @[ if constructor_signatures[jni_type]]@
@@ -143,12 +196,12 @@ jmethodID _j@(normalized_type)_value_global = nullptr;
 
 @[ if jni_type in namespaced_types]@
 jmethodID _j@(normalized_type)_from_java_converter_global = nullptr;
-using _j@(normalized_type)_from_java_signature = @(normalized_type) * (*)(jobject, @(normalized_type) *);
+using _j@(normalized_type)_from_java_signature = @(normalized_type) * (*)(JNIEnv *, jobject, @(normalized_type) *);
 jlong _j@(normalized_type)_from_java_converter_ptr_global = 0;
 _j@(normalized_type)_from_java_signature _j@(normalized_type)_from_java_function = nullptr;
 
 jmethodID _j@(normalized_type)_to_java_converter_global = nullptr;
-using _j@(normalized_type)_to_java_signature = jobject (*)(@(normalized_type) *, jobject);
+using _j@(normalized_type)_to_java_signature = jobject (*)(JNIEnv *, @(normalized_type) *, jobject);
 jlong _j@(normalized_type)_to_java_converter_ptr_global = 0;
 _j@(normalized_type)_to_java_signature _j@(normalized_type)_to_java_function = nullptr;
 @[ end if]@
@@ -194,23 +247,25 @@ JNIEXPORT jlong JNICALL Java_@(underscore_separated_jni_type_name)_getTypeSuppor
 JNIEXPORT jlong JNICALL Java_@(underscore_separated_jni_type_name)_getDestructor
   (JNIEnv *, jclass);
 
+/*
+ * Class:     @(underscore_separated_type_name)
+ * Method:    getCreator
+ * Signature: ()J
+ */
+JNIEXPORT jlong JNICALL Java_@(underscore_separated_jni_type_name)_getCreator
+  (JNIEnv *, jclass);
+
 #ifdef __cplusplus
 }
 #endif
 
 @# Avoid warnings about unused arguments if the message definition does not contain any members
 @[if message.structure.members]@
-@(msg_normalized_type) * @(underscore_separated_type_name)__convert_from_java(jobject _jmessage_obj, @(msg_normalized_type) * ros_message)
+@(msg_normalized_type) * @(underscore_separated_type_name)__convert_from_java(JNIEnv * env, jobject _jmessage_obj, @(msg_normalized_type) * ros_message)
 @[else]@
-@(msg_normalized_type) * @(underscore_separated_type_name)__convert_from_java(jobject, @(msg_normalized_type) * ros_message)
+@(msg_normalized_type) * @(underscore_separated_type_name)__convert_from_java(JNIEnv *, jobject, @(msg_normalized_type) * ros_message)
 @[end if]@
 {
-  JNIEnv * env = nullptr;
-  // TODO(esteve): check return status
-  assert(g_vm != nullptr);
-  g_vm->GetEnv(reinterpret_cast<void **>(&env), JNI_VERSION_1_6);
-  assert(env != nullptr);
-
   if (ros_message == nullptr) {
     ros_message = @(msg_normalized_type)__create();
   }
@@ -223,14 +278,39 @@ get_method_name = get_java_name.capitalize()
 jni_signature = get_jni_signature(base_type)
 }@
 @[  if isinstance(member.type, AbstractNestedType)]
-@[    if isinstance(member.type.value_type, BasicType)]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "[@(jni_signature)");
+@[    if member.name in direct_buffer_members]@
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
+  j@(get_java_name)Array _jarray_@(member.name)_obj = nullptr;
+
+  // Elements kept in a direct buffer are copied with a single memcpy, the array is stale then
+  jobject _jbuffer_@(member.name)_obj = env->GetObjectField(_jmessage_obj, _j@(msg_normalized_type)_@(member.name)Buffer_fid_global);
+  if (_jbuffer_@(member.name)_obj != nullptr) {
+    size_t _jbuffer_@(member.name)_size = static_cast<size_t>(env->GetDirectBufferCapacity(_jbuffer_@(member.name)_obj));
+@[      if isinstance(member.type, AbstractSequence)]@
+    if (!rosidl_runtime_c__@(member.type.value_type.typename)__Sequence__init(&(ros_message->@(member.name)), _jbuffer_@(member.name)_size / sizeof(*ros_message->@(member.name).data))) {
+      rcljava_throw_exception(env, "java/lang/IllegalStateException", "unable to create @(member.type.value_type)__Array ros_message");
+    }
+    auto _dest_@(member.name) = ros_message->@(member.name).data;
+    if (_dest_@(member.name) != nullptr && _jbuffer_@(member.name)_size > 0) {
+      memcpy(_dest_@(member.name), env->GetDirectBufferAddress(_jbuffer_@(member.name)_obj), _jbuffer_@(member.name)_size);
+    }
+@[      else]@
+    memcpy(
+      ros_message->@(member.name), env->GetDirectBufferAddress(_jbuffer_@(member.name)_obj),
+      std::min(_jbuffer_@(member.name)_size, sizeof(ros_message->@(member.name))));
+@[      end if]@
+    env->DeleteLocalRef(_jbuffer_@(member.name)_obj);
+  } else {
+    _jarray_@(member.name)_obj = (j@(get_java_name)Array)env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
+  }
+@[    elif isinstance(member.type.value_type, BasicType)]@
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
   j@(get_java_name)Array _jarray_@(member.name)_obj = (j@(get_java_name)Array)env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
 @[    elif isinstance(member.type.value_type, AbstractGenericString)]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "[Ljava/lang/String;");
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
   jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
 @[    else]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "[L@('/'.join(member.type.value_type.namespaced_name()));");
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
   jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
 @[    end if]@
 
@@ -238,6 +318,8 @@ jni_signature = get_jni_signature(base_type)
 @[    if isinstance(member.type, AbstractSequence)]@
 @[      if isinstance(member.type, Array)]@
     jint _jarray_@(member.name)_size = @(member.type.size);
+@[      elif member.name in sized_members]@
+    jint _jarray_@(member.name)_size = env->GetIntField(_jmessage_obj, _j@(msg_normalized_type)_@(member.name)Size_fid_global);
 @[      else]@
     jint _jarray_@(member.name)_size = env->GetArrayLength(_jarray_@(member.name)_obj);
 @[      end if]@
@@ -268,9 +350,16 @@ jni_signature = get_jni_signature(base_type)
     auto _dest_@(member.name) = ros_message->@(member.name);
 @[    end if]@
 @[    if isinstance(member.type.value_type, BasicType)]@
-    j@(get_java_name) * _jarray_@(member.name)_ptr = env->Get@(get_method_name)ArrayElements(_jarray_@(member.name)_obj, nullptr);
-    std::copy(_jarray_@(member.name)_ptr, _jarray_@(member.name)_ptr + _jarray_@(member.name)_size, _dest_@(member.name));
-    env->Release@(get_method_name)ArrayElements(_jarray_@(member.name)_obj, _jarray_@(member.name)_ptr, 0);
+@[      if member.type.value_type.typename in direct_copy_typenames]@
+    static_assert(sizeof(*_dest_@(member.name)) == sizeof(j@(get_java_name)), "element sizes must match");
+    env->Get@(get_method_name)ArrayRegion(_jarray_@(member.name)_obj, 0, _jarray_@(member.name)_size, reinterpret_cast<j@(get_java_name) *>(_dest_@(member.name)));
+@[      else]@
+    auto * _jarray_@(member.name)_ptr = static_cast<j@(get_java_name) *>(env->GetPrimitiveArrayCritical(_jarray_@(member.name)_obj, nullptr));
+    if (_jarray_@(member.name)_ptr != nullptr) {
+      std::copy(_jarray_@(member.name)_ptr, _jarray_@(member.name)_ptr + _jarray_@(member.name)_size, _dest_@(member.name));
+      env->ReleasePrimitiveArrayCritical(_jarray_@(member.name)_obj, _jarray_@(member.name)_ptr, JNI_ABORT);
+    }
+@[      end if]@
 @[    else]@
     for (jint i = 0; i < _jarray_@(member.name)_size; ++i) {
       auto element = env->GetObjectArrayElement(_jarray_@(member.name)_obj, i);
@@ -294,7 +383,7 @@ jni_signature = get_jni_signature(base_type)
         env->ReleaseStringChars(_jfield_@(member.name)_value, _str_@(member.name));
       }
 @[      else]@
-      _dest_@(member.name)[i] = *_j@(normalized_type)_from_java_function(element, nullptr);
+      _j@(normalized_type)_from_java_function(env, element, &_dest_@(member.name)[i]);
 @[      end if]@
       env->DeleteLocalRef(element);
     }
@@ -303,7 +392,7 @@ jni_signature = get_jni_signature(base_type)
   }
 @[  else]@
 @[    if isinstance(member.type, AbstractGenericString)]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "Ljava/lang/String;");
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
   jstring _jvalue@(member.name) = static_cast<jstring>(env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid));
 
   if (_jvalue@(member.name) != nullptr) {
@@ -324,18 +413,16 @@ jni_signature = get_jni_signature(base_type)
 jni_signature = get_jni_signature(member.type)
 get_method_name = 'Get%sField' % get_java_type(member.type, use_primitives=True).capitalize()
 }@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "@(jni_signature)");
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
   ros_message->@(member.name) = env->@(get_method_name)(_jmessage_obj, _jfield_@(member.name)_fid);
 
 @[    else]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(
-    _j@(msg_normalized_type)_class_global, "@(member.name)", "L@('/'.join(member.type.namespaced_name()));");
-  assert(_jfield_@(member.name)_fid != nullptr);
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
 
   jobject _jfield_@(member.name)_obj = env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
 
   if (_jfield_@(member.name)_obj != nullptr) {
-    ros_message->@(member.name) = *_j@(normalized_type)_from_java_function(_jfield_@(member.name)_obj, nullptr);
+    _j@(normalized_type)_from_java_function(env, _jfield_@(member.name)_obj, &(ros_message->@(member.name)));
   }
   env->DeleteLocalRef(_jfield_@(member.name)_obj);
 @[    end if]@
@@ -347,17 +434,11 @@ get_method_name = 'Get%sField' % get_java_type(member.type, use_primitives=True)
 
 @# Avoid warnings about unused arguments if the message definition does not contain any fields
 @[if message.structure.members]@
-jobject @(underscore_separated_type_name)__convert_to_java(@(msg_normalized_type) * _ros_message, jobject _jmessage_obj)
+jobject @(underscore_separated_type_name)__convert_to_java(JNIEnv * env, @(msg_normalized_type) * _ros_message, jobject _jmessage_obj)
 @[else]@
-jobject @(underscore_separated_type_name)__convert_to_java(@(msg_normalized_type) *, jobject _jmessage_obj)
+jobject @(underscore_separated_type_name)__convert_to_java(JNIEnv * env, @(msg_normalized_type) *, jobject _jmessage_obj)
 @[end if]@
 {
-  JNIEnv * env = nullptr;
-  // TODO(esteve): check return status
-  assert(g_vm != nullptr);
-  g_vm->GetEnv(reinterpret_cast<void **>(&env), JNI_VERSION_1_6);
-  assert(env != nullptr);
-
   if (_jmessage_obj == nullptr) {
     _jmessage_obj = env->NewObject(_j@(msg_normalized_type)_class_global, _j@(msg_normalized_type)_constructor_global);
   }
@@ -369,35 +450,105 @@ get_java_name = get_java_type(base_type, use_primitives=True)
 get_method_name = get_java_name.capitalize()
 jni_signature = get_jni_signature(base_type)
 }@
-@[  if isinstance(member.type, AbstractNestedType)]@
+@[  if member.name in direct_buffer_members]@
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
+  auto _jbuffer_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)Buffer_fid_global;
+
+@[    if isinstance(member.type, Array)]@
+  jsize _jarray_@(member.name)_size = @(member.type.size);
+  auto _src_@(member.name) = _ros_message->@(member.name);
+@[    else]@
+  jsize _jarray_@(member.name)_size = static_cast<jsize>(_ros_message->@(member.name).size);
+  auto _src_@(member.name) = _ros_message->@(member.name).data;
+@[    end if]@
+  size_t _jbuffer_@(member.name)_size = static_cast<size_t>(_jarray_@(member.name)_size) * sizeof(*_src_@(member.name));
+  if (_jbuffer_@(member.name)_size >= @(direct_buffer_threshold)) {
+    // Large sequences are copied into a direct buffer with a single memcpy, reusing the buffer
+    // of the target message if it has the right size
+    jobject _jbuffer_@(member.name)_obj = env->GetObjectField(_jmessage_obj, _jbuffer_@(member.name)_fid);
+    if (_jbuffer_@(member.name)_obj == nullptr || static_cast<size_t>(env->GetDirectBufferCapacity(_jbuffer_@(member.name)_obj)) != _jbuffer_@(member.name)_size) {
+      env->DeleteLocalRef(_jbuffer_@(member.name)_obj);
+      _jbuffer_@(member.name)_obj = env->CallStaticObjectMethod(
+        _j@(msg_normalized_type)_class_global, _j@(msg_normalized_type)_allocate_direct_buffer_global,
+        static_cast<jint>(_jbuffer_@(member.name)_size));
+      env->SetObjectField(_jmessage_obj, _jbuffer_@(member.name)_fid, _jbuffer_@(member.name)_obj);
+    }
+    if (_jbuffer_@(member.name)_obj != nullptr) {
+      memcpy(env->GetDirectBufferAddress(_jbuffer_@(member.name)_obj), _src_@(member.name), _jbuffer_@(member.name)_size);
+      env->DeleteLocalRef(_jbuffer_@(member.name)_obj);
+    }
+  } else {
+    env->SetObjectField(_jmessage_obj, _jbuffer_@(member.name)_fid, nullptr);
+
+@[    if member.name in sized_members]@
+    // Reuse the array of the target message if it's long enough
+    auto _jarray_@(member.name)_obj = static_cast<j@(get_java_name)Array>(env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid));
+    if (_jarray_@(member.name)_obj == nullptr || env->GetArrayLength(_jarray_@(member.name)_obj) < _jarray_@(member.name)_size) {
+@[    else]@
+    // Reuse the array of the target message if it has the right length
+    auto _jarray_@(member.name)_obj = static_cast<j@(get_java_name)Array>(env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid));
+    if (_jarray_@(member.name)_obj == nullptr || env->GetArrayLength(_jarray_@(member.name)_obj) != _jarray_@(member.name)_size) {
+@[    end if]@
+      env->DeleteLocalRef(_jarray_@(member.name)_obj);
+      _jarray_@(member.name)_obj = env->New@(get_method_name)Array(_jarray_@(member.name)_size);
+    }
+    static_assert(sizeof(*_src_@(member.name)) == sizeof(j@(get_java_name)), "element sizes must match");
+    env->Set@(get_method_name)ArrayRegion(_jarray_@(member.name)_obj, 0, _jarray_@(member.name)_size, reinterpret_cast<const j@(get_java_name) *>(_src_@(member.name)));
+    env->SetObjectField(_jmessage_obj, _jfield_@(member.name)_fid, _jarray_@(member.name)_obj);
+@[    if member.name in sized_members]@
+    env->SetIntField(_jmessage_obj, _j@(msg_normalized_type)_@(member.name)Size_fid_global, _jarray_@(member.name)_size);
+@[    end if]@
+    env->DeleteLocalRef(_jarray_@(member.name)_obj);
+  }
+@[  elif isinstance(member.type, AbstractNestedType)]@
 @[    if isinstance(member.type.value_type, BasicType)]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "[@(jni_signature)");
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
 @[    elif isinstance(member.type.value_type, AbstractGenericString)]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "[Ljava/lang/String;");
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
 @[    else]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "[L@('/'.join(member.type.value_type.namespaced_name()));");
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
 @[    end if]@
 
 @[    if isinstance(member.type.value_type, BasicType)]@
 @[      if isinstance(member.type, Array)]@
-  j@(get_java_name)Array _jarray_@(member.name)_obj = env->New@(get_method_name)Array(@(member.type.size));
-  auto * _j@(get_java_name)_@(member.name)_buf = static_cast<j@(get_java_name) *>(malloc(sizeof(j@(get_java_name)) * @(member.type.size)));
-  std::copy(_ros_message->@(member.name), _ros_message->@(member.name) + @(member.type.size), _j@(get_java_name)_@(member.name)_buf);
-  env->Set@(get_method_name)ArrayRegion(_jarray_@(member.name)_obj, 0, @(member.type.size), (const j@(get_java_name) *)_j@(get_java_name)_@(member.name)_buf);
+  jsize _jarray_@(member.name)_size = @(member.type.size);
+  auto _src_@(member.name) = _ros_message->@(member.name);
+@[      else]@
+  jsize _jarray_@(member.name)_size = static_cast<jsize>(_ros_message->@(member.name).size);
+  auto _src_@(member.name) = _ros_message->@(member.name).data;
+@[      end if]@
+@[      if member.name in sized_members]@
+  // Reuse the array of the target message if it's long enough
+  auto _jarray_@(member.name)_obj = static_cast<j@(get_java_name)Array>(env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid));
+  if (_jarray_@(member.name)_obj == nullptr || env->GetArrayLength(_jarray_@(member.name)_obj) < _jarray_@(member.name)_size) {
 @[      else]@
-  j@(get_java_name)Array _jarray_@(member.name)_obj = env->New@(get_method_name)Array(_ros_message->@(member.name).size);
-  auto * _j@(get_java_name)_@(member.name)_buf = static_cast<j@(get_java_name) *>(malloc(sizeof(j@(get_java_name)) * _ros_message->@(member.name).size));
-  std::copy(_ros_message->@(member.name).data, _ros_message->@(member.name).data + _ros_message->@(member.name).size, _j@(get_java_name)_@(member.name)_buf);
-  env->Set@(get_method_name)ArrayRegion(_jarray_@(member.name)_obj, 0, _ros_message->@(member.name).size, (const j@(get_java_name) *)_j@(get_java_name)_@(member.name)_buf);
+  // Reuse the array of the target message if it has the right length
+  auto _jarray_@(member.name)_obj = static_cast<j@(get_java_name)Array>(env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid));
+  if (_jarray_@(member.name)_obj == nullptr || env->GetArrayLength(_jarray_@(member.name)_obj) != _jarray_@(member.name)_size) {
+@[      end if]@
+    env->DeleteLocalRef(_jarray_@(member.name)_obj);
+    _jarray_@(member.name)_obj = env->New@(get_method_name)Array(_jarray_@(member.name)_size);
+  }
+@[      if member.type.value_type.typename in direct_copy_typenames]@
+  static_assert(sizeof(*_src_@(member.name)) == sizeof(j@(get_java_name)), "element sizes must match");
+  env->Set@(get_method_name)ArrayRegion(_jarray_@(member.name)_obj, 0, _jarray_@(member.name)_size, reinterpret_cast<const j@(get_java_name) *>(_src_@(member.name)));
+@[      else]@
+  auto * _jarray_@(member.name)_ptr = static_cast<j@(get_java_name) *>(env->GetPrimitiveArrayCritical(_jarray_@(member.name)_obj, nullptr));
+  if (_jarray_@(member.name)_ptr != nullptr) {
+    std::copy(_src_@(member.name), _src_@(member.name) + _jarray_@(member.name)_size, _jarray_@(member.name)_ptr);
+    env->ReleasePrimitiveArrayCritical(_jarray_@(member.name)_obj, _jarray_@(member.name)_ptr, 0);
+  }
+@[      end if]@
+@[      if member.name in sized_members]@
+  env->SetIntField(_jmessage_obj, _j@(msg_normalized_type)_@(member.name)Size_fid_global, _jarray_@(member.name)_size);
 @[      end if]@
-  free(_j@(get_java_name)_@(member.name)_buf);
 @[    elif isinstance(member.type.value_type, AbstractGenericString)]@
 @[      if isinstance(member.type, Array)]@
-  jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->NewObjectArray(@(member.type.size), env->FindClass("java/lang/String"), NULL);
+  jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->NewObjectArray(@(member.type.size), _jjava_lang_String_class_global, NULL);
   for (size_t i = 0; i < @(member.type.size); i++) {
     auto _ros_@(member.name)_element = _ros_message->@(member.name)[i];
 @[      else]@
-  jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->NewObjectArray(_ros_message->@(member.name).size, env->FindClass("java/lang/String"), NULL);
+  jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->NewObjectArray(_ros_message->@(member.name).size, _jjava_lang_String_class_global, NULL);
   for (size_t i = 0; i < _ros_message->@(member.name).size; i++) {
     auto _ros_@(member.name)_element = _ros_message->@(member.name).data[i];
 @[      end if]@
@@ -414,15 +565,26 @@ jni_signature = get_jni_signature(base_type)
   }
 @[    else]@
 @[      if isinstance(member.type, Array)]@
-  jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->NewObjectArray(@(member.type.size), _j@(normalized_type)_class_global, NULL);
-  for (size_t i = 0; i < @(member.type.size); i++) {
-    jobject _jarray_@(member.name)_element = _j@(normalized_type)_to_java_function(&(_ros_message->@(member.name)[i]), nullptr);
+  jsize _jarray_@(member.name)_size = @(member.type.size);
+  auto _src_@(member.name) = _ros_message->@(member.name);
 @[      else]@
-  jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->NewObjectArray(_ros_message->@(member.name).size, _j@(normalized_type)_class_global, NULL);
-  for (size_t i = 0; i < _ros_message->@(member.name).size; i++) {
-    jobject _jarray_@(member.name)_element = _j@(normalized_type)_to_java_function(&(_ros_message->@(member.name).data[i]), nullptr);
+  jsize _jarray_@(member.name)_size = static_cast<jsize>(_ros_message->@(member.name).size);
+  auto _src_@(member.name) = _ros_message->@(member.name).data;
 @[      end if]@
-    env->SetObjectArrayElement(_jarray_@(member.name)_obj, i, _jarray_@(member.name)_element);
+  // Reuse the array of the target message, and the messages in it, if it has the right length
+  auto _jarray_@(member.name)_obj = static_cast<jobjectArray>(env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid));
+  if (_jarray_@(member.name)_obj == nullptr || env->GetArrayLength(_jarray_@(member.name)_obj) != _jarray_@(member.name)_size) {
+    env->DeleteLocalRef(_jarray_@(member.name)_obj);
+    _jarray_@(member.name)_obj = env->NewObjectArray(_jarray_@(member.name)_size, _j@(normalized_type)_class_global, NULL);
+  }
+  for (jsize i = 0; i < _jarray_@(member.name)_size; i++) {
+    jobject _jarray_@(member.name)_element = env->GetObjectArrayElement(_jarray_@(member.name)_obj, i);
+    if (_jarray_@(member.name)_element == nullptr) {
+      _jarray_@(member.name)_element = _j@(normalized_type)_to_java_function(env, &_src_@(member.name)[i], nullptr);
+      env->SetObjectArrayElement(_jarray_@(member.name)_obj, i, _jarray_@(member.name)_element);
+    } else {
+      _j@(normalized_type)_to_java_function(env, &_src_@(member.name)[i], _jarray_@(member.name)_element);
+    }
     env->DeleteLocalRef(_jarray_@(member.name)_element);
   }
 @[    end if]@
@@ -430,7 +592,7 @@ jni_signature = get_jni_signature(base_type)
   env->DeleteLocalRef(_jarray_@(member.name)_obj);
 @[  else]@
 @[    if isinstance(member.type, AbstractGenericString)]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "Ljava/lang/String;");
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
   if (_ros_message->@(member.name).data != nullptr) {
 @[      if isinstance(member.type, AbstractString)]@
     env->SetObjectField(_jmessage_obj, _jfield_@(member.name)_fid, env->NewStringUTF(_ros_message->@(member.name).data));
@@ -443,16 +605,20 @@ jni_signature = get_jni_signature(base_type)
 jni_signature = get_jni_signature(member.type)
 set_method_name = 'Set%sField' % get_java_type(member.type, use_primitives=True).capitalize()
 }@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "@(jni_signature)");
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
   env->@(set_method_name)(_jmessage_obj, _jfield_@(member.name)_fid, _ros_message->@(member.name));
 @[    else]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(
-    _j@(msg_normalized_type)_class_global, "@(member.name)", "L@('/'.join(member.type.namespaced_name()));");
-  assert(_jfield_@(member.name)_fid != nullptr);
-
-  jobject _jfield_@(member.name)_obj = _j@(normalized_type)_to_java_function(&(_ros_message->@(member.name)), nullptr);
+  auto _jfield_@(member.name)_fid = _j@(msg_normalized_type)_@(member.name)_fid_global;
 
-  env->SetObjectField(_jmessage_obj, _jfield_@(member.name)_fid, _jfield_@(member.name)_obj);
+  // Convert into the nested message of the target message if there is one
+  jobject _jfield_@(member.name)_obj = env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
+  if (_jfield_@(member.name)_obj == nullptr) {
+    _jfield_@(member.name)_obj = _j@(normalized_type)_to_java_function(env, &(_ros_message->@(member.name)), nullptr);
+    env->SetObjectField(_jmessage_obj, _jfield_@(member.name)_fid, _jfield_@(member.name)_obj);
+  } else {
+    _j@(normalized_type)_to_java_function(env, &(_ros_message->@(member.name)), _jfield_@(member.name)_obj);
+  }
+  env->DeleteLocalRef(_jfield_@(member.name)_obj);
 @[    end if]@
 @[  end if]@
 @[end for]@
@@ -516,6 +682,38 @@ if value_method:
     assert(_j@(normalized_type)_to_java_function != nullptr);
 @[  end if]@
 @[end for]@
+@[for member in message.structure.members]@
+
+    _j@(msg_normalized_type)_@(member.name)_fid_global = env->GetFieldID(
+      _j@(msg_normalized_type)_class_global, "@(member.name)", "@(get_field_signature(member.type))");
+    assert(_j@(msg_normalized_type)_@(member.name)_fid_global != nullptr);
+@[end for]@
+@[for member_name in sized_members]@
+
+    _j@(msg_normalized_type)_@(member_name)Size_fid_global = env->GetFieldID(
+      _j@(msg_normalized_type)_class_global, "@(member_name)Size", "I");
+    assert(_j@(msg_normalized_type)_@(member_name)Size_fid_global != nullptr);
+@[end for]@
+@[for member_name in direct_buffer_members]@
+
+    _j@(msg_normalized_type)_@(member_name)Buffer_fid_global = env->GetFieldID(
+      _j@(msg_normalized_type)_class_global, "@(member_name)Buffer", "Ljava/nio/ByteBuffer;");
+    assert(_j@(msg_normalized_type)_@(member_name)Buffer_fid_global != nullptr);
+@[end for]@
+@[if direct_buffer_members]@
+
+    _j@(msg_normalized_type)_allocate_direct_buffer_global = env->GetStaticMethodID(
+      _j@(msg_normalized_type)_class_global, "allocateDirectBuffer", "(I)Ljava/nio/ByteBuffer;");
+    assert(_j@(msg_normalized_type)_allocate_direct_buffer_global != nullptr);
+@[end if]@
+@[if has_string_arrays]@
+
+    auto _jjava_lang_String_class_local = env->FindClass("java/lang/String");
+    assert(_jjava_lang_String_class_local != nullptr);
+    _jjava_lang_String_class_global = static_cast<jclass>(env->NewGlobalRef(_jjava_lang_String_class_local));
+    env->DeleteLocalRef(_jjava_lang_String_class_local);
+    assert(_jjava_lang_String_class_global != nullptr);
+@[end if]@
   }
   return JNI_VERSION_1_6;
 }
@@ -549,6 +747,24 @@ JNIEXPORT void JNICALL JNI_OnUnload(JavaVM * vm, void *)
 @[  end if]@
     }
 @[end for]@
+@[for member in message.structure.members]@
+    _j@(msg_normalized_type)_@(member.name)_fid_global = nullptr;
+@[end for]@
+@[for member_name in sized_members]@
+    _j@(msg_normalized_type)_@(member_name)Size_fid_global = nullptr;
+@[end for]@
+@[for member_name in direct_buffer_members]@
+    _j@(msg_normalized_type)_@(member_name)Buffer_fid_global = nullptr;
+@[end for]@
+@[if direct_buffer_members]@
+    _j@(msg_normalized_type)_allocate_direct_buffer_global = nullptr;
+@[end if]@
+@[if has_string_arrays]@
+    if (_jjava_lang_String_class_global != nullptr) {
+      env->DeleteGlobalRef(_jjava_lang_String_class_global);
+      _jjava_lang_String_class_global = nullptr;
+    }
+@[end if]@
   }
 }
 
@@ -575,3 +791,9 @@ JNIEXPORT jlong JNICALL Java_@(underscore_separated_jni_type_name)_getDestructor
   jlong ptr = reinterpret_cast<jlong>(@(msg_normalized_type)__destroy);
   return ptr;
 }
+
+JNIEXPORT jlong JNICALL Java_@(underscore_separated_jni_type_name)_getCreator(JNIEnv *, jclass)
+{
+  jlong ptr = reinterpret_cast<jlong>(@(msg_normalized_type)__create);
+  return ptr;
+}
@@ -7,10 +7,13 @@ package @(package_name + '.' + interface_path.parts[0]);
 @{
 from rosidl_generator_java import convert_lower_case_underscore_to_camel_case
 from rosidl_generator_java import get_java_type
+from rosidl_generator_java import is_direct_buffer_member
 from rosidl_generator_java import primitive_value_to_java
 from rosidl_generator_java import value_to_java
 from rosidl_parser.definition import AbstractGenericString
 from rosidl_parser.definition import AbstractNestedType
+from rosidl_parser.definition import AbstractSequence
+from rosidl_parser.definition import AbstractWString
 from rosidl_parser.definition import Array
 from rosidl_parser.definition import BasicType
 from rosidl_parser.definition import BoundedSequence
@@ -21,15 +24,95 @@ interfaces_implemented = ['MessageDefinition']
 interfaces_implemented.extend(f"{t.rsplit('.', 1)[1]}" for t in marker_interfaces)
 interfaces_implemented = ', '.join(interfaces_implemented)
 
+# CDR size and ByteBuffer accessor suffix of each primitive type.
+# Booleans and chars are a single byte, but they aren't bytes in Java.
+cdr_primitives = {
+    'boolean': (1, None),
+    'char': (1, None),
+    'octet': (1, ''),
+    'int8': (1, ''),
+    'uint8': (1, ''),
+    'int16': (2, 'Short'),
+    'uint16': (2, 'Short'),
+    'int32': (4, 'Int'),
+    'uint32': (4, 'Int'),
+    'int64': (8, 'Long'),
+    'uint64': (8, 'Long'),
+    'float': (4, 'Float'),
+    'double': (8, 'Double'),
+}
+
+# rmw serializes a long double into 16 bytes whose format depends on the platform (x87 extended
+# precision or IEEE binary128), which a Java double can't be converted to portably.
+for member in message.structure.members:
+    member_type = member.type
+    if isinstance(member_type, AbstractNestedType):
+        member_type = member_type.value_type
+    if isinstance(member_type, BasicType) and member_type.typename == 'long double':
+        raise ValueError(
+            "Member '%s' of '%s' is a long double, which can't be serialized in Java" %
+            (member.name, '/'.join(message.structure.namespaced_type.namespaced_name())))
+
+
+def cdr_write_primitive(type_, value):
+    size, accessor = cdr_primitives[type_.typename]
+    if type_.typename == 'boolean':
+        return 'buffer.put((byte) (%s ? 1 : 0))' % value
+    if type_.typename == 'char':
+        return 'buffer.put((byte) %s)' % value
+    return 'buffer.put%s(%s)' % (accessor, value)
+
+
+def cdr_read_primitive(type_):
+    size, accessor = cdr_primitives[type_.typename]
+    if type_.typename == 'boolean':
+        return 'buffer.get() != 0'
+    if type_.typename == 'char':
+        return '(char) (buffer.get() & 0xff)'
+    return 'buffer.get%s()' % accessor
+
+
+def cdr_get_primitive(type_, buffer, position):
+    size, accessor = cdr_primitives[type_.typename]
+    if type_.typename == 'boolean':
+        return '%s.get(%s) != 0' % (buffer, position)
+    if type_.typename == 'char':
+        return '(char) (%s.get(%s) & 0xff)' % (buffer, position)
+    return '%s.get%s(%s)' % (buffer, accessor, position)
+
+
 message_imports = [
+    'java.nio.ByteBuffer',
     'org.apache.commons.lang3.builder.EqualsBuilder',
     'org.apache.commons.lang3.builder.HashCodeBuilder',
+    'org.ros2.rcljava.common.CDR',
     'org.ros2.rcljava.common.JNIUtils',
     'org.ros2.rcljava.interfaces.MessageDefinition',
+    'org.ros2.rcljava.interfaces.MessageView',
     'org.slf4j.Logger',
     'org.slf4j.LoggerFactory',
 ]
 message_imports.extend(f"{t.split('<', 1)[0]}" for t in marker_interfaces)
+
+# Primitive sequences whose elements are kept in a direct buffer once they get large
+direct_buffer_members = [
+    member.name for member in message.structure.members
+    if is_direct_buffer_member(member, direct_buffer_threshold)]
+if direct_buffer_members:
+    message_imports.insert(message_imports.index('java.nio.ByteBuffer') + 1, 'java.nio.ByteOrder')
+
+
+# Primitive sequences that keep their number of elements apart, so their array can be reused
+sized_members = [
+    member.name for member in message.structure.members
+    if isinstance(member.type, AbstractSequence) and
+    isinstance(member.type.value_type, BasicType)]
+
+
+def array_length(member):
+    if isinstance(member.type.value_type, BasicType):
+        return 'this.get%sSize()' % convert_lower_case_underscore_to_camel_case(member.name)
+    return 'this.%s.length' % member.name
 }@
 @[for message_import in message_imports]@
 import @(message_import);
@@ -55,11 +138,16 @@ public class @(type_name) implements @(interfaces_implemented) {
     }
   }
 
+  public static native long getCreator();
   public static native long getDestructor();
   public static native long getFromJavaConverter();
   public static native long getToJavaConverter();
   public static native long getTypeSupport();
 
+  public long getCreatorInstance() {
+    return @(type_name).getCreator();
+  }
+
   public long getDestructorInstance() {
     return @(type_name).getDestructor();
   }
@@ -83,17 +171,40 @@ public class @(type_name) implements @(interfaces_implemented) {
 @[for member in message.structure.members]@
 
 @[  if isinstance(member.type, AbstractNestedType)]@
+@{
+camel_name = convert_lower_case_underscore_to_camel_case(member.name)
+java_type = get_java_type(member.type)
+boxed_type = get_java_type(member.type, use_primitives=False)
+is_primitive = isinstance(member.type.value_type, BasicType)
+is_sized = member.name in sized_members
+is_buffer = member.name in direct_buffer_members
+}@
 @[    if member.has_annotation('default')]@
-  private @(get_java_type(member.type))[] @(member.name) = new @(get_java_type(member.type))[] @(value_to_java(member.type, member.get_annotation_value('default')['value']));
+  private @(java_type)[] @(member.name) = new @(java_type)[] @(value_to_java(member.type, member.get_annotation_value('default')['value']));
 @[    else]@
 @[      if isinstance(member.type, Array)]@
-  private @(get_java_type(member.type))[] @(member.name) = new @(get_java_type(member.type))[@(member.type.size)];
+  private @(java_type)[] @(member.name) = new @(java_type)[@(member.type.size)];
 @[      else]@
-  private @(get_java_type(member.type))[] @(member.name) = new @(get_java_type(member.type))[]{};
+  private @(java_type)[] @(member.name) = new @(java_type)[]{};
 @[      end if]@
 @[    end if]@
+@[    if is_sized]@
 
-  public final @(type_name) set@(convert_lower_case_underscore_to_camel_case(member.name))(final @(get_java_type(member.type))[] @(member.name)) {
+  /**
+   * The number of elements of @(member.name), the array may be longer to be reused.
+   */
+  private int @(member.name)Size = this.@(member.name).length;
+@[    end if]@
+@[    if is_buffer]@
+
+  /**
+   * The elements of @(member.name) in native byte order, when they are kept in a direct buffer
+   * instead of the array.
+   */
+  private ByteBuffer @(member.name)Buffer;
+@[    end if]@
+
+  public final @(type_name) set@(camel_name)(final @(java_type)[] @(member.name)) {
 @[    if isinstance(member.type, BoundedSequence)]@
     if(@(member.name).length > @(member.type.maximum_size)) {
         throw new IllegalArgumentException("Array too big, maximum size allowed: @(member.type.maximum_size)");
@@ -104,10 +215,16 @@ public class @(type_name) implements @(interfaces_implemented) {
     }
 @[    end if]@
     this.@(member.name) = @(member.name);
+@[    if is_sized]@
+    this.@(member.name)Size = @(member.name).length;
+@[    end if]@
+@[    if is_buffer]@
+    this.@(member.name)Buffer = null;
+@[    end if]@
     return this;
   }
 
-  public final @(type_name) set@(convert_lower_case_underscore_to_camel_case(member.name))(final java.util.List<@(get_java_type(member.type, use_primitives=False))> @(member.name)) {
+  public final @(type_name) set@(camel_name)(final java.util.List<@(boxed_type)> @(member.name)) {
 @[    if isinstance(member.type, BoundedSequence)]@
     if(@(member.name).size() > @(member.type.maximum_size)) {
         throw new IllegalArgumentException("List too big, maximum size allowed: @(member.type.maximum_size)");
@@ -117,34 +234,223 @@ public class @(type_name) implements @(interfaces_implemented) {
         throw new IllegalArgumentException("Invalid size for fixed array, must be exactly: @(member.type.size)");
     }
 @[    end if]@
-@[    if isinstance(member.type.value_type, BasicType)]@
-    @(get_java_type(member.type, use_primitives=False))[] boxed_arr = @(member.name).toArray(new @(get_java_type(member.type, use_primitives=False))[]{});
-    @(get_java_type(member.type))[] unboxed_arr = new @(get_java_type(member.type))[@(member.name).size()];
-    for (int i = 0; i < @(member.name).size(); i++) {
-      unboxed_arr[i] = boxed_arr[i].@(get_java_type(member.type))Value();
+@[    if is_primitive]@
+    @(java_type)[] unboxed_arr = new @(java_type)[@(member.name).size()];
+    int i = 0;
+    for (@(boxed_type) element : @(member.name)) {
+      unboxed_arr[i++] = element;
     }
     this.@(member.name) = unboxed_arr;
 @[    else]@
-    this.@(member.name) = @(member.name).toArray(new @(get_java_type(member.type))[0]);
+    this.@(member.name) = @(member.name).toArray(new @(java_type)[0]);
+@[    end if]@
+@[    if is_sized]@
+    this.@(member.name)Size = this.@(member.name).length;
+@[    end if]@
+@[    if is_buffer]@
+    this.@(member.name)Buffer = null;
 @[    end if]@
     return this;
   }
 
-  public final @(get_java_type(member.type))[] get@(convert_lower_case_underscore_to_camel_case(member.name))() {
+  public final @(java_type)[] get@(camel_name)() {
+@[    if is_sized or is_buffer]@
+    this.@(member.name) = this.@(member.name)Array();
+@[    end if]@
+@[    if is_sized]@
+    this.@(member.name)Size = this.@(member.name).length;
+@[    end if]@
+@[    if is_buffer]@
+    this.@(member.name)Buffer = null;
+@[    end if]@
     return this.@(member.name);
   }
 
   /**
-   * For better performance, use @@{link @(type_name)#get@(convert_lower_case_underscore_to_camel_case(member.name))} instead.
+   * For better performance, use @@{link @(type_name)#get@(camel_name)} instead.
    */
-  public final java.util.List<@(get_java_type(member.type, use_primitives=False))> get@(convert_lower_case_underscore_to_camel_case(member.name))AsList() {
+  public final java.util.List<@(boxed_type)> get@(camel_name)AsList() {
+@[    if is_primitive]@
+    int size = this.get@(camel_name)Size();
+@[      if is_buffer]@
+    @(java_type)[] values = this.@(member.name)Array();
+@[      else]@
+    @(java_type)[] values = this.@(member.name);
+@[      end if]@
+    java.util.List<@(boxed_type)> list = new java.util.ArrayList<@(boxed_type)>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(values[i]);
+    }
+    return list;
+@[    else]@
     // TODO(jacobperron): We could cache the List value for subsequent calls
-    java.util.List<@(get_java_type(member.type, use_primitives=False))> list = new java.util.ArrayList<@(get_java_type(member.type, use_primitives=False))>(this.@(member.name).length);
-    for (@(get_java_type(member.type)) element : this.@(member.name)) {
+    java.util.List<@(boxed_type)> list = new java.util.ArrayList<@(boxed_type)>(this.@(member.name).length);
+    for (@(java_type) element : this.@(member.name)) {
       list.add(element);
     }
     return list;
+@[    end if]@
+  }
+@[    if is_primitive]@
+@{
+size, accessor = cdr_primitives[member.type.value_type.typename]
+}@
+
+  public final int get@(camel_name)Size() {
+@[      if is_buffer]@
+    if (this.@(member.name)Buffer != null) {
+      return this.@(member.name)Buffer.capacity() / @(size);
+    }
+@[      end if]@
+@[      if is_sized]@
+    return this.@(member.name)Size;
+@[      else]@
+    return this.@(member.name).length;
+@[      end if]@
+  }
+
+  /**
+   * Copy the elements of @(member.name) into an array, without boxing or allocating them.
+   *
+   * @@param dst The array to copy the elements into, with room for at least
+   *     @@{link @(type_name)#get@(camel_name)Size} of them.
+   * @@return The number of elements copied.
+   */
+  public final int get@(camel_name)(final @(java_type)[] dst) {
+    int size = this.get@(camel_name)Size();
+@[      if is_buffer]@
+    if (this.@(member.name)Buffer != null) {
+@[        if size == 1]@
+      this.@(member.name)Buffer.duplicate().get(dst, 0, size);
+@[        else]@
+      this.@(member.name)Buffer.duplicate().order(ByteOrder.nativeOrder()).as@(accessor)Buffer().get(dst, 0, size);
+@[        end if]@
+      return size;
+    }
+@[      end if]@
+    System.arraycopy(this.@(member.name), 0, dst, 0, size);
+    return size;
+  }
+
+  /**
+   * Copy elements into @(member.name), without boxing them. The array of the message is
+   * reused if it's big enough, so refilling a sequence doesn't allocate.
+   *
+   * @@param src The array to copy the elements from.
+   * @@param offset The index of the first element to copy.
+   * @@param length The number of elements to copy.
+   * @@return This message.
+   */
+  public final @(type_name) set@(camel_name)(final @(java_type)[] src, final int offset, final int length) {
+    if (offset < 0 || length < 0 || offset > src.length - length) {
+      throw new IndexOutOfBoundsException("Invalid offset or length");
+    }
+@[      if isinstance(member.type, BoundedSequence)]@
+    if(length > @(member.type.maximum_size)) {
+        throw new IllegalArgumentException("Array too big, maximum size allowed: @(member.type.maximum_size)");
+    }
+@[      elif isinstance(member.type, Array)]@
+    if(length != @(member.type.size)) {
+        throw new IllegalArgumentException("Invalid size for fixed array, must be exactly: @(member.type.size)");
+    }
+@[      end if]@
+@[      if is_sized]@
+    if (this.@(member.name).length < length) {
+      this.@(member.name) = new @(java_type)[length];
+    }
+@[      elif is_buffer]@
+    if (this.@(member.name).length != length) {
+      this.@(member.name) = new @(java_type)[length];
+    }
+@[      end if]@
+    System.arraycopy(src, offset, this.@(member.name), 0, length);
+@[      if is_sized]@
+    this.@(member.name)Size = length;
+@[      end if]@
+@[      if is_buffer]@
+    this.@(member.name)Buffer = null;
+@[      end if]@
+    return this;
   }
+@[      if is_sized or is_buffer]@
+
+  /**
+   * @@return The elements of @(member.name) in an array of their exact length, which is only
+   *     copied if the elements are kept in a buffer or a longer array.
+   */
+  private @(java_type)[] @(member.name)Array() {
+@[        if is_buffer]@
+    if (this.@(member.name)Buffer != null) {
+      @(java_type)[] values = new @(java_type)[this.get@(camel_name)Size()];
+      this.get@(camel_name)(values);
+      return values;
+    }
+@[        end if]@
+@[        if is_sized]@
+    if (this.@(member.name).length != this.@(member.name)Size) {
+      return java.util.Arrays.copyOf(this.@(member.name), this.@(member.name)Size);
+    }
+@[        end if]@
+    return this.@(member.name);
+  }
+@[      end if]@
+@[    end if]@
+@[    if is_buffer]@
+
+  /**
+   * The elements of @(member.name) as a direct buffer in native byte order, which is copied
+   * to and from the native message with a single memcpy. Writing to the buffer changes the
+   * message, until the array is set or read through the other accessors.
+   */
+  public final ByteBuffer get@(camel_name)Buffer() {
+    if (this.@(member.name)Buffer == null) {
+      int length = this.get@(camel_name)Size();
+      ByteBuffer buffer = allocateDirectBuffer(@(size) * length);
+@[      if size == 1]@
+      buffer.put(this.@(member.name), 0, length);
+      buffer.clear();
+@[      else]@
+      buffer.as@(accessor)Buffer().put(this.@(member.name), 0, length);
+@[      end if]@
+      this.@(member.name) = new @(java_type)[0];
+@[      if is_sized]@
+      this.@(member.name)Size = 0;
+@[      end if]@
+      this.@(member.name)Buffer = buffer;
+    }
+    return this.@(member.name)Buffer.duplicate().order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * Keep the elements of @(member.name) in a direct buffer, without copying them.
+   * The elements are the remaining bytes of the buffer, in native byte order.
+   */
+  public final @(type_name) set@(camel_name)Buffer(final ByteBuffer buffer) {
+    if (!buffer.isDirect()) {
+      throw new IllegalArgumentException("Buffer must be direct");
+    }
+@[      if size > 1]@
+    if (buffer.remaining() % @(size) != 0) {
+      throw new IllegalArgumentException("Buffer size must be a multiple of @(size)");
+    }
+@[      end if]@
+@[      if isinstance(member.type, BoundedSequence)]@
+    if(buffer.remaining() / @(size) > @(member.type.maximum_size)) {
+        throw new IllegalArgumentException("Buffer too big, maximum size allowed: @(member.type.maximum_size)");
+    }
+@[      elif isinstance(member.type, Array)]@
+    if(buffer.remaining() / @(size) != @(member.type.size)) {
+        throw new IllegalArgumentException("Invalid size for fixed array, must be exactly: @(member.type.size)");
+    }
+@[      end if]@
+    this.@(member.name) = new @(java_type)[0];
+@[      if is_sized]@
+    this.@(member.name)Size = 0;
+@[      end if]@
+    this.@(member.name)Buffer = buffer.slice().order(ByteOrder.nativeOrder());
+    return this;
+  }
+@[    end if]@
 @[  else]@
 @[    if member.has_annotation('default')]@
   private @(get_java_type(member.type)) @(member.name) = @(value_to_java(member.type, member.get_annotation_value('default')['value']));
@@ -174,11 +480,587 @@ public class @(type_name) implements @(interfaces_implemented) {
   }
 @[  end if]@
 @[end for]@
+@[if direct_buffer_members]@
+
+  /**
+   * Allocate a direct buffer in native byte order, also called by the native converter.
+   */
+  private static ByteBuffer allocateDirectBuffer(final int capacity) {
+    return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+  }
+@[end if]@
+
+  public void copyFrom(final MessageDefinition other) {
+    this.copyFrom((@(type_name)) other);
+  }
+
+  /**
+   * Copy all the members of another message into this one, reusing the arrays and nested
+   * messages of this one where possible.
+   *
+   * @@return This message.
+   */
+  public @(type_name) copyFrom(final @(type_name) other) {
+@[for member in message.structure.members]@
+@[  if member.name in direct_buffer_members]@
+    if (other.@(member.name)Buffer != null) {
+      if (this.@(member.name)Buffer == null
+          || this.@(member.name)Buffer.capacity() != other.@(member.name)Buffer.capacity()) {
+        this.@(member.name) = new @(get_java_type(member.type))[0];
+@[    if member.name in sized_members]@
+        this.@(member.name)Size = 0;
+@[    end if]@
+        this.@(member.name)Buffer = allocateDirectBuffer(other.@(member.name)Buffer.capacity());
+      }
+      this.@(member.name)Buffer.duplicate().put(other.@(member.name)Buffer.duplicate());
+    } else {
+      this.@(member.name)Buffer = null;
+@[    if member.name in sized_members]@
+      if (this.@(member.name).length < other.@(member.name)Size) {
+        this.@(member.name) = new @(get_java_type(member.type))[other.@(member.name)Size];
+      }
+      System.arraycopy(other.@(member.name), 0, this.@(member.name), 0, other.@(member.name)Size);
+      this.@(member.name)Size = other.@(member.name)Size;
+@[    else]@
+      if (this.@(member.name).length != other.@(member.name).length) {
+        this.@(member.name) = new @(get_java_type(member.type))[other.@(member.name).length];
+      }
+      System.arraycopy(other.@(member.name), 0, this.@(member.name), 0, other.@(member.name).length);
+@[    end if]@
+    }
+@[  elif member.name in sized_members]@
+    if (this.@(member.name).length < other.@(member.name)Size) {
+      this.@(member.name) = new @(get_java_type(member.type))[other.@(member.name)Size];
+    }
+    System.arraycopy(other.@(member.name), 0, this.@(member.name), 0, other.@(member.name)Size);
+    this.@(member.name)Size = other.@(member.name)Size;
+@[  elif isinstance(member.type, AbstractNestedType)]@
+    if (this.@(member.name).length != other.@(member.name).length) {
+      this.@(member.name) = new @(get_java_type(member.type))[other.@(member.name).length];
+    }
+@[    if isinstance(member.type.value_type, NamespacedType)]@
+    for (int i = 0; i < other.@(member.name).length; i++) {
+      if (other.@(member.name)[i] == null) {
+        this.@(member.name)[i] = null;
+        continue;
+      }
+      if (this.@(member.name)[i] == null) {
+        this.@(member.name)[i] = new @(get_java_type(member.type))();
+      }
+      this.@(member.name)[i].copyFrom(other.@(member.name)[i]);
+    }
+@[    else]@
+    System.arraycopy(other.@(member.name), 0, this.@(member.name), 0, other.@(member.name).length);
+@[    end if]@
+@[  elif isinstance(member.type, NamespacedType)]@
+    if (this.@(member.name) == null) {
+      this.@(member.name) = new @(get_java_type(member.type))();
+    }
+    this.@(member.name).copyFrom(other.@(member.name));
+@[  else]@
+    this.@(member.name) = other.@(member.name);
+@[  end if]@
+@[end for]@
+    return this;
+  }
+
+  /**
+   * Reset all the members to the values of a new message, reusing the arrays of primitive
+   * sequences, fixed size arrays and nested messages where possible.
+   */
+  public void clear() {
+@[for member in message.structure.members]@
+@[  if member.name in direct_buffer_members and isinstance(member.type, Array) and not member.has_annotation('default')]@
+    if (this.@(member.name)Buffer != null) {
+      this.@(member.name) = new @(get_java_type(member.type))[@(member.type.size)];
+      this.@(member.name)Buffer = null;
+    }
+@[  elif member.name in direct_buffer_members]@
+    this.@(member.name)Buffer = null;
+@[  end if]@
+@[  if isinstance(member.type, AbstractNestedType)]@
+@[    if member.has_annotation('default')]@
+    this.@(member.name) = new @(get_java_type(member.type))[] @(value_to_java(member.type, member.get_annotation_value('default')['value']));
+@[      if member.name in sized_members]@
+    this.@(member.name)Size = this.@(member.name).length;
+@[      end if]@
+@[    elif member.name in sized_members]@
+    this.@(member.name)Size = 0;
+@[    elif isinstance(member.type, Array)]@
+@[      if isinstance(member.type.value_type, BasicType) and member.type.value_type.typename == 'boolean']@
+    java.util.Arrays.fill(this.@(member.name), false);
+@[      elif isinstance(member.type.value_type, BasicType)]@
+    java.util.Arrays.fill(this.@(member.name), (@(get_java_type(member.type))) 0);
+@[      else]@
+    java.util.Arrays.fill(this.@(member.name), null);
+@[      end if]@
+@[    else]@
+    this.@(member.name) = new @(get_java_type(member.type))[]{};
+@[    end if]@
+@[  elif member.has_annotation('default')]@
+    this.@(member.name) = @(value_to_java(member.type, member.get_annotation_value('default')['value']));
+@[  elif isinstance(member.type, AbstractGenericString)]@
+    this.@(member.name) = "";
+@[  elif isinstance(member.type, BasicType) and member.type.typename == 'boolean']@
+    this.@(member.name) = false;
+@[  elif isinstance(member.type, BasicType)]@
+    this.@(member.name) = (@(get_java_type(member.type))) 0;
+@[  else]@
+    if (this.@(member.name) == null) {
+      this.@(member.name) = new @(get_java_type(member.type))();
+    } else {
+      this.@(member.name).clear();
+    }
+@[  end if]@
+@[end for]@
+  }
+
+  public int getSerializedSize() {
+    return CDR.ENCAPSULATION_SIZE + this.getSerializedEnd(0);
+  }
+
+  public int getSerializedEnd(int offset) {
+@[for member in message.structure.members]@
+@[  if isinstance(member.type, AbstractNestedType)]@
+@[    if isinstance(member.type, AbstractSequence)]@
+    offset = CDR.align(offset, 4) + 4;
+@[    end if]@
+@[    if isinstance(member.type.value_type, BasicType)]@
+@{
+size = cdr_primitives[member.type.value_type.typename][0]
+}@
+    if (@(array_length(member)) > 0) {
+      offset = CDR.align(offset, @(size)) + @(size) * @(array_length(member));
+    }
+@[    elif isinstance(member.type.value_type, AbstractWString)]@
+    for (java.lang.String element : this.@(member.name)) {
+      offset = CDR.getWStringEnd(offset, element);
+    }
+@[    elif isinstance(member.type.value_type, AbstractGenericString)]@
+    for (java.lang.String element : this.@(member.name)) {
+      offset = CDR.getStringEnd(offset, element);
+    }
+@[    else]@
+    for (@(get_java_type(member.type)) element : this.@(member.name)) {
+      // An unset element, e.g. of a fixed size array, is serialized as a new message
+      offset = (element != null ? element : new @(get_java_type(member.type))()).getSerializedEnd(offset);
+    }
+@[    end if]@
+@[  elif isinstance(member.type, BasicType)]@
+@{
+size = cdr_primitives[member.type.typename][0]
+}@
+    offset = CDR.align(offset, @(size)) + @(size);
+@[  elif isinstance(member.type, AbstractWString)]@
+    offset = CDR.getWStringEnd(offset, this.@(member.name));
+@[  elif isinstance(member.type, AbstractGenericString)]@
+    offset = CDR.getStringEnd(offset, this.@(member.name));
+@[  else]@
+    offset = this.@(member.name).getSerializedEnd(offset);
+@[  end if]@
+@[end for]@
+    return offset;
+  }
+
+  public void serialize(final ByteBuffer buffer) {
+    CDR.writeHeader(buffer);
+    this.serialize(buffer, buffer.position());
+  }
+
+  public void serialize(final ByteBuffer buffer, final int origin) {
+@[for member in message.structure.members]@
+@[  if isinstance(member.type, AbstractNestedType)]@
+@[    if isinstance(member.type, AbstractSequence)]@
+    CDR.alignWrite(buffer, origin, 4);
+    buffer.putInt(@(array_length(member)));
+@[    end if]@
+@[    if isinstance(member.type.value_type, BasicType)]@
+@{
+size, accessor = cdr_primitives[member.type.value_type.typename]
+}@
+@[      if member.name in direct_buffer_members]@
+    if (this.@(member.name)Buffer != null) {
+      if (@(array_length(member)) > 0) {
+        CDR.alignWrite(buffer, origin, @(size));
+@[        if size == 1]@
+        buffer.put(this.@(member.name)Buffer.duplicate());
+@[        else]@
+        buffer.as@(accessor)Buffer().put(
+            this.@(member.name)Buffer.duplicate().order(ByteOrder.nativeOrder()).as@(accessor)Buffer());
+        buffer.position(buffer.position() + @(size) * @(array_length(member)));
+@[        end if]@
+      }
+    } else if (@(array_length(member)) > 0) {
+@[      else]@
+    if (@(array_length(member)) > 0) {
+@[      end if]@
+      CDR.alignWrite(buffer, origin, @(size));
+@[      if accessor is None]@
+      for (int i = 0; i < @(array_length(member)); i++) {
+        @(cdr_write_primitive(member.type.value_type, 'this.%s[i]' % member.name));
+      }
+@[      elif size == 1]@
+      buffer.put(this.@(member.name), 0, @(array_length(member)));
+@[      else]@
+      buffer.as@(accessor)Buffer().put(this.@(member.name), 0, @(array_length(member)));
+      buffer.position(buffer.position() + @(size) * @(array_length(member)));
+@[      end if]@
+    }
+@[    elif isinstance(member.type.value_type, AbstractWString)]@
+    for (java.lang.String element : this.@(member.name)) {
+      CDR.writeWString(buffer, origin, element);
+    }
+@[    elif isinstance(member.type.value_type, AbstractGenericString)]@
+    for (java.lang.String element : this.@(member.name)) {
+      CDR.writeString(buffer, origin, element);
+    }
+@[    else]@
+    for (@(get_java_type(member.type)) element : this.@(member.name)) {
+      (element != null ? element : new @(get_java_type(member.type))()).serialize(buffer, origin);
+    }
+@[    end if]@
+@[  elif isinstance(member.type, BasicType)]@
+    CDR.alignWrite(buffer, origin, @(cdr_primitives[member.type.typename][0]));
+    @(cdr_write_primitive(member.type, 'this.' + member.name));
+@[  elif isinstance(member.type, AbstractWString)]@
+    CDR.writeWString(buffer, origin, this.@(member.name));
+@[  elif isinstance(member.type, AbstractGenericString)]@
+    CDR.writeString(buffer, origin, this.@(member.name));
+@[  else]@
+    this.@(member.name).serialize(buffer, origin);
+@[  end if]@
+@[end for]@
+  }
+
+  public void deserialize(final ByteBuffer buffer) {
+    CDR.readHeader(buffer);
+    this.deserialize(buffer, buffer.position());
+  }
+
+  public void deserialize(final ByteBuffer buffer, final int origin) {
+@[for member in message.structure.members]@
+@[  if isinstance(member.type, AbstractNestedType)]@
+@{
+if isinstance(member.type.value_type, BasicType):
+    element_size = cdr_primitives[member.type.value_type.typename][0]
+else:
+    element_size = 1
+}@
+@[    if isinstance(member.type, AbstractSequence)]@
+    int _length_@(member.name) = CDR.readLength(buffer, origin, @(element_size));
+@[    else]@
+    int _length_@(member.name) = @(member.type.size);
+@[    end if]@
+@[    if member.name in direct_buffer_members]@
+    this.@(member.name)Buffer = null;
+@[    end if]@
+@[    if member.name in sized_members]@
+    if (this.@(member.name).length < _length_@(member.name)) {
+      this.@(member.name) = new @(get_java_type(member.type))[_length_@(member.name)];
+    }
+    this.@(member.name)Size = _length_@(member.name);
+@[    else]@
+    if (this.@(member.name).length != _length_@(member.name)) {
+      this.@(member.name) = new @(get_java_type(member.type))[_length_@(member.name)];
+    }
+@[    end if]@
+@[    if isinstance(member.type.value_type, BasicType)]@
+@{
+size, accessor = cdr_primitives[member.type.value_type.typename]
+}@
+    if (_length_@(member.name) > 0) {
+      CDR.alignRead(buffer, origin, @(size));
+@[      if accessor is None]@
+      for (int i = 0; i < _length_@(member.name); i++) {
+        this.@(member.name)[i] = @(cdr_read_primitive(member.type.value_type));
+      }
+@[      elif size == 1]@
+      buffer.get(this.@(member.name), 0, _length_@(member.name));
+@[      else]@
+      buffer.as@(accessor)Buffer().get(this.@(member.name), 0, _length_@(member.name));
+      buffer.position(buffer.position() + @(size) * _length_@(member.name));
+@[      end if]@
+    }
+@[    elif isinstance(member.type.value_type, AbstractWString)]@
+    for (int i = 0; i < _length_@(member.name); i++) {
+      this.@(member.name)[i] = CDR.readWString(buffer, origin);
+    }
+@[    elif isinstance(member.type.value_type, AbstractGenericString)]@
+    for (int i = 0; i < _length_@(member.name); i++) {
+      this.@(member.name)[i] = CDR.readString(buffer, origin);
+    }
+@[    else]@
+    for (int i = 0; i < _length_@(member.name); i++) {
+      if (this.@(member.name)[i] == null) {
+        this.@(member.name)[i] = new @(get_java_type(member.type))();
+      }
+      this.@(member.name)[i].deserialize(buffer, origin);
+    }
+@[    end if]@
+@[  elif isinstance(member.type, BasicType)]@
+    CDR.alignRead(buffer, origin, @(cdr_primitives[member.type.typename][0]));
+    this.@(member.name) = @(cdr_read_primitive(member.type));
+@[  elif isinstance(member.type, AbstractWString)]@
+    this.@(member.name) = CDR.readWString(buffer, origin);
+@[  elif isinstance(member.type, AbstractGenericString)]@
+    this.@(member.name) = CDR.readString(buffer, origin);
+@[  else]@
+    if (this.@(member.name) == null) {
+      this.@(member.name) = new @(get_java_type(member.type))();
+    }
+    this.@(member.name).deserialize(buffer, origin);
+@[  end if]@
+@[end for]@
+  }
+
+  /**
+   * A read-only view over a serialized @(type_name), which only decodes the members that
+   * are read.
+   */
+  public static final class View implements MessageView<@(type_name)> {
+    private ByteBuffer buffer;
+    private int origin;
+
+    /**
+     * The absolute position where each member starts, computed on demand up to known.
+     */
+    private final int[] positions = new int[@(max(1, len(message.structure.members)))];
+    private int known;
+@[for member in message.structure.members]@
+@[  if isinstance(member.type, NamespacedType)]@
+    private @(get_java_type(member.type)).View @(member.name)View;
+@[  end if]@
+@[end for]@
+
+    public final View wrap(final ByteBuffer buffer) {
+      CDR.readHeader(buffer);
+      int origin = buffer.position();
+      buffer.position(origin - CDR.ENCAPSULATION_SIZE);
+      return this.wrap(buffer, origin, origin);
+    }
+
+    public final View wrap(final ByteBuffer buffer, final int origin, final int position) {
+      this.buffer = buffer;
+      this.origin = origin;
+      this.positions[0] = position;
+      this.known = 1;
+      return this;
+    }
+
+    public final @(type_name) toMessage() {
+      @(type_name) message = new @(type_name)();
+      message.deserialize(this.duplicateAt(this.positions[0]), this.origin);
+      return message;
+    }
+
+    public final Class<@(type_name)> getMessageType() {
+      return @(type_name).class;
+    }
+
+    /**
+     * @@return The absolute position after the @(type_name) serialized at the given position.
+     */
+    public static int skip(final ByteBuffer buffer, final int origin, final int position) {
+      int end = position;
+      for (int i = 0; i < @(len(message.structure.members)); i++) {
+        end = skipMember(buffer, origin, i, end);
+      }
+      return end;
+    }
+
+    private static int skipMember(
+        final ByteBuffer buffer, final int origin, final int index, final int position) {
+      switch (index) {
+@[for index, member in enumerate(message.structure.members)]@
+        case @(index): {
+@[  if isinstance(member.type, AbstractNestedType)]@
+@[    if isinstance(member.type, AbstractSequence)]@
+          int start = CDR.alignPosition(position, origin, 4) + 4;
+          int length = buffer.getInt(start - 4);
+@[    else]@
+          int start = position;
+          int length = @(member.type.size);
+@[    end if]@
+@[    if isinstance(member.type.value_type, BasicType)]@
+@{
+size = cdr_primitives[member.type.value_type.typename][0]
+}@
+          return length > 0 ? CDR.alignPosition(start, origin, @(size)) + @(size) * length : start;
+@[    else]@
+          int end = start;
+          for (int i = 0; i < length; i++) {
+@[      if isinstance(member.type.value_type, AbstractWString)]@
+            end = CDR.skipWString(buffer, origin, end);
+@[      elif isinstance(member.type.value_type, AbstractGenericString)]@
+            end = CDR.skipString(buffer, origin, end);
+@[      else]@
+            end = @(get_java_type(member.type)).View.skip(buffer, origin, end);
+@[      end if]@
+          }
+          return end;
+@[    end if]@
+@[  elif isinstance(member.type, BasicType)]@
+@{
+size = cdr_primitives[member.type.typename][0]
+}@
+          return CDR.alignPosition(position, origin, @(size)) + @(size);
+@[  elif isinstance(member.type, AbstractWString)]@
+          return CDR.skipWString(buffer, origin, position);
+@[  elif isinstance(member.type, AbstractGenericString)]@
+          return CDR.skipString(buffer, origin, position);
+@[  else]@
+          return @(get_java_type(member.type)).View.skip(buffer, origin, position);
+@[  end if]@
+        }
+@[end for]@
+        default:
+          throw new IndexOutOfBoundsException("Invalid member index: " + index);
+      }
+    }
+
+    private int position(final int index) {
+      while (this.known <= index) {
+        this.positions[this.known] = skipMember(
+            this.buffer, this.origin, this.known - 1, this.positions[this.known - 1]);
+        this.known++;
+      }
+      return this.positions[index];
+    }
+
+    private ByteBuffer duplicateAt(final int position) {
+      ByteBuffer duplicate = this.buffer.duplicate().order(this.buffer.order());
+      duplicate.position(position);
+      return duplicate;
+    }
+@[for index, member in enumerate(message.structure.members)]@
+@{
+camel_name = convert_lower_case_underscore_to_camel_case(member.name)
+}@
+@[  if isinstance(member.type, AbstractNestedType)]@
+@{
+if isinstance(member.type, AbstractSequence):
+    start = 'CDR.alignPosition(this.position(%d), this.origin, 4) + 4' % index
+else:
+    start = 'this.position(%d)' % index
+}@
+
+    public final int get@(camel_name)Size() {
+@[    if isinstance(member.type, AbstractSequence)]@
+      return this.buffer.getInt(CDR.alignPosition(this.position(@(index)), this.origin, 4));
+@[    else]@
+      return @(member.type.size);
+@[    end if]@
+    }
+@[    if isinstance(member.type.value_type, BasicType)]@
+@{
+size, accessor = cdr_primitives[member.type.value_type.typename]
+}@
+
+    public final @(get_java_type(member.type)) get@(camel_name)(final int index) {
+      if (index < 0 || index >= this.get@(camel_name)Size()) {
+        throw new IndexOutOfBoundsException("Invalid index: " + index);
+      }
+      int position = CDR.alignPosition(@(start), this.origin, @(size)) + @(size) * index;
+      return @(cdr_get_primitive(member.type.value_type, 'this.buffer', 'position'));
+    }
+
+    public final @(get_java_type(member.type))[] get@(camel_name)() {
+      int length = this.get@(camel_name)Size();
+      @(get_java_type(member.type))[] values = new @(get_java_type(member.type))[length];
+      if (length > 0) {
+        ByteBuffer buffer = this.duplicateAt(CDR.alignPosition(@(start), this.origin, @(size)));
+@[      if accessor is None]@
+        for (int i = 0; i < length; i++) {
+          values[i] = @(cdr_read_primitive(member.type.value_type));
+        }
+@[      elif size == 1]@
+        buffer.get(values);
+@[      else]@
+        buffer.as@(accessor)Buffer().get(values);
+@[      end if]@
+      }
+      return values;
+    }
+@[    elif isinstance(member.type.value_type, AbstractGenericString)]@
+@{
+if isinstance(member.type.value_type, AbstractWString):
+    string_kind = 'WString'
+else:
+    string_kind = 'String'
+}@
+
+    public final java.lang.String get@(camel_name)(final int index) {
+      if (index < 0 || index >= this.get@(camel_name)Size()) {
+        throw new IndexOutOfBoundsException("Invalid index: " + index);
+      }
+      int position = @(start);
+      for (int i = 0; i < index; i++) {
+        position = CDR.skip@(string_kind)(this.buffer, this.origin, position);
+      }
+      return CDR.read@(string_kind)(this.duplicateAt(position), this.origin);
+    }
+
+    public final java.lang.String[] get@(camel_name)() {
+      int length = this.get@(camel_name)Size();
+      java.lang.String[] values = new java.lang.String[length];
+      ByteBuffer buffer = this.duplicateAt(@(start));
+      for (int i = 0; i < length; i++) {
+        values[i] = CDR.read@(string_kind)(buffer, this.origin);
+      }
+      return values;
+    }
+@[    else]@
+
+    /**
+     * @@return A new view over the element, which doesn't decode it.
+     */
+    public final @(get_java_type(member.type)).View get@(camel_name)(final int index) {
+      if (index < 0 || index >= this.get@(camel_name)Size()) {
+        throw new IndexOutOfBoundsException("Invalid index: " + index);
+      }
+      int position = @(start);
+      for (int i = 0; i < index; i++) {
+        position = @(get_java_type(member.type)).View.skip(this.buffer, this.origin, position);
+      }
+      return new @(get_java_type(member.type)).View().wrap(this.buffer, this.origin, position);
+    }
+@[    end if]@
+@[  elif isinstance(member.type, BasicType)]@
+
+    public final @(get_java_type(member.type)) get@(camel_name)() {
+      int position = CDR.alignPosition(this.position(@(index)), this.origin, @(cdr_primitives[member.type.typename][0]));
+      return @(cdr_get_primitive(member.type, 'this.buffer', 'position'));
+    }
+@[  elif isinstance(member.type, AbstractWString)]@
+
+    public final java.lang.String get@(camel_name)() {
+      return CDR.readWString(this.duplicateAt(this.position(@(index))), this.origin);
+    }
+@[  elif isinstance(member.type, AbstractGenericString)]@
+
+    public final java.lang.String get@(camel_name)() {
+      return CDR.readString(this.duplicateAt(this.position(@(index))), this.origin);
+    }
+@[  else]@
+
+    public final @(get_java_type(member.type)).View get@(camel_name)() {
+      if (this.@(member.name)View == null) {
+        this.@(member.name)View = new @(get_java_type(member.type)).View();
+      }
+      return this.@(member.name)View.wrap(this.buffer, this.origin, this.position(@(index)));
+    }
+@[  end if]@
+@[end for]@
+  }
 
   public int hashCode() {
     return new HashCodeBuilder(17, 37)
 @[for member in message.structure.members]@
+@[  if member.name in direct_buffer_members or member.name in sized_members]@
+      .append(this.@(member.name)Array())
+@[  else]@
       .append(this.@(member.name))
+@[  end if]@
 @[end for]@
       .toHashCode();
   }
@@ -192,7 +1074,11 @@ public class @(type_name) implements @(interfaces_implemented) {
    @(type_name) rhs = (@(type_name)) obj;
    return new EqualsBuilder()
 @[for member in message.structure.members]@
+@[  if member.name in direct_buffer_members or member.name in sized_members]@
+                .append(this.@(member.name)Array(), rhs.@(member.name)Array())
+@[  else]@
                 .append(this.@(member.name), rhs.@(member.name))
+@[  end if]@
 @[end for]@
                 .isEquals();
   }
@@ -17,6 +17,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_threshold': direct_buffer_threshold,
 }
 
 # Generate request message
@@ -18,6 +18,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_threshold': direct_buffer_threshold,
     'marker_interfaces': [],
 }
 data.update({'message': service.request_message})
@@ -31,11 +31,12 @@ def convert_lower_case_underscore_to_camel_case(word):
     return ''.join(x.capitalize() or '_' for x in word.split('_'))
 
 
-def generate_java(generator_arguments_file, typesupport_impls):
+def generate_java(generator_arguments_file, typesupport_impls, direct_buffer_threshold=0):
     args = read_generator_arguments(generator_arguments_file)
     additional_context = {
         'output_dir': pathlib.Path(args['output_dir']),
         'template_basepath': pathlib.Path(args['template_dir']),
+        'direct_buffer_threshold': direct_buffer_threshold,
     }
     mapping = {
         'idl.java.em': '_%s.java',
@@ -142,6 +143,22 @@ IDL_TYPE_TO_JAVA_PRIMITIVE = {
 }
 
 
+# Element types of the sequences that can be backed by a direct ByteBuffer,
+# their C and Java representations are the same so they can be copied with a memcpy.
+DIRECT_BUFFER_TYPENAMES = {
+    'octet', 'uint8', 'int8', 'uint16', 'int16', 'uint32', 'int32', 'uint64', 'int64',
+    'float', 'double'}
+
+
+def is_direct_buffer_member(member, direct_buffer_threshold):
+    """Return True if the member can be backed by a direct ByteBuffer."""
+    return (
+        direct_buffer_threshold > 0 and
+        isinstance(member.type, AbstractNestedType) and
+        isinstance(member.type.value_type, BasicType) and
+        member.type.value_type.typename in DIRECT_BUFFER_TYPENAMES)
+
+
 def get_java_type(type_, use_primitives=True):
     if isinstance(type_, AbstractNestedType):
         type_ = type_.value_type
@@ -18,16 +18,22 @@ package org.ros2.generator;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Method;
 import java.lang.Runnable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.ros2.rcljava.common.CDR;
+import org.ros2.rcljava.interfaces.MessageDefinition;
 
 public class InterfacesTest {
   public class ListFixtureData {
@@ -1083,4 +1089,295 @@ public class InterfacesTest {
     assertEquals(expectedInt322, basicTypesResponse.getInt32Value());
     assertEquals(expectedInt642, basicTypesResponse.getInt64Value());
   }
+
+  private static rosidl_generator_java.msg.BasicTypes newBasicTypes() {
+    rosidl_generator_java.msg.BasicTypes basicTypes = new rosidl_generator_java.msg.BasicTypes();
+    basicTypes.setBoolValue(true);
+    basicTypes.setByteValue((byte) 123);
+    basicTypes.setCharValue((byte) 'a');
+    basicTypes.setFloat32Value(12.34f);
+    basicTypes.setFloat64Value(-43.21);
+    basicTypes.setInt8Value((byte) -42);
+    basicTypes.setUint8Value((byte) 200);
+    basicTypes.setInt16Value((short) -420);
+    basicTypes.setUint16Value((short) 65000);
+    basicTypes.setInt32Value(-42000);
+    basicTypes.setUint32Value((int) 4000000000L);
+    basicTypes.setInt64Value(42949672960L);
+    basicTypes.setUint64Value(-1L);
+    return basicTypes;
+  }
+
+  private static ByteBuffer serialize(final MessageDefinition message) {
+    ByteBuffer buffer = ByteBuffer.allocate(message.getSerializedSize());
+    message.serialize(buffer);
+    assertEquals(buffer.capacity(), buffer.position());
+    buffer.flip();
+    return buffer;
+  }
+
+  @Test
+  public final void testSerializeBasicTypes() {
+    rosidl_generator_java.msg.BasicTypes basicTypes = newBasicTypes();
+
+    // Each primitive is aligned to its size relative to the origin, after the 4 byte header
+    assertEquals(52, basicTypes.getSerializedSize());
+    ByteBuffer buffer = serialize(basicTypes);
+    assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+    assertEquals(0x01, buffer.get(1));
+    assertEquals(1, buffer.get(4));
+    assertEquals(123, buffer.get(5));
+    assertEquals('a', buffer.get(6));
+    assertEquals(0, buffer.get(7));
+    assertEquals(12.34f, buffer.getFloat(8), 0.0f);
+    assertEquals(-43.21, buffer.getDouble(12), 0.0);
+    assertEquals(-42, buffer.get(20));
+    assertEquals((byte) 200, buffer.get(21));
+    assertEquals(-420, buffer.getShort(22));
+    assertEquals((short) 65000, buffer.getShort(24));
+    assertEquals(-42000, buffer.getInt(28));
+    assertEquals((int) 4000000000L, buffer.getInt(32));
+    assertEquals(42949672960L, buffer.getLong(36));
+    assertEquals(-1L, buffer.getLong(44));
+
+    rosidl_generator_java.msg.BasicTypes deserialized = new rosidl_generator_java.msg.BasicTypes();
+    deserialized.deserialize(buffer);
+    assertEquals(buffer.limit(), buffer.position());
+    assertEquals(basicTypes, deserialized);
+  }
+
+  @Test
+  public final void testSerializeSequences() {
+    ListFixtureData fixture = new ListFixtureData();
+    rosidl_generator_java.msg.UnboundedSequences unboundedSeq =
+        new rosidl_generator_java.msg.UnboundedSequences();
+    unboundedSeq.setBoolValues(fixture.boolArr);
+    unboundedSeq.setFloat64Values(fixture.float64Arr);
+    unboundedSeq.setInt16Values(fixture.int16Arr);
+    unboundedSeq.setUint64Values(fixture.uint64Arr);
+    unboundedSeq.setStringValues(fixture.stringArr);
+    unboundedSeq.setBasicTypesValues(new rosidl_generator_java.msg.BasicTypes[] {
+        newBasicTypes(), new rosidl_generator_java.msg.BasicTypes()});
+    unboundedSeq.setAlignmentCheck(42);
+
+    // bool_values comes first: its length as an uint32, then a byte per element
+    final ByteBuffer buffer = serialize(unboundedSeq);
+    assertEquals(3, buffer.getInt(4));
+    assertEquals(1, buffer.get(8));
+    assertEquals(0, buffer.get(9));
+    assertEquals(1, buffer.get(10));
+
+    // The arrays of a message are reused, and only the elements that were read are visible
+    rosidl_generator_java.msg.UnboundedSequences deserialized =
+        new rosidl_generator_java.msg.UnboundedSequences();
+    deserialized.setInt16Values(new short[10]);
+    deserialized.deserialize(buffer.duplicate().order(buffer.order()));
+    assertEquals(unboundedSeq, deserialized);
+    assertEquals(3, deserialized.getInt16ValuesSize());
+    assertTrue(Arrays.equals(fixture.int16Arr, deserialized.getInt16Values()));
+    assertArrayEquals(fixture.stringArr, deserialized.getStringValues());
+    assertEquals(-42000, deserialized.getBasicTypesValues()[0].getInt32Value());
+    assertEquals(42, deserialized.getAlignmentCheck());
+
+    final ByteBuffer truncated = buffer.duplicate().order(buffer.order());
+    truncated.limit(buffer.limit() / 2);
+    assertThrows(BufferUnderflowException.class,
+      new Runnable() {
+        @Override
+        public void run() {
+          new rosidl_generator_java.msg.UnboundedSequences().deserialize(truncated);
+        }
+      });
+  }
+
+  @Test
+  public final void testSerializeWStrings() {
+    // Fast-CDR serializes each UTF-16 code unit of a wide string as a 4 byte wchar_t
+    ByteBuffer buffer = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+    CDR.writeWString(buffer, 0, "h\u00e9");
+    assertEquals(12, buffer.position());
+    assertEquals(12, CDR.getWStringEnd(0, "h\u00e9"));
+    assertEquals(12, CDR.skipWString(buffer, 0, 0));
+    assertEquals(2, buffer.getInt(0));
+    assertEquals('h', buffer.getInt(4));
+    assertEquals(0xe9, buffer.getInt(8));
+    buffer.flip();
+    assertEquals("h\u00e9", CDR.readWString(buffer, 0));
+
+    String[] wstrings = new String[] {"", "H\u00e9llo", "\u30cf\u30ed\u30fc", "\ud83d\ude00"};
+    rosidl_generator_java.msg.WStrings message = new rosidl_generator_java.msg.WStrings();
+    message.setWstringValue("W\u00f6rld");
+    message.setUnboundedSequenceOfWstrings(wstrings);
+
+    ByteBuffer serialized = serialize(message);
+    rosidl_generator_java.msg.WStrings deserialized = new rosidl_generator_java.msg.WStrings();
+    deserialized.deserialize(serialized.duplicate().order(serialized.order()));
+    assertEquals("W\u00f6rld", deserialized.getWstringValue());
+    assertArrayEquals(wstrings, deserialized.getUnboundedSequenceOfWstrings());
+    // The unset elements of a fixed size array are serialized as empty strings
+    assertArrayEquals(new String[] {"", "", ""}, deserialized.getArrayOfWstrings());
+
+    rosidl_generator_java.msg.WStrings.View view =
+        new rosidl_generator_java.msg.WStrings.View().wrap(serialized);
+    assertEquals("W\u00f6rld", view.getWstringValue());
+    assertEquals(4, view.getUnboundedSequenceOfWstringsSize());
+    assertEquals("\ud83d\ude00", view.getUnboundedSequenceOfWstrings(3));
+    assertArrayEquals(wstrings, view.getUnboundedSequenceOfWstrings());
+  }
+
+  @Test
+  public final void testView() {
+    rosidl_generator_java.msg.Nested nested = new rosidl_generator_java.msg.Nested();
+    nested.setBasicTypesValue(newBasicTypes());
+
+    rosidl_generator_java.msg.Nested.View nestedView =
+        new rosidl_generator_java.msg.Nested.View().wrap(serialize(nested));
+    assertEquals(rosidl_generator_java.msg.Nested.class, nestedView.getMessageType());
+    rosidl_generator_java.msg.BasicTypes.View basicTypesView = nestedView.getBasicTypesValue();
+    assertEquals(true, basicTypesView.getBoolValue());
+    assertEquals(-43.21, basicTypesView.getFloat64Value(), 0.0);
+    assertEquals((short) 65000, basicTypesView.getUint16Value());
+    assertEquals(-1L, basicTypesView.getUint64Value());
+    assertEquals(nested, nestedView.toMessage());
+
+    ListFixtureData fixture = new ListFixtureData();
+    rosidl_generator_java.msg.UnboundedSequences unboundedSeq =
+        new rosidl_generator_java.msg.UnboundedSequences();
+    unboundedSeq.setBoolValues(fixture.boolArr);
+    unboundedSeq.setInt16Values(fixture.int16Arr);
+    unboundedSeq.setStringValues(fixture.stringArr);
+    unboundedSeq.setBasicTypesValues(new rosidl_generator_java.msg.BasicTypes[] {
+        new rosidl_generator_java.msg.BasicTypes(), newBasicTypes()});
+    unboundedSeq.setAlignmentCheck(42);
+
+    final rosidl_generator_java.msg.UnboundedSequences.View view =
+        new rosidl_generator_java.msg.UnboundedSequences.View().wrap(serialize(unboundedSeq));
+    assertEquals(3, view.getBoolValuesSize());
+    assertEquals(false, view.getBoolValues(1));
+    assertEquals(0, view.getByteValuesSize());
+    assertEquals(-32768, view.getInt16Values(1));
+    assertTrue(Arrays.equals(fixture.int16Arr, view.getInt16Values()));
+    assertEquals("max_value", view.getStringValues(2));
+    assertEquals(-42000, view.getBasicTypesValues(1).getInt32Value());
+    assertEquals(42, view.getAlignmentCheck());
+    assertEquals(unboundedSeq, view.toMessage());
+    assertThrows(IndexOutOfBoundsException.class,
+      new Runnable() {
+        @Override
+        public void run() {
+          view.getStringValues(3);
+        }
+      });
+
+    // A view can be wrapped around another message
+    unboundedSeq.setStringValues(fixture.stringArrShort);
+    unboundedSeq.setAlignmentCheck(24);
+    view.wrap(serialize(unboundedSeq));
+    assertEquals(2, view.getStringValuesSize());
+    assertEquals(24, view.getAlignmentCheck());
+  }
+
+  @Test
+  public final void testCopyFromAndClear() {
+    ListFixtureData fixture = new ListFixtureData();
+    rosidl_generator_java.msg.UnboundedSequences unboundedSeq =
+        new rosidl_generator_java.msg.UnboundedSequences();
+    unboundedSeq.setInt32Values(fixture.int32Arr);
+    unboundedSeq.setStringValues(fixture.stringArr);
+    unboundedSeq.setBasicTypesValues(new rosidl_generator_java.msg.BasicTypes[] {newBasicTypes()});
+    unboundedSeq.setAlignmentCheck(42);
+
+    rosidl_generator_java.msg.UnboundedSequences copy =
+        new rosidl_generator_java.msg.UnboundedSequences();
+    copy.setInt32Values(new int[10]);
+    assertSame(copy, copy.copyFrom(unboundedSeq));
+    assertEquals(unboundedSeq, copy);
+    assertEquals(3, copy.getInt32ValuesSize());
+
+    // The copy doesn't share the nested messages of the original
+    unboundedSeq.getBasicTypesValues()[0].setInt32Value(7);
+    assertEquals(-42000, copy.getBasicTypesValues()[0].getInt32Value());
+
+    ((MessageDefinition) copy).copyFrom(unboundedSeq);
+    assertEquals(unboundedSeq, copy);
+
+    copy.clear();
+    assertEquals(new rosidl_generator_java.msg.UnboundedSequences(), copy);
+    assertEquals(0, copy.getInt32ValuesSize());
+
+    // Nested messages are cleared in place
+    rosidl_generator_java.msg.Nested nested = new rosidl_generator_java.msg.Nested();
+    rosidl_generator_java.msg.BasicTypes basicTypes = nested.getBasicTypesValue();
+    basicTypes.setInt32Value(42);
+    nested.clear();
+    assertSame(basicTypes, nested.getBasicTypesValue());
+    assertEquals(0, basicTypes.getInt32Value());
+  }
+
+  @Test
+  public final void testSizedSequenceAccessors() {
+    final rosidl_generator_java.msg.UnboundedSequences unboundedSeq =
+        new rosidl_generator_java.msg.UnboundedSequences();
+    final int[] src = new int[] {1, 2, 3, 4, 5};
+    unboundedSeq.setInt32Values(src, 1, 3);
+    assertEquals(3, unboundedSeq.getInt32ValuesSize());
+    int[] dst = new int[5];
+    assertEquals(3, unboundedSeq.getInt32Values(dst));
+    assertArrayEquals(new int[] {2, 3, 4, 0, 0}, dst);
+    assertEquals(Arrays.asList(2, 3, 4), unboundedSeq.getInt32ValuesAsList());
+    assertArrayEquals(new int[] {2, 3, 4}, unboundedSeq.getInt32Values());
+
+    // A shorter sequence reuses the array, and the source array isn't kept
+    unboundedSeq.setInt32Values(src, 0, 1);
+    src[0] = 42;
+    assertEquals(1, unboundedSeq.getInt32ValuesSize());
+    assertArrayEquals(new int[] {1}, unboundedSeq.getInt32Values());
+    assertEquals(
+        new rosidl_generator_java.msg.UnboundedSequences().setInt32Values(new int[] {1}),
+        unboundedSeq);
+
+    double[] doubles = new double[] {3.1415, -3.1415};
+    unboundedSeq.setFloat64Values(doubles, 0, doubles.length);
+    double[] doublesDst = new double[2];
+    assertEquals(2, unboundedSeq.getFloat64Values(doublesDst));
+    assertTrue(Arrays.equals(doubles, doublesDst));
+
+    assertThrows(IndexOutOfBoundsException.class,
+      new Runnable() {
+        @Override
+        public void run() {
+          unboundedSeq.setInt32Values(src, 3, 3);
+        }
+      });
+    assertThrows(IndexOutOfBoundsException.class,
+      new Runnable() {
+        @Override
+        public void run() {
+          unboundedSeq.setInt32Values(src, 0, -1);
+        }
+      });
+
+    final rosidl_generator_java.msg.BoundedSequences boundedSeq =
+        new rosidl_generator_java.msg.BoundedSequences();
+    boundedSeq.setInt32Values(src, 0, 3);
+    assertEquals(3, boundedSeq.getInt32ValuesSize());
+    assertThrows(IllegalArgumentException.class,
+      new Runnable() {
+        @Override
+        public void run() {
+          boundedSeq.setInt32Values(src, 0, 4);
+        }
+      });
+
+    final rosidl_generator_java.msg.Arrays arrays = new rosidl_generator_java.msg.Arrays();
+    arrays.setInt32Values(src, 2, 3);
+    assertArrayEquals(new int[] {3, 4, 5}, arrays.getInt32Values());
+    assertThrows(IllegalArgumentException.class,
+      new Runnable() {
+        @Override
+        public void run() {
+          arrays.setInt32Values(src, 0, 2);
+        }
+      });
+  }
 }